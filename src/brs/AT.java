@@ -10,20 +10,16 @@ package brs;
 import brs.at.AT_API_Helper;
 import brs.at.AT_Controller;
 import brs.at.AT_Machine_State;
+import brs.at.AT_StateCodec;
 import brs.at.AT_Transaction;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
 
 import brs.services.AccountService;
 import brs.util.Listener;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.*;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 public class AT extends AT_Machine_State {
     
@@ -281,40 +277,11 @@ public class AT extends AT_Machine_State {
   }
 
   public static byte[] compressState(byte[] stateBytes) {
-    if (stateBytes == null || stateBytes.length == 0) {
-      return null;
-    }
-
-    try(ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      try(GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
-        gzip.write(stateBytes);
-        gzip.flush();
-      }
-      return bos.toByteArray();
-    }
-    catch (IOException e) {
-      throw new RuntimeException(e.getMessage(), e);
-    }
+    return AT_StateCodec.compress(stateBytes);
   }
 
   public static byte[] decompressState(byte[] stateBytes) {
-    if (stateBytes == null || stateBytes.length == 0) {
-      return null;
-    }
-
-    try(ByteArrayInputStream bis = new ByteArrayInputStream(stateBytes);
-        GZIPInputStream gzip = new GZIPInputStream(bis);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      byte[] buffer = new byte[256];
-      int read;
-      while((read = gzip.read(buffer, 0, buffer.length)) > 0) {
-        bos.write(buffer, 0, read);
-      }
-      bos.flush();
-      return bos.toByteArray();
-    } catch (IOException e) {
-      throw new RuntimeException(e.getMessage(), e);
-    }
+    return AT_StateCodec.decompress(stateBytes);
   }
 
   private final String name;
@@ -362,6 +329,11 @@ public class AT extends AT_Machine_State {
   }
 
   public byte[] getApData() {
-    return getAp_data().array();
+    // the data is a view into the state it was loaded from
+    ByteBuffer data = getAp_data().duplicate();
+    data.clear();
+    byte[] bytes = new byte[data.remaining()];
+    data.get(bytes);
+    return bytes;
   }
 }
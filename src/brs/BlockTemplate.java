@@ -0,0 +1,82 @@
+package brs;
+
+import java.util.Collections;
+import java.util.SortedSet;
+
+/**
+ * A validated selection of unconfirmed transactions for the block following {@link #getPreviousBlockId()},
+ * kept ready so forging does not have to assemble it when a deadline is reached.
+ */
+final class BlockTemplate {
+
+  private final long previousBlockId;
+  private final int timestamp;
+  private final SortedSet<Transaction> transactions;
+  private final long totalAmountNQT;
+  private final long totalFeeNQT;
+  private final int remainingPayloadSize;
+  private final long subscriptionFeesNQT;
+
+  BlockTemplate(long previousBlockId, int timestamp, SortedSet<Transaction> transactions, long totalAmountNQT, long totalFeeNQT,
+      int remainingPayloadSize, long subscriptionFeesNQT) {
+    this.previousBlockId = previousBlockId;
+    this.timestamp = timestamp;
+    this.transactions = Collections.unmodifiableSortedSet(transactions);
+    this.totalAmountNQT = totalAmountNQT;
+    this.totalFeeNQT = totalFeeNQT;
+    this.remainingPayloadSize = remainingPayloadSize;
+    this.subscriptionFeesNQT = subscriptionFeesNQT;
+  }
+
+  long getPreviousBlockId() {
+    return previousBlockId;
+  }
+
+  /**
+   * @return The block timestamp the template was assembled for
+   */
+  int getTimestamp() {
+    return timestamp;
+  }
+
+  SortedSet<Transaction> getTransactions() {
+    return transactions;
+  }
+
+  long getTotalAmountNQT() {
+    return totalAmountNQT;
+  }
+
+  long getTotalFeeNQT() {
+    return totalFeeNQT;
+  }
+
+  int getRemainingPayloadSize() {
+    return remainingPayloadSize;
+  }
+
+  /**
+   * @return The fees of the subscriptions due at {@link #getTimestamp()}
+   */
+  long getSubscriptionFeesNQT() {
+    return subscriptionFeesNQT;
+  }
+
+  /**
+   * A template stays usable for a later block timestamp on the same previous block, as long as none of its transactions expired meanwhile
+   */
+  boolean isUsableFor(Block previousBlock, int blockTimestamp) {
+    if (previousBlock.getId() != previousBlockId || blockTimestamp < timestamp) {
+      return false;
+    }
+
+    for (Transaction transaction : transactions) {
+      if (transaction.getExpiration() < blockTimestamp) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+}
@@ -4,6 +4,8 @@ import brs.peer.Peer;
 import brs.util.Observable;
 import org.json.simple.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 public interface BlockchainProcessor extends Observable<Block, BlockchainProcessor.Event> {
@@ -27,6 +29,12 @@ public interface BlockchainProcessor extends Observable<Block, BlockchainProcess
 
   void fullReset();
 
+  /**
+   * Writes a snapshot of the blockchain and the derived tables at the current height to the snapshot directory.
+   * @return The snapshot file
+   */
+  File exportSnapshot() throws IOException;
+
   void generateBlock(String secretPhrase, byte[] publicKey, Long nonce)
       throws BlockNotAcceptedException;
 
@@ -23,6 +23,8 @@ import brs.transactionduplicates.TransactionDuplicatesCheckerImpl;
 import brs.unconfirmedtransactions.UnconfirmedTransactionStore;
 import brs.util.ThreadPool;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -56,7 +58,9 @@ import brs.util.DownloadCacheImpl;
 import brs.util.JSON;
 import brs.util.Listener;
 import brs.util.Listeners;
+import brs.db.sql.BlockFileStore;
 import brs.db.sql.Db;
+import brs.db.sql.DbSnapshot;
 import org.jooq.DSLContext;
 
 public final class BlockchainProcessorImpl implements BlockchainProcessor {
@@ -89,6 +93,9 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
   private boolean trimDerivedTables;
   private volatile int lastTrimHeight;
+  private final DerivedTableTrimmer derivedTableTrimmer;
+  private final File snapshotDir;
+  private final int snapshotVerifyBlocks;
 
   private final Listeners<Block, Event> blockListeners = new Listeners<>();
   private volatile Peer lastBlockchainFeeder;
@@ -103,6 +110,9 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
   private Integer ttsd;
 
+  private volatile BlockTemplate blockTemplate;
+  private volatile boolean blockTemplateOutdated = true;
+
   private final Runnable debugInfoThread = () -> {
     logger.info("Unverified blocks: " + downloadCache.getUnverifiedSize());
     logger.info("Blocks in cache: " + downloadCache.size());
@@ -169,18 +179,26 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     }, Event.BLOCK_PUSHED);
 
     blockListeners.addListener(block -> {
-      transactionProcessor.revalidateUnconfirmedTransactions();
+      transactionProcessor.revalidateUnconfirmedTransactions(block);
     }, Event.BLOCK_PUSHED);
 
+    blockListeners.addListener(block -> blockTemplateOutdated = true, Event.BLOCK_PUSHED);
+    blockListeners.addListener(block -> blockTemplateOutdated = true, Event.BLOCK_POPPED);
+    transactionProcessor.addListener(transactions -> blockTemplateOutdated = true, TransactionProcessor.Event.ADDED_UNCONFIRMED_TRANSACTIONS);
+
     if (trimDerivedTables) {
+      derivedTableTrimmer = new DerivedTableTrimmer(derivedTableManager, stores, transactionProcessor.getUnconfirmedTransactionsSyncObj(),
+          propertyService.getInt(Props.DB_TRIM_CHUNK_SIZE));
       blockListeners.addListener(block -> {
         if (block.getHeight() % 1440 == 0) {
           lastTrimHeight = Math.max(block.getHeight() - Constants.MAX_ROLLBACK, 0);
           if (lastTrimHeight > 0) {
-            this.derivedTableManager.getDerivedTables().forEach(table -> table.trim(lastTrimHeight));
+            derivedTableTrimmer.trimTo(lastTrimHeight);
           }
         }
       }, Event.AFTER_BLOCK_APPLY);
+    } else {
+      derivedTableTrimmer = null;
     }
     // No-op
     // blockListeners.addListener(new Listener<Block>() {
@@ -190,8 +208,15 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     // }
     // }, Event.RESCAN_END);
 
+    snapshotDir = new File(propertyService.getString(Props.BRS_SNAPSHOT_DIR));
+    snapshotVerifyBlocks = Math.min(propertyService.getInt(Props.BRS_SNAPSHOT_VERIFY_BLOCKS), Constants.MAX_ROLLBACK);
+    final String snapshotImport = propertyService.getString(Props.BRS_SNAPSHOT_IMPORT);
+
     threadPool.runBeforeStart(() -> {
       addGenesisBlock();
+      if (! snapshotImport.isEmpty()) {
+        importSnapshotAtStart(new File(snapshotImport));
+      }
       if (forceScan) {
         scan(0);
       }
@@ -199,6 +224,13 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
 
     threadPool.scheduleThread("GetMoreBlocks", getMoreBlocksThread, 2);
     threadPool.scheduleThread("ImportBlocks", blockImporterThread, 10);
+    threadPool.scheduleThread("BuildBlockTemplate", blockTemplateThread, 1);
+    if (trimDerivedTables) {
+      threadPool.scheduleThread("TrimDerivedTables", derivedTableTrimmer, 1);
+    }
+    if (Db.getBlockFileStore() != null) {
+      threadPool.scheduleThread("CatchUpBlockFiles", blockFileCatchUpThread, 10);
+    }
     if (propertyService.getBoolean(Props.GPU_ACCELERATION)) {
       logger.debug("Starting preverifier thread in Open CL mode.");
       threadPool.scheduleThread("VerifyPoc", pocVerificationThread, 9);
@@ -210,6 +242,19 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     // ThreadPool.scheduleThread("Info", debugInfoThread, 5);
   }
 
+  private final Runnable blockFileCatchUpThread = () -> {
+    BlockFileStore blockFileStore = Db.getBlockFileStore();
+    int copied;
+    do {
+      synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+        copied = blockFileStore.catchUp(blockDb, blockchain.getHeight(), 100);
+      }
+      if (copied > 0 && blockFileStore.getHeight() % 10000 < copied) {
+        logger.info("Copied blocks to block files up to height " + blockFileStore.getHeight());
+      }
+    } while (copied > 0 && ! Thread.currentThread().isInterrupted() && ThreadPool.running.get());
+  };
+
   private final Runnable pocVerificationThread = () -> {
     boolean verifyWithOcl;
     int queueThreshold = oclVerify ? oclUnverifiedQueue : 0;
@@ -272,6 +317,24 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     }
   };
 
+  private final Runnable blockTemplateThread = () -> {
+    // only nodes which are forging need a block template
+    if (! blockTemplateOutdated || generator.getAllGenerators().isEmpty()) {
+      return;
+    }
+
+    blockTemplateOutdated = false;
+
+    try {
+      synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+        blockTemplate = assembleBlockTemplate(blockchain.getLastBlock(), timeService.getEpochTime());
+      }
+    } catch (RuntimeException e) {
+      blockTemplateOutdated = true;
+      logger.debug("Error assembling block template", e);
+    }
+  };
+
   private final Runnable blockImporterThread = () -> {
     while (!Thread.interrupted() && ThreadPool.running.get() && downloadCache.size() > 0) {
       try {
@@ -780,12 +843,95 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
   public void fullReset() {
     // blockDb.deleteBlock(Genesis.GENESIS_BLOCK_ID); // fails with stack overflow in H2
     blockDb.deleteAll(false);
-    dbCacheManager.flushCache();
-    downloadCache.resetCache();
+    flushCaches();
     addGenesisBlock();
     scan(0);
   }
 
+  @Override
+  public File exportSnapshot() throws IOException {
+    if (! snapshotDir.isDirectory() && ! snapshotDir.mkdirs()) {
+      throw new IOException("Could not create snapshot directory " + snapshotDir);
+    }
+    synchronized (downloadCache) {
+      synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+        Block lastBlock = blockchain.getLastBlock();
+        File file = new File(snapshotDir, "snapshot-" + lastBlock.getHeight() + ".brs.gz");
+        DbSnapshot.export(file, lastBlock.getHeight(), lastBlock.getId());
+        return file;
+      }
+    }
+  }
+
+  private void importSnapshotAtStart(File file) {
+    if (blockchain.getHeight() > 0) {
+      logger.info("Blockchain is at height " + blockchain.getHeight() + ", not importing snapshot " + file);
+      return;
+    }
+    try {
+      importSnapshot(file);
+    } catch (IOException | RuntimeException | BlockNotAcceptedException e) {
+      logger.error("Could not import snapshot " + file + ", starting from genesis", e);
+      blockDb.deleteAll(false);
+      flushCaches();
+      addGenesisBlock();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void importSnapshot(File file) throws IOException, BlockNotAcceptedException, InterruptedException {
+    DbSnapshot.Header header = DbSnapshot.verify(file);
+    logger.info("Importing snapshot " + file + " at height " + header.getHeight());
+    synchronized (downloadCache) {
+      synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+        try {
+          stores.beginTransaction();
+          blockDb.deleteAll(false);
+          DbSnapshot.importInto(file);
+          stores.commitTransaction();
+        } catch (IOException | RuntimeException e) {
+          stores.rollbackTransaction();
+          throw e;
+        } finally {
+          stores.endTransaction();
+        }
+        flushCaches();
+        Block lastBlock = blockDb.findLastBlock();
+        blockchain.setLastBlock(lastBlock);
+        if (lastBlock.getId() != header.getLastBlockId() || lastBlock.getHeight() != header.getHeight()) {
+          throw new IOException("Snapshot ends with block " + lastBlock.getStringId() + " at height " + lastBlock.getHeight()
+              + ", expected height " + header.getHeight());
+        }
+      }
+    }
+
+    // apply the last blocks again, they have to lead to exactly the state the snapshot was taken with
+    int verifyHeight = Math.max(header.getHeight() - snapshotVerifyBlocks, 0);
+    List<Block> poppedOffBlocks = popOffTo(verifyHeight);
+    for (int i = poppedOffBlocks.size() - 1; i >= 0; i--) {
+      Block block = poppedOffBlocks.get(i);
+      blockService.preVerify(block);
+      pushBlock(block);
+    }
+    if (! Arrays.equals(DbSnapshot.stateDigest(), header.getStateDigest())) {
+      throw new IOException("State after applying blocks " + (verifyHeight + 1) + " to " + header.getHeight() + " does not match the snapshot");
+    }
+    logger.info("Snapshot imported and verified by applying " + poppedOffBlocks.size() + " blocks, continuing from height " + header.getHeight());
+  }
+
+  private void flushCaches() {
+    dbCacheManager.flushCache();
+    stores.getAccountStore().getAccountTable().flushCache();
+    stores.getOrderStore().flushCache();
+    stores.getAtStore().flushCache();
+    stores.getEscrowStore().flushCache();
+    stores.getSubscriptionStore().flushCache();
+    stores.getDigitalGoodsStoreStore().flushCache();
+    stores.getAliasStore().flushCache();
+    downloadCache.resetCache();
+  }
+
   @Override
   public void forceScanAtStart() {
     forceScan = true;
@@ -993,7 +1139,6 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         blockService.setPrevious(block, previousLastBlock);
         blockListeners.notify(block, Event.BEFORE_BLOCK_ACCEPT);
         transactionProcessor.removeForgedTransactions(block.getTransactions());
-        transactionProcessor.requeueAllUnconfirmedTransactions();
         accountService.flushAccountTable();
         addBlock(block);
         downloadCache.removeBlock(block); //We make sure downloadCache do not have this block anymore.
@@ -1092,6 +1237,7 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
           dbCacheManager.flushCache();
           stores.commitTransaction();
           downloadCache.resetCache();
+          transactionProcessor.requeueAllUnconfirmedTransactions();
         } catch (RuntimeException e) {
           stores.rollbackTransaction();
           logger.debug("Error popping off to " + commonBlock.getHeight(), e);
@@ -1126,97 +1272,30 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     synchronized (downloadCache) {
       downloadCache.lockCache(); //stop all incoming blocks.
       UnconfirmedTransactionStore unconfirmedTransactionStore = stores.getUnconfirmedTransactionStore();
-      SortedSet<Transaction> orderedBlockTransactions = new TreeSet<>();
-
-      int blockSize   = Burst.getFluxCapacitor().getInt(FluxInt.MAX_NUMBER_TRANSACTIONS);
-      int payloadSize = Burst.getFluxCapacitor().getInt(FluxInt.MAX_PAYLOAD_LENGTH);
-
-      long totalAmountNQT = 0;
-      long totalFeeNQT = 0;
 
       final Block previousBlock = blockchain.getLastBlock();
       final int blockTimestamp = timeService.getEpochTime();
 
-      // this is just an validation. which collects all valid transactions, which fit into the block
-      // finally all stuff is reverted so nothing is written to the db
-      // the block itself with all transactions we found is pushed using pushBlock which calls
-      // accept (so it's going the same way like a received/synced block)
-      try {
-        stores.beginTransaction();
-
-        final TransactionDuplicatesCheckerImpl transactionDuplicatesChecker = new TransactionDuplicatesCheckerImpl();
-
-        List<Transaction> unconfirmedTransactionsOrderedByFee = unconfirmedTransactionStore.getAll().stream().filter(
-            transaction ->
-              transaction.getVersion() == transactionProcessor.getTransactionVersion(previousBlock.getHeight())
-                  && transaction.getExpiration() >= blockTimestamp
-                  && transaction.getTimestamp()  <= blockTimestamp + MAX_TIMESTAMP_DIFFERENCE
-                  && (
-                      ! Burst.getFluxCapacitor().isActive(FeatureToggle.AUTOMATED_TRANSACTION_BLOCK)
-                          || economicClustering.verifyFork(transaction)
-                  )
-        ).collect(Collectors.toList());
-        unconfirmedTransactionsOrderedByFee.sort((o2, o1) -> ((Long) o1.getFeeNQT()).compareTo(o2.getFeeNQT()));
-
-        COLLECT_TRANSACTIONS: for (Transaction transaction : unconfirmedTransactionsOrderedByFee) {
-          boolean transactionHasBeenHandled = false;
-          while ( ! transactionHasBeenHandled ) {
-            if ( blockSize <= 0 || payloadSize <= 0 ) {
-              break COLLECT_TRANSACTIONS;
-            }
-            else if ( transaction.getSize() > payloadSize ) {
-              continue COLLECT_TRANSACTIONS;
-            }
+      BlockTemplate template = blockTemplate;
+      long subscriptionFeesNQT;
 
-            Long slotFee = Burst.getFluxCapacitor().isActive(PRE_DYMAXION) ? (forgeFatBlocks ? 1 : blockSize) * FEE_QUANT : ONE_BURST;
-            if (transaction.getFeeNQT() >= slotFee) {
-              // transaction can only be handled if all referenced ones exist
-              if (hasAllReferencedTransactions(transaction, transaction.getTimestamp(), 0)) {
-                // handle non- duplicates and transactions which can be applied
-                if (! transactionDuplicatesChecker.hasAnyDuplicate(transaction) && ! transactionDb.hasTransaction(transaction.getId()) && transactionService.applyUnconfirmed(transaction)) {
-                  try {
-                    transactionService.validate(transaction);
-                    payloadSize -= transaction.getSize();
-                    blockSize--;
-
-                    totalAmountNQT += transaction.getAmountNQT();
-                    totalFeeNQT += transaction.getFeeNQT();
-
-                    orderedBlockTransactions.add(transaction);
-                  } catch (BurstException.NotCurrentlyValidException e) {
-                    transactionService.undoUnconfirmed(transaction);
-                  } catch (BurstException.ValidationException e) {
-                    unconfirmedTransactionStore.remove(transaction);
-                    transactionService.undoUnconfirmed(transaction);
-                  }
-                }
-                else {
-                  // drop duplicates and those transactions which can not be applied
-                  unconfirmedTransactionStore.remove(transaction);
-                }
-              }
-              // handled by a real handling or by discarding the transaction
-              transactionHasBeenHandled = true;
-            }
-            else {
-              blockSize--;
-            }
-          }
+      synchronized (transactionProcessor.getUnconfirmedTransactionsSyncObj()) {
+        if (template == null || ! template.isUsableFor(previousBlock, blockTimestamp)) {
+          logger.debug("No usable block template for height {}, assembling one now", previousBlock.getHeight() + 1);
+          template = assembleBlockTemplate(previousBlock, blockTimestamp);
         }
 
-        if (subscriptionService.isEnabled()) {
-          subscriptionService.clearRemovals();
-          totalFeeNQT += subscriptionService.calculateFees(blockTimestamp);
+        if (template.getTimestamp() == blockTimestamp) {
+          subscriptionFeesNQT = template.getSubscriptionFeesNQT();
+        } else {
+          subscriptionFeesNQT = calculateSubscriptionFees(template.getTransactions(), blockTimestamp);
         }
       }
-      catch (Exception e) {
-        stores.rollbackTransaction();
-        throw e;
-      }
-      finally {
-        stores.rollbackTransaction();
-        stores.endTransaction();
-      }
+
+      SortedSet<Transaction> orderedBlockTransactions = template.getTransactions();
+      long totalAmountNQT = template.getTotalAmountNQT();
+      long totalFeeNQT = template.getTotalFeeNQT() + subscriptionFeesNQT;
+      int payloadSize = template.getRemainingPayloadSize();
 
       // final byte[] publicKey = Crypto.getPublicKey(secretPhrase);
 
@@ -1269,6 +1348,8 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
         Transaction transaction = e.getTransaction();
         logger.debug("Removing invalid transaction: " + transaction.getStringId());
         unconfirmedTransactionStore.remove(transaction);
+        blockTemplate = null;
+        blockTemplateOutdated = true;
         throw e;
       } catch (BlockNotAcceptedException e) {
         logger.debug("Generate block failed: " + e.getMessage());
@@ -1277,6 +1358,126 @@ public final class BlockchainProcessorImpl implements BlockchainProcessor {
     } //end synchronized cache
   }
 
+  private BlockTemplate assembleBlockTemplate(Block previousBlock, int blockTimestamp) {
+    UnconfirmedTransactionStore unconfirmedTransactionStore = stores.getUnconfirmedTransactionStore();
+    SortedSet<Transaction> orderedBlockTransactions = new TreeSet<>();
+
+    int blockSize   = Burst.getFluxCapacitor().getInt(FluxInt.MAX_NUMBER_TRANSACTIONS);
+    int payloadSize = Burst.getFluxCapacitor().getInt(FluxInt.MAX_PAYLOAD_LENGTH);
+
+    long totalAmountNQT = 0;
+    long totalFeeNQT = 0;
+    long subscriptionFeesNQT = 0;
+
+    // this is just an validation. which collects all valid transactions, which fit into the block
+    // finally all stuff is reverted so nothing is written to the db
+    // the block itself with all transactions we found is pushed using pushBlock which calls
+    // accept (so it's going the same way like a received/synced block)
+    try {
+      stores.beginTransaction();
+
+      final TransactionDuplicatesCheckerImpl transactionDuplicatesChecker = new TransactionDuplicatesCheckerImpl();
+
+      List<Transaction> unconfirmedTransactionsOrderedByFee = unconfirmedTransactionStore.getAll().stream().filter(
+          transaction ->
+            transaction.getVersion() == transactionProcessor.getTransactionVersion(previousBlock.getHeight())
+                && transaction.getExpiration() >= blockTimestamp
+                && transaction.getTimestamp()  <= blockTimestamp + MAX_TIMESTAMP_DIFFERENCE
+                && (
+                    ! Burst.getFluxCapacitor().isActive(FeatureToggle.AUTOMATED_TRANSACTION_BLOCK)
+                        || economicClustering.verifyFork(transaction)
+                )
+      ).collect(Collectors.toList());
+      unconfirmedTransactionsOrderedByFee.sort((o2, o1) -> ((Long) o1.getFeeNQT()).compareTo(o2.getFeeNQT()));
+
+      COLLECT_TRANSACTIONS: for (Transaction transaction : unconfirmedTransactionsOrderedByFee) {
+        boolean transactionHasBeenHandled = false;
+        while ( ! transactionHasBeenHandled ) {
+          if ( blockSize <= 0 || payloadSize <= 0 ) {
+            break COLLECT_TRANSACTIONS;
+          }
+          else if ( transaction.getSize() > payloadSize ) {
+            continue COLLECT_TRANSACTIONS;
+          }
+
+          Long slotFee = Burst.getFluxCapacitor().isActive(PRE_DYMAXION) ? (forgeFatBlocks ? 1 : blockSize) * FEE_QUANT : ONE_BURST;
+          if (transaction.getFeeNQT() >= slotFee) {
+            // transaction can only be handled if all referenced ones exist
+            if (hasAllReferencedTransactions(transaction, transaction.getTimestamp(), 0)) {
+              // handle non- duplicates and transactions which can be applied
+              if (! transactionDuplicatesChecker.hasAnyDuplicate(transaction) && ! transactionDb.hasTransaction(transaction.getId()) && transactionService.applyUnconfirmed(transaction)) {
+                try {
+                  transactionService.validate(transaction);
+                  payloadSize -= transaction.getSize();
+                  blockSize--;
+
+                  totalAmountNQT += transaction.getAmountNQT();
+                  totalFeeNQT += transaction.getFeeNQT();
+
+                  orderedBlockTransactions.add(transaction);
+                } catch (BurstException.NotCurrentlyValidException e) {
+                  transactionService.undoUnconfirmed(transaction);
+                } catch (BurstException.ValidationException e) {
+                  unconfirmedTransactionStore.remove(transaction);
+                  transactionService.undoUnconfirmed(transaction);
+                }
+              }
+              else {
+                // drop duplicates and those transactions which can not be applied
+                unconfirmedTransactionStore.remove(transaction);
+              }
+            }
+            // handled by a real handling or by discarding the transaction
+            transactionHasBeenHandled = true;
+          }
+          else {
+            blockSize--;
+          }
+        }
+      }
+
+      if (subscriptionService.isEnabled()) {
+        subscriptionService.clearRemovals();
+        subscriptionFeesNQT = subscriptionService.calculateFees(blockTimestamp);
+      }
+    }
+    catch (Exception e) {
+      stores.rollbackTransaction();
+      throw e;
+    }
+    finally {
+      stores.rollbackTransaction();
+      stores.endTransaction();
+    }
+
+    return new BlockTemplate(previousBlock.getId(), blockTimestamp, orderedBlockTransactions, totalAmountNQT, totalFeeNQT, payloadSize, subscriptionFeesNQT);
+  }
+
+  /**
+   * The subscriptions due depend on the block timestamp and on the balances left by the block's transactions,
+   * so for a template assembled earlier they get recalculated on top of its transactions
+   */
+  private long calculateSubscriptionFees(SortedSet<Transaction> blockTransactions, int blockTimestamp) {
+    if (! subscriptionService.isEnabled()) {
+      return 0;
+    }
+
+    try {
+      stores.beginTransaction();
+
+      for (Transaction transaction : blockTransactions) {
+        transactionService.applyUnconfirmed(transaction);
+      }
+
+      subscriptionService.clearRemovals();
+      return subscriptionService.calculateFees(blockTimestamp);
+    }
+    finally {
+      stores.rollbackTransaction();
+      stores.endTransaction();
+    }
+  }
+
   private boolean hasAllReferencedTransactions(Transaction transaction, int timestamp, int count) {
     if (transaction.getReferencedTransactionFullHash() == null) {
       return timestamp - transaction.getTimestamp() < 60 * 1440 * 60 && count < 10;
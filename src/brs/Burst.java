@@ -4,6 +4,8 @@ import static brs.schema.Tables.UNCONFIRMED_TRANSACTION;
 
 import brs.AT.HandleATBlockTransactionsListener;
 import brs.GeneratorImpl.MockGeneratorImpl;
+import brs.at.AT_Controller;
+import brs.at.AT_StateCodec;
 import brs.assetexchange.AssetExchange;
 import brs.assetexchange.AssetExchangeImpl;
 import brs.blockchainlistener.DevNullListener;
@@ -188,13 +190,14 @@ public final class Burst {
       final DerivedTableManager derivedTableManager = new DerivedTableManager();
 
       final StatisticsManagerImpl statisticsManager = new StatisticsManagerImpl(timeService);
-      dbCacheManager = new DBCacheManagerImpl(statisticsManager);
+      dbCacheManager = new DBCacheManagerImpl(statisticsManager, propertyService);
 
       threadPool = new ThreadPool(propertyService);
 
       LoggerConfigurator.init();
 
       Db.init(propertyService, dbCacheManager);
+      AT_StateCodec.init(propertyService.getString(Props.DB_AT_STATE_CODEC));
       dbs = Db.getDbsByDatabaseType();
 
       stores = new Stores(derivedTableManager, dbCacheManager, timeService, propertyService);
@@ -257,6 +260,8 @@ public final class Burst {
 
       DebugTrace.init(propertyService, blockchainProcessor, accountService, assetExchange, digitalGoodsStoreService);
 
+      AT_Controller.init(propertyService.getInt(Props.CPU_AT_THREADS));
+
       // backward compatibility for those who have some unconfirmed transactions in their db
       try {
         stores.beginTransaction();
@@ -347,6 +352,7 @@ public final class Burst {
       api.shutdown();
     Peers.shutdown(threadPool);
     threadPool.shutdown();
+    AT_Controller.shutdown();
     if(! ignoreDBShutdown) {
       Db.shutdown();
     }
@@ -0,0 +1,122 @@
+package brs;
+
+import brs.db.DerivedTable;
+import brs.db.store.DerivedTableManager;
+import brs.db.store.Stores;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trims the derived tables in the background, in chunks of a limited number of keys per table.
+ * Each chunk continues in key order after the previous one. The keys of a chunk are selected
+ * without the block import lock, which is only taken for deleting them, so block processing
+ * is never held up by more than the deletes of one chunk.
+ */
+final class DerivedTableTrimmer implements Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(DerivedTableTrimmer.class);
+
+  private static final long TIME_SLICE_MS = 500;
+
+  private final DerivedTableManager derivedTableManager;
+  private final Stores stores;
+  private final Object importLock;
+  private final int chunkSize;
+
+  private volatile int targetHeight;
+  // height each table has been completely trimmed to
+  private final Map<DerivedTable, Integer> trimmedHeights = new ConcurrentHashMap<>();
+  // last key trimmed of the tables not completely trimmed yet, and the height that was for
+  private final Map<DerivedTable, long[]> trimCursors = new ConcurrentHashMap<>();
+  private final Map<DerivedTable, Integer> trimCursorHeights = new ConcurrentHashMap<>();
+
+  // statistics of the current trim round, reported once all tables are done
+  private int trimmedChunks;
+  private long trimmedRows;
+  private long timeSpentMs;
+
+  DerivedTableTrimmer(DerivedTableManager derivedTableManager, Stores stores, Object importLock, int chunkSize) {
+    this.derivedTableManager = derivedTableManager;
+    this.stores = stores;
+    this.importLock = importLock;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Requests all derived tables to be trimmed below height, the work is done by subsequent runs.
+   */
+  void trimTo(int height) {
+    if (height > targetHeight) {
+      targetHeight = height;
+    }
+  }
+
+  @Override
+  public void run() {
+    final int height = targetHeight;
+    if (height <= 0) {
+      return;
+    }
+
+    final long start = System.currentTimeMillis();
+    final long deadline = start + TIME_SLICE_MS;
+    boolean done = true;
+
+    for (DerivedTable table : derivedTableManager.getDerivedTables()) {
+      while (trimmedHeights.getOrDefault(table, 0) < height) {
+        if (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()) {
+          done = false;
+          break;
+        }
+        if (trimCursorHeights.getOrDefault(table, 0) != height) {
+          // keys already passed may have more to trim below a higher height, start over
+          trimCursors.remove(table);
+          trimCursorHeights.put(table, height);
+        }
+        DerivedTable.TrimChunk chunk = table.selectTrimChunk(height, trimCursors.get(table), chunkSize);
+        trimmedChunks++;
+        trimmedRows += trimChunk(table, chunk);
+        if (chunk.isLast()) {
+          trimmedHeights.put(table, height);
+          trimCursors.remove(table);
+        } else {
+          trimCursors.put(table, chunk.getLastKey());
+        }
+      }
+      if (! done) {
+        break;
+      }
+    }
+
+    timeSpentMs += System.currentTimeMillis() - start;
+
+    if (done && trimmedChunks > 0) {
+      logger.info("Trimmed {} rows from derived tables below height {} in {} chunks, {} ms", trimmedRows, height, trimmedChunks, timeSpentMs);
+      trimmedChunks = 0;
+      trimmedRows = 0;
+      timeSpentMs = 0;
+    }
+  }
+
+  private int trimChunk(DerivedTable table, DerivedTable.TrimChunk chunk) {
+    if (chunk.size() == 0) {
+      return 0;
+    }
+    synchronized (importLock) {
+      try {
+        stores.beginTransaction();
+        int deleted = table.trim(chunk);
+        stores.commitTransaction();
+        return deleted;
+      } catch (RuntimeException e) {
+        stores.rollbackTransaction();
+        throw e;
+      } finally {
+        stores.endTransaction();
+      }
+    }
+  }
+
+}
@@ -22,6 +22,11 @@ public interface TransactionProcessor extends Observable<List<? extends Transact
   List<Transaction> getAllUnconfirmedTransactionsFor(Peer peer);
 
   void markFingerPrintsOf(Peer peer, List<Transaction> transactions);
+
+  /**
+   * @return The unconfirmed balance of the account minus what its unconfirmed transactions already reserved
+   */
+  long getSpendableBalanceNQT(Account account);
   
   Transaction getUnconfirmedTransaction(long transactionId);
 
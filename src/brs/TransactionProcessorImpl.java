@@ -18,6 +18,7 @@ import brs.util.Listener;
 import brs.util.Listeners;
 import brs.util.ThreadPool;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -47,6 +48,9 @@ public class TransactionProcessorImpl implements TransactionProcessor {
   private Blockchain blockchain;
   private AccountService accountService;
   private UnconfirmedTransactionStore unconfirmedTransactionStore;
+  private final Set<Long> touchedAccountIds = ConcurrentHashMap.newKeySet();
+  private final int fullRevalidationInterval;
+  private int blocksSinceFullRevalidation;
   private Function<Peer, List<Transaction>> foodDispenser = (peer -> unconfirmedTransactionStore.getAllFor(peer));
   private BiConsumer<Peer, List<Transaction>> doneFeedingLog = ((peer, transactions) -> unconfirmedTransactionStore.markFingerPrintsOf(peer, transactions));
 
@@ -65,8 +69,13 @@ public class TransactionProcessorImpl implements TransactionProcessor {
     this.transactionService = transactionService;
 
     this.testUnconfirmedTransactions = propertyService.getBoolean(Props.BRS_TEST_UNCONFIRMED_TRANSACTIONS);
+    this.fullRevalidationInterval = Math.max(1, propertyService.getInt(Props.P2P_UNCONFIRMED_TRANSACTIONS_FULL_REVALIDATION_INTERVAL));
 
     this.unconfirmedTransactionStore = stores.getUnconfirmedTransactionStore();
+    accountService.addListener(account -> touchedAccountIds.add(account.getId()), Account.Event.UNCONFIRMED_BALANCE);
+    accountService.addListener(account -> touchedAccountIds.add(account.getId()), Account.Event.UNCONFIRMED_ASSET_BALANCE);
+    Peers.addListener(peer -> unconfirmedTransactionStore.removePeer(peer), Peers.Event.REMOVE);
+    Peers.addListener(peer -> unconfirmedTransactionStore.removePeer(peer), Peers.Event.BLACKLIST);
     threadPool.scheduleThread("PullUnconfirmedTransactions", getUnconfirmedTransactions, 5);
   }
 
@@ -167,6 +176,15 @@ public class TransactionProcessorImpl implements TransactionProcessor {
     unconfirmedTransactionStore.markFingerPrintsOf(peer, transactions);
   }
 
+  @Override
+  public long getSpendableBalanceNQT(Account account) {
+    if (account == null) {
+      return 0;
+    }
+
+    return account.getUnconfirmedBalanceNQT() - unconfirmedTransactionStore.getReservedBalanceNQT(account.getId());
+  }
+
   @Override
   public Transaction getUnconfirmedTransaction(long transactionId) {
     return unconfirmedTransactionStore.get(transactionId);
@@ -256,6 +274,7 @@ public class TransactionProcessorImpl implements TransactionProcessor {
 
   void requeueAllUnconfirmedTransactions() {
     synchronized (unconfirmedTransactionsSyncObj) {
+      touchedAccountIds.clear();
       unconfirmedTransactionStore.resetAccountBalances();
     }
   }
@@ -377,10 +396,25 @@ public class TransactionProcessorImpl implements TransactionProcessor {
     return peersToSendTo.size();
   }
 
-  public void revalidateUnconfirmedTransactions() {
+  public void revalidateUnconfirmedTransactions(Block block) {
+    synchronized (unconfirmedTransactionsSyncObj) {
+      final List<Long> accountIds = new ArrayList<>(touchedAccountIds);
+      touchedAccountIds.removeAll(accountIds);
+      unconfirmedTransactionStore.resetAccountBalances(accountIds);
+
+      if (++blocksSinceFullRevalidation >= fullRevalidationInterval) {
+        blocksSinceFullRevalidation = 0;
+        revalidateUnconfirmedTransactions(unconfirmedTransactionStore.getAll());
+      } else {
+        revalidateUnconfirmedTransactions(unconfirmedTransactionStore.getAllAffectedBy(block.getTransactions(), accountIds));
+      }
+    }
+  }
+
+  private void revalidateUnconfirmedTransactions(List<Transaction> transactions) {
     final List<Transaction> invalidTransactions = new ArrayList<>();
 
-    for(Transaction t: unconfirmedTransactionStore.getAll()) {
+    for(Transaction t: transactions) {
       try {
         this.transactionService.validate(t);
       } catch (ValidationException e) {
@@ -794,7 +794,7 @@ public class AT_API_Impl implements AT_API {
 
     try {
       MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
-      sha256.update(state.getAp_data().array(), (int)val1, (int)(val2 > 256 ? 256 : val2));
+      sha256.update(state.getAp_data().array(), state.getAp_data().arrayOffset() + (int)val1, (int)(val2 > 256 ? 256 : val2));
       ByteBuffer shab = ByteBuffer.wrap( sha256.digest() );
       shab.order( ByteOrder.LITTLE_ENDIAN );
 
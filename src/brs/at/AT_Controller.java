@@ -15,11 +15,40 @@ import java.nio.ByteOrder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public abstract class AT_Controller {
 
   private static final Logger logger = LoggerFactory.getLogger(AT_Controller.class);
 
+  // runs the machine code of the ATs of a block, null to run it on the calling thread
+  private static ExecutorService executor;
+
+  /**
+   * Sets the number of threads the ATs of a block are run on, 1 runs them one after another.
+   */
+  public static synchronized void init(int threads) {
+    shutdown();
+    if (threads > 1) {
+      executor = Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable, "AT processor");
+        thread.setDaemon(true);
+        return thread;
+      });
+      logger.info("Running ATs on {} threads", threads);
+    }
+  }
+
+  public static synchronized void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
   public static int runSteps( AT_Machine_State state ) {
     state.getMachineState().running = true;
     state.getMachineState().stopped = false;
@@ -107,15 +136,38 @@ public abstract class AT_Controller {
     state.getAp_code().order( ByteOrder.LITTLE_ENDIAN );
     state.getAp_data().order( ByteOrder.LITTLE_ENDIAN );
 
+    // the jumps only depend on the code, which is listed once for all ATs running it
+    AT_Program program = disassembly && determine_jumps ? state.getProgram() : null;
+    if ( program != null && program.getJumps() != null ) {
+      state.getMachineState( ).opc = opc;
+      state.getMachineState( ).jumps.addAll( program.getJumps() );
+      return;
+    }
+    TreeSet< Integer > jumps = state.getMachineState( ).jumps;
+    if ( program != null ) {
+      state.getMachineState( ).jumps = new TreeSet<>();
+    }
+
     state.getMachineState( ).pc = 0;
     state.getMachineState( ).opc = opc;
 
-    while ( true ) {
+    try {
+      while ( true ) {
 
-      int rc = machineProcessor.processOp( disassembly, determine_jumps );
-      if ( rc <= 0 ) break;
+        int rc = machineProcessor.processOp( disassembly, determine_jumps );
+        if ( rc <= 0 ) break;
 
-      state.getMachineState().pc += rc;
+        state.getMachineState().pc += rc;
+      }
+      if ( program != null ) {
+        program.setJumps( state.getMachineState( ).jumps );
+      }
+    }
+    finally {
+      if ( program != null ) {
+        jumps.addAll( state.getMachineState( ).jumps );
+        state.getMachineState( ).jumps = jumps;
+      }
     }
 
     state.getMachineState().steps = osteps;
@@ -245,25 +297,37 @@ public abstract class AT_Controller {
     long totalAmount = 0;
 
     while ( payload <= freePayload - costOfOneAT && keys.hasNext() ) {
-      Long id = keys.next();
-      AT at = AT.getAT( id );
+      // as many ATs as still fit are run at once, ATs failing to run leave room for the next ones
+      List< AT > runnableATs = new ArrayList< >();
+      while ( payload + ( runnableATs.size() + 1 ) * costOfOneAT <= freePayload && keys.hasNext() ) {
+        Long id = keys.next();
+        AT at = AT.getAT( id );
 
-      long atAccountBalance = getATAccountBalance( id );
-      long atStateBalance = at.getG_balance();
+        long atAccountBalance = getATAccountBalance( id );
+        long atStateBalance = at.getG_balance();
 
-      if ( at.freezeOnSameBalance() && (atAccountBalance - atStateBalance < at.minActivationAmount()) ) {
-        continue;
-      }
+        if ( at.freezeOnSameBalance() && (atAccountBalance - atStateBalance < at.minActivationAmount()) ) {
+          continue;
+        }
 
-      if ( atAccountBalance >= AT_Constants.getInstance().STEP_FEE( at.getCreationBlockHeight() )
-           * AT_Constants.getInstance().API_STEP_MULTIPLIER( at.getCreationBlockHeight() ) ) {
-        try {
+        if ( atAccountBalance >= AT_Constants.getInstance().STEP_FEE( at.getCreationBlockHeight() )
+             * AT_Constants.getInstance().API_STEP_MULTIPLIER( at.getCreationBlockHeight() ) ) {
           at.setG_balance( atAccountBalance );
           at.setHeight(blockHeight);
           at.clearTransactions();
           at.setWaitForNumberOfBlocks( at.getSleepBetween() );
-          listCode(at, true, true);
-          runSteps ( at );
+          runnableATs.add( at );
+        }
+      }
+
+      List< Exception > failures = runATs( runnableATs );
+
+      for ( int i = 0; i < runnableATs.size(); i++ ) {
+        AT at = runnableATs.get( i );
+        try {
+          if ( failures.get( i ) != null ) {
+            throw failures.get( i );
+          }
 
           long fee = at.getMachineState().steps * AT_Constants.getInstance().STEP_FEE( at.getCreationBlockHeight() );
           if ( at.getMachineState().dead ) {
@@ -281,7 +345,7 @@ public abstract class AT_Controller {
           }
 
           totalFee += fee;
-          AT.addPendingFee(id, fee);
+          AT.addPendingFee(at.getId(), fee);
 
           payload += costOfOneAT;
 
@@ -323,6 +387,9 @@ public abstract class AT_Controller {
     byte[] md5;
     long totalAmount = 0;
 
+    List< AT > runnableATs = new ArrayList< >();
+    List< Exception > failures = new ArrayList< >();
+
     for ( ByteBuffer atIdBuffer : ats.keySet() ) {
       byte[] atId = atIdBuffer.array();
       AT at = AT.getAT( atId );
@@ -347,10 +414,28 @@ public abstract class AT_Controller {
         }
 
         at.setG_balance( atAccountBalance );
+        runnableATs.add( at );
+      }
+      catch ( Exception e ) {
+        // the ATs before it still have to be checked first
+        failures.add( e );
+        break;
+      }
+    }
 
-        listCode(at, true, true);
+    List< Exception > runFailures = runATs( runnableATs );
+    failures.addAll( 0, runFailures );
 
-        runSteps( at );
+    Iterator< ByteBuffer > atIds = ats.keySet().iterator();
+    for ( int i = 0; i < failures.size(); i++ ) {
+      ByteBuffer atIdBuffer = atIds.next();
+      byte[] atId = atIdBuffer.array();
+
+      try {
+        if ( failures.get( i ) != null ) {
+          throw failures.get( i );
+        }
+        AT at = runnableATs.get( i );
 
         long fee = at.getMachineState().steps * AT_Constants.getInstance().STEP_FEE( at.getCreationBlockHeight() );
         if ( at.getMachineState().dead ) {
@@ -389,6 +474,67 @@ public abstract class AT_Controller {
       return new AT_Block( totalFee, totalAmount, new byte[ 1 ], validated );
   }
 
+  /**
+   * Runs the machine code of the given ATs, in parallel if there are threads for it. An AT only reads its own state,
+   * the balance it was given and past blocks, and its transactions and fees are only applied by the caller, in
+   * block order. The ATs therefore do not see each other and the results are the same as when run one by one.
+   *
+   * The threads read through pooled connections of their own, outside the transaction of the block being pushed or
+   * generated, so they only ever see committed data. That is all the API functions may read anyway: they only look at
+   * blocks and transactions below the height the AT runs at, which were committed with their own blocks, and skip
+   * anything at or above it. A run on the calling thread reads inside the transaction, but is held to the same
+   * heights, so both see the same data.
+   *
+   * @return For every AT the exception it failed with, or null
+   */
+  static List< Exception > runATs( List< ? extends AT_Machine_State > states ) {
+    List< Exception > failures = new ArrayList< >( states.size() );
+    ExecutorService atExecutor;
+    synchronized ( AT_Controller.class ) {
+      atExecutor = executor;
+    }
+    if ( atExecutor == null || states.size() < 2 ) {
+      for ( AT_Machine_State state : states ) {
+        failures.add( runAT( state ) );
+      }
+      return failures;
+    }
+
+    List< Future< Exception > > runs = new ArrayList< >( states.size() );
+    for ( AT_Machine_State state : states ) {
+      runs.add( atExecutor.submit( () -> runAT( state ) ) );
+    }
+    try {
+      for ( Future< Exception > run : runs ) {
+        failures.add( run.get() );
+      }
+    }
+    catch ( InterruptedException e ) {
+      runs.forEach( run -> run.cancel( true ) );
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException( "Interrupted while running ATs", e );
+    }
+    catch ( ExecutionException e ) {
+      runs.forEach( run -> run.cancel( true ) );
+      if ( e.getCause() instanceof Error ) {
+        throw ( Error ) e.getCause();
+      }
+      throw new IllegalStateException( "Running ATs failed", e.getCause() );
+    }
+    return failures;
+  }
+
+  private static Exception runAT( AT_Machine_State state ) {
+    try {
+      listCode( state, true, true );
+      runSteps( state );
+      return null;
+    }
+    catch ( Exception e ) {
+      return e;
+    }
+  }
+
   public static LinkedHashMap< ByteBuffer, byte[] > getATsFromBlock( byte[] blockATs ) throws AT_Exception {
     if ( blockATs.length > 0 ) {
       if ( blockATs.length % (getCostOfOneAT() ) != 0 ) {
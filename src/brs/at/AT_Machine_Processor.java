@@ -7,129 +7,184 @@
 
 package brs.at;
 
+import java.nio.ByteBuffer;
+
 public class AT_Machine_Processor{
 
   protected AT_Machine_State machineData;
   private Fun fun = new Fun();
 
   private int getFun() {
-
-    if (machineData.getMachineState().pc + 2>=machineData.getCsize())
-      return -1;
-    else {
-      fun.fun = (machineData.getAp_code()).getShort(machineData.getMachineState().pc+1);
-    }
-
-    return 0;
+    return fetch(AT_Program.FUN);
   }
 
   private int getAddr(boolean is_code) {
-    if (machineData.getMachineState().pc + 4 >= machineData.getCsize()) {
-      return -1;
+    int position = (machineData.getAp_code()).position();
+    if (is_code) {
+      return fetch(position == 0 ? AT_Program.ADDR_CODE : -1, is_code);
     }
-
-    fun.addr1 = (machineData.getAp_code()).getInt((machineData.getAp_code()).position()+machineData.getMachineState().pc+1);
-    if (!validAddr(fun.addr1, is_code)) {
-      return -1;
+    if (position == 0) {
+      return fetch(AT_Program.ADDR_DATA, is_code);
     }
-
-    return 0;
-  }
-
-  private int getAddrs() {
-    if (machineData.getMachineState().pc + 4 + 4 >= machineData.getCsize()) {
-      return -1;
+    else if (position == 8) {
+      return fetch(AT_Program.ADDR_DATA_AT_8, is_code);
     }
-
-    fun.addr1 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc+1);
-    fun.addr2 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc+1+4);
-    if (!validAddr(fun.addr1, false) || !validAddr(fun.addr2, false)) {
-      return -1;
+    else if (position == 10) {
+      return fetch(AT_Program.ADDR_DATA_AT_10, is_code);
     }
+    return fetch(-1, is_code);
+  }
 
-    return 0;
+  private int getAddrs() {
+    return fetch(AT_Program.ADDRS);
   }
 
   private int getAddrOff() {
-    if (machineData.getMachineState().pc + 5 >= machineData.getCsize()) {
-      return -1;
-    }
-
-    fun.addr1 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc + 1);
-    fun.off   = (machineData.getAp_code()).get(   machineData.getMachineState().pc + 5);
-    //System.out.println(fun.addr1);
-    if (!validAddr(fun.addr1, false) ||
-        !validAddr(machineData.getMachineState().pc+fun.off, true)) {
-      return -1;
-    }
-
-    return 0;
+    return fetch(AT_Program.ADDR_OFF);
   }
 
   private int getAddrsOff() {
-    if (machineData.getMachineState().pc + 9 >= machineData.getCsize()) {
-      return -1;
-    }
-
-    fun.addr1 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc + 1);
-    fun.addr2 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc + 5);
-    fun.off   = (machineData.getAp_code()).get(   machineData.getMachineState().pc + 9);
-
-    if (!validAddr(fun.addr1, false) ||
-        !validAddr(fun.addr2, false) ||
-        !validAddr(machineData.getMachineState().pc+fun.off, true)) {
-      return -1;
-    }
-
-    return 0;
+    return fetch(AT_Program.ADDRS_OFF);
   }
 
   private int getFunAddr() {
-    //System.out.println("pc counter: "+machineData.getMachineState().pc);
-    if (machineData.getMachineState().pc + 4 + 4 >= machineData.getCsize()) {
-      return -1;
-    }
-
-    fun.fun =  (machineData.getAp_code()).getShort( machineData.getMachineState().pc+1);
-    fun.addr1 =  (machineData.getAp_code()).getInt((machineData.getMachineState().pc+1+2));
-    //System.out.println("fun: "+fun.fun+" fun.addr1 :"+fun.addr1);
-    if (!validAddr(fun.addr1, false)) {
-      return -1;
-    }
-
-    return 0;
+    return fetch(AT_Program.FUN_ADDR);
   }
 
   private int getFunAddrs() {
-    if (machineData.getMachineState().pc + 4 + 4 + 2>=machineData.getCsize()) {
-      return -1;
-    }
-
-    fun.fun   = (machineData.getAp_code()).getShort( machineData.getMachineState().pc+1);
-    fun.addr3 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc+1+2);
-    fun.addr2 = (machineData.getAp_code()).getInt(machineData.getMachineState().pc+1+2+4);
+    return fetch(AT_Program.FUN_ADDRS);
+  }
 
-    if (!validAddr(fun.addr3, false) ||
-        !validAddr(fun.addr2, false)) {
-      return -1;
-    }
+  private int getAddressVal() {
+    return fetch(AT_Program.ADDRESS_VAL);
+  }
 
-    return 0;
+  private int fetch(int kind) {
+    return fetch(kind, false);
   }
 
-  private int getAddressVal() {
-    if (machineData.getMachineState().pc + 4 + 8>=machineData.getCsize()) {
-      return -1;
+  /**
+   * Sets the operands of the instruction at pc as decoded before, decoding them if they were not.
+   *
+   * @param kind the way the operands are read, -1 to not cache them
+   * @return 0 if the operands are valid, -1 otherwise
+   */
+  private int fetch(int kind, boolean is_code) {
+    int pc = machineData.getMachineState().pc;
+    AT_Program program = machineData.getProgram();
+    AT_Program.Operands decoded = kind >= 0 ? program.getOperands(kind, pc) : null;
+    if (decoded == null) {
+      decoded = decode(kind, is_code);
+      if (kind >= 0) {
+        program.setOperands(kind, pc, decoded);
+      }
     }
+    if ((decoded.sets & AT_Program.SETS_FUN) != 0) {
+      fun.fun = decoded.fun;
+    }
+    if ((decoded.sets & AT_Program.SETS_ADDR1) != 0) {
+      fun.addr1 = decoded.addr1;
+    }
+    if ((decoded.sets & AT_Program.SETS_ADDR2) != 0) {
+      fun.addr2 = decoded.addr2;
+    }
+    if ((decoded.sets & AT_Program.SETS_ADDR3) != 0) {
+      fun.addr3 = decoded.addr3;
+    }
+    if ((decoded.sets & AT_Program.SETS_VAL) != 0) {
+      fun.val = decoded.val;
+    }
+    if ((decoded.sets & AT_Program.SETS_OFF) != 0) {
+      fun.off = decoded.off;
+    }
+    return decoded.rc;
+  }
 
-    fun.addr1 =  (machineData.getAp_code()).getInt(machineData.getMachineState().pc+1);
-    fun.val = (machineData.getAp_code()).getLong(machineData.getMachineState().pc+1+4);
-
-    if (!validAddr(fun.addr1, false)) {
-      return -1;
+  private AT_Program.Operands decode(int kind, boolean is_code) {
+    int pc = machineData.getMachineState().pc;
+    int csize = machineData.getCsize();
+    ByteBuffer code = machineData.getAp_code();
+    short funValue = 0;
+    int addr1 = 0;
+    int addr2 = 0;
+    int addr3 = 0;
+    long val = 0;
+    byte off = 0;
+    int sets;
+    boolean valid;
+
+    switch (kind) {
+      case AT_Program.FUN:
+        if (pc + 2 >= csize)
+          return invalid();
+        funValue = code.getShort(pc + 1);
+        sets = AT_Program.SETS_FUN;
+        valid = true;
+        break;
+      case AT_Program.ADDRS:
+        if (pc + 4 + 4 >= csize)
+          return invalid();
+        addr1 = code.getInt(pc + 1);
+        addr2 = code.getInt(pc + 1 + 4);
+        sets = AT_Program.SETS_ADDR1 | AT_Program.SETS_ADDR2;
+        valid = validAddr(addr1, false) && validAddr(addr2, false);
+        break;
+      case AT_Program.ADDR_OFF:
+        if (pc + 5 >= csize)
+          return invalid();
+        addr1 = code.getInt(pc + 1);
+        off   = code.get(   pc + 5);
+        sets = AT_Program.SETS_ADDR1 | AT_Program.SETS_OFF;
+        valid = validAddr(addr1, false) && validAddr(pc + off, true);
+        break;
+      case AT_Program.ADDRS_OFF:
+        if (pc + 9 >= csize)
+          return invalid();
+        addr1 = code.getInt(pc + 1);
+        addr2 = code.getInt(pc + 5);
+        off   = code.get(   pc + 9);
+        sets = AT_Program.SETS_ADDR1 | AT_Program.SETS_ADDR2 | AT_Program.SETS_OFF;
+        valid = validAddr(addr1, false) && validAddr(addr2, false) && validAddr(pc + off, true);
+        break;
+      case AT_Program.FUN_ADDR:
+        if (pc + 4 + 4 >= csize)
+          return invalid();
+        funValue = code.getShort(pc + 1);
+        addr1 = code.getInt(pc + 1 + 2);
+        sets = AT_Program.SETS_FUN | AT_Program.SETS_ADDR1;
+        valid = validAddr(addr1, false);
+        break;
+      case AT_Program.FUN_ADDRS:
+        if (pc + 4 + 4 + 2 >= csize)
+          return invalid();
+        funValue = code.getShort(pc + 1);
+        addr3 = code.getInt(pc + 1 + 2);
+        addr2 = code.getInt(pc + 1 + 2 + 4);
+        sets = AT_Program.SETS_FUN | AT_Program.SETS_ADDR3 | AT_Program.SETS_ADDR2;
+        valid = validAddr(addr3, false) && validAddr(addr2, false);
+        break;
+      case AT_Program.ADDRESS_VAL:
+        if (pc + 4 + 8 >= csize)
+          return invalid();
+        addr1 = code.getInt(pc + 1);
+        val = code.getLong(pc + 1 + 4);
+        sets = AT_Program.SETS_ADDR1 | AT_Program.SETS_VAL;
+        valid = validAddr(addr1, false);
+        break;
+      default:
+        // an address read relative to the position of the code
+        if (pc + 4 >= csize)
+          return invalid();
+        addr1 = code.getInt(code.position() + pc + 1);
+        sets = AT_Program.SETS_ADDR1;
+        valid = validAddr(addr1, is_code);
+        break;
     }
+    return new AT_Program.Operands(valid ? 0 : -1, sets, funValue, addr1, addr2, addr3, val, off);
+  }
 
-    return 0;
+  private static AT_Program.Operands invalid() {
+    return new AT_Program.Operands(-1, 0, (short) 0, 0, 0, 0, 0L, (byte) 0);
   }
 
   private boolean validAddr(int addr, boolean is_code) {
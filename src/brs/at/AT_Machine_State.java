@@ -98,7 +98,11 @@ public class AT_Machine_State {
     protected byte[] getMachineStateBytes() {
       ByteBuffer bytes = ByteBuffer.allocate( getSize() );
       bytes.order( ByteOrder.LITTLE_ENDIAN );
+      putMachineStateBytes( bytes );
+      return bytes.array();
+    }
 
+    private void putMachineStateBytes( ByteBuffer bytes ) {
       if(Burst.getFluxCapacitor().isActive(FeatureToggle.AT_FIX_BLOCK_2)) {
         flags[0] = (byte)((running?1:0)
                           | (stopped?1:0) << 1
@@ -123,16 +127,9 @@ public class AT_Machine_State {
       bytes.put( B2 );
       bytes.put( B3 );
       bytes.put( B4 );
-
-      return bytes.array();
     }
 
-    private void setMachineState( byte[] machineState ) {
-      ByteBuffer bf = ByteBuffer.allocate( getSize() );
-      bf.order( ByteOrder.LITTLE_ENDIAN );
-      bf.put( machineState );
-      bf.flip();
-
+    private void setMachineState( ByteBuffer bf ) {
       bf.get( flags, 0, 2 );
       running = (flags[0] & 1) == 1;
       stopped = (flags[0] >>> 1 & 1) == 1;
@@ -192,6 +189,7 @@ public class AT_Machine_State {
   private transient ByteBuffer ap_data;
 
   private transient ByteBuffer ap_code;
+  private transient AT_Program program;
 
   private int height;
 
@@ -215,10 +213,10 @@ public class AT_Machine_State {
     this.freezeWhenSameBalance = freezeWhenSameBalance;
     this.minActivationAmount = minActivationAmount;
 
-    this.ap_code = ByteBuffer.allocate( apCode.length );
+    // the code is used as is, it is only ever read
+    this.ap_code = ByteBuffer.wrap( apCode );
     ap_code.order( ByteOrder.LITTLE_ENDIAN );
-    ap_code.put( apCode );
-    ap_code.clear();
+    this.program = AT_Program.of( ap_code, csize, dsize );
 
     transactions = new LinkedHashMap<>();
   }
@@ -272,6 +270,7 @@ public class AT_Machine_State {
     this.ap_code.order( ByteOrder.LITTLE_ENDIAN );
     this.ap_code.put( code );
     this.ap_code.clear();
+    this.program = AT_Program.of( ap_code, csize, dsize );
 
     int dataLen;
     if ( dataPages * pageSize < 257 ) {
@@ -397,6 +396,10 @@ public class AT_Machine_State {
     return ap_code;
   }
 
+  AT_Program getProgram() {
+    return program;
+  }
+
   public ByteBuffer getAp_data()  {
     return ap_data;
   }
@@ -516,42 +519,34 @@ public class AT_Machine_State {
   }
 
   public byte[] getState() {
-    byte[] stateBytes = machineState.getMachineStateBytes();
-    byte[] dataBytes = ap_data.array();
-
     ByteBuffer b = ByteBuffer.allocate( getStateSize() );
     b.order( ByteOrder.LITTLE_ENDIAN );
 
-    b.put( stateBytes );
+    machineState.putMachineStateBytes( b );
     b.putLong( g_balance );
     b.putLong( p_balance );
     b.putInt( waitForNumberOfBlocks );
-    b.put( dataBytes );
+    b.put( getData() );
 
     return b.array();
   }
 
+  /**
+   * Takes over the given state, which must not be changed anymore by the caller: the data of the machine is a view
+   * into it instead of a copy.
+   */
   public void setState( byte[] state ) {
-    ByteBuffer b = ByteBuffer.allocate( state.length );
+    ByteBuffer b = ByteBuffer.wrap( state );
     b.order( ByteOrder.LITTLE_ENDIAN );
-    b.put( state );
-    b.flip();
 
-    int stateSize = this.machineState.getSize();
-    byte[] machineState = new byte[ stateSize ];
-    b.get( machineState, 0, stateSize );
-    this.machineState.setMachineState( machineState );
+    this.machineState.setMachineState( b );
 
     g_balance = b.getLong();
     p_balance = b.getLong();
     waitForNumberOfBlocks = b.getInt();
 
-    byte[] apData = new byte[ b.capacity() - b.position() ];
-    b.get( apData );
-    ap_data = ByteBuffer.allocate( apData.length );
+    ap_data = b.slice();
     ap_data.order( ByteOrder.LITTLE_ENDIAN );
-    ap_data.put( apData );
-    ap_data.clear();
   }
 
   protected int getStateSize() {
@@ -561,20 +556,24 @@ public class AT_Machine_State {
   //these bytes are digested with MD5
   public byte[] getBytes() {
     byte[] txBytes = getTransactionBytes();
-    byte[] stateBytes = machineState.getMachineStateBytes();
-    byte[] dataBytes = ap_data.array();
 
-    ByteBuffer b = ByteBuffer.allocate( atID.length + txBytes.length + stateBytes.length + dataBytes.length );
+    ByteBuffer b = ByteBuffer.allocate( atID.length + machineState.getSize() + ap_data.capacity() + txBytes.length );
     b.order( ByteOrder.LITTLE_ENDIAN );
 
     b.put( atID );
-    b.put( stateBytes );
-    b.put( dataBytes );
+    machineState.putMachineStateBytes( b );
+    b.put( getData() );
     b.put( txBytes );
 
     return b.array();
   }
 
+  private ByteBuffer getData() {
+    ByteBuffer data = ap_data.duplicate();
+    data.clear();
+    return data;
+  }
+
   public void setFreeze(boolean freeze) {
     this.freezeWhenSameBalance = freeze;
   }
@@ -0,0 +1,119 @@
+package brs.at;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The decoded form of AT machine code, shared by all ATs with the same code and sizes: the jump targets found by
+ * listing the code and the operands of every instruction, so the processor does not decode them again on every step.
+ *
+ * Everything is decoded the first time it is needed, by the same code as before. An instruction failing to decode
+ * with an exception is not cached, it fails again the next time.
+ */
+final class AT_Program {
+
+  private static final int CACHE_SIZE = 1024;
+
+  // operands of an instruction at pc, one kind for every way the processor reads them
+  static final int ADDR_DATA = 0;
+  static final int ADDR_CODE = 1;
+  static final int ADDR_DATA_AT_8 = 2;
+  static final int ADDR_DATA_AT_10 = 3;
+  static final int ADDRS = 4;
+  static final int ADDR_OFF = 5;
+  static final int ADDRS_OFF = 6;
+  static final int FUN = 7;
+  static final int FUN_ADDR = 8;
+  static final int FUN_ADDRS = 9;
+  static final int ADDRESS_VAL = 10;
+  private static final int KINDS = 11;
+
+  // operand fields set by reading them, also if they turn out to be invalid
+  static final int SETS_FUN = 1;
+  static final int SETS_ADDR1 = 2;
+  static final int SETS_ADDR2 = 4;
+  static final int SETS_ADDR3 = 8;
+  static final int SETS_VAL = 16;
+  static final int SETS_OFF = 32;
+
+  static final class Operands {
+    final int rc;
+    final int sets;
+    final short fun;
+    final int addr1;
+    final int addr2;
+    final int addr3;
+    final long val;
+    final byte off;
+
+    Operands(int rc, int sets, short fun, int addr1, int addr2, int addr3, long val, byte off) {
+      this.rc = rc;
+      this.sets = sets;
+      this.fun = fun;
+      this.addr1 = addr1;
+      this.addr2 = addr2;
+      this.addr3 = addr3;
+      this.val = val;
+      this.off = off;
+    }
+  }
+
+  private static final Map<ByteBuffer, AT_Program> programs = new LinkedHashMap<ByteBuffer, AT_Program>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<ByteBuffer, AT_Program> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  private final Operands[][] operands;
+  private volatile Set<Integer> jumps;
+
+  private AT_Program(int length) {
+    operands = new Operands[KINDS][length];
+  }
+
+  /**
+   * @return The program of the given code, decoding is only done once for the same code and sizes
+   */
+  static AT_Program of(ByteBuffer code, int csize, int dsize) {
+    ByteBuffer key = ByteBuffer.allocate(4 + 4 + code.capacity());
+    key.putInt(csize).putInt(dsize);
+    ByteBuffer content = code.duplicate();
+    content.clear();
+    key.put(content);
+    key.flip();
+    synchronized (programs) {
+      return programs.computeIfAbsent(key, k -> new AT_Program(Math.max(csize, 0)));
+    }
+  }
+
+  /**
+   * @return The jump targets of the code, or null if it was not listed yet
+   */
+  Set<Integer> getJumps() {
+    return jumps;
+  }
+
+  void setJumps(Set<Integer> jumps) {
+    this.jumps = Collections.unmodifiableSet(new TreeSet<>(jumps));
+  }
+
+  /**
+   * @return The decoded operands, or null if they were not decoded yet
+   */
+  Operands getOperands(int kind, int pc) {
+    return pc >= 0 && pc < operands[kind].length ? operands[kind][pc] : null;
+  }
+
+  void setOperands(int kind, int pc, Operands decoded) {
+    if (pc >= 0 && pc < operands[kind].length) {
+      // the operands are immutable, threads racing here decode the same
+      operands[kind][pc] = decoded;
+    }
+  }
+
+}
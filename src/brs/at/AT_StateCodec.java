@@ -0,0 +1,295 @@
+package brs.at;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the machine state and code of ATs for the database.
+ *
+ * The first byte of the compressed form names the codec it was written with, so states written by any codec stay
+ * readable whichever one writes new states. GZIP is the format states were always written in, its streams start
+ * with their own magic byte which serves as the codec id.
+ */
+public abstract class AT_StateCodec {
+
+  /** The original format, read and written by all versions */
+  public static final AT_StateCodec GZIP = new Gzip();
+
+  /** Byte-oriented LZ77 in the style of LZ4, much faster than GZIP on the mostly empty data pages of ATs, opt-in */
+  public static final AT_StateCodec LZ = new Lz();
+
+  private static final AT_StateCodec[] codecsById = new AT_StateCodec[256];
+  private static final Map<String, AT_StateCodec> codecsByName = new ConcurrentHashMap<>();
+
+  private static volatile AT_StateCodec writeCodec = GZIP;
+
+  static {
+    register(GZIP);
+    register(LZ);
+  }
+
+  private final int id;
+  private final String name;
+
+  protected AT_StateCodec(int id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+
+  /**
+   * Makes a codec available for reading and, by name, for writing.
+   */
+  public static synchronized void register(AT_StateCodec codec) {
+    if (codecsById[codec.id] != null && codecsById[codec.id] != codec) {
+      throw new IllegalArgumentException("Codec id " + codec.id + " of " + codec.name + " is taken by " + codecsById[codec.id].name);
+    }
+    codecsById[codec.id] = codec;
+    codecsByName.put(codec.name, codec);
+  }
+
+  /**
+   * Selects the codec new states are written with, GZIP unless selected otherwise.
+   */
+  public static void init(String name) {
+    AT_StateCodec codec = codecsByName.get(name.trim().toLowerCase());
+    if (codec == null) {
+      throw new IllegalArgumentException("Unknown AT state codec " + name + ", known are " + codecsByName.keySet());
+    }
+    writeCodec = codec;
+  }
+
+  public static byte[] compress(byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    return writeCodec.encode(bytes);
+  }
+
+  public static byte[] decompress(byte[] compressed) {
+    if (compressed == null || compressed.length == 0) {
+      return null;
+    }
+    AT_StateCodec codec = codecsById[compressed[0] & 0xff];
+    if (codec == null) {
+      throw new IllegalArgumentException("AT state written by unknown codec " + (compressed[0] & 0xff));
+    }
+    return codec.decode(compressed);
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The compressed form, starting with the id of the codec
+   */
+  protected abstract byte[] encode(byte[] bytes);
+
+  /**
+   * @param compressed The compressed form, including the id of the codec
+   */
+  protected abstract byte[] decode(byte[] compressed);
+
+  private static final class Gzip extends AT_StateCodec {
+
+    private Gzip() {
+      super(0x1f, "gzip");
+    }
+
+    @Override
+    protected byte[] encode(byte[] bytes) {
+      try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+          gzip.write(bytes);
+          gzip.flush();
+        }
+        return bos.toByteArray();
+      } catch (IOException e) {
+        throw new RuntimeException(e.getMessage(), e);
+      }
+    }
+
+    @Override
+    protected byte[] decode(byte[] compressed) {
+      try (ByteArrayInputStream bis = new ByteArrayInputStream(compressed);
+           GZIPInputStream gzip = new GZIPInputStream(bis);
+           ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = gzip.read(buffer, 0, buffer.length)) > 0) {
+          bos.write(buffer, 0, read);
+        }
+        return bos.toByteArray();
+      } catch (IOException e) {
+        throw new RuntimeException(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * The length of the uncompressed bytes as varint, followed by sequences of a token with the number of literals in
+   * the high and the match length minus 4 in the low nibble, the literals, and the match as 2 byte offset back into
+   * what was decoded already. A nibble of 15 is continued by bytes added up until one is less than 255. The last
+   * sequence has literals only.
+   */
+  private static final class Lz extends AT_StateCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xffff;
+    private static final int HASH_BITS = 12;
+
+    private Lz() {
+      super(0x01, "lz");
+    }
+
+    @Override
+    protected byte[] encode(byte[] bytes) {
+      // worst case is all literals, one length byte per 255 of them
+      byte[] out = new byte[1 + 5 + bytes.length + bytes.length / 255 + 16];
+      int op = 0;
+      out[op++] = (byte) getId();
+      op = putVarInt(out, op, bytes.length);
+
+      int[] table = new int[1 << HASH_BITS];
+      Arrays.fill(table, -1);
+      int anchor = 0;
+      int ip = 0;
+      while (ip <= bytes.length - MIN_MATCH) {
+        int sequence = getInt(bytes, ip);
+        int hash = (sequence * -1640531535) >>> (32 - HASH_BITS);
+        int ref = table[hash];
+        table[hash] = ip;
+        if (ref < 0 || ip - ref > MAX_OFFSET || getInt(bytes, ref) != sequence) {
+          ip++;
+          continue;
+        }
+        int matchLength = MIN_MATCH;
+        while (ip + matchLength < bytes.length && bytes[ref + matchLength] == bytes[ip + matchLength]) {
+          matchLength++;
+        }
+        op = putSequence(out, op, bytes, anchor, ip - anchor, ip - ref, matchLength);
+        ip += matchLength;
+        anchor = ip;
+      }
+      op = putSequence(out, op, bytes, anchor, bytes.length - anchor, 0, 0);
+      return Arrays.copyOf(out, op);
+    }
+
+    @Override
+    protected byte[] decode(byte[] compressed) {
+      try {
+        int[] position = { 1 };
+        int length = getVarInt(compressed, position);
+        int ip = position[0];
+        byte[] out = new byte[length];
+        int op = 0;
+        while (true) {
+          int token = compressed[ip++] & 0xff;
+          int literals = token >>> 4;
+          if (literals == 15) {
+            int more;
+            do {
+              more = compressed[ip++] & 0xff;
+              literals += more;
+            } while (more == 255);
+          }
+          System.arraycopy(compressed, ip, out, op, literals);
+          ip += literals;
+          op += literals;
+          if (op == length) {
+            break;
+          }
+          int offset = (compressed[ip++] & 0xff) | (compressed[ip++] & 0xff) << 8;
+          int matchLength = token & 0x0f;
+          if (matchLength == 15) {
+            int more;
+            do {
+              more = compressed[ip++] & 0xff;
+              matchLength += more;
+            } while (more == 255);
+          }
+          matchLength += MIN_MATCH;
+          if (offset == 0 || offset > op || op + matchLength > length) {
+            throw new IllegalArgumentException("Corrupt AT state at " + ip);
+          }
+          // byte by byte, the match may overlap with what it produces
+          for (int ref = op - offset, end = op + matchLength; op < end; ) {
+            out[op++] = out[ref++];
+          }
+        }
+        if (ip != compressed.length) {
+          throw new IllegalArgumentException("Corrupt AT state, " + (compressed.length - ip) + " bytes left over");
+        }
+        return out;
+      } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+        throw new IllegalArgumentException("Corrupt AT state", e);
+      }
+    }
+
+    private static int putSequence(byte[] out, int op, byte[] bytes, int literalsStart, int literals, int offset, int matchLength) {
+      int tokenPosition = op++;
+      int token = Math.min(literals, 15) << 4;
+      if (literals >= 15) {
+        op = putLength(out, op, literals - 15);
+      }
+      System.arraycopy(bytes, literalsStart, out, op, literals);
+      op += literals;
+      if (matchLength > 0) {
+        out[op++] = (byte) offset;
+        out[op++] = (byte) (offset >>> 8);
+        int length = matchLength - MIN_MATCH;
+        token |= Math.min(length, 15);
+        if (length >= 15) {
+          op = putLength(out, op, length - 15);
+        }
+      }
+      out[tokenPosition] = (byte) token;
+      return op;
+    }
+
+    private static int putLength(byte[] out, int op, int length) {
+      while (length >= 255) {
+        out[op++] = (byte) 255;
+        length -= 255;
+      }
+      out[op++] = (byte) length;
+      return op;
+    }
+
+    private static int putVarInt(byte[] out, int op, int value) {
+      while ((value & ~0x7f) != 0) {
+        out[op++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      out[op++] = (byte) value;
+      return op;
+    }
+
+    private static int getVarInt(byte[] in, int[] position) {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        int b = in[position[0]++] & 0xff;
+        value |= (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Corrupt AT state length");
+    }
+
+    private static int getInt(byte[] bytes, int i) {
+      return (bytes[i] & 0xff) | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff) << 16 | (bytes[i + 3] & 0xff) << 24;
+    }
+  }
+
+}
@@ -1,5 +1,8 @@
 package brs.db;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface DerivedTable {
   void rollback(int height);
 
@@ -7,5 +10,58 @@ public interface DerivedTable {
 
   void trim(int height);
 
+  /**
+   * Selects the next keys with rows to trim below height, in key order after the given key.
+   * Only reads committed rows below height, so it does not need to hold off block processing.
+   * @param after the key values of the last key of the previous chunk, null to start with the first key
+   */
+  TrimChunk selectTrimChunk(int height, long[] after, int maxKeys);
+
+  /**
+   * Trims the keys of a chunk, down to their newest row below the height they were selected for.
+   * @return the number of rows removed
+   */
+  int trim(TrimChunk chunk);
+
   void finish();
+
+  /**
+   * Keys selected for trimming, with the height of their newest row below the trim height.
+   */
+  final class TrimChunk {
+    private final int maxKeys;
+    private final List<long[]> keys = new ArrayList<>();
+    private final List<Integer> maxHeights = new ArrayList<>();
+
+    public TrimChunk(int maxKeys) {
+      this.maxKeys = maxKeys;
+    }
+
+    public void add(long[] key, int maxHeight) {
+      keys.add(key);
+      maxHeights.add(maxHeight);
+    }
+
+    public int size() {
+      return keys.size();
+    }
+
+    public long[] getKey(int index) {
+      return keys.get(index);
+    }
+
+    public int getMaxHeight(int index) {
+      return maxHeights.get(index);
+    }
+
+    /** @return The key to continue after, null if the chunk is empty */
+    public long[] getLastKey() {
+      return keys.isEmpty() ? null : keys.get(keys.size() - 1);
+    }
+
+    /** @return Whether there are no keys left after this chunk */
+    public boolean isLast() {
+      return maxKeys <= 0 || keys.size() < maxKeys;
+    }
+  }
 }
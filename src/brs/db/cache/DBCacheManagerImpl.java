@@ -1,16 +1,29 @@
 package brs.db.cache;
 
+import brs.AT;
 import brs.Account;
+import brs.Alias;
+import brs.Asset;
+import brs.Escrow;
+import brs.Order;
+import brs.Subscription;
 import brs.db.sql.DbKey;
+import brs.props.Prop;
+import brs.props.PropertyService;
+import brs.props.Props;
 import brs.statistics.StatisticsManagerImpl;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.ehcache.Cache;
 import org.ehcache.CacheManager;
 import org.ehcache.Status;
 import org.ehcache.config.CacheConfiguration;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
 
 public class DBCacheManagerImpl {
@@ -23,11 +36,26 @@ public class DBCacheManagerImpl {
 
   private final HashMap<String, CacheConfiguration> caches = new HashMap<String, CacheConfiguration>();
 
-  public DBCacheManagerImpl(StatisticsManagerImpl statisticsManager) {
+  private final Map<String, EntityCache> entityCaches = new ConcurrentHashMap<>();
+
+  private final PropertyService propertyService;
+
+  public DBCacheManagerImpl(StatisticsManagerImpl statisticsManager, PropertyService propertyService) {
     this.statisticsManager = statisticsManager;
+    this.propertyService = propertyService;
     statisticsEnabled = true;
 
-    caches.put("account", CacheConfigurationBuilder.newCacheConfigurationBuilder(DbKey.class, Account.class, ResourcePoolsBuilder.heap(8192)).build());
+    // the account table batches its writes through the cache, so it can not be disabled
+    addCache("account", Account.class, Math.max(propertyService.getInt(Props.DB_CACHE_ACCOUNT_SIZE), 1), Props.DB_CACHE_ACCOUNT_TIME_TO_IDLE);
+    addCache("account_asset", Account.AccountAsset.class, propertyService.getInt(Props.DB_CACHE_ACCOUNT_ASSET_SIZE), Props.DB_CACHE_ACCOUNT_ASSET_TIME_TO_IDLE);
+    addCache("alias", Alias.class, propertyService.getInt(Props.DB_CACHE_ALIAS_SIZE), Props.DB_CACHE_ALIAS_TIME_TO_IDLE);
+    addCache("asset", Asset.class, propertyService.getInt(Props.DB_CACHE_ASSET_SIZE), Props.DB_CACHE_ASSET_TIME_TO_IDLE);
+    addCache("ask_order", Order.Ask.class, propertyService.getInt(Props.DB_CACHE_ASK_ORDER_SIZE), Props.DB_CACHE_ASK_ORDER_TIME_TO_IDLE);
+    addCache("bid_order", Order.Bid.class, propertyService.getInt(Props.DB_CACHE_BID_ORDER_SIZE), Props.DB_CACHE_BID_ORDER_TIME_TO_IDLE);
+    addCache("at", AT.class, propertyService.getInt(Props.DB_CACHE_AT_SIZE), Props.DB_CACHE_AT_TIME_TO_IDLE);
+    addCache("at_state", AT.ATState.class, propertyService.getInt(Props.DB_CACHE_AT_STATE_SIZE), Props.DB_CACHE_AT_STATE_TIME_TO_IDLE);
+    addCache("escrow", Escrow.class, propertyService.getInt(Props.DB_CACHE_ESCROW_SIZE), Props.DB_CACHE_ESCROW_TIME_TO_IDLE);
+    addCache("subscription", Subscription.class, propertyService.getInt(Props.DB_CACHE_SUBSCRIPTION_SIZE), Props.DB_CACHE_SUBSCRIPTION_TIME_TO_IDLE);
 
     CacheManagerBuilder cacheBuilder = CacheManagerBuilder.newCacheManagerBuilder();
     for (Map.Entry<String, CacheConfiguration> cache : caches.entrySet()) {
@@ -36,6 +64,22 @@ public class DBCacheManagerImpl {
     cacheManager = cacheBuilder.build(true);
   }
 
+  private void addCache(String name, Class<?> valueType, int size, Prop<Integer> timeToIdleProp) {
+    if (size <= 0) {
+      return;
+    }
+    CacheConfigurationBuilder builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(DbKey.class, valueType, ResourcePoolsBuilder.heap(size));
+    int timeToIdle = propertyService.getInt(timeToIdleProp);
+    if (timeToIdle > 0) {
+      builder = builder.withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(timeToIdle)));
+    }
+    caches.put(name, builder.build());
+  }
+
+  public boolean hasCache(String name) {
+    return caches.containsKey(name);
+  }
+
   public void close() {
     if ( cacheManager.getStatus().equals(Status.AVAILABLE) ) {
       cacheManager.close();
@@ -52,12 +96,55 @@ public class DBCacheManagerImpl {
     return statisticsEnabled ? new StatisticsCache(cache, name, statisticsManager) : cache;
   }
 
+  /**
+   * @return The shared entity cache of the table, null if it has none configured
+   */
+  public synchronized EntityCache getEntityCache(String name) {
+    if (!hasCache(name)) {
+      return null;
+    }
+    return entityCaches.computeIfAbsent(name, n -> new EntityCache(getCache(n)));
+  }
+
   public void flushCache() {
     for (String cacheName : caches.keySet()) {
+      EntityCache entityCache = entityCaches.get(cacheName);
+      if ( entityCache != null ) {
+        entityCache.clear();
+        continue;
+      }
       Cache cache = getEHCache(cacheName);
       if ( cache != null )
         cache.clear();
     }
   }
 
+  /**
+   * Drops entries from a single cache.
+   * @param dbKeys the entries, null to drop all of them
+   */
+  public void flushCache(String name, Collection<DbKey> dbKeys) {
+    if (!hasCache(name)) {
+      return;
+    }
+    EntityCache entityCache = entityCaches.get(name);
+    if (entityCache != null) {
+      if (dbKeys == null) {
+        entityCache.clear();
+      } else {
+        dbKeys.forEach(entityCache::remove);
+      }
+      return;
+    }
+    Cache cache = getEHCache(name);
+    if (cache == null) {
+      return;
+    }
+    if (dbKeys == null) {
+      cache.clear();
+    } else {
+      dbKeys.forEach(cache::remove);
+    }
+  }
+
 }
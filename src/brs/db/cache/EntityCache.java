@@ -0,0 +1,54 @@
+package brs.db.cache;
+
+import brs.db.sql.DbKey;
+import org.ehcache.Cache;
+
+/**
+ * Cache of the latest version of entities shared across transactions.
+ * Entities loaded from the database are only cached if the cache has not been modified
+ * while loading them, so a concurrent update, delete or rollback can not be overwritten
+ * with a stale entity.
+ */
+public class EntityCache<V> {
+
+  private final Cache<DbKey, V> cache;
+
+  private volatile long modifications;
+
+  EntityCache(Cache<DbKey, V> cache) {
+    this.cache = cache;
+  }
+
+  public V get(DbKey dbKey) {
+    return cache.get(dbKey);
+  }
+
+  /**
+   * @return A marker to be passed to {@link #putLoaded(DbKey, Object, long)} once the entity has been loaded
+   */
+  public long getModifications() {
+    return modifications;
+  }
+
+  public synchronized void putLoaded(DbKey dbKey, V value, long modificationsBeforeLoad) {
+    if (modifications == modificationsBeforeLoad) {
+      cache.putIfAbsent(dbKey, value);
+    }
+  }
+
+  public synchronized void put(DbKey dbKey, V value) {
+    cache.put(dbKey, value);
+    modifications++;
+  }
+
+  public synchronized void remove(DbKey dbKey) {
+    cache.remove(dbKey);
+    modifications++;
+  }
+
+  public synchronized void clear() {
+    cache.clear();
+    modifications++;
+  }
+
+}
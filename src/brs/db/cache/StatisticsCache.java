@@ -26,6 +26,13 @@ public class StatisticsCache<K, V> implements Cache<K, V> {
   @Override
   public V get(K k) throws CacheLoadingException {
     final V result = wrappedCache.get(k);
+
+    if(result != null) {
+      statisticsManager.foundObjectInCache(cacheName);
+    } else {
+      statisticsManager.didNotFindObjectInCache(cacheName);
+    }
+
     return result;
   }
 
@@ -473,6 +473,45 @@ final class H2DbVersion {
       case 176:
         apply("ALTER TABLE alias ALTER COLUMN alias_name_lower VARCHAR NOT NULL");
       case 177:
+        apply("CREATE TABLE IF NOT EXISTS account_transaction (db_id IDENTITY, account_id BIGINT NOT NULL, transaction_id BIGINT NOT NULL, "
+              + "height INT NOT NULL, block_timestamp INT NOT NULL, type TINYINT NOT NULL, subtype TINYINT NOT NULL, role TINYINT NOT NULL)");
+      case 178:
+        apply("INSERT INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, role) "
+              + "SELECT sender_id, id, height, block_timestamp, type, subtype, 0 FROM transaction");
+      case 179:
+        apply("INSERT INTO account_transaction (account_id, transaction_id, height, block_timestamp, type, subtype, role) "
+              + "SELECT recipient_id, id, height, block_timestamp, type, subtype, 1 FROM transaction "
+              + "WHERE recipient_id IS NOT NULL AND recipient_id <> sender_id");
+      case 180:
+        apply("CREATE INDEX IF NOT EXISTS account_transaction_account_id_timestamp_idx ON account_transaction (account_id, block_timestamp DESC, transaction_id DESC)");
+      case 181:
+        apply("CREATE INDEX IF NOT EXISTS account_transaction_height_idx ON account_transaction (height)");
+      case 182:
+        apply("CREATE TABLE IF NOT EXISTS asset_stats (db_id IDENTITY, asset_id BIGINT NOT NULL, trade_count INT NOT NULL, "
+              + "transfer_count INT NOT NULL, accounts_count INT NOT NULL, height INT NOT NULL, latest BOOLEAN NOT NULL DEFAULT TRUE)");
+      case 183:
+        apply("INSERT INTO asset_stats (asset_id, trade_count, transfer_count, accounts_count, height, latest) "
+              + "SELECT id, (SELECT COUNT(*) FROM trade WHERE trade.asset_id = asset.id), "
+              + "(SELECT COUNT(*) FROM asset_transfer WHERE asset_transfer.asset_id = asset.id), "
+              + "(SELECT COUNT(*) FROM account_asset WHERE account_asset.asset_id = asset.id AND account_asset.latest = TRUE), "
+              + "(SELECT COALESCE(MAX(height), 0) FROM block), TRUE FROM asset");
+      case 184:
+        apply("CREATE UNIQUE INDEX IF NOT EXISTS asset_stats_asset_id_height_idx ON asset_stats (asset_id, height DESC)");
+      case 185:
+        apply("CREATE INDEX IF NOT EXISTS goods_latest_timestamp_idx ON goods (latest, timestamp DESC, id)");
+      case 186:
+        apply("CREATE INDEX IF NOT EXISTS goods_latest_delisted_timestamp_idx ON goods (latest, delisted, timestamp DESC, id)");
+      case 187:
+        apply("CREATE INDEX IF NOT EXISTS goods_seller_id_latest_name_idx ON goods (seller_id, latest, name, timestamp DESC, id)");
+      case 188:
+        apply("CREATE INDEX IF NOT EXISTS purchase_latest_timestamp_idx ON purchase (latest, timestamp DESC, id)");
+      case 189:
+        apply("CREATE INDEX IF NOT EXISTS purchase_seller_id_latest_timestamp_idx ON purchase (seller_id, latest, timestamp DESC, id)");
+      case 190:
+        apply("CREATE INDEX IF NOT EXISTS purchase_buyer_id_latest_timestamp_idx ON purchase (buyer_id, latest, timestamp DESC, id)");
+      case 191:
+        apply("CREATE INDEX IF NOT EXISTS purchase_seller_id_pending_latest_idx ON purchase (seller_id, pending, latest, timestamp DESC, id)");
+      case 192:
         return;
       default:
         throw new RuntimeException("Database inconsistent with code, probably trying to run older code on newer database");
@@ -0,0 +1,184 @@
+package brs.db.sql;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The latest scheduling state of every AT, so the ATs to run in a block and their order do not have to be found by
+ * joining the AT, AT state and account tables on every block.
+ *
+ * The schedule is loaded from the database when first needed and then kept up to date by the AT state table.
+ * A transaction works on its own copy, which replaces the shared one on commit and is dropped otherwise.
+ * Reads outside of a transaction only ever see the committed schedule.
+ */
+final class ATSchedule implements Db.TransactionCallback {
+
+  static final Comparator<Entry> EXECUTION_ORDER = Comparator.comparingInt(Entry::getPrevHeight)
+      .thenComparingInt(Entry::getNextHeight)
+      .thenComparingLong(Entry::getAtId);
+
+  static final class Entry {
+    private final long atId;
+    private final int prevHeight;
+    private final int nextHeight;
+    private final long prevBalance;
+    private final boolean freezeWhenSameBalance;
+    private final long minActivationAmount;
+
+    Entry(long atId, int prevHeight, int nextHeight, long prevBalance, boolean freezeWhenSameBalance, long minActivationAmount) {
+      this.atId = atId;
+      this.prevHeight = prevHeight;
+      this.nextHeight = nextHeight;
+      this.prevBalance = prevBalance;
+      this.freezeWhenSameBalance = freezeWhenSameBalance;
+      this.minActivationAmount = minActivationAmount;
+    }
+
+    long getAtId() {
+      return atId;
+    }
+
+    int getPrevHeight() {
+      return prevHeight;
+    }
+
+    int getNextHeight() {
+      return nextHeight;
+    }
+
+    /**
+     * @return Whether the AT may run with the given balance of its account, if it is due
+     */
+    boolean isActivatedBy(long balance, long minimumBalance) {
+      return balance >= minimumBalance && (! freezeWhenSameBalance || balance - prevBalance >= minActivationAmount);
+    }
+  }
+
+  private final Supplier<Collection<Entry>> loader;
+
+  // guarded by this
+  private Map<Long, Entry> entries;
+  // changes on every commit or clear, a schedule loaded across one of these may be outdated already
+  private long generation;
+
+  private final ThreadLocal<Map<Long, Entry>> transactionEntries = new ThreadLocal<>();
+  private final ThreadLocal<Boolean> clearedInTransaction = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  /**
+   * @param loader loads the latest scheduling state of all ATs
+   */
+  ATSchedule(Supplier<Collection<Entry>> loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * @return The ATs due at the given height in execution order, still to be checked against their balances
+   */
+  List<Entry> getDue(int height) {
+    List<Entry> due = new ArrayList<>();
+    for (Entry entry : getEntries().values()) {
+      if (entry.nextHeight <= height) {
+        due.add(entry);
+      }
+    }
+    due.sort(EXECUTION_ORDER);
+    return due;
+  }
+
+  /**
+   * Adds the state of an AT or replaces its previous one.
+   */
+  void put(Entry entry) {
+    getTransactionEntries().put(entry.atId, entry);
+  }
+
+  /**
+   * Drops the schedule, to be loaded again after the AT tables changed in other ways than through the schedule.
+   */
+  void clear() {
+    synchronized (this) {
+      entries = null;
+      generation++;
+    }
+    if (Db.isInTransaction()) {
+      transactionEntries.remove();
+      clearedInTransaction.set(Boolean.TRUE);
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    Map<Long, Entry> committed = transactionEntries.get();
+    synchronized (this) {
+      if (committed != null) {
+        entries = committed;
+      } else if (clearedInTransaction.get()) {
+        // a schedule loaded by another thread in the meantime shows the state before the commit
+        entries = null;
+      }
+      generation++;
+    }
+    transactionEntries.remove();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  @Override
+  public void transactionEnded() {
+    transactionEntries.remove();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  private Map<Long, Entry> getEntries() {
+    if (Db.isInTransaction()) {
+      Map<Long, Entry> transactionMap = transactionEntries.get();
+      if (transactionMap != null) {
+        return transactionMap;
+      }
+      if (clearedInTransaction.get()) {
+        return getTransactionEntries();
+      }
+    }
+    long loadedGeneration;
+    synchronized (this) {
+      if (entries != null) {
+        return entries;
+      }
+      loadedGeneration = generation;
+    }
+    Map<Long, Entry> loaded = load();
+    synchronized (this) {
+      if (generation == loadedGeneration && entries == null) {
+        entries = loaded;
+      }
+    }
+    return loaded;
+  }
+
+  private Map<Long, Entry> getTransactionEntries() {
+    Map<Long, Entry> transactionMap = transactionEntries.get();
+    if (transactionMap == null) {
+      Map<Long, Entry> committed;
+      synchronized (this) {
+        committed = clearedInTransaction.get() ? null : entries;
+      }
+      // the entries are immutable, the copy only ever replaces them
+      transactionMap = committed != null ? new HashMap<>(committed) : load();
+      transactionEntries.set(transactionMap);
+    }
+    return transactionMap;
+  }
+
+  private Map<Long, Entry> load() {
+    Map<Long, Entry> loaded = new HashMap<>();
+    for (Entry entry : loader.get()) {
+      loaded.put(entry.atId, entry);
+    }
+    return loaded;
+  }
+
+}
@@ -0,0 +1,313 @@
+package brs.db.sql;
+
+import brs.Account;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The latest state of all accounts, kept in fixed-size slots of a memory mapped file outside of the heap.
+ * It is written through by the account table and rebuilt from the database when needed, so account lookups
+ * do not depend on what happens to be in the heap cache.
+ *
+ * Accounts with a name or description, or a public key announced in the current block, do not fit into a slot.
+ * They are only marked as existing and have to be loaded from the database. Accounts changed by a transaction
+ * which did not commit are reloaded from their latest row once it ended.
+ */
+final class AccountStateMap implements Db.TransactionCallback {
+
+  private static final Logger logger = LoggerFactory.getLogger(AccountStateMap.class);
+
+  interface AccountFactory {
+    Account create(long id, int creationHeight, byte[] publicKey, int keyHeight, long balanceNQT, long unconfirmedBalanceNQT, long forgedBalanceNQT);
+  }
+
+  interface AccountLoader {
+    /**
+     * @return The accounts of the ids which have a latest row in the database
+     */
+    Collection<Account> loadLatest(Collection<Long> ids);
+  }
+
+  private static final int SLOT_SIZE = 80;
+  static final int INITIAL_CAPACITY = 1 << 16;
+  private static final int MAX_CAPACITY = 1 << 24;
+
+  private static final byte EMPTY = 0;
+  private static final byte PRESENT = 1;
+  private static final byte IN_DATABASE = 2;
+  // keeps the probe chains through the slot intact
+  private static final byte ABSENT = 3;
+
+  private static final int STATE = 0;
+  private static final int HAS_PUBLIC_KEY = 1;
+  private static final int CREATION_HEIGHT = 4;
+  private static final int ID = 8;
+  private static final int KEY_HEIGHT = 16;
+  private static final int BALANCE = 24;
+  private static final int UNCONFIRMED_BALANCE = 32;
+  private static final int FORGED_BALANCE = 40;
+  private static final int PUBLIC_KEY = 48;
+  private static final int PUBLIC_KEY_LENGTH = 32;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ThreadLocal<Set<Long>> uncommittedIds = ThreadLocal.withInitial(HashSet::new);
+  private final AccountLoader loader;
+
+  private MappedByteBuffer slots;
+  private File file;
+  private int capacity;
+  private int size;
+  // when complete, an account not found in the map does not exist
+  private boolean complete;
+
+  AccountStateMap(AccountLoader loader) {
+    this.loader = loader;
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * @return The account, or null if it is not in the map or has to be loaded from the database
+   */
+  Account get(long id, AccountFactory factory) {
+    lock.readLock().lock();
+    try {
+      int offset = find(slots, capacity, id);
+      if (offset < 0 || slots.get(offset + STATE) != PRESENT) {
+        return null;
+      }
+      byte[] publicKey = null;
+      if (slots.get(offset + HAS_PUBLIC_KEY) != 0) {
+        publicKey = new byte[PUBLIC_KEY_LENGTH];
+        for (int i = 0; i < PUBLIC_KEY_LENGTH; i++) {
+          publicKey[i] = slots.get(offset + PUBLIC_KEY + i);
+        }
+      }
+      return factory.create(id, slots.getInt(offset + CREATION_HEIGHT), publicKey, slots.getInt(offset + KEY_HEIGHT),
+          slots.getLong(offset + BALANCE), slots.getLong(offset + UNCONFIRMED_BALANCE), slots.getLong(offset + FORGED_BALANCE));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return false if the map knows the account does not exist
+   */
+  boolean mightExist(long id) {
+    lock.readLock().lock();
+    try {
+      int offset = find(slots, capacity, id);
+      if (offset < 0) {
+        return ! complete;
+      }
+      return slots.get(offset + STATE) != ABSENT;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  void put(Account account) {
+    write(account);
+    if (Db.isInTransaction()) {
+      uncommittedIds.get().add(account.getId());
+    }
+  }
+
+  private void write(Account account) {
+    byte[] publicKey = account.getPublicKey();
+    boolean fitsSlot = account.getName() == null && account.getDescription() == null
+        && (publicKey == null ? account.getKeyHeight() != -1 : publicKey.length == PUBLIC_KEY_LENGTH);
+
+    lock.writeLock().lock();
+    try {
+      int offset = find(slots, capacity, account.getId());
+      if (offset < 0) {
+        if (size + 1 > capacity / 4 * 3 && ! grow()) {
+          logger.warn("Account state map is full, accounts not in the map will be loaded from the database");
+          complete = false;
+          return;
+        }
+        offset = findFree(slots, capacity, account.getId());
+        slots.putLong(offset + ID, account.getId());
+        size++;
+      }
+      if (! fitsSlot) {
+        slots.put(offset + STATE, IN_DATABASE);
+      } else {
+        slots.putInt(offset + CREATION_HEIGHT, account.getCreationHeight());
+        slots.putInt(offset + KEY_HEIGHT, account.getKeyHeight());
+        slots.putLong(offset + BALANCE, account.getBalanceNQT());
+        slots.putLong(offset + UNCONFIRMED_BALANCE, account.getUnconfirmedBalanceNQT());
+        slots.putLong(offset + FORGED_BALANCE, account.getForgedBalanceNQT());
+        slots.put(offset + HAS_PUBLIC_KEY, (byte) (publicKey != null ? 1 : 0));
+        for (int i = 0; publicKey != null && i < PUBLIC_KEY_LENGTH; i++) {
+          slots.put(offset + PUBLIC_KEY + i, publicKey[i]);
+        }
+        slots.put(offset + STATE, PRESENT);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Marks accounts which no longer have a latest version in the database.
+   */
+  void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      int offset = find(slots, capacity, id);
+      if (offset >= 0) {
+        slots.put(offset + STATE, ABSENT);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Reloads accounts from their latest rows, those without one are removed.
+   */
+  void refresh(Collection<Long> ids) {
+    Set<Long> remaining = new HashSet<>(ids);
+    for (Account account : loader.loadLatest(ids)) {
+      write(account);
+      remaining.remove(account.getId());
+    }
+    remaining.forEach(this::remove);
+  }
+
+  /**
+   * Empties the map, it is not complete until filled again.
+   */
+  void clear() {
+    lock.writeLock().lock();
+    try {
+      File oldFile = file;
+      allocate(INITIAL_CAPACITY);
+      if (! oldFile.delete()) {
+        logger.debug("Could not delete {}", oldFile);
+      }
+      complete = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    uncommittedIds.get().clear();
+  }
+
+  void setComplete() {
+    lock.writeLock().lock();
+    try {
+      complete = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  @Override
+  public void transactionCommitted() {
+    uncommittedIds.get().clear();
+  }
+
+  @Override
+  public void transactionEnded() {
+    Set<Long> ids = uncommittedIds.get();
+    if (ids.isEmpty()) {
+      return;
+    }
+    // whatever has not been committed is gone, back to the rows which were
+    List<Long> rolledBack = new ArrayList<>(ids);
+    ids.clear();
+    refresh(rolledBack);
+  }
+
+  private static int find(MappedByteBuffer slots, int capacity, long id) {
+    int mask = capacity - 1;
+    for (int index = hash(id) & mask; ; index = (index + 1) & mask) {
+      int offset = index * SLOT_SIZE;
+      if (slots.get(offset + STATE) == EMPTY) {
+        return -1;
+      }
+      if (slots.getLong(offset + ID) == id) {
+        return offset;
+      }
+    }
+  }
+
+  private static int findFree(MappedByteBuffer slots, int capacity, long id) {
+    int mask = capacity - 1;
+    int index = hash(id) & mask;
+    while (slots.get(index * SLOT_SIZE + STATE) != EMPTY) {
+      index = (index + 1) & mask;
+    }
+    return index * SLOT_SIZE;
+  }
+
+  static int hash(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private boolean grow() {
+    if (capacity >= MAX_CAPACITY) {
+      return false;
+    }
+    MappedByteBuffer oldSlots = slots;
+    File oldFile = file;
+    int oldCapacity = capacity;
+    allocate(capacity * 2);
+    int newSize = 0;
+    for (int index = 0; index < oldCapacity; index++) {
+      int oldOffset = index * SLOT_SIZE;
+      if (oldSlots.get(oldOffset + STATE) == EMPTY) {
+        continue;
+      }
+      int offset = findFree(slots, capacity, oldSlots.getLong(oldOffset + ID));
+      for (int i = 0; i < SLOT_SIZE; i++) {
+        slots.put(offset + i, oldSlots.get(oldOffset + i));
+      }
+      newSize++;
+    }
+    size = newSize;
+    if (! oldFile.delete()) {
+      logger.debug("Could not delete {}", oldFile);
+    }
+    return true;
+  }
+
+  private void allocate(int newCapacity) {
+    try {
+      File newFile = File.createTempFile("brs-accounts", ".map");
+      newFile.deleteOnExit();
+      try (RandomAccessFile randomAccessFile = new RandomAccessFile(newFile, "rw")) {
+        randomAccessFile.setLength((long) newCapacity * SLOT_SIZE);
+        slots = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) newCapacity * SLOT_SIZE);
+      }
+      file = newFile;
+      capacity = newCapacity;
+      size = 0;
+    } catch (IOException e) {
+      throw new RuntimeException("Could not map account state file", e);
+    }
+  }
+
+}
@@ -0,0 +1,174 @@
+package brs.db.sql;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * The ids of all aliases by their lower case names, sorted, so aliases are resolved without querying the alias table
+ * by name and can be browsed by prefix.
+ *
+ * Aliases are never renamed, the directory only grows. It is loaded from the database when first needed and then
+ * kept up to date by the alias table. A transaction records the aliases it adds, which are added to the shared
+ * directory on commit and dropped otherwise. Reads outside of a transaction only ever see the committed directory.
+ */
+final class AliasDirectory implements Db.TransactionCallback {
+
+  private final Supplier<Map<String, Long>> loader;
+
+  // guarded by this
+  private NavigableMap<String, Long> names;
+  // changes on every commit or clear, a directory loaded across one of these may be outdated already
+  private long generation;
+
+  private final ThreadLocal<NavigableMap<String, Long>> transactionNames = ThreadLocal.withInitial(TreeMap::new);
+  // the directory as loaded after the transaction cleared it
+  private final ThreadLocal<NavigableMap<String, Long>> transactionDirectory = new ThreadLocal<>();
+  private final ThreadLocal<Boolean> clearedInTransaction = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  /**
+   * @param loader loads the ids of the latest versions of all aliases by lower case name
+   */
+  AliasDirectory(Supplier<Map<String, Long>> loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * @return The id of the alias with the given lower case name, null if there is none
+   */
+  Long get(String name) {
+    if (Db.isInTransaction()) {
+      Long id = transactionNames.get().get(name);
+      if (id != null) {
+        return id;
+      }
+      if (clearedInTransaction.get()) {
+        return getTransactionDirectory().get(name);
+      }
+    }
+    NavigableMap<String, Long> committed = getCommitted();
+    synchronized (this) {
+      return committed.get(name);
+    }
+  }
+
+  /**
+   * @return The ids of the aliases whose lower case names start with the given prefix, by name
+   */
+  List<Long> getByPrefix(String prefix, int from, int to) {
+    // enough of each map to fill the page once both are merged
+    int limit = to >= 0 && to < Integer.MAX_VALUE ? to + 1 : Integer.MAX_VALUE;
+    NavigableMap<String, Long> matches = new TreeMap<>();
+    if (Db.isInTransaction()) {
+      collect(transactionNames.get(), prefix, limit, matches);
+    }
+    if (Db.isInTransaction() && clearedInTransaction.get()) {
+      collect(getTransactionDirectory(), prefix, limit, matches);
+    } else {
+      NavigableMap<String, Long> committed = getCommitted();
+      synchronized (this) {
+        collect(committed, prefix, limit, matches);
+      }
+    }
+    List<Long> ids = new ArrayList<>();
+    Iterator<Long> iterator = matches.values().iterator();
+    for (int i = 0; iterator.hasNext() && i < limit; i++) {
+      Long id = iterator.next();
+      if (i >= from) {
+        ids.add(id);
+      }
+    }
+    return ids;
+  }
+
+  void put(String name, long id) {
+    if (Db.isInTransaction()) {
+      transactionNames.get().put(name, id);
+    } else {
+      clear();
+    }
+  }
+
+  /**
+   * Drops the directory, to be loaded again after the alias table changed in other ways than through the directory.
+   */
+  void clear() {
+    synchronized (this) {
+      names = null;
+      generation++;
+    }
+    if (Db.isInTransaction()) {
+      transactionNames.get().clear();
+      transactionDirectory.remove();
+      clearedInTransaction.set(Boolean.TRUE);
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    NavigableMap<String, Long> added = transactionNames.get();
+    synchronized (this) {
+      if (clearedInTransaction.get()) {
+        // a directory loaded by another thread in the meantime shows the state before the commit
+        names = null;
+      } else if (names != null) {
+        names.putAll(added);
+      }
+      generation++;
+    }
+    transactionEnded();
+  }
+
+  @Override
+  public void transactionEnded() {
+    transactionNames.get().clear();
+    transactionDirectory.remove();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  /**
+   * @return The committed directory, to be read while holding the lock as commits add to it
+   */
+  private NavigableMap<String, Long> getCommitted() {
+    long loadedGeneration;
+    synchronized (this) {
+      if (names != null) {
+        return names;
+      }
+      loadedGeneration = generation;
+    }
+    NavigableMap<String, Long> loaded = new TreeMap<>(loader.get());
+    synchronized (this) {
+      // a load within a transaction which added aliases already shows them
+      boolean committedState = ! Db.isInTransaction() || transactionNames.get().isEmpty();
+      if (committedState && generation == loadedGeneration && names == null) {
+        names = loaded;
+      }
+    }
+    return loaded;
+  }
+
+  private NavigableMap<String, Long> getTransactionDirectory() {
+    NavigableMap<String, Long> loaded = transactionDirectory.get();
+    if (loaded == null) {
+      loaded = new TreeMap<>(loader.get());
+      transactionDirectory.set(loaded);
+    }
+    return loaded;
+  }
+
+  private static void collect(NavigableMap<String, Long> names, String prefix, int limit, Map<String, Long> matches) {
+    int collected = 0;
+    for (Map.Entry<String, Long> entry : names.tailMap(prefix, true).entrySet()) {
+      if (! entry.getKey().startsWith(prefix) || collected++ >= limit) {
+        break;
+      }
+      matches.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+}
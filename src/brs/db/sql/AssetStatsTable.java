@@ -0,0 +1,128 @@
+package brs.db.sql;
+
+import brs.Burst;
+import brs.db.BurstKey;
+import brs.db.store.DerivedTableManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static brs.schema.Tables.ASSET_STATS;
+import static brs.schema.Tables.ASSET_TRANSFER;
+import static brs.schema.Tables.TRADE;
+
+/**
+ * The number of trades, transfers and accounts of every asset, maintained by the trade, asset transfer and
+ * account asset tables as they change, so asset listings do not have to count these per asset and request.
+ *
+ * The statistics are a versioned table, rolled back together with the tables they are derived from. Statistics
+ * missing for an asset, like those of the upgrade after a rollback to before it, are counted from these tables.
+ */
+public final class AssetStatsTable {
+
+  private static final DbKey.LongKeyFactory<Stats> assetStatsDbKeyFactory = new DbKey.LongKeyFactory<Stats>("asset_id") {
+      @Override
+      public BurstKey newKey(Stats stats) {
+        return stats.dbKey;
+      }
+    };
+
+  static final class Stats {
+    private final BurstKey dbKey;
+    private final long assetId;
+    private int tradeCount;
+    private int transferCount;
+    private int accountsCount;
+
+    private Stats(long assetId, int tradeCount, int transferCount, int accountsCount) {
+      this.dbKey = assetStatsDbKeyFactory.newKey(assetId);
+      this.assetId = assetId;
+      this.tradeCount = tradeCount;
+      this.transferCount = transferCount;
+      this.accountsCount = accountsCount;
+    }
+  }
+
+  private final VersionedEntitySqlTable<Stats> assetStatsTable;
+
+  public AssetStatsTable(DerivedTableManager derivedTableManager) {
+    assetStatsTable = new VersionedEntitySqlTable<Stats>("asset_stats", ASSET_STATS, assetStatsDbKeyFactory, derivedTableManager) {
+      @Override
+      protected Stats load(DSLContext ctx, ResultSet rs) throws SQLException {
+        return new Stats(rs.getLong("asset_id"), rs.getInt("trade_count"), rs.getInt("transfer_count"), rs.getInt("accounts_count"));
+      }
+
+      @Override
+      protected void save(DSLContext ctx, Stats stats) throws SQLException {
+        brs.schema.tables.records.AssetStatsRecord statsRecord = ctx.newRecord(ASSET_STATS);
+        statsRecord.setAssetId(stats.assetId);
+        statsRecord.setTradeCount(stats.tradeCount);
+        statsRecord.setTransferCount(stats.transferCount);
+        statsRecord.setAccountsCount(stats.accountsCount);
+        statsRecord.setHeight(Burst.getBlockchain().getHeight());
+        statsRecord.setLatest(true);
+        DbUtils.mergeInto(
+            ctx, statsRecord, ASSET_STATS,
+            ( new Field[] { statsRecord.field("asset_id"), statsRecord.field("height") } )
+        );
+      }
+    };
+  }
+
+  int getTradeCount(long assetId) {
+    return get(assetId).tradeCount;
+  }
+
+  int getTransferCount(long assetId) {
+    return get(assetId).transferCount;
+  }
+
+  int getAccountsCount(long assetId) {
+    return get(assetId).accountsCount;
+  }
+
+  /**
+   * To be called before the trade is inserted.
+   */
+  void addTrade(long assetId) {
+    Stats stats = get(assetId);
+    stats.tradeCount++;
+    assetStatsTable.insert(stats);
+  }
+
+  /**
+   * To be called before the transfer is inserted.
+   */
+  void addTransfer(long assetId) {
+    Stats stats = get(assetId);
+    stats.transferCount++;
+    assetStatsTable.insert(stats);
+  }
+
+  /**
+   * To be called before the account asset is inserted or deleted.
+   */
+  void addAccounts(long assetId, int delta) {
+    Stats stats = get(assetId);
+    stats.accountsCount += delta;
+    assetStatsTable.insert(stats);
+  }
+
+  private Stats get(long assetId) {
+    Stats stats = assetStatsTable.get(assetStatsDbKeyFactory.newKey(assetId));
+    if (stats == null) {
+      Db.flushWrites("trade");
+      Db.flushWrites("asset_transfer");
+      Db.flushWrites("account_asset");
+      DSLContext ctx = Db.getDSLContext();
+      stats = new Stats(assetId,
+          ctx.fetchCount(ctx.selectFrom(TRADE).where(TRADE.ASSET_ID.eq(assetId))),
+          ctx.fetchCount(ctx.selectFrom(ASSET_TRANSFER).where(ASSET_TRANSFER.ASSET_ID.eq(assetId))),
+          ctx.fetchCount(ctx.selectFrom(ACCOUNT_ASSET).where(ACCOUNT_ASSET.ASSET_ID.eq(assetId)).and(ACCOUNT_ASSET.LATEST.isTrue())));
+    }
+    return stats;
+  }
+
+}
@@ -0,0 +1,465 @@
+package brs.db.sql;
+
+import brs.Block;
+import brs.Burst;
+import brs.BurstException;
+import brs.Transaction;
+import brs.db.BlockDb;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Complete blocks including their transactions, appended to segment files in the order of their height.
+ * A memory mapped index holds the id, segment, offset, length and checksum of the block at each height,
+ * so historical blocks can be served with a single read instead of loading block and transaction rows.
+ *
+ * The block and transaction tables stay the authority: blocks are appended once the transaction saving them
+ * commits and the segments are truncated when blocks are deleted. Blocks which did not make it into the files, because they were
+ * saved while this store was disabled or lost in a crash, are filled in from the database by
+ * {@link #catchUp(BlockDb, int, int)}. Anything which does not match the index is read from the database.
+ */
+public final class BlockFileStore implements Db.TransactionCallback {
+
+  private static final Logger logger = LoggerFactory.getLogger(BlockFileStore.class);
+
+  private static final int MAGIC = 0x42524B53;
+  private static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 16;
+  private static final int COUNT = 8;
+
+  private static final int ENTRY_SIZE = 24;
+  private static final int ENTRY_ID = 0;
+  private static final int ENTRY_SEGMENT = 8;
+  private static final int ENTRY_OFFSET = 12;
+  private static final int ENTRY_LENGTH = 16;
+  private static final int ENTRY_CRC = 20;
+
+  private static final int INITIAL_CAPACITY = 1 << 20;
+
+  private final File directory;
+  private final int segmentSize;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Integer, FileChannel> segments = new ConcurrentHashMap<>();
+  // saved by the transaction of the thread, appended when it commits
+  private final ThreadLocal<List<Block>> savedBlocks = ThreadLocal.withInitial(ArrayList::new);
+
+  private RandomAccessFile indexFile;
+  private MappedByteBuffer index;
+  private int capacity;
+  // number of blocks stored, the last one is at height count - 1
+  private int count;
+  private boolean verified;
+
+  BlockFileStore(File directory, int segmentSize) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    if (! directory.isDirectory() && ! directory.mkdirs()) {
+      throw new RuntimeException("Could not create block file directory " + directory);
+    }
+    try {
+      indexFile = new RandomAccessFile(new File(directory, "blocks.idx"), "rw");
+      boolean empty = indexFile.length() < HEADER_SIZE;
+      mapIndex(Math.max(INITIAL_CAPACITY, (int) ((indexFile.length() - HEADER_SIZE) / ENTRY_SIZE)));
+      if (empty || index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+        index.putInt(0, MAGIC);
+        index.putInt(4, VERSION);
+        setCount(0);
+      }
+      count = index.getInt(COUNT);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not open block index in " + directory, e);
+    }
+    logger.info("Block files in {} hold {} blocks", directory, count);
+  }
+
+  /**
+   * @return The height of the last block stored, -1 if there is none
+   */
+  public int getHeight() {
+    lock.readLock().lock();
+    try {
+      return count - 1;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return The id of the block at height, 0 if it is not stored
+   */
+  long getId(int height) {
+    lock.readLock().lock();
+    try {
+      return height >= 0 && height < count ? index.getLong(entry(height) + ENTRY_ID) : 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return The block at height with transactions, or null if it is not stored or does not have the expected id
+   */
+  Block get(int height, long expectedId) {
+    int chainHeight = Burst.getBlockchain().getHeight();
+    byte[] bytes;
+    long nextBlockId = 0;
+    lock.readLock().lock();
+    try {
+      if (height < 0 || height >= count || height > chainHeight) {
+        return null;
+      }
+      if (height < chainHeight) {
+        if (height + 1 >= count) {
+          return null;
+        }
+        nextBlockId = index.getLong(entry(height + 1) + ENTRY_ID);
+      }
+      int entry = entry(height);
+      if (index.getLong(entry + ENTRY_ID) != expectedId) {
+        return null;
+      }
+      bytes = read(index.getInt(entry + ENTRY_SEGMENT), index.getInt(entry + ENTRY_OFFSET), index.getInt(entry + ENTRY_LENGTH));
+      if (bytes == null || crc(bytes) != index.getInt(entry + ENTRY_CRC)) {
+        logger.debug("Block at height {} in block files is damaged", height);
+        return null;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    try {
+      return decode(bytes, nextBlockId);
+    } catch (BurstException.ValidationException | RuntimeException e) {
+      logger.debug("Could not read block at height " + height + " from block files", e);
+      return null;
+    }
+  }
+
+  /**
+   * Appends the block once the current transaction commits, so the files never serve a block which was rolled back.
+   */
+  void save(Block block) {
+    if (Db.isInTransaction()) {
+      savedBlocks.get().add(block);
+    } else {
+      append(block);
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    List<Block> blocks = savedBlocks.get();
+    blocks.forEach(this::append);
+    blocks.clear();
+  }
+
+  @Override
+  public void transactionEnded() {
+    savedBlocks.get().clear();
+  }
+
+  /**
+   * Appends the block, replacing any stored block at the same or a greater height.
+   * Blocks which do not directly follow the last stored one are left to {@link #catchUp(BlockDb, int, int)}.
+   * @return false if the block could not be appended
+   */
+  boolean append(Block block) {
+    byte[] bytes;
+    try {
+      bytes = encode(block);
+    } catch (IllegalArgumentException e) {
+      // an incomplete block must not replace the one at its height either
+      truncateFrom(block.getHeight());
+      logger.warn("Not appending block at height " + block.getHeight() + " to block files", e);
+      return false;
+    }
+    lock.writeLock().lock();
+    try {
+      if (block.getHeight() < count) {
+        truncate(block.getHeight());
+      }
+      if (block.getHeight() != count) {
+        return false;
+      }
+      int segment = 0;
+      int offset = 0;
+      if (count > 0) {
+        int last = entry(count - 1);
+        segment = index.getInt(last + ENTRY_SEGMENT);
+        offset = index.getInt(last + ENTRY_OFFSET) + index.getInt(last + ENTRY_LENGTH);
+        if ((long) offset + bytes.length > segmentSize) {
+          segment++;
+          offset = 0;
+        }
+      }
+      segment(segment).write(ByteBuffer.wrap(bytes), offset);
+      if (count >= capacity) {
+        mapIndex(capacity * 2);
+      }
+      int entry = entry(count);
+      index.putLong(entry + ENTRY_ID, block.getId());
+      index.putInt(entry + ENTRY_SEGMENT, segment);
+      index.putInt(entry + ENTRY_OFFSET, offset);
+      index.putInt(entry + ENTRY_LENGTH, bytes.length);
+      index.putInt(entry + ENTRY_CRC, crc(bytes));
+      setCount(count + 1);
+      return true;
+    } catch (IOException e) {
+      logger.warn("Could not append block at height " + block.getHeight() + " to block files", e);
+      return false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the blocks from height on.
+   */
+  void truncateFrom(int height) {
+    lock.writeLock().lock();
+    try {
+      if (height < count) {
+        truncate(Math.max(height, 0));
+      }
+    } catch (IOException e) {
+      logger.warn("Could not truncate block files at height " + height, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void clear() {
+    truncateFrom(0);
+  }
+
+  /**
+   * Copies up to maxBlocks blocks missing in the files from the database. On the first run the files are checked
+   * against the database, and emptied if they do not belong to the same chain.
+   * @return The number of blocks copied
+   */
+  public int catchUp(BlockDb blockDb, int chainHeight, int maxBlocks) {
+    if (! verified) {
+      int height = Math.min(getHeight(), chainHeight);
+      if (height >= 0 && getId(height) != blockDb.findBlockIdAtHeight(height)) {
+        logger.warn("Block files do not match the blockchain, rebuilding them");
+        clear();
+      } else {
+        truncateFrom(chainHeight + 1);
+      }
+      verified = true;
+    }
+    int copied = 0;
+    for (int height = getHeight() + 1; height <= chainHeight && copied < maxBlocks; height++) {
+      Block block = blockDb.findBlockAtHeight(height);
+      block.getTransactions();
+      if (! append(block)) {
+        break;
+      }
+      copied++;
+    }
+    return copied;
+  }
+
+  void close() {
+    lock.writeLock().lock();
+    try {
+      index.force();
+      for (FileChannel channel : segments.values()) {
+        channel.force(true);
+        channel.close();
+      }
+      segments.clear();
+      indexFile.close();
+    } catch (IOException e) {
+      logger.warn("Could not close block files", e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void truncate(int height) throws IOException {
+    int entry = entry(height);
+    int segment = index.getInt(entry + ENTRY_SEGMENT);
+    segment(segment).truncate(index.getInt(entry + ENTRY_OFFSET));
+    int lastSegment = index.getInt(entry(count - 1) + ENTRY_SEGMENT);
+    for (int s = segment + 1; s <= lastSegment; s++) {
+      FileChannel channel = segments.remove(s);
+      if (channel != null) {
+        channel.close();
+      }
+      File file = segmentFile(s);
+      if (file.exists() && ! file.delete()) {
+        logger.warn("Could not delete {}", file);
+      }
+    }
+    setCount(height);
+  }
+
+  private byte[] read(int segment, int offset, int length) {
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      FileChannel channel = segment(segment);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, offset + buffer.position()) < 0) {
+          return null;
+        }
+      }
+      return buffer.array();
+    } catch (IOException e) {
+      logger.debug("Could not read from block segment " + segment, e);
+      return null;
+    }
+  }
+
+  private FileChannel segment(int segment) throws IOException {
+    FileChannel channel = segments.get(segment);
+    if (channel == null) {
+      synchronized (segments) {
+        channel = segments.get(segment);
+        if (channel == null) {
+          channel = new RandomAccessFile(segmentFile(segment), "rw").getChannel();
+          segments.put(segment, channel);
+        }
+      }
+    }
+    return channel;
+  }
+
+  private File segmentFile(int segment) {
+    return new File(directory, String.format("blocks-%05d.dat", segment));
+  }
+
+  private void mapIndex(int newCapacity) throws IOException {
+    long size = HEADER_SIZE + (long) newCapacity * ENTRY_SIZE;
+    if (indexFile.length() < size) {
+      indexFile.setLength(size);
+    }
+    index = indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    capacity = newCapacity;
+  }
+
+  private void setCount(int newCount) {
+    count = newCount;
+    index.putInt(COUNT, newCount);
+  }
+
+  private static int entry(int height) {
+    return HEADER_SIZE + height * ENTRY_SIZE;
+  }
+
+  private static int crc(byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * @throws IllegalArgumentException if a transaction of the block is not signed, the block would be incomplete
+   */
+  private static byte[] encode(Block block) {
+    List<byte[]> transactions = new ArrayList<>();
+    int length = 0;
+    for (Transaction transaction : block.getTransactions()) {
+      if (transaction.getSignature() == null) {
+        throw new IllegalArgumentException("Transaction " + transaction.getStringId() + " of block " + block.getStringId() + " is not signed");
+      }
+      byte[] bytes = transaction.getBytes();
+      transactions.add(bytes);
+      length += 4 + bytes.length;
+    }
+    byte[] cumulativeDifficulty = block.getCumulativeDifficulty().toByteArray();
+    length += 4 + 4 + 8 + 8 + 8 + 4 + 8 + 4 + 8 + 8 + 4
+        + size(block.getPayloadHash()) + size(block.getGeneratorPublicKey()) + size(block.getGenerationSignature())
+        + size(block.getBlockSignature()) + size(block.getPreviousBlockHash()) + size(cumulativeDifficulty)
+        + size(block.getBlockATs());
+
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.putInt(block.getVersion());
+    buffer.putInt(block.getTimestamp());
+    buffer.putLong(block.getPreviousBlockId());
+    buffer.putLong(block.getTotalAmountNQT());
+    buffer.putLong(block.getTotalFeeNQT());
+    buffer.putInt(block.getPayloadLength());
+    buffer.putLong(block.getBaseTarget());
+    buffer.putInt(block.getHeight());
+    buffer.putLong(block.getId());
+    buffer.putLong(block.getNonce());
+    put(buffer, block.getPayloadHash());
+    put(buffer, block.getGeneratorPublicKey());
+    put(buffer, block.getGenerationSignature());
+    put(buffer, block.getBlockSignature());
+    put(buffer, block.getPreviousBlockHash());
+    put(buffer, cumulativeDifficulty);
+    put(buffer, block.getBlockATs());
+    buffer.putInt(transactions.size());
+    transactions.forEach(bytes -> put(buffer, bytes));
+    return buffer.array();
+  }
+
+  private static Block decode(byte[] bytes, long nextBlockId) throws BurstException.ValidationException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int version = buffer.getInt();
+    int timestamp = buffer.getInt();
+    long previousBlockId = buffer.getLong();
+    long totalAmountNQT = buffer.getLong();
+    long totalFeeNQT = buffer.getLong();
+    int payloadLength = buffer.getInt();
+    long baseTarget = buffer.getLong();
+    int height = buffer.getInt();
+    long id = buffer.getLong();
+    long nonce = buffer.getLong();
+    byte[] payloadHash = get(buffer);
+    byte[] generatorPublicKey = get(buffer);
+    byte[] generationSignature = get(buffer);
+    byte[] blockSignature = get(buffer);
+    byte[] previousBlockHash = get(buffer);
+    BigInteger cumulativeDifficulty = new BigInteger(get(buffer));
+    byte[] blockATs = get(buffer);
+    int transactionCount = buffer.getInt();
+    List<Transaction> transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      transactions.add(Transaction.parseTransaction(get(buffer)));
+    }
+    return new Block(version, timestamp, previousBlockId, totalAmountNQT, totalFeeNQT, payloadLength, payloadHash,
+        generatorPublicKey, generationSignature, blockSignature, previousBlockHash, cumulativeDifficulty, baseTarget,
+        nextBlockId, height, id, nonce, blockATs, transactions);
+  }
+
+  private static int size(byte[] bytes) {
+    return 4 + (bytes != null ? bytes.length : 0);
+  }
+
+  private static void put(ByteBuffer buffer, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+  }
+
+  private static byte[] get(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+}
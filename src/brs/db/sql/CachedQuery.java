@@ -0,0 +1,65 @@
+package brs.db.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Function;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+
+/**
+ * A query on a hot path, built with jOOQ and rendered to SQL only once. Executions bind their values straight
+ * to a prepared statement, which is reused for the rest of the transaction.
+ *
+ * Queries have to be built with {@link DSL#param(String, Class)} for the values bound on execution, in the order
+ * they are passed, and {@link DSL#inline(Object)} for constants, as these would otherwise be bound as well.
+ */
+final class CachedQuery {
+
+  interface ResultSetHandler<T> {
+    T handle(ResultSet rs) throws SQLException;
+  }
+
+  private final Function<DSLContext, ? extends Query> queryFactory;
+  private volatile String sql;
+
+  CachedQuery(Function<DSLContext, ? extends Query> queryFactory) {
+    this.queryFactory = queryFactory;
+  }
+
+  <T> T fetch(ResultSetHandler<T> handler, Object... values) {
+    try {
+      return Db.withStatement(getSql(), stmt -> {
+        bind(stmt, values);
+        try (ResultSet rs = stmt.executeQuery()) {
+          return handler.handle(rs);
+        }
+      });
+    } catch (SQLException e) {
+      throw new RuntimeException(e.toString(), e);
+    }
+  }
+
+  boolean exists(Object... values) {
+    return fetch(ResultSet::next, values);
+  }
+
+  String getSql() {
+    if (sql == null) {
+      Settings settings = new Settings();
+      settings.setRenderSchema(Boolean.FALSE);
+      DSLContext ctx = DSL.using(Db.getDialect(), settings);
+      sql = ctx.render(queryFactory.apply(ctx));
+    }
+    return sql;
+  }
+
+  private static void bind(PreparedStatement stmt, Object[] values) throws SQLException {
+    for (int i = 0; i < values.length; i++) {
+      stmt.setObject(i + 1, values[i]);
+    }
+  }
+
+}
@@ -0,0 +1,36 @@
+package brs.db.sql;
+
+import brs.db.BurstIterator;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Iterates over entities already held in memory, for the stores answering queries without the database.
+ */
+final class CollectionIterator<T> implements BurstIterator<T> {
+
+  private final Iterator<T> iterator;
+
+  CollectionIterator(Collection<T> collection) {
+    this.iterator = collection.iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return iterator.hasNext();
+  }
+
+  @Override
+  public T next() {
+    return iterator.next();
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Removal not supported");
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -13,12 +13,19 @@ import brs.db.store.Dbs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.jooq.impl.DSL;
 import org.jooq.DSLContext;
@@ -30,15 +37,65 @@ public final class Db {
   private static final Logger logger = LoggerFactory.getLogger(Db.class);
 
   private static HikariDataSource cp;
+  private static HikariDataSource readCp;
   private static SQLDialect dialect;
   private static final ThreadLocal<DbConnection> localConnection = new ThreadLocal<>();
   private static final ThreadLocal<Map<String, Map<DbKey, Object>>> transactionCaches = new ThreadLocal<>();
   private static final ThreadLocal<Map<String, Map<DbKey, Object>>> transactionBatches = new ThreadLocal<>();
+  private static final ThreadLocal<Map<String, WriteBuffer>> pendingWrites = new ThreadLocal<>();
+  private static final ThreadLocal<Map<String, Set<DbKey>>> sharedCacheChanges = new ThreadLocal<>();
+  private static final ThreadLocal<Set<String>> clearedSharedCaches = new ThreadLocal<>();
 
   private static DBCacheManagerImpl dbCacheManager;
 
+  private static BlockFileStore blockFileStore;
+
+  private static long countReconcileInterval;
+  private static boolean verifyATSchedule;
+
+  private static final long REPLICA_CHECK_INTERVAL_MS = 1000;
+  private static final ThreadLocal<Boolean> readOnlyThread = ThreadLocal.withInitial(() -> false);
+  private static final Object replicaCheckLock = new Object();
+  private static boolean readReplica;
+  private static int maxReplicaLag;
+  private static volatile long replicaCheckedAt;
+  private static volatile int replicaLag;
+  private static volatile boolean replicaLagging;
+
+  private static final List<TransactionCallback> transactionCallbacks = new CopyOnWriteArrayList<>();
+
+  /**
+   * Notified on the thread of the transaction, for state kept outside of the database which is updated during
+   * transactions.
+   */
+  interface TransactionCallback {
+    void transactionCommitted();
+
+    /** Called when the transaction is rolled back or ends, anything not committed by then is gone. */
+    void transactionEnded();
+  }
+
+  static void addTransactionCallback(TransactionCallback callback) {
+    transactionCallbacks.add(callback);
+  }
+
+  /**
+   * A table holding back its writes within a transaction, see {@link #bufferWrites(String, WriteBuffer)}.
+   */
+  interface WriteBuffer {
+    void flushWrites();
+  }
+
   public static void init(PropertyService propertyService, DBCacheManagerImpl dbCacheManager) {
     Db.dbCacheManager = dbCacheManager;
+    countReconcileInterval = propertyService.getInt(Props.DB_COUNT_RECONCILE_INTERVAL) * 1000L;
+    verifyATSchedule = propertyService.getBoolean(Props.DB_VERIFY_AT_SCHEDULE);
+
+    if (propertyService.getBoolean(Props.DB_BLOCK_FILES)) {
+      blockFileStore = new BlockFileStore(new File(propertyService.getString(Props.DB_BLOCK_FILES_DIR)),
+          propertyService.getInt(Props.DB_BLOCK_FILES_SEGMENT_MB) * 1024 * 1024);
+      addTransactionCallback(blockFileStore);
+    }
 
     String dbUrl;
     String dbUsername;
@@ -58,40 +115,25 @@ public final class Db {
 
     logger.debug("Database jdbc url set to: " + dbUrl);
     try {
-      HikariConfig config = new HikariConfig();
-      config.setJdbcUrl(dbUrl);
-      if (dbUsername != null)
-        config.setUsername(dbUsername);
-      if (dbPassword != null)
-        config.setPassword(dbPassword);
-
-      config.setMaximumPoolSize(propertyService.getInt(Props.DB_CONNECTIONS));
-
-      switch (dialect) {
-        case MYSQL:
-        case MARIADB:
-          config.setAutoCommit(true);
-          config.addDataSourceProperty("cachePrepStmts", "true");
-          config.addDataSourceProperty("prepStmtCacheSize", "250");
-          config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-          config.addDataSourceProperty("characterEncoding", "utf8mb4");
-          config.addDataSourceProperty("useUnicode", "true");
-          config.addDataSourceProperty("useServerPrepStmts", "false");
-          config.addDataSourceProperty("rewriteBatchedStatements", "true");
-          config.setConnectionInitSql("SET NAMES utf8mb4;");
-          break;
-        case H2:
-          Class.forName("org.h2.Driver");
-          config.setAutoCommit(true);
-          config.addDataSourceProperty("cachePrepStmts", "true");
-          config.addDataSourceProperty("prepStmtCacheSize", "250");
-          config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-          config.addDataSourceProperty("DATABASE_TO_UPPER", "false");
-          break;
+      cp = createPool(dbUrl, dbUsername, dbPassword, propertyService.getInt(Props.DB_CONNECTIONS), false);
+
+      // API and peer requests read from a pool of their own, so they can not take the connections needed for block import
+      int readConnections = propertyService.getInt(Props.DB_READ_CONNECTIONS);
+      String readUrl = propertyService.getString(Props.DB_READ_URL);
+      if (readConnections > 0) {
+        if (readUrl.isEmpty()) {
+          readCp = createPool(dbUrl, dbUsername, dbPassword, readConnections, false);
+        } else {
+          if (org.jooq.tools.jdbc.JDBCUtils.dialect(readUrl) != dialect) {
+            throw new IllegalArgumentException("Read replica " + readUrl + " has to use the same database type as " + dbUrl);
+          }
+          logger.info("Reading API and peer requests from replica " + readUrl);
+          readCp = createPool(readUrl, propertyService.getString(Props.DB_READ_USERNAME), propertyService.getString(Props.DB_READ_PASSWORD),
+              readConnections, true);
+          readReplica = true;
+          maxReplicaLag = propertyService.getInt(Props.DB_MAX_REPLICA_LAG);
+        }
       }
-      // config.setLeakDetectionThreshold(2000);
-
-      cp = new HikariDataSource(config);
 
       if (dialect == SQLDialect.H2) {
         int defaultLockTimeout = propertyService.getInt(Props.DB_LOCK_TIMEOUT) * 1000;
@@ -108,9 +150,110 @@ public final class Db {
     }
   }
 
+  private static HikariDataSource createPool(String url, String username, String password, int size, boolean readOnly) throws ClassNotFoundException {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(url);
+    if (username != null)
+      config.setUsername(username);
+    if (password != null)
+      config.setPassword(password);
+
+    config.setMaximumPoolSize(size);
+    config.setReadOnly(readOnly);
+
+    switch (dialect) {
+      case MYSQL:
+      case MARIADB:
+        config.setAutoCommit(true);
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("characterEncoding", "utf8mb4");
+        config.addDataSourceProperty("useUnicode", "true");
+        config.addDataSourceProperty("useServerPrepStmts", "false");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.setConnectionInitSql("SET NAMES utf8mb4;");
+        break;
+      case H2:
+        Class.forName("org.h2.Driver");
+        config.setAutoCommit(true);
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("DATABASE_TO_UPPER", "false");
+        break;
+    }
+    // config.setLeakDetectionThreshold(2000);
+
+    return new HikariDataSource(config);
+  }
+
   private Db() {
   } // never
 
+  /**
+   * Marks the current thread as serving API or peer requests. Outside of transactions its queries go to the
+   * read pool, transactions always use the write pool.
+   */
+  public static void setReadOnlyThread(boolean readOnly) {
+    readOnlyThread.set(readOnly);
+  }
+
+  /**
+   * @return The number of blocks the read replica is behind, 0 without a replica
+   */
+  public static int getReplicaLag() {
+    return replicaLag;
+  }
+
+  private static HikariDataSource getDataSource() {
+    if (readCp != null && readOnlyThread.get() && ! isReplicaLagging()) {
+      return readCp;
+    }
+    return cp;
+  }
+
+  private static boolean isReplicaLagging() {
+    if (! readReplica) {
+      return false;
+    }
+    long now = System.currentTimeMillis();
+    if (now - replicaCheckedAt >= REPLICA_CHECK_INTERVAL_MS) {
+      synchronized (replicaCheckLock) {
+        if (now - replicaCheckedAt >= REPLICA_CHECK_INTERVAL_MS) {
+          checkReplicaLag();
+          replicaCheckedAt = now;
+        }
+      }
+    }
+    return replicaLagging;
+  }
+
+  private static void checkReplicaLag() {
+    if (Burst.getBlockchain() == null) {
+      return;
+    }
+    boolean lagging;
+    try (Connection con = readCp.getConnection();
+         Statement stmt = con.createStatement();
+         ResultSet rs = stmt.executeQuery("SELECT MAX(height) FROM block")) {
+      int replicaHeight = rs.next() ? rs.getInt(1) : 0;
+      replicaLag = Math.max(Burst.getBlockchain().getHeight() - replicaHeight, 0);
+      lagging = replicaLag > maxReplicaLag;
+    } catch (SQLException e) {
+      logger.debug("Could not get height of read replica", e);
+      lagging = true;
+    }
+    if (lagging != replicaLagging) {
+      if (lagging) {
+        logger.warn("Read replica is " + replicaLag + " blocks behind, reading from the main database");
+      } else {
+        logger.info("Read replica caught up, reading from it again");
+      }
+      replicaLagging = lagging;
+    }
+  }
+
   public static Dbs getDbsByDatabaseType() {
     switch (dialect) {
       case MYSQL:
@@ -138,7 +281,28 @@ public final class Db {
     }
   }
 
+  /**
+   * @return The store of complete blocks in flat files, null if disabled
+   */
+  public static BlockFileStore getBlockFileStore() {
+    return blockFileStore;
+  }
+
+  /**
+   * @return The number of ms after which maintained row counts are checked against the database
+   */
+  static long getCountReconcileInterval() {
+    return countReconcileInterval;
+  }
+
+  static boolean isVerifyATSchedule() {
+    return verifyATSchedule;
+  }
+
   public static void shutdown() {
+    if (blockFileStore != null) {
+      blockFileStore.close();
+    }
     if (dialect == SQLDialect.H2) {
       try ( Connection con = cp.getConnection(); Statement stmt = con.createStatement() ) {
         // COMPACT is not giving good result.
@@ -158,10 +322,13 @@ public final class Db {
     if ( ! cp.isClosed() ) {
       cp.close();
     }
+    if ( readCp != null && ! readCp.isClosed() ) {
+      readCp.close();
+    }
   }
 
   private static Connection getPooledConnection() throws SQLException {
-      return cp.getConnection();
+      return getDataSource().getConnection();
   }
 
   public static Connection getConnection() throws SQLException {
@@ -181,7 +348,7 @@ public final class Db {
     settings.setRenderSchema(Boolean.FALSE);
 
     if ( con == null ) {
-      try ( DSLContext ctx = DSL.using(cp, dialect, settings) ) {
+      try ( DSLContext ctx = DSL.using(getDataSource(), dialect, settings) ) {
         return ctx;
       }
     }
@@ -204,10 +371,58 @@ public final class Db {
     if (!isInTransaction()) {
       throw new IllegalStateException("Not in transaction");
     }
-      Map<DbKey, Object> batchMap = transactionBatches.get().computeIfAbsent(tableName, k -> new HashMap<>());
+      Map<DbKey, Object> batchMap = transactionBatches.get().computeIfAbsent(tableName, k -> new LinkedHashMap<>());
       return batchMap;
   }
 
+  /**
+   * Records an entry of a shared cache put or removed within the transaction. Entries of the state within the
+   * transaction must not outlive a rollback, they are the only ones dropped from the shared caches then.
+   * @param dbKey the entry, null if the whole cache was cleared
+   */
+  static void sharedCacheChanged(String tableName, DbKey dbKey) {
+    if (!isInTransaction()) {
+      return;
+    }
+    if (dbKey == null) {
+      clearedSharedCaches.get().add(tableName);
+    } else {
+      sharedCacheChanges.get().computeIfAbsent(tableName, k -> new HashSet<>()).add(dbKey);
+    }
+  }
+
+  /**
+   * Registers a table with writes held back in its batch. The table flushes them when the block is finished and
+   * before its own queries, the ones still held back are flushed before the transaction commits.
+   */
+  static void bufferWrites(String tableName, WriteBuffer buffer) {
+    if (!isInTransaction()) {
+      throw new IllegalStateException("Not in transaction");
+    }
+    pendingWrites.get().putIfAbsent(tableName, buffer);
+  }
+
+  /**
+   * Flushes the held back writes of a table, to be called before querying it other than through the table.
+   */
+  static void flushWrites(String tableName) {
+    Map<String, WriteBuffer> pending = pendingWrites.get();
+    if (pending == null) {
+      return;
+    }
+    WriteBuffer buffer = pending.remove(tableName);
+    if (buffer != null) {
+      buffer.flushWrites();
+    }
+  }
+
+  private static void flushWrites() {
+    Map<String, WriteBuffer> pending = pendingWrites.get();
+    while (!pending.isEmpty()) {
+      flushWrites(pending.keySet().iterator().next());
+    }
+  }
+
   public static boolean isInTransaction() {
     return localConnection.get() != null;
   }
@@ -225,6 +440,9 @@ public final class Db {
       localConnection.set((DbConnection) con);
       transactionCaches.set(new HashMap<>());
       transactionBatches.set(new HashMap<>());
+      pendingWrites.set(new LinkedHashMap<>());
+      sharedCacheChanges.set(new HashMap<>());
+      clearedSharedCaches.set(new HashSet<>());
 
       return con;
     }
@@ -239,11 +457,15 @@ public final class Db {
       throw new IllegalStateException("Not in transaction");
     }
     try {
+      flushWrites();
       con.doCommit();
     }
     catch (SQLException e) {
       throw new RuntimeException(e.toString(), e);
     }
+    sharedCacheChanges.get().clear();
+    clearedSharedCaches.get().clear();
+    transactionCallbacks.forEach(TransactionCallback::transactionCommitted);
   }
 
   public static void rollbackTransaction() {
@@ -259,7 +481,19 @@ public final class Db {
     }
     transactionCaches.get().clear();
     transactionBatches.get().clear();
-    dbCacheManager.flushCache();
+    pendingWrites.get().clear();
+    // a rollback of a transaction which only read, such as assembling a block template, keeps the shared caches
+    for (String tableName : clearedSharedCaches.get()) {
+      dbCacheManager.flushCache(tableName, null);
+    }
+    for (Map.Entry<String, Set<DbKey>> changes : sharedCacheChanges.get().entrySet()) {
+      if (!clearedSharedCaches.get().contains(changes.getKey())) {
+        dbCacheManager.flushCache(changes.getKey(), changes.getValue());
+      }
+    }
+    sharedCacheChanges.get().clear();
+    clearedSharedCaches.get().clear();
+    transactionCallbacks.forEach(TransactionCallback::transactionEnded);
   }
 
   public static void endTransaction() {
@@ -272,15 +506,52 @@ public final class Db {
     transactionCaches.set(null);
     transactionBatches.get().clear();
     transactionBatches.set(null);
+    pendingWrites.set(null);
+    sharedCacheChanges.set(null);
+    clearedSharedCaches.set(null);
     DbUtils.close(con);
+    transactionCallbacks.forEach(TransactionCallback::transactionEnded);
+  }
+
+  interface StatementCallback<T> {
+    T apply(PreparedStatement stmt) throws SQLException;
+  }
+
+  /**
+   * Runs the callback with a prepared statement for sql. Within a transaction the statement is kept and reused
+   * until the transaction ends, otherwise it is prepared on a pooled connection and closed afterwards.
+   */
+  static <T> T withStatement(String sql, StatementCallback<T> callback) throws SQLException {
+    DbConnection con = localConnection.get();
+    if (con != null) {
+      return callback.apply(con.prepareCached(sql));
+    }
+    try (Connection pooled = getPooledConnection(); PreparedStatement stmt = pooled.prepareStatement(sql)) {
+      return callback.apply(stmt);
+    }
+  }
+
+  static SQLDialect getDialect() {
+    return dialect;
   }
 
   private static class DbConnection extends FilteredConnection {
 
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
     private DbConnection(Connection con) {
       super(con);
     }
 
+    private PreparedStatement prepareCached(String sql) throws SQLException {
+      PreparedStatement stmt = statements.get(sql);
+      if (stmt == null) {
+        stmt = prepareStatement(sql);
+        statements.put(sql, stmt);
+      }
+      return stmt;
+    }
+
     @Override
     public void setAutoCommit(boolean autoCommit) {
       throw new UnsupportedOperationException("Use Db.beginTransaction() to start a new transaction");
@@ -323,6 +594,8 @@ public final class Db {
     @Override
     public void close() throws SQLException {
       if (localConnection.get() == null) {
+        statements.values().forEach(DbUtils::close);
+        statements.clear();
         super.close();
       }
       else if (!this.equals(localConnection.get())) {
@@ -0,0 +1,431 @@
+package brs.db.sql;
+
+import brs.at.AT_StateCodec;
+import brs.crypto.Crypto;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.jooq.BatchBindStep;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.impl.TableImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Snapshot of the blockchain and all derived tables at one height, so a node can be bootstrapped without
+ * applying every block since genesis.
+ *
+ * The file is gzipped and starts with a versioned header holding the height, the id of the last block and
+ * a digest of the derived state. It is followed by the rows of every table and a SHA-256 checksum over
+ * everything before it. The state digest is independent of row order and database ids, which makes it
+ * comparable between nodes and after blocks have been popped off and pushed again.
+ */
+public final class DbSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(DbSnapshot.class);
+
+  private static final String MAGIC = "BRS-SNAPSHOT";
+  public static final int VERSION = 4;
+
+  private static final int INSERT_BATCH_SIZE = 1000;
+
+  private static final byte END_OF_TABLE = 0;
+  private static final byte ROW = 1;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte LONG_VALUE = 1;
+  private static final byte INT_VALUE = 2;
+  private static final byte SHORT_VALUE = 3;
+  private static final byte BYTE_VALUE = 4;
+  private static final byte BOOLEAN_VALUE = 5;
+  private static final byte STRING_VALUE = 6;
+  private static final byte BYTES_VALUE = 7;
+
+  // parents before children, so the rows can be inserted in file order
+  private static final List<TableImpl<?>> TABLES = Collections.unmodifiableList(Arrays.asList(
+      brs.schema.Tables.BLOCK, brs.schema.Tables.TRANSACTION, brs.schema.Tables.ACCOUNT_TRANSACTION,
+      brs.schema.Tables.ACCOUNT, brs.schema.Tables.ACCOUNT_ASSET, brs.schema.Tables.ALIAS, brs.schema.Tables.ALIAS_OFFER,
+      brs.schema.Tables.ASK_ORDER, brs.schema.Tables.ASSET, brs.schema.Tables.ASSET_TRANSFER,
+      brs.schema.Tables.AT, brs.schema.Tables.AT_STATE, brs.schema.Tables.BID_ORDER,
+      brs.schema.Tables.ESCROW, brs.schema.Tables.ESCROW_DECISION,
+      brs.schema.Tables.GOODS, brs.schema.Tables.PURCHASE,
+      brs.schema.Tables.PURCHASE_FEEDBACK, brs.schema.Tables.PURCHASE_PUBLIC_FEEDBACK,
+      brs.schema.Tables.REWARD_RECIP_ASSIGN, brs.schema.Tables.SUBSCRIPTION, brs.schema.Tables.TRADE,
+      brs.schema.Tables.ASSET_STATS));
+
+  // the history tables only matter for the state digest as far as the latest versions are concerned
+  private static final List<TableImpl<?>> HISTORY_TABLES = Collections.unmodifiableList(Arrays.asList(
+      brs.schema.Tables.BLOCK, brs.schema.Tables.TRANSACTION, brs.schema.Tables.ACCOUNT_TRANSACTION));
+
+  private DbSnapshot() {
+  }
+
+  public static final class Header {
+    private final int version;
+    private final int height;
+    private final long lastBlockId;
+    private final byte[] stateDigest;
+
+    private Header(int version, int height, long lastBlockId, byte[] stateDigest) {
+      this.version = version;
+      this.height = height;
+      this.lastBlockId = lastBlockId;
+      this.stateDigest = stateDigest;
+    }
+
+    public int getVersion() {
+      return version;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public long getLastBlockId() {
+      return lastBlockId;
+    }
+
+    public byte[] getStateDigest() {
+      return stateDigest;
+    }
+  }
+
+  private interface RowHandler {
+    void table(TableImpl<?> table, List<Field<?>> fields);
+    void row(Object[] values);
+    void endOfTable();
+  }
+
+  /**
+   * Writes the current content of the database, which has to be at the given height, to file.
+   * The caller has to make sure no blocks are pushed or popped meanwhile.
+   */
+  public static void export(File file, int height, long lastBlockId) throws IOException {
+    long start = System.currentTimeMillis();
+    byte[] stateDigest = stateDigest();
+    File tempFile = new File(file.getPath() + ".tmp");
+    MessageDigest checksum = Crypto.sha256();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      DataOutputStream out = new DataOutputStream(new DigestOutputStream(gzip, checksum));
+      out.writeUTF(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(height);
+      out.writeLong(lastBlockId);
+      out.write(stateDigest);
+      out.writeInt(TABLES.size());
+      long rows = 0;
+      DSLContext ctx = Db.getDSLContext();
+      for (TableImpl<?> table : TABLES) {
+        rows += writeTable(ctx, table, out);
+      }
+      out.flush();
+      gzip.write(checksum.digest());
+      logger.info("Exported {} rows at height {} to {} in {} ms", rows, height, file, System.currentTimeMillis() - start);
+    } catch (IOException | RuntimeException e) {
+      if (! tempFile.delete()) {
+        logger.debug("Could not delete {}", tempFile);
+      }
+      throw e;
+    }
+    if ((file.exists() && ! file.delete()) || ! tempFile.renameTo(file)) {
+      throw new IOException("Could not move snapshot to " + file);
+    }
+  }
+
+  /**
+   * Reads through the whole file and checks its version and checksum.
+   * @return The header of the snapshot
+   */
+  public static Header verify(File file) throws IOException {
+    return read(file, null);
+  }
+
+  /**
+   * Inserts the rows of the snapshot into the tables, which have to be empty.
+   * Has to be called within a transaction, the file should have been verified before.
+   */
+  public static Header importInto(File file) throws IOException {
+    if (! Db.isInTransaction()) {
+      throw new IllegalStateException("Not in transaction");
+    }
+    DSLContext ctx = Db.getDSLContext();
+    long start = System.currentTimeMillis();
+    long[] rows = new long[1];
+    Header header = read(file, new RowHandler() {
+      private TableImpl<?> table;
+      private List<Field<?>> fields;
+      private List<Object[]> batch = new ArrayList<>();
+
+      @Override
+      public void table(TableImpl<?> table, List<Field<?>> fields) {
+        this.table = table;
+        this.fields = fields;
+      }
+
+      @Override
+      public void row(Object[] values) {
+        batch.add(values);
+        rows[0]++;
+        if (batch.size() >= INSERT_BATCH_SIZE) {
+          flush();
+        }
+      }
+
+      @Override
+      public void endOfTable() {
+        flush();
+      }
+
+      private void flush() {
+        if (batch.isEmpty()) {
+          return;
+        }
+        InsertValuesStepN<?> insert = ctx.insertInto(table, fields).values(new Object[fields.size()]);
+        BatchBindStep batchStep = ctx.batch(insert);
+        for (Object[] values : batch) {
+          batchStep = batchStep.bind(values);
+        }
+        batchStep.execute();
+        batch.clear();
+      }
+    });
+    logger.info("Imported {} rows at height {} from {} in {} ms", rows[0], header.getHeight(), file, System.currentTimeMillis() - start);
+    return header;
+  }
+
+  /**
+   * Digest over the latest state of all derived tables. Each row is hashed on its own, without the database id,
+   * and the row hashes are added up, so the digest does not depend on the order rows are stored or read in.
+   */
+  @SuppressWarnings("unchecked")
+  public static byte[] stateDigest() {
+    MessageDigest digest = Crypto.sha256();
+    DSLContext ctx = Db.getDSLContext();
+    for (TableImpl<?> table : TABLES) {
+      // the asset statistics are written at different heights depending on when a node created them
+      if (HISTORY_TABLES.contains(table) || table == brs.schema.Tables.ASSET_STATS) {
+        continue;
+      }
+      Field<?> dbId = table.field("db_id");
+      Field<Boolean> latest = (Field<Boolean>) table.field("latest");
+      long[] sum = new long[4];
+      long count = 0;
+      ResultQuery<? extends Record> query;
+      if (latest != null) {
+        query = ctx.selectFrom(table).where(latest.isTrue());
+      } else {
+        query = ctx.selectFrom(table);
+      }
+      try (Cursor<? extends Record> cursor = query.fetchLazy()) {
+        for (Record record : cursor) {
+          MessageDigest rowDigest = Crypto.sha256();
+          for (Field<?> field : table.fields()) {
+            if (field.equals(brs.schema.Tables.AT_STATE.STATE) || field.equals(brs.schema.Tables.AT.AP_CODE)) {
+              // digested uncompressed, nodes may write them with different codecs
+              updateDigest(rowDigest, AT_StateCodec.decompress((byte[]) record.get(field)));
+            } else if (! field.equals(dbId)) {
+              updateDigest(rowDigest, record.get(field));
+            }
+          }
+          ByteBuffer rowHash = ByteBuffer.wrap(rowDigest.digest());
+          for (int i = 0; i < sum.length; i++) {
+            sum[i] += rowHash.getLong();
+          }
+          count++;
+        }
+      }
+      ByteBuffer tableDigest = ByteBuffer.allocate(8 * (sum.length + 1));
+      for (long lane : sum) {
+        tableDigest.putLong(lane);
+      }
+      tableDigest.putLong(count);
+      digest.update(table.getName().getBytes(StandardCharsets.UTF_8));
+      digest.update(tableDigest.array());
+    }
+    return digest.digest();
+  }
+
+  private static long writeTable(DSLContext ctx, TableImpl<?> table, DataOutputStream out) throws IOException {
+    Field<?>[] fields = table.fields();
+    out.writeUTF(table.getName());
+    out.writeInt(fields.length);
+    for (Field<?> field : fields) {
+      out.writeUTF(field.getName());
+    }
+    long rows = 0;
+    try (Cursor<? extends Record> cursor = ctx.selectFrom(table).fetchLazy()) {
+      for (Record record : cursor) {
+        out.writeByte(ROW);
+        for (Field<?> field : fields) {
+          writeValue(out, record.get(field));
+        }
+        rows++;
+      }
+    }
+    out.writeByte(END_OF_TABLE);
+    return rows;
+  }
+
+  private static Header read(File file, RowHandler handler) throws IOException {
+    MessageDigest checksum = Crypto.sha256();
+    try (InputStream gzip = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      DataInputStream in = new DataInputStream(new DigestInputStream(gzip, checksum));
+      if (! MAGIC.equals(in.readUTF())) {
+        throw new IOException(file + " is not a snapshot");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version + ", expected " + VERSION);
+      }
+      int height = in.readInt();
+      long lastBlockId = in.readLong();
+      byte[] stateDigest = new byte[32];
+      in.readFully(stateDigest);
+
+      int tableCount = in.readInt();
+      for (int t = 0; t < tableCount; t++) {
+        TableImpl<?> table = findTable(in.readUTF());
+        int columnCount = in.readInt();
+        List<Field<?>> fields = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+          String column = in.readUTF();
+          Field<?> field = table.field(column);
+          if (field == null) {
+            throw new IOException("Unknown column " + column + " in table " + table.getName());
+          }
+          fields.add(field);
+        }
+        if (handler != null) {
+          handler.table(table, fields);
+        }
+        while (in.readByte() == ROW) {
+          Object[] values = new Object[columnCount];
+          for (int c = 0; c < columnCount; c++) {
+            values[c] = readValue(in);
+          }
+          if (handler != null) {
+            handler.row(values);
+          }
+        }
+        if (handler != null) {
+          handler.endOfTable();
+        }
+      }
+
+      byte[] expected = checksum.digest();
+      byte[] actual = new byte[expected.length];
+      new DataInputStream(gzip).readFully(actual);
+      if (! MessageDigest.isEqual(expected, actual)) {
+        throw new IOException("Checksum mismatch, " + file + " is corrupted");
+      }
+      return new Header(version, height, lastBlockId, stateDigest);
+    }
+  }
+
+  private static TableImpl<?> findTable(String name) throws IOException {
+    for (TableImpl<?> table : TABLES) {
+      if (table.getName().equals(name)) {
+        return table;
+      }
+    }
+    throw new IOException("Unknown table " + name);
+  }
+
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL_VALUE);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG_VALUE);
+      out.writeLong((Long) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INT_VALUE);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Short) {
+      out.writeByte(SHORT_VALUE);
+      out.writeShort((Short) value);
+    } else if (value instanceof Byte) {
+      out.writeByte(BYTE_VALUE);
+      out.writeByte((Byte) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN_VALUE);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof String) {
+      byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+      out.writeByte(STRING_VALUE);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    } else if (value instanceof byte[]) {
+      out.writeByte(BYTES_VALUE);
+      out.writeInt(((byte[]) value).length);
+      out.write((byte[]) value);
+    } else {
+      throw new IOException("Unsupported column type " + value.getClass().getName());
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case NULL_VALUE:
+        return null;
+      case LONG_VALUE:
+        return in.readLong();
+      case INT_VALUE:
+        return in.readInt();
+      case SHORT_VALUE:
+        return in.readShort();
+      case BYTE_VALUE:
+        return in.readByte();
+      case BOOLEAN_VALUE:
+        return in.readBoolean();
+      case STRING_VALUE: {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+      case BYTES_VALUE: {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+      }
+      default:
+        throw new IOException("Unknown value type " + type);
+    }
+  }
+
+  private static void updateDigest(MessageDigest digest, Object value) {
+    if (value == null) {
+      digest.update(NULL_VALUE);
+    } else if (value instanceof byte[]) {
+      digest.update(BYTES_VALUE);
+      digest.update((byte[]) value);
+    } else {
+      digest.update(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    // separator, so adjacent values can not run into each other
+    digest.update((byte) 0xFF);
+  }
+
+}
@@ -1,13 +1,20 @@
 package brs.db.sql;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.jooq.BatchBindStep;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 import org.jooq.impl.TableImpl;
 import org.jooq.Field;
 import org.jooq.SelectQuery;
+import org.jooq.UpdateQuery;
+import org.jooq.impl.DSL;
 
 public final class DbUtils {
 
@@ -39,6 +46,56 @@ public final class DbUtils {
     }
   }
 
+  /**
+   * Clears the latest flag of the current versions of the given keys, in one batch.
+   *
+   * @return The number of keys which had a current version, or -1 if the driver does not tell
+   */
+  static int clearLatest(DSLContext ctx, TableImpl<?> tableClass, DbKey.Factory<?> dbKeyFactory, Collection<DbKey> dbKeys) {
+    if (dbKeys.isEmpty()) {
+      return 0;
+    }
+    UpdateQuery updateQuery = ctx.updateQuery(tableClass);
+    updateQuery.addValue(tableClass.field("latest", Boolean.class), false);
+    Arrays.asList(dbKeyFactory.getPKColumns()).forEach(idColumn -> updateQuery.addConditions(tableClass.field(idColumn, Long.class).eq(0L)));
+    updateQuery.addConditions(tableClass.field("latest", Boolean.class).isTrue());
+
+    BatchBindStep updateBatch = ctx.batch(updateQuery);
+    for (DbKey dbKey : dbKeys) {
+      List<Object> bindArgs = new ArrayList<>();
+      bindArgs.add(false);
+      Arrays.stream(dbKey.getPKValues()).forEach(bindArgs::add);
+      updateBatch = updateBatch.bind(bindArgs.toArray());
+    }
+    int cleared = 0;
+    for (int updated : updateBatch.execute()) {
+      if (updated < 0) {
+        return -1;
+      }
+      cleared += updated;
+    }
+    return cleared;
+  }
+
+  /**
+   * @return The number of the given keys which have a row in the table already
+   */
+  static int countExisting(DSLContext ctx, TableImpl<?> tableClass, Collection<DbKey> dbKeys) {
+    int existing = 0;
+    List<Condition> keyConditions = new ArrayList<>();
+    for (DbKey dbKey : dbKeys) {
+      keyConditions.add(DSL.and(dbKey.getPKConditions(tableClass)));
+      if (keyConditions.size() == 500) {
+        existing += ctx.fetchCount(tableClass, DSL.or(keyConditions));
+        keyConditions.clear();
+      }
+    }
+    if (! keyConditions.isEmpty()) {
+      existing += ctx.fetchCount(tableClass, DSL.or(keyConditions));
+    }
+    return existing;
+  }
+
   public static void mergeInto(DSLContext ctx, Record record, TableImpl table, Field[] keyFields) {
     // this is a hack .. we ignore always the first column on mergeInto commands to not fall over the db_id key
     ctx.mergeInto(table, Arrays.copyOfRange(record.fields(), 1, record.fields().length))
@@ -0,0 +1,191 @@
+package brs.db.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * The ids of the entities of a table by the time they are due, like escrow deadlines or the next payments of
+ * subscriptions, so blocks only have to look at the entities actually due instead of querying the table.
+ *
+ * The queue is loaded from the database when first needed and then kept up to date by the table. A transaction
+ * records its own changes, which are applied to the shared queue on commit and dropped otherwise. Reads outside of
+ * a transaction only ever see the committed queue.
+ */
+final class DeadlineQueue implements Db.TransactionCallback {
+
+  private static final Comparator<Entry> DUE_ORDER = Comparator.comparingInt((Entry entry) -> entry.deadline)
+      .thenComparingLong(entry -> entry.id);
+
+  private static final class Entry {
+    private final int deadline;
+    private final long id;
+
+    private Entry(int deadline, long id) {
+      this.deadline = deadline;
+      this.id = id;
+    }
+  }
+
+  private static final class Queue {
+    private final Map<Long, Integer> deadlines = new HashMap<>();
+    private final NavigableSet<Entry> entries = new TreeSet<>(DUE_ORDER);
+
+    private void put(long id, Integer deadline) {
+      Integer previous = deadline != null ? deadlines.put(id, deadline) : deadlines.remove(id);
+      if (previous != null) {
+        entries.remove(new Entry(previous, id));
+      }
+      if (deadline != null) {
+        entries.add(new Entry(deadline, id));
+      }
+    }
+
+    private void collectDueBefore(int time, Map<Long, Integer> overridden, List<Entry> due) {
+      for (Entry entry : entries.headSet(new Entry(time, Long.MIN_VALUE), false)) {
+        if (! overridden.containsKey(entry.id)) {
+          due.add(entry);
+        }
+      }
+    }
+  }
+
+  private final Supplier<Map<Long, Integer>> loader;
+
+  // guarded by this
+  private Queue queue;
+  // changes on every commit or clear, a queue loaded across one of these may be outdated already
+  private long generation;
+
+  // the deadline of every entity changed by the transaction, null for removed ones
+  private final ThreadLocal<Map<Long, Integer>> transactionChanges = ThreadLocal.withInitial(HashMap::new);
+  // the queue as loaded after the transaction cleared it
+  private final ThreadLocal<Queue> transactionQueue = new ThreadLocal<>();
+  private final ThreadLocal<Boolean> clearedInTransaction = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  /**
+   * @param loader loads the deadlines of the latest versions of all entities, by id
+   */
+  DeadlineQueue(Supplier<Map<Long, Integer>> loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * @return The ids of the entities due before the given time, by deadline and then id
+   */
+  List<Long> getDueBefore(int time) {
+    Map<Long, Integer> changes = Db.isInTransaction() ? transactionChanges.get() : new HashMap<>();
+    List<Entry> due = new ArrayList<>();
+    if (clearedInTransaction.get()) {
+      getTransactionQueue().collectDueBefore(time, changes, due);
+    } else {
+      collectCommittedDueBefore(time, changes, due);
+    }
+    changes.forEach((id, deadline) -> {
+      if (deadline != null && deadline < time) {
+        due.add(new Entry(deadline, id));
+      }
+    });
+    due.sort(DUE_ORDER);
+    List<Long> ids = new ArrayList<>(due.size());
+    due.forEach(entry -> ids.add(entry.id));
+    return ids;
+  }
+
+  /**
+   * Adds an entity or changes its deadline.
+   */
+  void put(long id, int deadline) {
+    change(id, deadline);
+  }
+
+  void remove(long id) {
+    change(id, null);
+  }
+
+  /**
+   * Drops the queue, to be loaded again after the table changed in other ways than through the queue.
+   */
+  void clear() {
+    synchronized (this) {
+      queue = null;
+      generation++;
+    }
+    if (Db.isInTransaction()) {
+      transactionChanges.get().clear();
+      transactionQueue.remove();
+      clearedInTransaction.set(Boolean.TRUE);
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    Map<Long, Integer> changes = transactionChanges.get();
+    synchronized (this) {
+      if (clearedInTransaction.get()) {
+        // a queue loaded by another thread in the meantime shows the state before the commit
+        queue = null;
+      } else if (queue != null) {
+        changes.forEach(queue::put);
+      }
+      generation++;
+    }
+    transactionEnded();
+  }
+
+  @Override
+  public void transactionEnded() {
+    transactionChanges.get().clear();
+    transactionQueue.remove();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  private void change(long id, Integer deadline) {
+    if (Db.isInTransaction()) {
+      transactionChanges.get().put(id, deadline);
+    } else {
+      clear();
+    }
+  }
+
+  private void collectCommittedDueBefore(int time, Map<Long, Integer> changes, List<Entry> due) {
+    long loadedGeneration;
+    synchronized (this) {
+      if (queue != null) {
+        queue.collectDueBefore(time, changes, due);
+        return;
+      }
+      loadedGeneration = generation;
+    }
+    // only a load without changes of this transaction shows the committed state
+    boolean committedState = changes.isEmpty();
+    Queue loaded = load();
+    synchronized (this) {
+      if (committedState && generation == loadedGeneration && queue == null) {
+        queue = loaded;
+      }
+      loaded.collectDueBefore(time, changes, due);
+    }
+  }
+
+  private Queue getTransactionQueue() {
+    Queue loaded = transactionQueue.get();
+    if (loaded == null) {
+      loaded = load();
+      transactionQueue.set(loaded);
+    }
+    return loaded;
+  }
+
+  private Queue load() {
+    Queue loaded = new Queue();
+    loader.get().forEach(loaded::put);
+    return loaded;
+  }
+
+}
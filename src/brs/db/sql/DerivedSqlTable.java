@@ -42,6 +42,17 @@ public abstract class DerivedSqlTable implements DerivedTable {
     //nothing to trim
   }
 
+  @Override
+  public TrimChunk selectTrimChunk(int height, long[] after, int maxKeys) {
+    return new TrimChunk(maxKeys);
+  }
+
+  @Override
+  public int trim(TrimChunk chunk) {
+    //nothing to trim
+    return 0;
+  }
+
   @Override
   public void finish() {
 
@@ -0,0 +1,146 @@
+package brs.db.sql;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The number of rows of a table as counted by a query, kept up to date with the changes made by the table
+ * itself so the query only has to run once and then every {@link Db#getCountReconcileInterval()} ms, to catch
+ * changes made behind the back of the table.
+ *
+ * Changes of a transaction only apply once it commits. Counts done by other threads meanwhile are not kept.
+ * If a transaction changed the table in a way which is not known, it is counted again after the commit.
+ */
+final class EntityCounter implements Db.TransactionCallback {
+
+  private static final Logger logger = LoggerFactory.getLogger(EntityCounter.class);
+
+  private static final List<EntityCounter> counters = new CopyOnWriteArrayList<>();
+
+  private static final class Change {
+    private int delta;
+    private boolean unknown;
+  }
+
+  private final String table;
+  private final IntSupplier query;
+  private final ThreadLocal<Change> uncommittedChange = new ThreadLocal<>();
+
+  // guarded by this
+  private int count = -1;
+  private long countedAt;
+  private int changingTransactions;
+  // changes on every change, a count done across one of these may be outdated already
+  private long modifications;
+
+  EntityCounter(String table, IntSupplier query) {
+    this.table = table;
+    this.query = query;
+    counters.add(this);
+    Db.addTransactionCallback(this);
+  }
+
+  /**
+   * Forgets the counts of all tables, after these were changed directly.
+   */
+  static void resetAll() {
+    counters.forEach(EntityCounter::reset);
+  }
+
+  int get() {
+    if (Db.isInTransaction()) {
+      // the count does not include the changes of the transaction yet
+      return query.getAsInt();
+    }
+    long observedModifications;
+    synchronized (this) {
+      if (count >= 0 && System.currentTimeMillis() - countedAt < Db.getCountReconcileInterval()) {
+        return count;
+      }
+      observedModifications = modifications;
+    }
+    int counted = query.getAsInt();
+    synchronized (this) {
+      if (modifications == observedModifications && changingTransactions == 0) {
+        if (count >= 0 && count != counted) {
+          logger.debug("Count of {} was {}, corrected to {}", table, count, counted);
+        }
+        count = counted;
+        countedAt = System.currentTimeMillis();
+      }
+    }
+    return counted;
+  }
+
+  /**
+   * Adds the number of rows added by the current transaction, negative for removed rows.
+   */
+  void add(int delta) {
+    if (! Db.isInTransaction()) {
+      reset();
+    } else if (delta != 0) {
+      getChange().delta += delta;
+    }
+  }
+
+  /**
+   * The current transaction changed the table in a way which is not known, it has to be counted again.
+   */
+  void reset() {
+    synchronized (this) {
+      count = -1;
+      modifications++;
+    }
+    if (Db.isInTransaction()) {
+      getChange().unknown = true;
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    Change change = uncommittedChange.get();
+    if (change == null) {
+      return;
+    }
+    synchronized (this) {
+      if (change.unknown) {
+        count = -1;
+      } else if (count >= 0) {
+        count += change.delta;
+      }
+      modifications++;
+      changingTransactions--;
+    }
+    uncommittedChange.remove();
+  }
+
+  @Override
+  public void transactionEnded() {
+    Change change = uncommittedChange.get();
+    if (change == null) {
+      return;
+    }
+    synchronized (this) {
+      modifications++;
+      changingTransactions--;
+    }
+    uncommittedChange.remove();
+  }
+
+  private Change getChange() {
+    Change change = uncommittedChange.get();
+    if (change == null) {
+      change = new Change();
+      uncommittedChange.set(change);
+      synchronized (this) {
+        modifications++;
+        changingTransactions++;
+      }
+    }
+    return change;
+  }
+
+}
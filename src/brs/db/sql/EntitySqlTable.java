@@ -4,9 +4,12 @@ import brs.Burst;
 import brs.db.EntityTable;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
+import brs.db.cache.DBCacheManagerImpl;
+import brs.db.cache.EntityCache;
 import brs.db.store.DerivedTableManager;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import org.jooq.impl.DSL;
@@ -17,21 +20,36 @@ import org.jooq.SortField;
 import org.jooq.SelectJoinStep;
 import org.jooq.impl.TableImpl;
 import org.jooq.SelectQuery;
-import org.jooq.UpdateQuery;
 
 public abstract class EntitySqlTable<T> extends DerivedSqlTable implements EntityTable<T> {
   protected final DbKey.Factory<T> dbKeyFactory;
   private final boolean multiversion;
   private final List<SortField> defaultSort;
+  private final EntityCache<T> entityCache;
+  private final CachedQuery latestQuery;
+  final EntityCounter counter;
 
   protected EntitySqlTable(String table, TableImpl<?> tableClass, BurstKey.Factory<T> dbKeyFactory, DerivedTableManager derivedTableManager) {
-    this(table, tableClass, dbKeyFactory, false, derivedTableManager);
+    this(table, tableClass, dbKeyFactory, false, derivedTableManager, null);
+  }
+
+  /**
+   * Creates a table which keeps the latest version of its entities in the shared cache named like the table,
+   * if the cache manager has one configured.
+   */
+  protected EntitySqlTable(String table, TableImpl<?> tableClass, BurstKey.Factory<T> dbKeyFactory, DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    this(table, tableClass, dbKeyFactory, false, derivedTableManager, dbCacheManager);
   }
 
   EntitySqlTable(String table, TableImpl<?> tableClass, BurstKey.Factory<T> dbKeyFactory, boolean multiversion, DerivedTableManager derivedTableManager) {
+    this(table, tableClass, dbKeyFactory, multiversion, derivedTableManager, null);
+  }
+
+  EntitySqlTable(String table, TableImpl<?> tableClass, BurstKey.Factory<T> dbKeyFactory, boolean multiversion, DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
     super(table, tableClass, derivedTableManager);
     this.dbKeyFactory = (DbKey.Factory<T>) dbKeyFactory;
     this.multiversion = multiversion;
+    this.entityCache  = dbCacheManager != null ? dbCacheManager.getEntityCache(table) : null;
     this.defaultSort  = new ArrayList<>();
     if ( multiversion ) {
       for ( String column : this.dbKeyFactory.getPKColumns() ) {
@@ -39,6 +57,19 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
       }
     }
     defaultSort.add(tableClass.field("height", Integer.class).desc());
+    this.latestQuery = new CachedQuery(ctx -> {
+      SelectQuery query = ctx.selectQuery();
+      query.addFrom(tableClass);
+      for (String column : this.dbKeyFactory.getPKColumns()) {
+        query.addConditions(tableClass.field(column, Long.class).eq(DSL.param(column, Long.class)));
+      }
+      if (multiversion) {
+        query.addConditions(tableClass.field("latest", Boolean.class).eq(DSL.inline(true)));
+      }
+      query.addLimit(DSL.inline(1));
+      return query;
+    });
+    this.counter = new EntityCounter(table, this::countLatest);
   }
 
   protected abstract T load(DSLContext ctx, ResultSet rs) throws SQLException;
@@ -46,6 +77,14 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
   protected void save(DSLContext ctx, T t) throws SQLException {
   }
 
+  /**
+   * @return False if every entity saved gets a key of its own and the table is only ever appended to,
+   * which spares the count of the replaced rows when flushing
+   */
+  protected boolean reusesKeys() {
+    return true;
+  }
+
   protected List<SortField> defaultSort() {
     return defaultSort;
   }
@@ -57,6 +96,27 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
     }
   }
 
+  protected void cacheEntity(DbKey dbKey, T t) {
+    if (entityCache != null) {
+      entityCache.put(dbKey, t);
+      Db.sharedCacheChanged(table, dbKey);
+    }
+  }
+
+  protected void uncacheEntity(DbKey dbKey) {
+    if (entityCache != null) {
+      entityCache.remove(dbKey);
+      Db.sharedCacheChanged(table, dbKey);
+    }
+  }
+
+  protected void flushEntityCache() {
+    if (entityCache != null) {
+      entityCache.clear();
+      Db.sharedCacheChanged(table, null);
+    }
+  }
+
   @Override
   public T get(BurstKey nxtKey) {
     DbKey dbKey = (DbKey) nxtKey;
@@ -66,26 +126,38 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
         return t;
       }
     }
-    try (DSLContext ctx = Db.getDSLContext()) {
-      SelectQuery query = ctx.selectQuery();
-      query.addFrom(tableClass);
-      query.addConditions(dbKey.getPKConditions(tableClass));
-      if ( multiversion ) {
-        query.addConditions(tableClass.field("latest", Boolean.class).isTrue());
+    long cacheModifications = 0;
+    if (entityCache != null) {
+      T t = entityCache.get(dbKey);
+      if (t != null) {
+        if (Db.isInTransaction()) {
+          // the same instance has to be saved again within the transaction
+          Db.getCache(table).put(dbKey, t);
+        }
+        return t;
       }
-      query.addLimit(1);
-
-      return get(ctx, query, true);
+      cacheModifications = entityCache.getModifications();
     }
-    catch (SQLException e) {
-      throw new RuntimeException(e.toString(), e);
+    DSLContext ctx = Db.getDSLContext();
+    long[] pkValues = dbKey.getPKValues();
+    Object[] values = new Object[pkValues.length];
+    for (int i = 0; i < pkValues.length; i++) {
+      values[i] = pkValues[i];
+    }
+    T t = latestQuery.fetch(rs -> get(ctx, rs, true), values);
+    if (t != null && entityCache != null) {
+      entityCache.putLoaded(dbKey, t, cacheModifications);
+      // loaded within a transaction it may show changes which are rolled back later
+      Db.sharedCacheChanged(table, dbKey);
     }
+    return t;
   }
 
   @Override
   public T get(BurstKey nxtKey, int height) {
     DbKey dbKey = (DbKey) nxtKey;
     checkAvailable(height);
+    flushWrites();
 
     try (DSLContext ctx = Db.getDSLContext()) {
       SelectQuery query = ctx.selectQuery();
@@ -164,28 +236,33 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
   }
 
   private T get(DSLContext ctx, SelectQuery query, boolean cache) throws SQLException {
-    final boolean doCache = cache && Db.isInTransaction();
+    flushWrites();
     try ( ResultSet rs = query.fetchResultSet() ) {
-      if (!rs.next()) {
-        return null;
-      }
-      T t = null;
-      DbKey dbKey = null;
+      return get(ctx, rs, cache);
+    }
+  }
+
+  private T get(DSLContext ctx, ResultSet rs, boolean cache) throws SQLException {
+    final boolean doCache = cache && Db.isInTransaction();
+    if (!rs.next()) {
+      return null;
+    }
+    T t = null;
+    DbKey dbKey = null;
+    if (doCache) {
+      dbKey = (DbKey) dbKeyFactory.newKey(rs);
+      t = (T) Db.getCache(table).get(dbKey);
+    }
+    if (t == null) {
+      t = load(ctx, rs);
       if (doCache) {
-        dbKey = (DbKey) dbKeyFactory.newKey(rs);
-        t = (T) Db.getCache(table).get(dbKey);
-      }
-      if (t == null) {
-        t = load(ctx, rs);
-        if (doCache) {
-          Db.getCache(table).put(dbKey, t);
-        }
-      }
-      if (rs.next()) {
-        throw new RuntimeException("Multiple records found");
+        Db.getCache(table).put(dbKey, t);
       }
-      return t;
     }
+    if (rs.next()) {
+      throw new RuntimeException("Multiple records found");
+    }
+    return t;
   }
 
   @Override
@@ -250,6 +327,7 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
   }
 
   public BurstIterator<T> getManyBy(DSLContext ctx, SelectQuery query, boolean cache) {
+    flushWrites();
     final boolean doCache = cache && Db.isInTransaction();
     return new DbIterator<>(ctx, query.fetchResultSet(), (ctx1, rs) -> {
       T t = null;
@@ -326,8 +404,16 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
     return getManyBy(ctx, query, true);
   }
 
+  /**
+   * @return The number of entities, maintained as the table changes instead of counted on every call
+   */
   @Override
   public int getCount() {
+    return counter.get();
+  }
+
+  private int countLatest() {
+    flushWrites();
     DSLContext ctx = Db.getDSLContext();
     TableImpl<?>      t = tableClass;
     SelectJoinStep<?> r = ctx.selectCount().from(t);
@@ -336,6 +422,7 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
 
   @Override
   public int getRowCount() {
+    flushWrites();
     DSLContext ctx = Db.getDSLContext();
     return ctx.selectCount().from(tableClass).fetchOne(0, int.class);
   }
@@ -353,33 +440,69 @@ public abstract class EntitySqlTable<T> extends DerivedSqlTable implements Entit
       throw new IllegalStateException("Different instance found in Db cache, perhaps trying to save an object "
                                       + "that was read outside the current transaction");
     }
-    try ( DSLContext ctx = Db.getDSLContext() ) {
-      if (multiversion) {
-        UpdateQuery query = ctx.updateQuery(tableClass);
-        query.addValue(
-          tableClass.field("latest", Boolean.class),
-          false
-        );
-        query.addConditions(dbKey.getPKConditions(tableClass));
-        query.addConditions(tableClass.field("latest", Boolean.class).isTrue());
-        query.execute();
+    cacheEntity(dbKey, t);
+    // the statements are bound now and run with the others of the block, reads by key are served from the
+    // transaction cache meanwhile
+    Db.getBatch(table).put(dbKey, RecordedWrites.record(ctx -> save(ctx, t)));
+    Db.bufferWrites(table, this::writeBatch);
+  }
+
+  /**
+   * Runs the writes held back by {@link #insert(Object)}, to be called before the table is queried other than by key.
+   */
+  void flushWrites() {
+    Db.flushWrites(table);
+  }
+
+  /**
+   * Saves the buffered entities, the new versions replace the latest ones in one batch per statement.
+   */
+  private void writeBatch() {
+    Map<DbKey, Object> batch = Db.getBatch(table);
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<DbKey> dbKeys = new ArrayList<>(batch.keySet());
+    List<RecordedWrites> writes = new ArrayList<>();
+    batch.values().forEach(recorded -> writes.add((RecordedWrites) recorded));
+    batch.clear();
+    if (multiversion) {
+      int replaced = DbUtils.clearLatest(Db.getDSLContext(), tableClass, dbKeyFactory, dbKeys);
+      if (replaced >= 0) {
+        counter.add(writes.size() - replaced);
+      } else {
+        counter.reset();
       }
-      save(ctx, t);
-    } catch (SQLException e) {
-      throw new RuntimeException(e.toString(), e);
+    } else if (reusesKeys()) {
+      // a save of an existing key replaces its row
+      counter.add(writes.size() - DbUtils.countExisting(Db.getDSLContext(), tableClass, dbKeys));
+    } else {
+      counter.add(writes.size());
     }
+    RecordedWrites.execute(writes);
+  }
+
+  @Override
+  public void finish() {
+    flushWrites();
   }
 
   @Override
   public void rollback(int height) {
+    flushWrites();
     super.rollback(height);
     Db.getCache(table).clear();
+    flushEntityCache();
+    counter.reset();
   }
 
   @Override
   public void truncate() {
+    flushWrites();
     super.truncate();
     Db.getCache(table).clear();
+    flushEntityCache();
+    counter.reset();
   }
 
 }
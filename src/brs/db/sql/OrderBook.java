@@ -0,0 +1,168 @@
+package brs.db.sql;
+
+import brs.Order;
+import brs.db.BurstIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * The open orders of one side of the market, per asset in price-time priority, so the matching engine and the
+ * depth queries do not have to sort the order table on every call.
+ *
+ * The book of an asset is loaded from the database when first needed and then kept up to date by the order table.
+ * A transaction works on its own copy of the books it touches, which replaces the shared one on commit and is
+ * dropped otherwise. Reads outside of a transaction only ever see committed books.
+ */
+final class OrderBook<T extends Order> implements Db.TransactionCallback {
+
+  static final Comparator<Order> ASK_PRIORITY = Comparator.comparingLong(Order::getPriceNQT)
+      .thenComparingInt(Order::getHeight)
+      .thenComparingLong(Order::getId);
+
+  static final Comparator<Order> BID_PRIORITY = Comparator.comparingLong(Order::getPriceNQT).reversed()
+      .thenComparingInt(Order::getHeight)
+      .thenComparingLong(Order::getId);
+
+  private final Comparator<Order> priority;
+  private final Function<Long, Collection<T>> loader;
+  private final UnaryOperator<T> copier;
+
+  private final Map<Long, NavigableSet<T>> books = new ConcurrentHashMap<>();
+  private final ThreadLocal<Map<Long, NavigableSet<T>>> transactionBooks = ThreadLocal.withInitial(HashMap::new);
+  private final ThreadLocal<Boolean> clearedInTransaction = ThreadLocal.withInitial(() -> Boolean.FALSE);
+  // changes on every commit or clear, a book loaded across one of these may be outdated already
+  private long generation;
+
+  /**
+   * @param loader loads the latest versions of all orders of an asset, as new instances
+   * @param copier copies an order, the book keeps its own instances as orders get modified in place
+   */
+  OrderBook(Comparator<Order> priority, Function<Long, Collection<T>> loader, UnaryOperator<T> copier) {
+    this.priority = priority;
+    this.loader = loader;
+    this.copier = copier;
+  }
+
+  /**
+   * @return The order with the highest priority, to be looked up again by id before it is modified, or null
+   */
+  T first(long assetId) {
+    NavigableSet<T> book = getBook(assetId);
+    return book.isEmpty() ? null : book.first();
+  }
+
+  BurstIterator<T> get(long assetId, int from, int to) {
+    NavigableSet<T> book = getBook(assetId);
+    List<T> orders = new ArrayList<>();
+    Iterator<T> iterator = book.iterator();
+    for (int i = 0; iterator.hasNext() && (to < 0 || i <= to); i++) {
+      T order = iterator.next();
+      if (i >= from) {
+        orders.add(order);
+      }
+    }
+    return new CollectionIterator<>(orders);
+  }
+
+  /**
+   * Adds an order or updates its quantity.
+   */
+  void put(T order) {
+    NavigableSet<T> book = getTransactionBook(order.getAssetId());
+    book.remove(order);
+    book.add(copier.apply(order));
+  }
+
+  void remove(T order) {
+    getTransactionBook(order.getAssetId()).remove(order);
+  }
+
+  /**
+   * Drops all books, to be loaded again after the order table changed in other ways than through the book.
+   */
+  void clear() {
+    synchronized (books) {
+      books.clear();
+      generation++;
+    }
+    if (Db.isInTransaction()) {
+      transactionBooks.get().clear();
+      clearedInTransaction.set(Boolean.TRUE);
+    }
+  }
+
+  @Override
+  public void transactionCommitted() {
+    Map<Long, NavigableSet<T>> committed = transactionBooks.get();
+    synchronized (books) {
+      if (clearedInTransaction.get()) {
+        // books loaded by other threads in the meantime show the state before the commit
+        books.clear();
+      }
+      books.putAll(committed);
+      generation++;
+    }
+    committed.clear();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  @Override
+  public void transactionEnded() {
+    transactionBooks.get().clear();
+    clearedInTransaction.set(Boolean.FALSE);
+  }
+
+  private NavigableSet<T> getBook(long assetId) {
+    if (Db.isInTransaction()) {
+      return getTransactionBook(assetId);
+    }
+    NavigableSet<T> book = books.get(assetId);
+    if (book != null) {
+      return book;
+    }
+    long loadedGeneration;
+    synchronized (books) {
+      loadedGeneration = generation;
+    }
+    book = load(assetId);
+    synchronized (books) {
+      if (generation == loadedGeneration) {
+        books.putIfAbsent(assetId, book);
+      }
+    }
+    return book;
+  }
+
+  private NavigableSet<T> getTransactionBook(long assetId) {
+    Map<Long, NavigableSet<T>> transactionBooksMap = transactionBooks.get();
+    NavigableSet<T> book = transactionBooksMap.get(assetId);
+    if (book == null) {
+      NavigableSet<T> committed = books.get(assetId);
+      if (committed != null && ! clearedInTransaction.get()) {
+        // the orders are shared, the books only ever replace them
+        book = new TreeSet<>(committed);
+      } else {
+        book = load(assetId);
+      }
+      transactionBooksMap.put(assetId, book);
+    }
+    return book;
+  }
+
+  private NavigableSet<T> load(long assetId) {
+    NavigableSet<T> book = new TreeSet<>(priority);
+    book.addAll(loader.apply(assetId));
+    return book;
+  }
+
+}
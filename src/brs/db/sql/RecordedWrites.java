@@ -0,0 +1,105 @@
+package brs.db.sql;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+
+/**
+ * The statements of a save, rendered and bound when the save is recorded, so later changes of the saved object
+ * do not show in what is written. They are run with {@link #execute(Collection)}, which sends consecutive
+ * executions of the same statement to the database as one batch.
+ */
+final class RecordedWrites {
+
+  interface Writes {
+    void write(DSLContext ctx) throws SQLException;
+  }
+
+  private final List<String> statements = new ArrayList<>();
+  private final List<Object[]> bindings = new ArrayList<>();
+
+  private RecordedWrites() {
+  }
+
+  /**
+   * Runs the writes against a connection which records the statements instead of executing them.
+   */
+  static RecordedWrites record(Writes writes) {
+    RecordedWrites recorded = new RecordedWrites();
+    Settings settings = new Settings();
+    settings.setRenderSchema(Boolean.FALSE);
+    DSLContext ctx = DSL.using(new MockConnection(executeContext -> {
+      if (executeContext.batch()) {
+        for (Object[] values : executeContext.batchBindings()) {
+          recorded.add(executeContext.batchSQL()[0], values);
+        }
+      } else {
+        recorded.add(executeContext.sql(), executeContext.bindings());
+      }
+      return new MockResult[] { new MockResult(1, null) };
+    }), Db.getDialect(), settings);
+    try {
+      writes.write(ctx);
+    } catch (SQLException e) {
+      throw new RuntimeException(e.toString(), e);
+    }
+    return recorded;
+  }
+
+  private void add(String sql, Object[] values) {
+    Object[] copy = values.clone();
+    for (int i = 0; i < copy.length; i++) {
+      if (copy[i] instanceof byte[]) {
+        copy[i] = ((byte[]) copy[i]).clone();
+      }
+    }
+    statements.add(sql);
+    bindings.add(copy);
+  }
+
+  /**
+   * Runs the recorded statements on the transaction connection, in order.
+   */
+  static void execute(Collection<RecordedWrites> writes) {
+    List<String> statements = new ArrayList<>();
+    List<Object[]> bindings = new ArrayList<>();
+    for (RecordedWrites recorded : writes) {
+      statements.addAll(recorded.statements);
+      bindings.addAll(recorded.bindings);
+    }
+    try {
+      int start = 0;
+      while (start < statements.size()) {
+        int end = start + 1;
+        while (end < statements.size() && statements.get(end).equals(statements.get(start))) {
+          end++;
+        }
+        List<Object[]> batch = bindings.subList(start, end);
+        Db.withStatement(statements.get(start), stmt -> {
+          for (Object[] values : batch) {
+            for (int i = 0; i < values.length; i++) {
+              if (values[i] == null) {
+                stmt.setNull(i + 1, Types.NULL);
+              } else {
+                stmt.setObject(i + 1, values[i]);
+              }
+            }
+            stmt.addBatch();
+          }
+          return stmt.executeBatch();
+        });
+        start = end;
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException(e.toString(), e);
+    }
+  }
+
+}
@@ -1,11 +1,14 @@
 package brs.db.sql;
 
+import brs.Account;
 import brs.Burst;
 import brs.at.AT_API_Helper;
 import brs.at.AT_Constants;
 import brs.db.BurstKey;
+import brs.db.VersionedBatchEntityTable;
 import brs.db.VersionedEntityTable;
 import brs.db.store.ATStore;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import brs.schema.tables.records.AtRecord;
 import brs.schema.tables.records.AtStateRecord;
@@ -52,8 +55,10 @@ public class SqlATStore implements ATStore {
 
   private final VersionedEntityTable<brs.AT.ATState> atStateTable;
 
-  public SqlATStore(DerivedTableManager derivedTableManager) {
-    atTable = new VersionedEntitySqlTable<brs.AT>("at", brs.schema.Tables.AT, atDbKeyFactory, derivedTableManager) {
+  private final ATSchedule atSchedule = new ATSchedule(this::loadSchedule);
+
+  public SqlATStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    atTable = new VersionedEntitySqlTable<brs.AT>("at", brs.schema.Tables.AT, atDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected brs.AT load(DSLContext ctx, ResultSet rs) {
         //return new AT(rs);
@@ -71,9 +76,21 @@ public class SqlATStore implements ATStore {
         sort.add(tableClass.field("id", Long.class).asc());
         return sort;
       }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        atSchedule.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        atSchedule.clear();
+      }
     };
 
-    atStateTable = new VersionedEntitySqlTable<brs.AT.ATState>("at_state", brs.schema.Tables.AT_STATE, atStateDbKeyFactory, derivedTableManager) {
+    atStateTable = new VersionedEntitySqlTable<brs.AT.ATState>("at_state", brs.schema.Tables.AT_STATE, atStateDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected brs.AT.ATState load(DSLContext ctx, ResultSet rs) throws SQLException {
         return new SqlATState(rs);
@@ -92,7 +109,28 @@ public class SqlATStore implements ATStore {
         sort.add(tableClass.field("at_id", Long.class).asc());
         return sort;
       }
+
+      @Override
+      public void insert(brs.AT.ATState atState) {
+        super.insert(atState);
+        atSchedule.put(new ATSchedule.Entry(atState.getATId(), atState.getPrevHeight(), atState.getNextHeight(),
+            atState.getPrevBalance(), atState.getFreezeWhenSameBalance(), atState.getMinActivationAmount()));
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        atSchedule.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        atSchedule.clear();
+      }
     };
+
+    Db.addTransactionCallback(atSchedule);
   }
 
   protected void saveATState(DSLContext ctx, brs.AT.ATState atState) throws SQLException {
@@ -130,12 +168,44 @@ public class SqlATStore implements ATStore {
 
   @Override
   public boolean isATAccountId(Long id) {
+    Db.flushWrites("at");
     DSLContext ctx = Db.getDSLContext();
     return ctx.fetchExists(ctx.selectOne().from(AT).where(AT.ID.eq(id)).and(AT.LATEST.isTrue()));
   }
 
   @Override
   public List<Long> getOrderedATs() {
+    int height = Burst.getBlockchain().getHeight();
+    long minimumBalance = AT_Constants.getInstance().STEP_FEE(height) * AT_Constants.getInstance().API_STEP_MULTIPLIER(height);
+    BurstKey.LongKeyFactory<Account> accountKeyFactory = Burst.getStores().getAccountStore().getAccountKeyFactory();
+    VersionedBatchEntityTable<Account> accountTable = Burst.getStores().getAccountStore().getAccountTable();
+
+    List<Long> orderedATs = new ArrayList<>();
+    for (ATSchedule.Entry entry : atSchedule.getDue(height + 1)) {
+      Account account = accountTable.get(accountKeyFactory.newKey(entry.getAtId()));
+      if (account != null && entry.isActivatedBy(account.getBalanceNQT(), minimumBalance)) {
+        orderedATs.add(entry.getAtId());
+      }
+    }
+
+    if (Db.isVerifyATSchedule()) {
+      List<Long> queried = queryOrderedATs();
+      if (! queried.equals(orderedATs)) {
+        logger.warn("AT schedule at height " + height + " lists " + orderedATs + ", the database " + queried + ", reloading it");
+        atSchedule.clear();
+        return queried;
+      }
+    }
+    return orderedATs;
+  }
+
+  private static void flushATWrites() {
+    Db.flushWrites("at");
+    Db.flushWrites("at_state");
+  }
+
+  private List<Long> queryOrderedATs() {
+    flushATWrites();
     DSLContext ctx = Db.getDSLContext();
     return ctx.selectFrom(
       AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID)).join(ACCOUNT).on(AT.ID.eq(ACCOUNT.ID))
@@ -161,8 +231,26 @@ public class SqlATStore implements ATStore {
     ).fetch().getValues(AT.ID);
   }
 
+  private Collection<ATSchedule.Entry> loadSchedule() {
+    flushATWrites();
+    DSLContext ctx = Db.getDSLContext();
+    return ctx.select(
+      AT_STATE.AT_ID, AT_STATE.PREV_HEIGHT, AT_STATE.NEXT_HEIGHT,
+      AT_STATE.PREV_BALANCE, AT_STATE.FREEZE_WHEN_SAME_BALANCE, AT_STATE.MIN_ACTIVATE_AMOUNT
+    ).from(
+      AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID))
+    ).where(
+      AT.LATEST.isTrue()
+    ).and(
+      AT_STATE.LATEST.isTrue()
+    ).fetch(record -> new ATSchedule.Entry(
+      record.value1(), record.value2(), record.value3(), record.value4(), record.value5(), record.value6()
+    ));
+  }
+
   @Override
   public brs.AT getAT(Long id) {
+    flushATWrites();
     DSLContext ctx = Db.getDSLContext();
     Record record = ctx.select(AT.fields()).select(AT_STATE.fields()).from(AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID))).
             where(AT.LATEST.isTrue().
@@ -187,12 +275,14 @@ public class SqlATStore implements ATStore {
 
   @Override
   public List<Long> getATsIssuedBy(Long accountId) {
+    Db.flushWrites("at");
     DSLContext ctx = Db.getDSLContext();
     return ctx.selectFrom(AT).where(AT.LATEST.isTrue()).and(AT.CREATOR_ID.eq(accountId)).orderBy(AT.CREATION_HEIGHT.desc(), AT.ID.asc()).fetch().getValues(AT.ID);
   }
 
   @Override
   public Collection<Long> getAllATIds() {
+    Db.flushWrites("at");
     DSLContext ctx = Db.getDSLContext();
     return ctx.selectFrom(AT).where(AT.LATEST.isTrue()).fetch().getValues(AT.ID);
   }
@@ -273,6 +363,11 @@ public class SqlATStore implements ATStore {
     }
   }
 
+  @Override
+  public void flushCache() {
+    atSchedule.clear();
+  }
+
   protected class SqlATState extends brs.AT.ATState {
     private SqlATState(ResultSet rs) throws SQLException {
       super(
@@ -3,11 +3,14 @@ package brs.db.sql;
 import brs.Account;
 import brs.Burst;
 import brs.db.BurstIterator;
+import brs.db.BurstKey;
 import brs.db.cache.DBCacheManagerImpl;
 import brs.db.VersionedBatchEntityTable;
 import brs.db.VersionedEntityTable;
 import brs.db.store.AccountStore;
 import brs.db.store.DerivedTableManager;
+import brs.props.PropertyService;
+import brs.props.Props;
 import brs.schema.tables.records.AccountRecord;
 import brs.util.Convert;
 import java.util.stream.Collectors;
@@ -19,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import static brs.schema.Tables.*;
 import org.jooq.DSLContext;
@@ -50,7 +54,14 @@ public class SqlAccountStore implements AccountStore {
         }
     };
 
-  public SqlAccountStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+  private final AccountStateMap accountStateMap;
+
+  private final AssetStatsTable assetStatsTable;
+
+  public SqlAccountStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager, PropertyService propertyService, AssetStatsTable assetStatsTable) {
+    this.assetStatsTable = assetStatsTable;
+    accountStateMap = propertyService.getBoolean(Props.DB_ACCOUNT_STATE_MAP) ? new AccountStateMap(this::loadLatestAccounts) : null;
+
     rewardRecipientAssignmentTable = new VersionedEntitySqlTable<Account.RewardRecipientAssignment>("reward_recip_assign", brs.schema.Tables.REWARD_RECIP_ASSIGN, rewardRecipientAssignmentDbKeyFactory, derivedTableManager) {
 
       @Override
@@ -74,7 +85,7 @@ public class SqlAccountStore implements AccountStore {
       }
     };
 
-    accountAssetTable = new VersionedEntitySqlTable<Account.AccountAsset>("account_asset", brs.schema.Tables.ACCOUNT_ASSET, accountAssetDbKeyFactory, derivedTableManager) {
+    accountAssetTable = new VersionedEntitySqlTable<Account.AccountAsset>("account_asset", brs.schema.Tables.ACCOUNT_ASSET, accountAssetDbKeyFactory, derivedTableManager, dbCacheManager) {
 
       @Override
       protected Account.AccountAsset load(DSLContext ctx, ResultSet rs) throws SQLException {
@@ -113,6 +124,50 @@ public class SqlAccountStore implements AccountStore {
         return new SqlAccount(rs);
       }
 
+      @Override
+      protected Account loadLatest(BurstKey dbKey) {
+        if (accountStateMap != null) {
+          long id = ((DbKey) dbKey).getPKValues()[0];
+          Account account = accountStateMap.get(id, SqlAccount::new);
+          if (account != null) {
+            return account;
+          }
+          if (!accountStateMap.mightExist(id)) {
+            return null;
+          }
+        }
+        return super.loadLatest(dbKey);
+      }
+
+      @Override
+      public void rollback(int height) {
+        if (accountStateMap == null) {
+          super.rollback(height);
+          return;
+        }
+        List<Long> changedIds = Db.getDSLContext().selectDistinct(ACCOUNT.ID).from(ACCOUNT).where(ACCOUNT.HEIGHT.gt(height)).fetch(ACCOUNT.ID);
+        super.rollback(height);
+        // accounts created above the rollback height are removed
+        accountStateMap.refresh(changedIds);
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        if (accountStateMap != null) {
+          accountStateMap.clear();
+          accountStateMap.setComplete();
+        }
+      }
+
+      @Override
+      public void flushCache() {
+        super.flushCache();
+        if (accountStateMap != null) {
+          loadAccountStates();
+        }
+      }
+
       @Override
       protected void bulkInsert(DSLContext ctx, ArrayList<Account> accounts) {
         if ( ctx.fetchExists(ctx.selectOne().from(ACCOUNT).where(ACCOUNT.HEIGHT.eq(Burst.getBlockchain().getHeight())).limit(1)) ) {
@@ -142,6 +197,9 @@ public class SqlAccountStore implements AccountStore {
           }
           insertBatch.execute();
         }
+        if (accountStateMap != null) {
+          accounts.forEach(accountStateMap::put);
+        }
       }
 
       @Override
@@ -161,6 +219,7 @@ public class SqlAccountStore implements AccountStore {
               try {
                 DbKey dbKey = (DbKey)accountDbKeyFactory.newKey(account.getId());
                 getCache().put(dbKey, new SqlAccount(account.intoResultSet()));
+                Db.sharedCacheChanged(table, dbKey);
               }
               catch ( SQLException e ) {
                 // ignore
@@ -175,6 +234,45 @@ public class SqlAccountStore implements AccountStore {
         }
       }
     };
+
+    if (accountStateMap != null) {
+      Db.addTransactionCallback(accountStateMap);
+      loadAccountStates();
+    }
+  }
+
+  private void loadAccountStates() {
+    long start = System.currentTimeMillis();
+    accountStateMap.clear();
+    try ( DSLContext ctx = Db.getDSLContext();
+          ResultSet rs = ctx.selectFrom(ACCOUNT).where(ACCOUNT.LATEST.isTrue()).fetchResultSet() ) {
+      while (rs.next()) {
+        accountStateMap.put(new SqlAccount(rs));
+      }
+    }
+    catch (SQLException e) {
+      throw new RuntimeException(e.toString(), e);
+    }
+    accountStateMap.setComplete();
+    logger.info("Loaded {} account states in {} ms", accountStateMap.size(), System.currentTimeMillis() - start);
+  }
+
+  private List<Account> loadLatestAccounts(Collection<Long> ids) {
+    List<Long> idList = new ArrayList<>(ids);
+    List<Account> accounts = new ArrayList<>();
+    DSLContext ctx = Db.getDSLContext();
+    for (int from = 0; from < idList.size(); from += 1000) {
+      List<Long> chunk = idList.subList(from, Math.min(from + 1000, idList.size()));
+      try ( ResultSet rs = ctx.selectFrom(ACCOUNT).where(ACCOUNT.LATEST.isTrue()).and(ACCOUNT.ID.in(chunk)).fetchResultSet() ) {
+        while (rs.next()) {
+          accounts.add(new SqlAccount(rs));
+        }
+      }
+      catch (SQLException e) {
+        throw new RuntimeException(e.toString(), e);
+      }
+    }
+    return accounts;
   }
 
   private static Condition getAccountsWithRewardRecipientClause(final long id, final int height) {
@@ -212,10 +310,23 @@ public class SqlAccountStore implements AccountStore {
     return accountAssetTable;
   }
 
+  @Override
+  public void saveAccountAsset(Account.AccountAsset accountAsset, boolean wasHeld) {
+    // the holders are counted before the change, statistics missing for the asset are counted from the table
+    if (accountAsset.getQuantityQNT() > 0 || accountAsset.getUnconfirmedQuantityQNT() > 0) {
+      if (! wasHeld) {
+        assetStatsTable.addAccounts(accountAsset.assetId, 1);
+      }
+      accountAssetTable.insert(accountAsset);
+    } else if (wasHeld) {
+      assetStatsTable.addAccounts(accountAsset.assetId, -1);
+      accountAssetTable.delete(accountAsset);
+    }
+  }
+
   @Override
   public int getAssetAccountsCount(long assetId) {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.selectCount().from(ACCOUNT_ASSET).where(ACCOUNT_ASSET.ASSET_ID.eq(assetId)).and(ACCOUNT_ASSET.LATEST.isTrue()).fetchOne(0, int.class);
+    return assetStatsTable.getAccountsCount(assetId);
   }
 
   @Override
@@ -302,6 +413,15 @@ public class SqlAccountStore implements AccountStore {
       super(id);
     }
 
+    SqlAccount(long id, int creationHeight, byte[] publicKey, int keyHeight, long balanceNQT, long unconfirmedBalanceNQT, long forgedBalanceNQT) {
+      super(id, accountDbKeyFactory.newKey(id), creationHeight);
+      this.setPublicKey(publicKey);
+      this.setKeyHeight(keyHeight);
+      this.balanceNQT = balanceNQT;
+      this.unconfirmedBalanceNQT = unconfirmedBalanceNQT;
+      this.forgedBalanceNQT = forgedBalanceNQT;
+    }
+
     public SqlAccount(ResultSet rs) throws SQLException {
       super(rs.getLong("id"), accountDbKeyFactory.newKey(rs.getLong("id")),
             rs.getInt("creation_height"));
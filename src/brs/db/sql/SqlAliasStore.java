@@ -6,9 +6,11 @@ import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
 import brs.db.store.AliasStore;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import org.jooq.DSLContext;
@@ -26,7 +28,9 @@ public class SqlAliasStore implements AliasStore {
       }
     };
 
-  public SqlAliasStore(DerivedTableManager derivedTableManager) {
+  private final AliasDirectory aliasDirectory = new AliasDirectory(this::loadAliasNames);
+
+  public SqlAliasStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
     offerTable = new VersionedEntitySqlTable<Alias.Offer>("alias_offer", ALIAS_OFFER, offerDbKeyFactory, derivedTableManager) {
       @Override
       protected Alias.Offer load(DSLContext ctx, ResultSet rs) throws SQLException {
@@ -39,7 +43,7 @@ public class SqlAliasStore implements AliasStore {
       }
     };
 
-    aliasTable = new VersionedEntitySqlTable<Alias>("alias", brs.schema.Tables.ALIAS, aliasDbKeyFactory, derivedTableManager) {
+    aliasTable = new VersionedEntitySqlTable<Alias>("alias", brs.schema.Tables.ALIAS, aliasDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected Alias load(DSLContext ctx, ResultSet rs) throws SQLException {
         return new SqlAlias(rs);
@@ -56,7 +60,34 @@ public class SqlAliasStore implements AliasStore {
         sort.add(tableClass.field("alias_name_lower", String.class).asc());
         return sort;
       }
+
+      @Override
+      public void insert(Alias alias) {
+        super.insert(alias);
+        aliasDirectory.put(alias.getAliasName().toLowerCase(), alias.getId());
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        aliasDirectory.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        aliasDirectory.clear();
+      }
     };
+
+    Db.addTransactionCallback(aliasDirectory);
+  }
+
+  private Map<String, Long> loadAliasNames() {
+    Db.flushWrites("alias");
+    DSLContext ctx = Db.getDSLContext();
+    return ctx.select(ALIAS.ALIAS_NAME_LOWER, ALIAS.ID).from(ALIAS).where(ALIAS.LATEST.isTrue())
+        .fetchMap(ALIAS.ALIAS_NAME_LOWER, ALIAS.ID);
   }
 
   @Override
@@ -133,13 +164,28 @@ public class SqlAliasStore implements AliasStore {
   private final VersionedEntityTable<Alias> aliasTable;
 
   @Override
-  public BurstIterator<Alias> getAliasesByOwner(long accountId, int from, int to) {
-    return aliasTable.getManyBy(brs.schema.Tables.ALIAS.ACCOUNT_ID.eq(accountId), from, to);
+  public BurstIterator<Alias> getAliasesByOwner(long accountId, int timestamp, int from, int to) {
+    return aliasTable.getManyBy(ALIAS.ACCOUNT_ID.eq(accountId).and(ALIAS.TIMESTAMP.ge(timestamp)), from, to);
+  }
+
+  @Override
+  public BurstIterator<Alias> getAliasesByPrefix(String prefix, int from, int to) {
+    List<Alias> aliases = new ArrayList<>();
+    for (long aliasId : aliasDirectory.getByPrefix(prefix.toLowerCase(), from, to)) {
+      aliases.add(aliasTable.get(aliasDbKeyFactory.newKey(aliasId)));
+    }
+    return new CollectionIterator<>(aliases);
   }
 
   @Override
   public Alias getAlias(String aliasName) {
-    return aliasTable.getBy(brs.schema.Tables.ALIAS.ALIAS_NAME_LOWER.eq(aliasName.toLowerCase()));
+    Long aliasId = aliasDirectory.get(aliasName.toLowerCase());
+    return aliasId == null ? null : aliasTable.get(aliasDbKeyFactory.newKey(aliasId));
+  }
+
+  @Override
+  public void flushCache() {
+    aliasDirectory.clear();
   }
 
 }
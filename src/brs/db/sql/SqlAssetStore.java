@@ -5,6 +5,7 @@ import brs.Burst;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.store.AssetStore;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -24,8 +25,8 @@ public class SqlAssetStore implements AssetStore {
     };
   private final EntitySqlTable<Asset> assetTable;
 
-  public SqlAssetStore(DerivedTableManager derivedTableManager) {
-    assetTable = new EntitySqlTable<Asset>("asset", brs.schema.Tables.ASSET, assetDbKeyFactory, derivedTableManager) {
+  public SqlAssetStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    assetTable = new EntitySqlTable<Asset>("asset", brs.schema.Tables.ASSET, assetDbKeyFactory, derivedTableManager, dbCacheManager) {
 
       @Override
       protected Asset load(DSLContext ctx, ResultSet rs) throws SQLException {
@@ -36,6 +37,11 @@ public class SqlAssetStore implements AssetStore {
       protected void save(DSLContext ctx, Asset asset) throws SQLException {
         saveAsset(ctx, asset);
       }
+
+      @Override
+      protected boolean reusesKeys() {
+        return false;
+      }
     };
   }
 
@@ -22,8 +22,10 @@ public class SqlAssetTransferStore implements AssetTransferStore {
       }
     };
   private final EntitySqlTable<AssetTransfer> assetTransferTable;
+  private final AssetStatsTable assetStatsTable;
 
-  public SqlAssetTransferStore(DerivedTableManager derivedTableManager) {
+  public SqlAssetTransferStore(DerivedTableManager derivedTableManager, AssetStatsTable assetStatsTable) {
+    this.assetStatsTable = assetStatsTable;
     assetTransferTable = new EntitySqlTable<AssetTransfer>("asset_transfer", brs.schema.Tables.ASSET_TRANSFER, transferDbKeyFactory, derivedTableManager) {
 
       @Override
@@ -35,6 +37,17 @@ public class SqlAssetTransferStore implements AssetTransferStore {
       protected void save(DSLContext ctx, AssetTransfer assetTransfer) throws SQLException {
         saveAssetTransfer(assetTransfer);
       }
+
+      @Override
+      protected boolean reusesKeys() {
+        return false;
+      }
+
+      @Override
+      public void insert(AssetTransfer assetTransfer) {
+        assetStatsTable.addTransfer(assetTransfer.getAssetId());
+        super.insert(assetTransfer);
+      }
     };
   }
 
@@ -109,8 +122,7 @@ public class SqlAssetTransferStore implements AssetTransferStore {
 
   @Override
   public int getTransferCount(long assetId) {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.fetchCount(ctx.selectFrom(ASSET_TRANSFER).where(ASSET_TRANSFER.ASSET_ID.eq(assetId)));
+    return assetStatsTable.getTransferCount(assetId);
   }
 
   protected class SqlAssetTransfer extends AssetTransfer {
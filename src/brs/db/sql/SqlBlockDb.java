@@ -11,6 +11,7 @@ import org.jooq.DSLContext;
 import org.jooq.DeleteQuery;
 import org.jooq.SelectQuery;
 import org.jooq.UpdateQuery;
+import org.jooq.impl.DSL;
 import org.jooq.impl.TableImpl;
 
 import java.util.Optional;
@@ -19,6 +20,7 @@ import brs.db.BlockDb;
 import brs.BurstException;
 import brs.Burst;
 
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
 import static brs.schema.Tables.BLOCK;
 import brs.schema.tables.records.BlockRecord;
 
@@ -29,19 +31,35 @@ public class SqlBlockDb implements BlockDb {
 
   private static final Logger logger = LoggerFactory.getLogger(BlockDb.class);
 
+  private static final CachedQuery findBlockQuery = new CachedQuery(ctx ->
+      ctx.selectFrom(BLOCK).where(BLOCK.ID.eq(DSL.param("id", Long.class))).limit(DSL.inline(1)));
+  private static final CachedQuery findBlockHeightQuery = new CachedQuery(ctx ->
+      ctx.select(BLOCK.HEIGHT).from(BLOCK).where(BLOCK.ID.eq(DSL.param("id", Long.class))));
+
   public Block findBlock(long blockId) {
-    try (DSLContext ctx = Db.getDSLContext()) {
-      BlockRecord r = ctx.selectFrom(BLOCK).where(BLOCK.ID.eq(blockId)).fetchAny();
-      return r == null ? null : loadBlock(r);
-    }
-    catch (BurstException.ValidationException e) {
-      throw new RuntimeException("Block already in database, id = " + blockId + ", does not pass validation!", e);
+    BlockFileStore blockFileStore = Db.getBlockFileStore();
+    if (blockFileStore != null) {
+      Integer height = findBlockHeightQuery.fetch(rs -> rs.next() ? rs.getInt(1) : null, blockId);
+      if (height == null) {
+        return null;
+      }
+      Block block = blockFileStore.get(height, blockId);
+      if (block != null) {
+        return block;
+      }
     }
+    DSLContext ctx = Db.getDSLContext();
+    return findBlockQuery.fetch(rs -> {
+      try {
+        return rs.next() ? loadBlock(ctx, rs) : null;
+      } catch (BurstException.ValidationException e) {
+        throw new RuntimeException("Block already in database, id = " + blockId + ", does not pass validation!", e);
+      }
+    }, blockId);
   }
 
   public boolean hasBlock(long blockId) {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.fetchExists(ctx.selectOne().from(BLOCK).where(BLOCK.ID.eq(blockId)));
+    return findBlockHeightQuery.exists(blockId);
   }
 
   public long findBlockIdAtHeight(int height) {
@@ -54,6 +72,13 @@ public class SqlBlockDb implements BlockDb {
   }
 
   public Block findBlockAtHeight(int height) {
+    BlockFileStore blockFileStore = Db.getBlockFileStore();
+    if (blockFileStore != null && height <= Burst.getBlockchain().getHeight()) {
+      Block block = blockFileStore.get(height, blockFileStore.getId(height));
+      if (block != null) {
+        return block;
+      }
+    }
     try (DSLContext ctx = Db.getDSLContext()) {
       Block block = loadBlock(ctx.selectFrom(BLOCK).where(BLOCK.HEIGHT.eq(height)).fetchAny());
       if (block == null) {
@@ -157,6 +182,11 @@ public class SqlBlockDb implements BlockDb {
 
     Burst.getDbs().getTransactionDb().saveTransactions(block.getTransactions());
 
+    BlockFileStore blockFileStore = Db.getBlockFileStore();
+    if (blockFileStore != null) {
+      blockFileStore.save(block);
+    }
+
     if (block.getPreviousBlockId() != 0) {
       ctx.update(BLOCK).set(BLOCK.NEXT_BLOCK_ID, block.getId())
           .where(BLOCK.ID.eq(block.getPreviousBlockId())).execute();
@@ -187,9 +217,16 @@ public class SqlBlockDb implements BlockDb {
     Integer blockHeight = (Integer) ctx.fetchValue(blockHeightQuery.fetchResultSet());
 
     if (blockHeight != null) {
+      BlockFileStore blockFileStore = Db.getBlockFileStore();
+      if (blockFileStore != null) {
+        blockFileStore.truncateFrom(blockHeight);
+      }
+      ctx.deleteFrom(ACCOUNT_TRANSACTION).where(ACCOUNT_TRANSACTION.HEIGHT.ge(blockHeight)).execute();
       DeleteQuery deleteQuery = ctx.deleteQuery(BLOCK);
       deleteQuery.addConditions(BLOCK.field("height", Integer.class).ge(blockHeight));
       deleteQuery.execute();
+      // the transactions of the blocks are deleted with them
+      SqlTransactionDb.transactionCounter.reset();
     }
   }
 
@@ -207,6 +244,10 @@ public class SqlBlockDb implements BlockDb {
       return;
     }
     logger.info("Deleting blockchain...");
+    BlockFileStore blockFileStore = Db.getBlockFileStore();
+    if (blockFileStore != null) {
+      blockFileStore.clear();
+    }
     DSLContext ctx = Db.getDSLContext();
     List<TableImpl> tables = new ArrayList<>(Arrays.asList(brs.schema.Tables.ACCOUNT,
             brs.schema.Tables.ACCOUNT_ASSET, brs.schema.Tables.ALIAS, brs.schema.Tables.ALIAS_OFFER,
@@ -217,7 +258,9 @@ public class SqlBlockDb implements BlockDb {
             brs.schema.Tables.PURCHASE_FEEDBACK, brs.schema.Tables.PURCHASE_PUBLIC_FEEDBACK,
             brs.schema.Tables.REWARD_RECIP_ASSIGN, brs.schema.Tables.SUBSCRIPTION,
             brs.schema.Tables.TRADE, brs.schema.Tables.TRANSACTION,
+            brs.schema.Tables.ACCOUNT_TRANSACTION, brs.schema.Tables.ASSET_STATS,
             brs.schema.Tables.UNCONFIRMED_TRANSACTION));
+    EntityCounter.resetAll();
     for (TableImpl table : tables) {
       try {
         ctx.truncate(table).execute();
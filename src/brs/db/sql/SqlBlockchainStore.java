@@ -14,6 +14,7 @@ import org.jooq.Condition;
 import org.jooq.SelectConditionStep;
 import org.jooq.SelectQuery;
 
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
 import static brs.schema.Tables.BLOCK;
 import static brs.schema.Tables.TRANSACTION;
 
@@ -87,6 +88,14 @@ public class SqlBlockchainStore implements BlockchainStore {
       throw new IllegalArgumentException("Can't get more than 1440 blocks at a time");
     }
 
+      BlockFileStore blockFileStore = Db.getBlockFileStore();
+      if (blockFileStore != null) {
+        List<Block> blocksAfter = getStoredBlocksAfter(blockFileStore, blockId, limit);
+        if (blocksAfter != null) {
+          return blocksAfter;
+        }
+      }
+
       try ( DSLContext ctx = Db.getDSLContext() ) {
         List<Block> blocksAfter = new ArrayList<Block>();
         try (Cursor<BlockRecord> cursor = ctx.selectFrom(BLOCK).where(BLOCK.HEIGHT.gt( ctx.select(BLOCK.HEIGHT).from(BLOCK).where(BLOCK.ID.eq(blockId)))).orderBy(BLOCK.HEIGHT.asc()).limit(limit).fetchLazy()) {
@@ -101,10 +110,43 @@ public class SqlBlockchainStore implements BlockchainStore {
     }
   }
 
+  /**
+   * @return The blocks from the block files, null if any of them has to be loaded from the database. Only blocks
+   * with the ids of the block table are served, the files may still hold blocks which were not committed.
+   */
+  private List<Block> getStoredBlocksAfter(BlockFileStore blockFileStore, long blockId, int limit) {
+    DSLContext ctx = Db.getDSLContext();
+    Integer height = ctx.select(BLOCK.HEIGHT).from(BLOCK).where(BLOCK.ID.eq(blockId)).fetchOne(BLOCK.HEIGHT);
+    if (height == null) {
+      return new ArrayList<>();
+    }
+    int lastHeight = Math.min(height + limit, Burst.getBlockchain().getHeight());
+    if (lastHeight > blockFileStore.getHeight()) {
+      return null;
+    }
+    // the next block id of the last block comes from the files as well
+    List<Long> ids = ctx.select(BLOCK.ID).from(BLOCK).where(BLOCK.HEIGHT.gt(height)).and(BLOCK.HEIGHT.le(lastHeight + 1))
+        .orderBy(BLOCK.HEIGHT.asc()).fetch(BLOCK.ID);
+    if (ids.size() < lastHeight - height) {
+      return null;
+    }
+    if (ids.size() > lastHeight - height && blockFileStore.getId(lastHeight + 1) != ids.get(lastHeight - height)) {
+      return null;
+    }
+    List<Block> blocksAfter = new ArrayList<>(Math.max(lastHeight - height, 0));
+    for (int h = height + 1; h <= lastHeight; h++) {
+      Block block = blockFileStore.get(h, ids.get(h - height - 1));
+      if (block == null) {
+        return null;
+      }
+      blocksAfter.add(block);
+    }
+    return blocksAfter;
+  }
+
   @Override
   public int getTransactionCount() {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.selectCount().from(TRANSACTION).fetchOne(0, int.class);
+    return SqlTransactionDb.transactionCounter.get();
   }
 
   @Override
@@ -126,29 +168,25 @@ public class SqlBlockchainStore implements BlockchainStore {
                                          + " exceeds current blockchain height " + Burst.getBlockchain().getHeight());
     }
     DSLContext ctx = Db.getDSLContext();
+    // account_transaction has a row per account involved, so paging through it is a single index range scan
     ArrayList<Condition> conditions = new ArrayList<>();
+    conditions.add(ACCOUNT_TRANSACTION.ACCOUNT_ID.eq(account.getId()));
     if (blockTimestamp > 0) {
-      conditions.add(TRANSACTION.BLOCK_TIMESTAMP.ge(blockTimestamp));
+      conditions.add(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.ge(blockTimestamp));
     }
     if (type >= 0) {
-      conditions.add(TRANSACTION.TYPE.eq(type));
+      conditions.add(ACCOUNT_TRANSACTION.TYPE.eq(type));
       if (subtype >= 0) {
-        conditions.add(TRANSACTION.SUBTYPE.eq(subtype));
+        conditions.add(ACCOUNT_TRANSACTION.SUBTYPE.eq(subtype));
       }
     }
     if (height < Integer.MAX_VALUE) {
-      conditions.add(TRANSACTION.HEIGHT.le(height));
-    }
-    SelectQuery selectQuery = ctx.selectFrom(TRANSACTION).where(conditions).and(
-        TRANSACTION.RECIPIENT_ID.eq(account.getId()).and(
-          TRANSACTION.SENDER_ID.ne(account.getId())
-        )
-      ).unionAll(
-        ctx.selectFrom(TRANSACTION).where(conditions).and(
-          TRANSACTION.SENDER_ID.eq(account.getId())
-        )
-      )
-      .orderBy(TRANSACTION.BLOCK_TIMESTAMP.desc(), TRANSACTION.ID.desc()).getQuery();
+      conditions.add(ACCOUNT_TRANSACTION.HEIGHT.le(height));
+    }
+    SelectQuery selectQuery = ctx.select(TRANSACTION.fields()).from(ACCOUNT_TRANSACTION)
+      .join(TRANSACTION).on(TRANSACTION.ID.eq(ACCOUNT_TRANSACTION.TRANSACTION_ID))
+      .where(conditions)
+      .orderBy(ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP.desc(), ACCOUNT_TRANSACTION.TRANSACTION_ID.desc()).getQuery();
     DbUtils.applyLimits(selectQuery, from, to);
 
     return getTransactions(
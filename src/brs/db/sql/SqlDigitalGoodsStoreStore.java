@@ -10,11 +10,15 @@ import brs.db.VersionedValuesTable;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.DigitalGoodsStoreStore;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.SortField;
 import org.jooq.Field;
+import org.jooq.impl.DSL;
 import static brs.schema.Tables.PURCHASE;
 import static brs.schema.Tables.PURCHASE_FEEDBACK;
 import static brs.schema.Tables.PURCHASE_PUBLIC_FEEDBACK;
@@ -64,6 +68,9 @@ public class SqlDigitalGoodsStoreStore implements DigitalGoodsStoreStore {
 
   private final VersionedEntityTable<DigitalGoodsStore.Goods> goodsTable;
 
+  // the delivery deadlines of the pending purchases
+  private final DeadlineQueue pendingPurchases = new DeadlineQueue(this::loadPendingDeadlines);
+
   public SqlDigitalGoodsStoreStore(DerivedTableManager derivedTableManager) {
     purchaseTable = new VersionedEntitySqlTable<DigitalGoodsStore.Purchase>("purchase", brs.schema.Tables.PURCHASE, purchaseDbKeyFactory, derivedTableManager) {
       @Override
@@ -83,6 +90,28 @@ public class SqlDigitalGoodsStoreStore implements DigitalGoodsStoreStore {
         sort.add(tableClass.field("id", Long.class).asc());
         return sort;
       }
+
+      @Override
+      public void insert(DigitalGoodsStore.Purchase purchase) {
+        super.insert(purchase);
+        if (purchase.isPending()) {
+          pendingPurchases.put(purchase.getId(), purchase.getDeliveryDeadlineTimestamp());
+        } else {
+          pendingPurchases.remove(purchase.getId());
+        }
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        pendingPurchases.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        pendingPurchases.clear();
+      }
     };
 
     feedbackTable = new VersionedValuesSqlTable<DigitalGoodsStore.Purchase, EncryptedData>("purchase_feedback", brs.schema.Tables.PURCHASE_FEEDBACK, feedbackDbKeyFactory, derivedTableManager) {
@@ -159,11 +188,33 @@ public class SqlDigitalGoodsStoreStore implements DigitalGoodsStoreStore {
         return sort;
       }
     };
+
+    Db.addTransactionCallback(pendingPurchases);
+  }
+
+  private Map<Long, Integer> loadPendingDeadlines() {
+    Db.flushWrites("purchase");
+    DSLContext ctx = Db.getDSLContext();
+    return ctx.select(PURCHASE.ID, PURCHASE.DEADLINE).from(PURCHASE)
+        .where(PURCHASE.LATEST.isTrue().and(PURCHASE.PENDING.isTrue()))
+        .fetchMap(PURCHASE.ID, PURCHASE.DEADLINE);
   }
 
   @Override
   public BurstIterator<DigitalGoodsStore.Purchase> getExpiredPendingPurchases(final int timestamp) {
-    return getPurchaseTable().getManyBy(PURCHASE.DEADLINE.lt(timestamp).and(PURCHASE.PENDING.isTrue()), 0, -1);
+    List<DigitalGoodsStore.Purchase> purchases = new ArrayList<>();
+    for (long purchaseId : pendingPurchases.getDueBefore(timestamp)) {
+      purchases.add(purchaseTable.get(purchaseDbKeyFactory.newKey(purchaseId)));
+    }
+    // refunded in this order, which is the one the purchase table sorts them in
+    purchases.sort(Comparator.comparingInt(DigitalGoodsStore.Purchase::getTimestamp).reversed()
+        .thenComparingLong(DigitalGoodsStore.Purchase::getId));
+    return new CollectionIterator<>(purchases);
+  }
+
+  @Override
+  public void flushCache() {
+    pendingPurchases.clear();
   }
 
   private EncryptedData loadEncryptedData(ResultSet rs, String dataColumn, String nonceColumn) throws SQLException {
@@ -280,49 +331,55 @@ public class SqlDigitalGoodsStoreStore implements DigitalGoodsStoreStore {
   }
 
   @Override
-  public BurstIterator<DigitalGoodsStore.Goods> getGoodsInStock(int from, int to) {
-    return goodsTable.getManyBy(GOODS.DELISTED.isFalse().and(GOODS.QUANTITY.gt(0)), from, to);
-  }
-
-  @Override
-  public BurstIterator<DigitalGoodsStore.Goods> getSellerGoods(final long sellerId, final boolean inStockOnly, int from, int to) {
+  public BurstIterator<DigitalGoodsStore.Goods> getGoods(long sellerId, boolean inStockOnly, DigitalGoodsStore.Goods after, int from, int to) {
+    List<Condition> conditions = new ArrayList<>();
+    if (sellerId != 0) {
+      conditions.add(GOODS.SELLER_ID.eq(sellerId));
+    }
+    if (inStockOnly) {
+      conditions.add(GOODS.DELISTED.isFalse());
+      conditions.add(GOODS.QUANTITY.gt(0));
+    }
     List<SortField> sort = new ArrayList<>();
-    sort.add(GOODS.field("name", String.class).asc());
-    sort.add(GOODS.field("timestamp", Integer.class).desc());
-    sort.add(GOODS.field("id", Long.class).asc());
-    return getGoodsTable().getManyBy(
-      (
-        inStockOnly
-          ? GOODS.SELLER_ID.eq(sellerId).and(GOODS.DELISTED.isFalse()).and(GOODS.QUANTITY.gt(0))
-          : GOODS.SELLER_ID.eq(sellerId)
-      ),
-      from, to, sort
-    );
-  }
-
-  @Override
-  public BurstIterator<DigitalGoodsStore.Purchase> getAllPurchases(int from, int to) {
-    return purchaseTable.getAll(from, to);
-  }
-
-  @Override
-  public BurstIterator<DigitalGoodsStore.Purchase> getSellerPurchases(long sellerId, int from, int to) {
-    return purchaseTable.getManyBy(PURCHASE.SELLER_ID.eq(sellerId), from, to);
-  }
-
-  @Override
-  public BurstIterator<DigitalGoodsStore.Purchase> getBuyerPurchases(long buyerId, int from, int to) {
-    return purchaseTable.getManyBy(PURCHASE.BUYER_ID.eq(buyerId), from, to);
+    if (sellerId != 0) {
+      // the listings of a seller by name, as shown in their store
+      sort.add(GOODS.NAME.asc());
+      if (after != null) {
+        conditions.add(GOODS.NAME.gt(after.getName()).or(GOODS.NAME.eq(after.getName())
+            .and(after(GOODS.TIMESTAMP, GOODS.ID, after.getTimestamp(), after.getId()))));
+      }
+    } else if (after != null) {
+      conditions.add(after(GOODS.TIMESTAMP, GOODS.ID, after.getTimestamp(), after.getId()));
+    }
+    sort.add(GOODS.TIMESTAMP.desc());
+    sort.add(GOODS.ID.asc());
+    return goodsTable.getManyBy(DSL.and(conditions), from, to, sort);
   }
 
   @Override
-  public BurstIterator<DigitalGoodsStore.Purchase> getSellerBuyerPurchases(final long sellerId, final long buyerId, int from, int to) {
-    return purchaseTable.getManyBy(PURCHASE.SELLER_ID.eq(sellerId).and(PURCHASE.BUYER_ID.eq(buyerId)), from, to);
+  public BurstIterator<DigitalGoodsStore.Purchase> getPurchases(long sellerId, long buyerId, Boolean pending, DigitalGoodsStore.Purchase after, int from, int to) {
+    List<Condition> conditions = new ArrayList<>();
+    if (sellerId != 0) {
+      conditions.add(PURCHASE.SELLER_ID.eq(sellerId));
+    }
+    if (buyerId != 0) {
+      conditions.add(PURCHASE.BUYER_ID.eq(buyerId));
+    }
+    if (pending != null) {
+      conditions.add(PURCHASE.PENDING.eq(pending));
+    }
+    if (after != null) {
+      conditions.add(after(PURCHASE.TIMESTAMP, PURCHASE.ID, after.getTimestamp(), after.getId()));
+    }
+    return purchaseTable.getManyBy(DSL.and(conditions), from, to);
   }
 
-  @Override
-  public BurstIterator<DigitalGoodsStore.Purchase> getPendingSellerPurchases(final long sellerId, int from, int to) {
-    return purchaseTable.getManyBy(PURCHASE.SELLER_ID.eq(sellerId).and(PURCHASE.PENDING.isTrue()), from, to);
+  /**
+   * @return The rows after the given one when sorted by timestamp descending and id, so pages continue where the
+   * previous one ended instead of skipping all rows before them again
+   */
+  private static Condition after(Field<Integer> timestampField, Field<Long> idField, int timestamp, long id) {
+    return timestampField.lt(timestamp).or(timestampField.eq(timestamp).and(idField.gt(id)));
   }
 
   public DigitalGoodsStore.Purchase getPendingPurchase(long purchaseId) {
@@ -4,6 +4,7 @@ import brs.*;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.EscrowStore;
 import java.sql.ResultSet;
@@ -11,6 +12,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 
@@ -35,10 +37,11 @@ public class SqlEscrowStore implements EscrowStore {
       };
   private final VersionedEntityTable<Escrow.Decision> decisionTable;
   private final List<Transaction> resultTransactions = new ArrayList<>();
+  private final DeadlineQueue deadlineQueue = new DeadlineQueue(this::loadDeadlines);
 
 
-  public SqlEscrowStore(DerivedTableManager derivedTableManager) {
-    escrowTable = new VersionedEntitySqlTable<Escrow>("escrow", brs.schema.Tables.ESCROW, escrowDbKeyFactory, derivedTableManager) {
+  public SqlEscrowStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    escrowTable = new VersionedEntitySqlTable<Escrow>("escrow", brs.schema.Tables.ESCROW, escrowDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected Escrow load(DSLContext ctx, ResultSet rs) throws SQLException {
         return new SqlEscrow(rs);
@@ -48,6 +51,33 @@ public class SqlEscrowStore implements EscrowStore {
       protected void save(DSLContext ctx, Escrow escrow) throws SQLException {
         saveEscrow(ctx, escrow);
       }
+
+      @Override
+      public void insert(Escrow escrow) {
+        super.insert(escrow);
+        deadlineQueue.put(escrow.getId(), escrow.getDeadline());
+      }
+
+      @Override
+      public boolean delete(Escrow escrow) {
+        boolean deleted = super.delete(escrow);
+        if (escrow != null) {
+          deadlineQueue.remove(escrow.getId());
+        }
+        return deleted;
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        deadlineQueue.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        deadlineQueue.clear();
+      }
     };
 
     decisionTable = new VersionedEntitySqlTable<Escrow.Decision>("escrow_decision", brs.schema.Tables.ESCROW_DECISION, decisionDbKeyFactory, derivedTableManager) {
@@ -61,6 +91,14 @@ public class SqlEscrowStore implements EscrowStore {
         saveDecision(ctx, decision);
       }
     };
+
+    Db.addTransactionCallback(deadlineQueue);
+  }
+
+  private Map<Long, Integer> loadDeadlines() {
+    Db.flushWrites("escrow");
+    DSLContext ctx = Db.getDSLContext();
+    return ctx.select(ESCROW.ID, ESCROW.DEADLINE).from(ESCROW).where(ESCROW.LATEST.isTrue()).fetchMap(ESCROW.ID, ESCROW.DEADLINE);
   }
 
 
@@ -114,6 +152,16 @@ public class SqlEscrowStore implements EscrowStore {
 
 
 
+  @Override
+  public List<Long> getEscrowIdsWithDeadlineBefore(int timestamp) {
+    return deadlineQueue.getDueBefore(timestamp);
+  }
+
+  @Override
+  public void flushCache() {
+    deadlineQueue.clear();
+  }
+
   @Override
   public List<Transaction> getResultTransactions() {
     return resultTransactions;
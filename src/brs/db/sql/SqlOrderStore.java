@@ -4,16 +4,17 @@ import brs.Order;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.OrderStore;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import org.jooq.impl.TableImpl;
 import org.jooq.DSLContext;
 import org.jooq.SortField;
-import org.jooq.SelectQuery;
 import org.jooq.Field;
 
 public class SqlOrderStore implements OrderStore {
@@ -27,8 +28,13 @@ public class SqlOrderStore implements OrderStore {
     };
   protected VersionedEntityTable<Order.Ask> askOrderTable;
 
-  public SqlOrderStore(DerivedTableManager derivedTableManager) {
-    askOrderTable = new VersionedEntitySqlTable<Order.Ask>("ask_order", brs.schema.Tables.ASK_ORDER, askOrderDbKeyFactory, derivedTableManager) {
+  private final OrderBook<Order.Ask> askOrderBook = new OrderBook<>(OrderBook.ASK_PRIORITY, this::loadAsks,
+      ask -> new Order.Ask(ask.getId(), ask.getAccountId(), ask.getAssetId(), ask.getPriceNQT(), ask.getHeight(), ask.getQuantityQNT(), ask.dbKey));
+  private final OrderBook<Order.Bid> bidOrderBook = new OrderBook<>(OrderBook.BID_PRIORITY, this::loadBids,
+      bid -> new Order.Bid(bid.getId(), bid.getAccountId(), bid.getAssetId(), bid.getPriceNQT(), bid.getHeight(), bid.getQuantityQNT(), bid.dbKey));
+
+  public SqlOrderStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    askOrderTable = new VersionedEntitySqlTable<Order.Ask>("ask_order", brs.schema.Tables.ASK_ORDER, askOrderDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected Order.Ask load(DSLContext ctx, ResultSet rs) throws SQLException {
         return new SqlAsk(rs);
@@ -45,9 +51,36 @@ public class SqlOrderStore implements OrderStore {
         sort.add(tableClass.field("creation_height", Integer.class).desc());
         return sort;
       }
+
+      @Override
+      public void insert(Order.Ask ask) {
+        super.insert(ask);
+        askOrderBook.put(ask);
+      }
+
+      @Override
+      public boolean delete(Order.Ask ask) {
+        boolean deleted = super.delete(ask);
+        if (ask != null) {
+          askOrderBook.remove(ask);
+        }
+        return deleted;
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        askOrderBook.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        askOrderBook.clear();
+      }
     };
 
-    bidOrderTable = new VersionedEntitySqlTable<Order.Bid>("bid_order", brs.schema.Tables.BID_ORDER, bidOrderDbKeyFactory, derivedTableManager) {
+    bidOrderTable = new VersionedEntitySqlTable<Order.Bid>("bid_order", brs.schema.Tables.BID_ORDER, bidOrderDbKeyFactory, derivedTableManager, dbCacheManager) {
 
       @Override
       protected Order.Bid load(DSLContext ctx, ResultSet rs) throws SQLException {
@@ -66,8 +99,37 @@ public class SqlOrderStore implements OrderStore {
         return sort;
       }
 
+      @Override
+      public void insert(Order.Bid bid) {
+        super.insert(bid);
+        bidOrderBook.put(bid);
+      }
+
+      @Override
+      public boolean delete(Order.Bid bid) {
+        boolean deleted = super.delete(bid);
+        if (bid != null) {
+          bidOrderBook.remove(bid);
+        }
+        return deleted;
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        bidOrderBook.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        bidOrderBook.clear();
+      }
+
     };
 
+    Db.addTransactionCallback(askOrderBook);
+    Db.addTransactionCallback(bidOrderBook);
   }
 
   private DbKey.LongKeyFactory<Order.Bid> bidOrderDbKeyFactory = new DbKey.LongKeyFactory<Order.Bid>("id") {
@@ -98,26 +160,25 @@ public class SqlOrderStore implements OrderStore {
 
   @Override
   public BurstIterator<Order.Ask> getSortedAsks(long assetId, int from, int to) {
-    List<SortField> sort = new ArrayList<>();
-    sort.add(brs.schema.Tables.ASK_ORDER.field("price", Long.class).asc());
-    sort.add(brs.schema.Tables.ASK_ORDER.field("creation_height", Integer.class).asc());
-    sort.add(brs.schema.Tables.ASK_ORDER.field("id", Long.class).asc());
-    return askOrderTable.getManyBy(brs.schema.Tables.ASK_ORDER.ASSET_ID.eq(assetId), from, to, sort);
+    return askOrderBook.get(assetId, from, to);
   }
 
   @Override
   public Order.Ask getNextOrder(long assetId) {
+    Order.Ask ask = askOrderBook.first(assetId);
+    // the instance of the transaction has to be modified, not the one of the book
+    return ask != null ? askOrderTable.get(ask.dbKey) : null;
+  }
+
+  private Collection<Order.Ask> loadAsks(long assetId) {
+    Db.flushWrites("ask_order");
     DSLContext ctx = Db.getDSLContext();
-    SelectQuery query = ctx.selectFrom(brs.schema.Tables.ASK_ORDER).where(
+    return ctx.selectFrom(brs.schema.Tables.ASK_ORDER).where(
       brs.schema.Tables.ASK_ORDER.ASSET_ID.eq(assetId).and(brs.schema.Tables.ASK_ORDER.LATEST.isTrue())
-    ).orderBy(
-      brs.schema.Tables.ASK_ORDER.PRICE.asc(),
-      brs.schema.Tables.ASK_ORDER.CREATION_HEIGHT.asc(),
-      brs.schema.Tables.ASK_ORDER.ID.asc()
-    ).limit(1).getQuery();
-    try (BurstIterator<Order.Ask> askOrders = askOrderTable.getManyBy(ctx, query, true)) {
-      return askOrders.hasNext() ? askOrders.next() : null;
-    }
+    ).fetch(record -> new Order.Ask(
+      record.getId(), record.getAccountId(), record.getAssetId(), record.getPrice(), record.getCreationHeight(),
+      record.getQuantity(), askOrderDbKeyFactory.newKey(record.getId())
+    ));
   }
 
   @Override
@@ -189,26 +250,25 @@ public class SqlOrderStore implements OrderStore {
 
   @Override
   public BurstIterator<Order.Bid> getSortedBids(long assetId, int from, int to) {
-    List<SortField> sort = new ArrayList<>();
-    sort.add(brs.schema.Tables.BID_ORDER.field("price", Long.class).desc());
-    sort.add(brs.schema.Tables.BID_ORDER.field("creation_height", Integer.class).asc());
-    sort.add(brs.schema.Tables.BID_ORDER.field("id", Long.class).asc());
-    return bidOrderTable.getManyBy(brs.schema.Tables.BID_ORDER.ASSET_ID.eq(assetId), from, to, sort);
+    return bidOrderBook.get(assetId, from, to);
   }
 
   @Override
   public Order.Bid getNextBid(long assetId) {
+    Order.Bid bid = bidOrderBook.first(assetId);
+    // the instance of the transaction has to be modified, not the one of the book
+    return bid != null ? bidOrderTable.get(bid.dbKey) : null;
+  }
+
+  private Collection<Order.Bid> loadBids(long assetId) {
+    Db.flushWrites("bid_order");
     DSLContext ctx = Db.getDSLContext();
-    SelectQuery query = ctx.selectFrom(brs.schema.Tables.BID_ORDER).where(
+    return ctx.selectFrom(brs.schema.Tables.BID_ORDER).where(
       brs.schema.Tables.BID_ORDER.ASSET_ID.eq(assetId).and(brs.schema.Tables.BID_ORDER.LATEST.isTrue())
-    ).orderBy(
-      brs.schema.Tables.BID_ORDER.PRICE.desc(),
-      brs.schema.Tables.BID_ORDER.CREATION_HEIGHT.asc(),
-      brs.schema.Tables.BID_ORDER.ID.asc()
-    ).limit(1).getQuery();
-    try (BurstIterator<Order.Bid> bidOrders = bidOrderTable.getManyBy(ctx, query, true)) {
-      return bidOrders.hasNext() ? bidOrders.next() : null;
-    }
+    ).fetch(record -> new Order.Bid(
+      record.getId(), record.getAccountId(), record.getAssetId(), record.getPrice(), record.getCreationHeight(),
+      record.getQuantity(), bidOrderDbKeyFactory.newKey(record.getId())
+    ));
   }
 
   private void saveBid(DSLContext ctx, TableImpl table, Order.Bid bid) throws SQLException {
@@ -227,6 +287,12 @@ public class SqlOrderStore implements OrderStore {
     );
   }
 
+  @Override
+  public void flushCache() {
+    askOrderBook.clear();
+    bidOrderBook.clear();
+  }
+
   protected class SqlAsk extends Order.Ask {
     private SqlAsk(ResultSet rs) throws SQLException {
       super(
@@ -4,10 +4,12 @@ import brs.Subscription;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import brs.db.store.SubscriptionStore;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import org.jooq.DSLContext;
@@ -28,8 +30,10 @@ public class SqlSubscriptionStore implements SubscriptionStore {
 
   private final VersionedEntityTable<Subscription> subscriptionTable;
 
-  public SqlSubscriptionStore(DerivedTableManager derivedTableManager) {
-    subscriptionTable = new VersionedEntitySqlTable<Subscription>("subscription", brs.schema.Tables.SUBSCRIPTION, subscriptionDbKeyFactory, derivedTableManager) {
+  private final DeadlineQueue timeNextQueue = new DeadlineQueue(this::loadTimeNext);
+
+  public SqlSubscriptionStore(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    subscriptionTable = new VersionedEntitySqlTable<Subscription>("subscription", brs.schema.Tables.SUBSCRIPTION, subscriptionDbKeyFactory, derivedTableManager, dbCacheManager) {
       @Override
       protected Subscription load(DSLContext ctx, ResultSet rs) throws SQLException {
         return new SqlSubscription(rs);
@@ -47,15 +51,47 @@ public class SqlSubscriptionStore implements SubscriptionStore {
         sort.add(tableClass.field("id", Long.class).asc());
         return sort;
       }
+
+      @Override
+      public void insert(Subscription subscription) {
+        super.insert(subscription);
+        timeNextQueue.put(subscription.getId(), subscription.getTimeNext());
+      }
+
+      @Override
+      public boolean delete(Subscription subscription) {
+        boolean deleted = super.delete(subscription);
+        if (subscription != null) {
+          timeNextQueue.remove(subscription.getId());
+        }
+        return deleted;
+      }
+
+      @Override
+      public void rollback(int height) {
+        super.rollback(height);
+        timeNextQueue.clear();
+      }
+
+      @Override
+      public void truncate() {
+        super.truncate();
+        timeNextQueue.clear();
+      }
     };
+
+    Db.addTransactionCallback(timeNextQueue);
   }
 
-  private static Condition getByParticipantClause(final long id) {
-    return SUBSCRIPTION.SENDER_ID.eq(id).or(SUBSCRIPTION.RECIPIENT_ID.eq(id));
+  private Map<Long, Integer> loadTimeNext() {
+    Db.flushWrites("subscription");
+    DSLContext ctx = Db.getDSLContext();
+    return ctx.select(SUBSCRIPTION.ID, SUBSCRIPTION.TIME_NEXT).from(SUBSCRIPTION).where(SUBSCRIPTION.LATEST.isTrue())
+        .fetchMap(SUBSCRIPTION.ID, SUBSCRIPTION.TIME_NEXT);
   }
 
-  private static Condition getUpdateOnBlockClause(final int timestamp) {
-    return SUBSCRIPTION.TIME_NEXT.le(timestamp);
+  private static Condition getByParticipantClause(final long id) {
+    return SUBSCRIPTION.SENDER_ID.eq(id).or(SUBSCRIPTION.RECIPIENT_ID.eq(id));
   }
 
   @Override
@@ -84,8 +120,17 @@ public class SqlSubscriptionStore implements SubscriptionStore {
   }
 
   @Override
-  public BurstIterator<Subscription> getUpdateSubscriptions(int timestamp) {
-    return subscriptionTable.getManyBy(getUpdateOnBlockClause(timestamp), 0, -1);
+  public List<Subscription> getUpdateSubscriptions(int timestamp) {
+    List<Subscription> subscriptions = new ArrayList<>();
+    for (Long id : timeNextQueue.getDueBefore(timestamp + 1)) {
+      subscriptions.add(subscriptionTable.get(subscriptionDbKeyFactory.newKey(id)));
+    }
+    return subscriptions;
+  }
+
+  @Override
+  public void flushCache() {
+    timeNextQueue.clear();
   }
 
   protected void saveSubscription(DSLContext ctx, Subscription subscription) throws SQLException {
@@ -23,8 +23,10 @@ public class SqlTradeStore implements TradeStore {
     };
 
   private final EntitySqlTable<Trade> tradeTable;
+  private final AssetStatsTable assetStatsTable;
 
-  public SqlTradeStore(DerivedTableManager derivedTableManager) {
+  public SqlTradeStore(DerivedTableManager derivedTableManager, AssetStatsTable assetStatsTable) {
+    this.assetStatsTable = assetStatsTable;
     tradeTable = new EntitySqlTable<Trade>("trade", TRADE, tradeDbKeyFactory, derivedTableManager) {
 
       @Override
@@ -37,6 +39,17 @@ public class SqlTradeStore implements TradeStore {
         saveTrade(ctx, trade);
       }
 
+      @Override
+      protected boolean reusesKeys() {
+        return false;
+      }
+
+      @Override
+      public void insert(Trade trade) {
+        assetStatsTable.addTrade(trade.getAssetId());
+        super.insert(trade);
+      }
+
     };
   }
 
@@ -95,8 +108,7 @@ public class SqlTradeStore implements TradeStore {
 
   @Override
   public int getTradeCount(long assetId) {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.fetchCount(ctx.selectFrom(TRADE).where(TRADE.ASSET_ID.eq(assetId)));
+    return assetStatsTable.getTradeCount(assetId);
   }
 
   protected void saveTrade(DSLContext ctx, Trade trade) {
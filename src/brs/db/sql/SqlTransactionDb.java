@@ -3,7 +3,6 @@ package brs.db.sql;
 import brs.*;
 import brs.schema.tables.records.TransactionRecord;
 import brs.util.Convert;
-import org.jooq.Cursor;
 import org.jooq.Insert;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -14,19 +13,43 @@ import java.util.List;
 import java.util.Optional;
 import org.jooq.DSLContext;
 import org.jooq.BatchBindStep;
+import org.jooq.impl.DSL;
 
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
 import static brs.schema.Tables.TRANSACTION;
 
 public class SqlTransactionDb implements TransactionDb {
 
+  private static final byte ROLE_SENDER = 0;
+  private static final byte ROLE_RECIPIENT = 1;
+
+  private static final CachedQuery findTransactionQuery = new CachedQuery(ctx ->
+      ctx.selectFrom(TRANSACTION).where(TRANSACTION.ID.eq(DSL.param("id", Long.class))));
+  private static final CachedQuery hasTransactionQuery = new CachedQuery(ctx ->
+      ctx.selectOne().from(TRANSACTION).where(TRANSACTION.ID.eq(DSL.param("id", Long.class))));
+  private static final CachedQuery findBlockTransactionsQuery = new CachedQuery(ctx ->
+      ctx.selectFrom(TRANSACTION).where(TRANSACTION.BLOCK_ID.eq(DSL.param("block_id", Long.class)).and(TRANSACTION.SIGNATURE.isNotNull())));
+
+  static final EntityCounter transactionCounter = new EntityCounter("transaction", () ->
+      Db.getDSLContext().selectCount().from(TRANSACTION).fetchOne(0, int.class));
+
   @Override
   public Transaction findTransaction(long transactionId) {
-    try (DSLContext ctx = Db.getDSLContext()) {
-      TransactionRecord transactionRecord = ctx.selectFrom(TRANSACTION).where(TRANSACTION.ID.eq(transactionId)).fetchOne();
-      return loadTransaction(transactionRecord);
-    } catch (BurstException.ValidationException e) {
-      throw new RuntimeException("Transaction already in database, id = " + transactionId + ", does not pass validation!", e);
-    }
+    DSLContext ctx = Db.getDSLContext();
+    return findTransactionQuery.fetch(rs -> {
+      if (! rs.next()) {
+        return null;
+      }
+      try {
+        Transaction transaction = loadTransaction(ctx, rs);
+        if (rs.next()) {
+          throw new RuntimeException("Multiple transactions with id " + Convert.toUnsignedLong(transactionId));
+        }
+        return transaction;
+      } catch (BurstException.ValidationException e) {
+        throw new RuntimeException("Transaction already in database, id = " + transactionId + ", does not pass validation!", e);
+      }
+    }, transactionId);
   }
 
   @Override
@@ -41,8 +64,7 @@ public class SqlTransactionDb implements TransactionDb {
 
   @Override
   public boolean hasTransaction(long transactionId) {
-    DSLContext ctx = Db.getDSLContext();
-    return ctx.fetchExists(ctx.selectFrom(TRANSACTION).where(TRANSACTION.ID.eq(transactionId)));
+    return hasTransactionQuery.exists(transactionId);
   }
 
   @Override
@@ -100,7 +122,6 @@ public class SqlTransactionDb implements TransactionDb {
 
   @Override
   public Transaction loadTransaction(DSLContext ctx, ResultSet rs) throws BurstException.ValidationException {
-    // TODO: remove this method once SqlBlockchainStore no longer requires it
     try {
 
       byte type = rs.getByte("type");
@@ -173,18 +194,19 @@ public class SqlTransactionDb implements TransactionDb {
 
   @Override
   public List<Transaction> findBlockTransactions(long blockId) {
-    try (DSLContext ctx = Db.getDSLContext();
-         Cursor<TransactionRecord> transactionRecords = ctx.selectFrom(TRANSACTION).
-                 where(TRANSACTION.BLOCK_ID.eq(blockId).and(TRANSACTION.SIGNATURE.isNotNull())).fetchLazy()) {
+    DSLContext ctx = Db.getDSLContext();
+    return findBlockTransactionsQuery.fetch(rs -> {
       List<Transaction> list = new ArrayList<>();
-      for (TransactionRecord transactionRecord : transactionRecords) {
-        list.add(loadTransaction(transactionRecord));
+      try {
+        while (rs.next()) {
+          list.add(loadTransaction(ctx, rs));
+        }
+      } catch (BurstException.ValidationException e) {
+        throw new RuntimeException("Transaction already in database for block_id = " + Convert.toUnsignedLong(blockId)
+                + " does not pass validation!", e);
       }
       return list;
-    } catch (BurstException.ValidationException e) {
-      throw new RuntimeException("Transaction already in database for block_id = " + Convert.toUnsignedLong(blockId)
-              + " does not pass validation!", e);
-    }
+    }, blockId);
   }
 
   private byte[] getAttachmentBytes(Transaction transaction) {
@@ -250,7 +272,39 @@ public class SqlTransactionDb implements TransactionDb {
           );
         }
         insertBatch.execute();
+        saveAccountTransactions(ctx, transactions);
+        transactionCounter.add(transactions.size());
       }
     }
   }
+
+  /**
+   * Indexes the transactions by the accounts involved, a transaction to the sender itself is only indexed once.
+   */
+  private void saveAccountTransactions(DSLContext ctx, List<Transaction> transactions) {
+    BatchBindStep insertBatch = ctx.batch(
+        ctx.insertInto(ACCOUNT_TRANSACTION, ACCOUNT_TRANSACTION.ACCOUNT_ID, ACCOUNT_TRANSACTION.TRANSACTION_ID,
+            ACCOUNT_TRANSACTION.HEIGHT, ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP, ACCOUNT_TRANSACTION.TYPE,
+            ACCOUNT_TRANSACTION.SUBTYPE, ACCOUNT_TRANSACTION.ROLE)
+            .values((Long) null, null, null, null, null, null, null));
+    for (Transaction transaction : transactions) {
+      insertBatch = bindAccountTransaction(insertBatch, transaction, transaction.getSenderId(), ROLE_SENDER);
+      if (transaction.getRecipientId() != 0 && transaction.getRecipientId() != transaction.getSenderId()) {
+        insertBatch = bindAccountTransaction(insertBatch, transaction, transaction.getRecipientId(), ROLE_RECIPIENT);
+      }
+    }
+    insertBatch.execute();
+  }
+
+  private static BatchBindStep bindAccountTransaction(BatchBindStep insertBatch, Transaction transaction, long accountId, byte role) {
+    return insertBatch.bind(
+        accountId,
+        transaction.getId(),
+        transaction.getHeight(),
+        transaction.getBlockTimestamp(),
+        transaction.getType().getType(),
+        transaction.getType().getSubtype(),
+        role
+    );
+  }
 }
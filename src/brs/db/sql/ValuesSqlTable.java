@@ -7,10 +7,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.jooq.impl.TableImpl;
 import org.jooq.DSLContext;
 import org.jooq.SelectQuery;
-import org.jooq.UpdateQuery;
 
 public abstract class ValuesSqlTable<T,V> extends DerivedSqlTable implements ValuesTable<T, V> {
 
@@ -75,33 +75,52 @@ public abstract class ValuesSqlTable<T,V> extends DerivedSqlTable implements Val
     }
     DbKey dbKey = (DbKey)dbKeyFactory.newKey(t);
     Db.getCache(table).put(dbKey, values);
-    try ( DSLContext ctx = Db.getDSLContext() ) {
-      if (multiversion) {
-        UpdateQuery query = ctx.updateQuery(tableClass);
-        query.addValue(
-          tableClass.field("latest", Boolean.class),
-          false
-        );
-        query.addConditions(dbKey.getPKConditions(tableClass));
-        query.addConditions(tableClass.field("latest", Boolean.class).isTrue());
-        query.execute();
-      }
+    Db.getBatch(table).put(dbKey, RecordedWrites.record(ctx -> {
       for (V v : values) {
         save(ctx, t, v);
       }
-    } catch (SQLException e) {
-      throw new RuntimeException(e.toString(), e);
+    }));
+    Db.bufferWrites(table, this::writeBatch);
+  }
+
+  /**
+   * Runs the writes held back by {@link #insert(Object, List)}, to be called before the table is queried other
+   * than by key.
+   */
+  void flushWrites() {
+    Db.flushWrites(table);
+  }
+
+  private void writeBatch() {
+    Map<DbKey, Object> batch = Db.getBatch(table);
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<DbKey> dbKeys = new ArrayList<>(batch.keySet());
+    List<RecordedWrites> writes = new ArrayList<>();
+    batch.values().forEach(recorded -> writes.add((RecordedWrites) recorded));
+    batch.clear();
+    if (multiversion) {
+      DbUtils.clearLatest(Db.getDSLContext(), tableClass, dbKeyFactory, dbKeys);
     }
+    RecordedWrites.execute(writes);
+  }
+
+  @Override
+  public void finish() {
+    flushWrites();
   }
 
   @Override
   public void rollback(int height) {
+    flushWrites();
     super.rollback(height);
     Db.getCache(table).clear();
   }
 
   @Override
   public final void truncate() {
+    flushWrites();
     super.truncate();
     Db.getCache(table).clear();
   }
@@ -10,8 +10,6 @@ import org.ehcache.Cache;
 import org.jooq.impl.TableImpl;
 import org.jooq.Condition;
 import org.jooq.SelectQuery;
-import org.jooq.UpdateQuery;
-import org.jooq.BatchBindStep;
 import org.jooq.DSLContext;
 import org.jooq.SortField;
 
@@ -33,6 +31,7 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
     }
     DbKey dbKey = (DbKey)dbKeyFactory.newKey(t);
     getCache().remove(dbKey);
+    Db.sharedCacheChanged(table, dbKey);
     Db.getBatch(table).remove(dbKey, null);
     Db.getCache(table).remove(dbKey);
 
@@ -41,21 +40,30 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
 
   @Override
   public T get(BurstKey dbKey) {
-    if ( getCache().containsKey(dbKey) ) {
-      return (T)getCache().get(dbKey);
+    T cached = (T) getCache().get(dbKey);
+    if ( cached != null ) {
+      return cached;
     }
     else if(Db.isInTransaction()) {
       if(Db.getBatch(table).containsKey(dbKey)) {
         return (T)Db.getBatch(table).get(dbKey);
       }
     }
-    T item = (T) super.get(dbKey);
+    T item = loadLatest(dbKey);
     if ( item != null ) {
       getCache().put(dbKey, item);
+      Db.sharedCacheChanged(table, (DbKey) dbKey);
     }
     return item;
   }
 
+  /**
+   * Loads the latest version of an entity which is neither cached nor batched.
+   */
+  protected T loadLatest(BurstKey dbKey) {
+    return super.get(dbKey);
+  }
+
   @Override
   public void insert(T t) {
     if(!Db.isInTransaction()) {
@@ -65,6 +73,7 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
     Db.getBatch(table).put(dbKey, t);
     Db.getCache(table).put(dbKey, t);
     getCache().put(dbKey, t);
+    Db.sharedCacheChanged(table, dbKey);
   }
 
   @Override
@@ -73,24 +82,7 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
       throw new IllegalStateException("Not in transaction");
     }
     DSLContext ctx = Db.getDSLContext();
-    Set keySet = Db.getBatch(table).keySet();
-    if (!keySet.isEmpty()) {
-      UpdateQuery updateQuery = ctx.updateQuery(tableClass);
-      updateQuery.addValue(tableClass.field("latest", Boolean.class), false);
-      Arrays.asList(dbKeyFactory.getPKColumns()).forEach(idColumn->updateQuery.addConditions(tableClass.field(idColumn, Long.class).eq(0L)));
-      updateQuery.addConditions(tableClass.field("latest", Boolean.class).isTrue());
-
-      BatchBindStep updateBatch = ctx.batch(updateQuery);
-      Iterator<DbKey> it = keySet.iterator();
-      while (it.hasNext()) {
-        DbKey dbKey = it.next();
-        ArrayList<Object> bindArgs = new ArrayList<>();
-        bindArgs.add(false);
-        Arrays.stream(dbKey.getPKValues()).forEach(pkValue -> bindArgs.add(pkValue));
-        updateBatch = updateBatch.bind(bindArgs.toArray());
-      }
-      updateBatch.execute();
-    }
+    int replaced = DbUtils.clearLatest(ctx, tableClass, dbKeyFactory, Db.getBatch(table).keySet());
 
     List<Map.Entry<DbKey, Object>> entries = new ArrayList<>(Db.getBatch(table).entrySet());
     HashMap<DbKey, T> itemOf = new HashMap<>();
@@ -102,6 +94,11 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
     if ( itemOf.size() > 0 ) {
       bulkInsert(ctx, new ArrayList<T>(itemOf.values()));
     }
+    if (replaced >= 0) {
+      counter.add(itemOf.size() - replaced);
+    } else {
+      counter.reset();
+    }
     Db.getBatch(table).clear();
   }
 
@@ -237,6 +234,7 @@ public abstract class VersionedBatchEntitySqlTable<T> extends VersionedEntitySql
   @Override
   public void flushCache() {
     getCache().clear();
+    Db.sharedCacheChanged(table, null);
   }
 
   @Override
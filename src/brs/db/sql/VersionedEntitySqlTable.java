@@ -2,13 +2,18 @@ package brs.db.sql;
 
 import brs.Burst;
 import brs.db.BurstKey;
+import brs.db.DerivedTable.TrimChunk;
 import brs.db.VersionedEntityTable;
+import brs.db.cache.DBCacheManagerImpl;
 import brs.db.store.DerivedTableManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import org.jooq.BatchBindStep;
+import org.jooq.Condition;
+import org.jooq.impl.DSL;
 import org.jooq.impl.TableImpl;
 import org.jooq.SelectQuery;
 import org.jooq.UpdateQuery;
@@ -22,9 +27,16 @@ public abstract class VersionedEntitySqlTable<T> extends EntitySqlTable<T> imple
     super(table, tableClass, dbKeyFactory, true, derivedTableManager);
   }
 
+  protected VersionedEntitySqlTable(String table, TableImpl<?> tableClass, BurstKey.Factory<T> dbKeyFactory, DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager) {
+    super(table, tableClass, dbKeyFactory, true, derivedTableManager, dbCacheManager);
+  }
+
   @Override
   public void rollback(int height) {
+    flushWrites();
     rollback(table, tableClass, height, dbKeyFactory);
+    flushEntityCache();
+    counter.reset();
   }
 
   @Override
@@ -35,6 +47,7 @@ public abstract class VersionedEntitySqlTable<T> extends EntitySqlTable<T> imple
     if (!Db.isInTransaction()) {
       throw new IllegalStateException("Not in transaction");
     }
+    flushWrites();
     DbKey dbKey = (DbKey) dbKeyFactory.newKey(t);
     try ( DSLContext ctx = Db.getDSLContext() ) {
       SelectQuery countQuery = ctx.selectQuery();
@@ -54,13 +67,18 @@ public abstract class VersionedEntitySqlTable<T> extends EntitySqlTable<T> imple
         save(ctx, t);
         // delete after the save
         updateQuery.execute();
+        counter.add(-1);
         
         return true;
       }
       else {
         DeleteQuery deleteQuery = ctx.deleteQuery(tableClass);
         deleteQuery.addConditions(dbKey.getPKConditions(tableClass));
-        return deleteQuery.execute() > 0;
+        if (deleteQuery.execute() > 0) {
+          counter.add(-1);
+          return true;
+        }
+        return false;
       }
     }
     catch (SQLException e) {
@@ -68,72 +86,91 @@ public abstract class VersionedEntitySqlTable<T> extends EntitySqlTable<T> imple
     }
     finally {
       Db.getCache(table).remove(dbKey);
+      uncacheEntity(dbKey);
     }
   }
 
   @Override
   public final void trim(int height) {
+    flushWrites();
     trim(table, tableClass, height, dbKeyFactory);
   }
 
+  @Override
+  public final TrimChunk selectTrimChunk(int height, long[] after, int maxKeys) {
+    flushWrites();
+    return selectTrimChunk(tableClass, height, dbKeyFactory, after, maxKeys);
+  }
+
+  @Override
+  public final int trim(TrimChunk chunk) {
+    flushWrites();
+    return trim(tableClass, dbKeyFactory, chunk);
+  }
+
   static void rollback(final String table, final TableImpl tableClass, final int height, final DbKey.Factory dbKeyFactory) {
     if (!Db.isInTransaction()) {
       throw new IllegalStateException("Not in transaction");
     }
 
     try ( DSLContext ctx = Db.getDSLContext() ) {
-      // get dbKey's for entries whose stuff newer than height would be deleted, to allow fixing
-      // their latest flag of the "potential" remaining newest entry
-      SelectQuery selectForDeleteQuery = ctx.selectQuery();
-      selectForDeleteQuery.addFrom(tableClass);
-      selectForDeleteQuery.addConditions(tableClass.field("height", Integer.class).gt(height));
-      for ( String column : dbKeyFactory.getPKColumns() ) {
-        selectForDeleteQuery.addSelect(tableClass.field(column, Long.class));
-      }
-      selectForDeleteQuery.setDistinct(true);
-      List<DbKey> dbKeys = new ArrayList<>();
-      try ( ResultSet toDeleteResultset = selectForDeleteQuery.fetchResultSet() ) {
-        while ( toDeleteResultset.next() ) {
-          dbKeys.add((DbKey) dbKeyFactory.newKey(toDeleteResultset));
-        }
-      }
+      // restore the latest flag of the newest entry <= height for every key that has entries newer than
+      // height, before those get deleted; both steps are single statements regardless of the number of keys
+      restoreLatest(ctx, table, dbKeyFactory, height);
 
       // delete all entries > height
       DeleteQuery deleteQuery = ctx.deleteQuery(tableClass);
       deleteQuery.addConditions(tableClass.field("height", Integer.class).gt(height));
       deleteQuery.execute();
+    }
+    Db.getCache(table).clear();
+  }
 
-      // update latest flags for remaining entries, if there any remaining (per deleted dbKey)
-      for (DbKey dbKey : dbKeys) {
-        SelectQuery selectMaxHeightQuery = ctx.selectQuery();
-        selectMaxHeightQuery.addFrom(tableClass);
-        selectMaxHeightQuery.addConditions(dbKey.getPKConditions(tableClass));
-        selectMaxHeightQuery.addSelect(tableClass.field("height", Integer.class).max());
-        Integer maxHeight = (Integer) ctx.fetchValue(selectMaxHeightQuery.fetchResultSet(), tableClass.field("height", Integer.class));
-
-        if ( maxHeight != null ) {
-          UpdateQuery setLatestQuery = ctx.updateQuery(tableClass);
-          setLatestQuery.addConditions(dbKey.getPKConditions(tableClass));
-          setLatestQuery.addConditions(tableClass.field("height", int.class).eq(maxHeight));
-          setLatestQuery.addValue(
-            tableClass.field("latest", Boolean.class),
-            true
-          );
-          setLatestQuery.execute();
+  private static void restoreLatest(DSLContext ctx, String table, DbKey.Factory dbKeyFactory, int height) {
+    String[] pkColumns = dbKeyFactory.getPKColumns();
+    switch (ctx.dialect()) {
+      case MYSQL:
+      case MARIADB:
+        // MariaDB does not allow a subquery on the updated table, so join against a (materialized) grouped derived table
+        String pkList = String.join(", ", pkColumns);
+        ctx.execute("UPDATE " + table + " a JOIN (SELECT " + pkList + ", MAX(height) AS height FROM " + table
+            + " WHERE height <= ? AND (" + pkList + ") IN (SELECT " + pkList + " FROM " + table + " WHERE height > ?)"
+            + " GROUP BY " + pkList + ") b ON " + dbKeyFactory.getSelfJoinClause() + " AND a.height = b.height"
+            + " SET a.latest = TRUE", height, height);
+        break;
+      default:
+        // only rows of keys with newer entries are looked at, found through the first key column as H2 can not
+        // look up row values, the correlated subqueries then run for these rows only
+        String sql = "UPDATE " + table + " a SET latest = TRUE"
+            + " WHERE a.height <= ? AND a." + pkColumns[0] + " IN (SELECT " + pkColumns[0] + " FROM " + table + " WHERE height > ?)";
+        if (pkColumns.length > 1) {
+          sql += " AND EXISTS (SELECT 1 FROM " + table + " b WHERE " + dbKeyFactory.getSelfJoinClause() + " AND b.height > ?)"
+              + " AND a.height = (SELECT MAX(b.height) FROM " + table + " b WHERE " + dbKeyFactory.getSelfJoinClause() + " AND b.height <= ?)";
+          ctx.execute(sql, height, height, height, height);
+        } else {
+          sql += " AND a.height = (SELECT MAX(b.height) FROM " + table + " b WHERE " + dbKeyFactory.getSelfJoinClause() + " AND b.height <= ?)";
+          ctx.execute(sql, height, height, height);
         }
-      }
-    }
-    catch (SQLException e) {
-      throw new RuntimeException(e.toString(), e);
+        break;
     }
-    Db.getCache(table).clear();
   }
 
+  /**
+   * Removes all but the newest entry below height for keys with multiple such entries.
+   */
   static void trim(final String table, final TableImpl tableClass, final int height, final DbKey.Factory dbKeyFactory) {
     if (!Db.isInTransaction()) {
       throw new IllegalStateException("Not in transaction");
     }
+    trim(tableClass, dbKeyFactory, selectTrimChunk(tableClass, height, dbKeyFactory, null, 0));
+  }
 
+  /**
+   * Selects keys with multiple entries below height, in key order after the given key.
+   * @param after the key values to continue after, null to start with the first key
+   * @param maxKeys maximum number of keys to select, 0 for all
+   */
+  static TrimChunk selectTrimChunk(final TableImpl tableClass, final int height, final DbKey.Factory dbKeyFactory, final long[] after, final int maxKeys) {
     // "accounts" is just an example to make it easier to understand what the code does
     // select all accounts with multiple entries where height < trimToHeight[current height - 1440]
     DSLContext ctx = Db.getDSLContext();
@@ -144,37 +181,82 @@ public abstract class VersionedEntitySqlTable<T> extends EntitySqlTable<T> imple
       Field pkField = tableClass.field(column, Long.class);
       selectMaxHeightQuery.addSelect(pkField);
       selectMaxHeightQuery.addGroupBy(pkField);
+      selectMaxHeightQuery.addOrderBy(pkField.asc());
     }
     selectMaxHeightQuery.addConditions(tableClass.field("height", Long.class).lt(height));
+    if ( after != null ) {
+      selectMaxHeightQuery.addConditions(keyAfter(tableClass, dbKeyFactory.getPKColumns(), after));
+    }
     selectMaxHeightQuery.addHaving(tableClass.field("height", Long.class).countDistinct().gt(1));
+    if ( maxKeys > 0 ) {
+      selectMaxHeightQuery.addLimit(maxKeys);
+    }
 
-    // delete all fetched accounts, except if it's height is the max height we figured out
+    TrimChunk chunk = new TrimChunk(maxKeys);
     try ( ResultSet rs = selectMaxHeightQuery.fetchResultSet() ) {
-      DeleteQuery deleteLowerHeightQuery = ctx.deleteQuery(tableClass);
-      deleteLowerHeightQuery.addConditions(tableClass.field("height", Integer.class).lt((Integer) null));
-      for ( String column : dbKeyFactory.getPKColumns() ) {
-        Field pkField = tableClass.field(column, Long.class);
-        deleteLowerHeightQuery.addConditions(pkField.eq((Long) null));
-      }
-      BatchBindStep deleteBatch = ctx.batch(deleteLowerHeightQuery);
-
       while (rs.next()) {
         DbKey dbKey = (DbKey) dbKeyFactory.newKey(rs);
-        int maxHeight = rs.getInt("max_height");
-        List<Object> bindValues = new ArrayList();
-        bindValues.add(maxHeight);
-        for ( Long pkValue : dbKey.getPKValues() ) {
-          bindValues.add(pkValue);
-        }
-        deleteBatch.bind(bindValues.toArray());
-      }
-      if ( deleteBatch.size() > 0 ) {
-        deleteBatch.execute();
+        chunk.add(dbKey.getPKValues(), rs.getInt("max_height"));
       }
     }
-    catch (Exception e) {
+    catch (SQLException e) {
       throw new RuntimeException(e.toString(), e);
     }
+    return chunk;
+  }
+
+  /**
+   * (pk1, pk2, ...) > (after1, after2, ...), spelled out as not all databases support row value comparisons.
+   */
+  private static Condition keyAfter(final TableImpl tableClass, final String[] pkColumns, final long[] after) {
+    Condition condition = DSL.falseCondition();
+    Condition equalSoFar = DSL.trueCondition();
+    for ( int i = 0; i < pkColumns.length; i++ ) {
+      Field<Long> pkField = tableClass.field(pkColumns[i], Long.class);
+      condition = condition.or(equalSoFar.and(pkField.gt(after[i])));
+      equalSoFar = equalSoFar.and(pkField.eq(after[i]));
+    }
+    return condition;
+  }
+
+  /**
+   * Deletes all entries of the keys of the chunk below the newest entry selected for them.
+   * Those are below the trim height, which blocks are never popped off down to, so they are
+   * still the same as when the chunk was selected.
+   * @return the number of deleted rows
+   */
+  static int trim(final TableImpl tableClass, final DbKey.Factory dbKeyFactory, final TrimChunk chunk) {
+    if (!Db.isInTransaction()) {
+      throw new IllegalStateException("Not in transaction");
+    }
+    if ( chunk.size() == 0 ) {
+      return 0;
+    }
+
+    // delete all fetched accounts, except if it's height is the max height we figured out
+    DSLContext ctx = Db.getDSLContext();
+    DeleteQuery deleteLowerHeightQuery = ctx.deleteQuery(tableClass);
+    deleteLowerHeightQuery.addConditions(tableClass.field("height", Integer.class).lt((Integer) null));
+    for ( String column : dbKeyFactory.getPKColumns() ) {
+      Field pkField = tableClass.field(column, Long.class);
+      deleteLowerHeightQuery.addConditions(pkField.eq((Long) null));
+    }
+    BatchBindStep deleteBatch = ctx.batch(deleteLowerHeightQuery);
+
+    for ( int i = 0; i < chunk.size(); i++ ) {
+      List<Object> bindValues = new ArrayList();
+      bindValues.add(chunk.getMaxHeight(i));
+      for ( long pkValue : chunk.getKey(i) ) {
+        bindValues.add(pkValue);
+      }
+      deleteBatch.bind(bindValues.toArray());
+    }
+    int deleted = 0;
+    for ( int count : deleteBatch.execute() ) {
+      // rewritten batches only report SUCCESS_NO_INFO, every bound key deletes at least one row
+      deleted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+    }
+    return deleted;
   }
 
 }
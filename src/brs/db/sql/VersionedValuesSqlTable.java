@@ -1,5 +1,6 @@
 package brs.db.sql;
 
+import brs.db.DerivedTable.TrimChunk;
 import brs.db.VersionedValuesTable;
 import brs.db.store.DerivedTableManager;
 import org.jooq.impl.TableImpl;
@@ -11,11 +12,25 @@ public abstract class VersionedValuesSqlTable<T, V> extends ValuesSqlTable<T, V>
 
   @Override
   public final void rollback(int height) {
+    flushWrites();
     VersionedEntitySqlTable.rollback(table, tableClass, height, dbKeyFactory);
   }
 
   @Override
   public final void trim(int height) {
+    flushWrites();
     VersionedEntitySqlTable.trim(table, tableClass, height, dbKeyFactory);
   }
+
+  @Override
+  public final TrimChunk selectTrimChunk(int height, long[] after, int maxKeys) {
+    flushWrites();
+    return VersionedEntitySqlTable.selectTrimChunk(tableClass, height, dbKeyFactory, after, maxKeys);
+  }
+
+  @Override
+  public final int trim(TrimChunk chunk) {
+    flushWrites();
+    return VersionedEntitySqlTable.trim(tableClass, dbKeyFactory, chunk);
+  }
 }
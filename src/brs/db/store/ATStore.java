@@ -30,4 +30,9 @@ public interface ATStore {
   Long findTransaction(int startHeight, int endHeight, Long atID, int numOfTx, long minAmount);
 
   int findTransactionHeight(Long transactionId, int height, Long atID, long minAmount);
+
+  /**
+   * Drops the AT schedule kept in memory, after the AT tables were changed directly.
+   */
+  void flushCache();
 }
@@ -21,6 +21,13 @@ public interface AccountStore {
 
   VersionedEntityTable<Account.AccountAsset> getAccountAssetTable();
 
+  /**
+   * Saves the account asset, or deletes it if the account holds none of the asset anymore, and counts the holders
+   * of the asset.
+   * @param wasHeld whether the account asset existed before, confirmed or not
+   */
+  void saveAccountAsset(Account.AccountAsset accountAsset, boolean wasHeld);
+
   int getAssetAccountsCount(long assetId);
 
   BurstKey.LongKeyFactory<Account> getAccountKeyFactory();
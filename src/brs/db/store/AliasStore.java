@@ -13,7 +13,17 @@ public interface AliasStore {
 
   VersionedEntityTable<Alias.Offer> getOfferTable();
 
-  BurstIterator<Alias> getAliasesByOwner(long accountId, int from, int to);
+  /**
+   * @param timestamp the earliest time the aliases may have been set or transferred
+   */
+  BurstIterator<Alias> getAliasesByOwner(long accountId, int timestamp, int from, int to);
+
+  /**
+   * @return The aliases whose names start with the given prefix, ignoring case, by name
+   */
+  BurstIterator<Alias> getAliasesByPrefix(String prefix, int from, int to);
 
   Alias getAlias(String aliasName);
+
+  void flushCache();
 }
@@ -26,19 +26,21 @@ public interface DigitalGoodsStoreStore {
 
   VersionedEntityTable<DigitalGoodsStore.Goods> getGoodsTable();
 
-  BurstIterator<DigitalGoodsStore.Goods> getGoodsInStock(int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Goods> getSellerGoods(long sellerId, boolean inStockOnly, int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Purchase> getAllPurchases(int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Purchase> getSellerPurchases(long sellerId, int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Purchase> getBuyerPurchases(long buyerId, int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Purchase> getSellerBuyerPurchases(long sellerId, long buyerId, int from, int to);
-
-  BurstIterator<DigitalGoodsStore.Purchase> getPendingSellerPurchases(long sellerId, int from, int to);
+  /**
+   * @param sellerId the seller of the goods, 0 for goods of all sellers
+   * @param after the goods the returned ones follow in the listing, null to start at the beginning
+   */
+  BurstIterator<DigitalGoodsStore.Goods> getGoods(long sellerId, boolean inStockOnly, DigitalGoodsStore.Goods after, int from, int to);
+
+  /**
+   * @param sellerId the seller of the goods purchased, 0 for purchases from all sellers
+   * @param buyerId the buyer, 0 for purchases of all buyers
+   * @param pending whether the purchases have to be pending or delivered, null for both
+   * @param after the purchase the returned ones follow in the listing, null to start at the beginning
+   */
+  BurstIterator<DigitalGoodsStore.Purchase> getPurchases(long sellerId, long buyerId, Boolean pending, DigitalGoodsStore.Purchase after, int from, int to);
 
   BurstIterator<DigitalGoodsStore.Purchase> getExpiredPendingPurchases(int timestamp);
+
+  void flushCache();
 }
@@ -21,7 +21,17 @@ public interface EscrowStore {
 
   Collection<Escrow> getEscrowTransactionsByParticipant(Long accountId);
 
+  /**
+   * @return The ids of the escrows with a deadline before the given timestamp, from a queue kept in memory
+   */
+  List<Long> getEscrowIdsWithDeadlineBefore(int timestamp);
+
   List<Transaction> getResultTransactions();
 
   BurstIterator<Escrow.Decision> getDecisions(Long id);
+
+  /**
+   * Drops the deadline queue kept in memory, after the escrow table was changed directly.
+   */
+  void flushCache();
 }
@@ -35,4 +35,9 @@ public interface OrderStore {
   BurstIterator<Order.Bid> getSortedBids(long assetId, int from, int to);
 
   Order.Bid getNextBid(long assetId);
+
+  /**
+   * Drops the order books kept in memory, after the order tables were changed directly.
+   */
+  void flushCache();
 }
@@ -22,17 +22,18 @@ public class Stores {
   private final UnconfirmedTransactionStore unconfirmedTransactionStore;
 
   public Stores(DerivedTableManager derivedTableManager, DBCacheManagerImpl dbCacheManager, TimeService timeService, PropertyService propertyService) {
-    this.accountStore                = new SqlAccountStore(derivedTableManager, dbCacheManager);
-    this.aliasStore                  = new SqlAliasStore(derivedTableManager);
-    this.assetStore                  = new SqlAssetStore(derivedTableManager);
-    this.assetTransferStore          = new SqlAssetTransferStore(derivedTableManager);
-    this.atStore                     = new SqlATStore(derivedTableManager);
+    final AssetStatsTable assetStatsTable = new AssetStatsTable(derivedTableManager);
+    this.accountStore                = new SqlAccountStore(derivedTableManager, dbCacheManager, propertyService, assetStatsTable);
+    this.aliasStore                  = new SqlAliasStore(derivedTableManager, dbCacheManager);
+    this.assetStore                  = new SqlAssetStore(derivedTableManager, dbCacheManager);
+    this.assetTransferStore          = new SqlAssetTransferStore(derivedTableManager, assetStatsTable);
+    this.atStore                     = new SqlATStore(derivedTableManager, dbCacheManager);
     this.blockchainStore             = new SqlBlockchainStore();
     this.digitalGoodsStoreStore      = new SqlDigitalGoodsStoreStore(derivedTableManager);
-    this.escrowStore                 = new SqlEscrowStore(derivedTableManager);
-    this.orderStore                  = new SqlOrderStore(derivedTableManager);
-    this.tradeStore                  = new SqlTradeStore(derivedTableManager);
-    this.subscriptionStore           = new SqlSubscriptionStore(derivedTableManager);
+    this.escrowStore                 = new SqlEscrowStore(derivedTableManager, dbCacheManager);
+    this.orderStore                  = new SqlOrderStore(derivedTableManager, dbCacheManager);
+    this.tradeStore                  = new SqlTradeStore(derivedTableManager, assetStatsTable);
+    this.subscriptionStore           = new SqlSubscriptionStore(derivedTableManager, dbCacheManager);
     this.unconfirmedTransactionStore = new UnconfirmedTransactionStoreImpl(timeService, propertyService, accountStore);
   }
 
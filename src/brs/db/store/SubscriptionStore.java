@@ -4,6 +4,7 @@ import brs.Subscription;
 import brs.db.BurstIterator;
 import brs.db.BurstKey;
 import brs.db.VersionedEntityTable;
+import java.util.List;
 
 public interface SubscriptionStore {
 
@@ -17,5 +18,13 @@ public interface SubscriptionStore {
 
   BurstIterator<Subscription> getSubscriptionsToId(Long accountId);
 
-  BurstIterator<Subscription> getUpdateSubscriptions(int timestamp);
+  /**
+   * @return The subscriptions due at the given timestamp by time and id, found in a queue kept in memory
+   */
+  List<Subscription> getUpdateSubscriptions(int timestamp);
+
+  /**
+   * Drops the queue of due subscriptions kept in memory, after the subscription table was changed directly.
+   */
+  void flushCache();
 }
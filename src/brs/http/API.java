@@ -125,6 +125,8 @@ public final class API {
                                                                          accountService, aliasService, assetExchange, escrowService, digitalGoodsStoreService,
                                                                          subscriptionService, atService, timeService, economicClustering, transactionService, blockService, generator, propertyService,
                                                                          apiTransactionManager, feeSuggestionCalculator, deepLinkQRCodeGenerator));
+      // the requests are handed over to the pools of the servlet if API.Async is enabled
+      peerServletHolder.setAsyncSupported(true);
       apiHandler.addServlet(peerServletHolder, "/burst");
 
       if (propertyService.getBoolean(Props.JETTY_API_GZIP_FILTER)) {
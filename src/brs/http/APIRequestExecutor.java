@@ -0,0 +1,114 @@
+package brs.http;
+
+import static brs.http.JSONResponses.ERROR_BUSY;
+import static brs.http.JSONResponses.ERROR_INCORRECT_REQUEST;
+import static brs.http.JSONResponses.ERROR_TIMEOUT;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.json.simple.JSONStreamAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the API requests of one category on its own bounded thread pool, so the server threads are free again as soon
+ * as a request is handed over, and slow requests of one category cannot hold up the others.
+ *
+ * Requests beyond the queue limit are refused as busy. Requests not answered within the timeout get an error
+ * response, and are skipped if they have not started yet.
+ */
+final class APIRequestExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(APIRequestExecutor.class);
+
+  private final ThreadPoolExecutor executor;
+  private final long timeout;
+
+  /**
+   * @param timeout in milliseconds, 0 for none
+   */
+  APIRequestExecutor(String name, int threads, int queueSize, long timeout) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+      Thread thread = new Thread(runnable, "API " + name);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.timeout = timeout;
+  }
+
+  /**
+   * Answers the request asynchronously with the response of the handler.
+   */
+  void execute(HttpServletRequest req, Supplier<JSONStreamAware> handler) {
+    AsyncContext asyncContext = req.startAsync();
+    asyncContext.setTimeout(timeout);
+    AtomicBoolean responded = new AtomicBoolean();
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onComplete(AsyncEvent event) {
+      }
+
+      @Override
+      public void onTimeout(AsyncEvent event) {
+        respond(asyncContext, responded, ERROR_TIMEOUT);
+      }
+
+      @Override
+      public void onError(AsyncEvent event) {
+        // the client is gone, whatever the handler answers will not be written
+        responded.set(true);
+      }
+
+      @Override
+      public void onStartAsync(AsyncEvent event) {
+      }
+    });
+    try {
+      executor.execute(() -> {
+        if (responded.get()) {
+          return;
+        }
+        // whatever the handler throws, the request is answered
+        JSONStreamAware response = ERROR_INCORRECT_REQUEST;
+        try {
+          response = handler.get();
+        } catch (RuntimeException | Error e) {
+          logger.error("Error processing API request", e);
+          throw e;
+        } finally {
+          respond(asyncContext, responded, response);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      respond(asyncContext, responded, ERROR_BUSY);
+    }
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static void respond(AsyncContext asyncContext, AtomicBoolean responded, JSONStreamAware response) {
+    if (! responded.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      APIServlet.writeResponse((HttpServletResponse) asyncContext.getResponse(), response);
+      asyncContext.complete();
+    } catch (IOException | IllegalStateException e) {
+      // the request completed in the meantime, by an error of the connection
+      logger.debug("Failed to write API response", e);
+    }
+  }
+
+}
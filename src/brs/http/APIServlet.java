@@ -23,6 +23,7 @@ import brs.services.DGSGoodsStoreService;
 import brs.services.EscrowService;
 import brs.services.ParameterService;
 import brs.props.PropertyService;
+import brs.db.sql.Db;
 import brs.services.SubscriptionService;
 import brs.services.TimeService;
 import brs.services.TransactionService;
@@ -33,6 +34,7 @@ import java.io.Writer;
 import java.net.InetAddress;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -57,9 +59,8 @@ public final class APIServlet extends HttpServlet {
       BlockService blockService, Generator generator, PropertyService propertyService, APITransactionManager apiTransactionManager, FeeSuggestionCalculator feeSuggestionCalculator,
       DeeplinkQRCodeGenerator deeplinkQRCodeGenerator) {
 
-    enforcePost = propertyService.getBoolean(Props.API_SERVER_ENFORCE_POST);
-    acceptSurplusParams = propertyService.getBoolean(Props.API_ACCEPT_SURPLUS_PARAMS);
-    
+    configure(propertyService);
+
     final Map<String, APIRequestHandler> map = new HashMap<>();
     final Map<String, PrimitiveRequestHandler> primitiveMap = new HashMap<>();
 
@@ -93,6 +94,7 @@ public final class APIServlet extends HttpServlet {
     map.put("buyAlias", new BuyAlias(parameterService, blockchain, aliasService, apiTransactionManager));
     map.put("getAlias", new GetAlias(parameterService, aliasService));
     map.put("getAliases", new GetAliases(parameterService, aliasService));
+    map.put("getAliasesByPrefix", new GetAliasesByPrefix(aliasService));
     map.put("getAllAssets", new GetAllAssets(assetExchange));
     map.put("getAsset", new GetAsset(parameterService, assetExchange));
     map.put("getAssets", new GetAssets(assetExchange));
@@ -185,6 +187,7 @@ public final class APIServlet extends HttpServlet {
 
     if (API.enableDebugAPI) {
       map.put("clearUnconfirmedTransactions", new ClearUnconfirmedTransactions(transactionProcessor));
+      map.put("exportSnapshot", new ExportSnapshot(blockchainProcessor));
       map.put("fullReset", new FullReset(blockchainProcessor));
       map.put("popOff", new PopOff(blockchainProcessor, blockchain, blockService));
       map.put("scan", new Scan(blockchainProcessor, blockchain));
@@ -194,6 +197,31 @@ public final class APIServlet extends HttpServlet {
     primitiveRequestHandlers = Collections.unmodifiableMap(primitiveMap);
   }
 
+  /**
+   * Serves the given handlers only.
+   */
+  APIServlet(PropertyService propertyService, Map<String, APIRequestHandler> handlers, Map<String, PrimitiveRequestHandler> primitiveHandlers) {
+    configure(propertyService);
+
+    apiRequestHandlers = Collections.unmodifiableMap(handlers);
+    primitiveRequestHandlers = Collections.unmodifiableMap(primitiveHandlers);
+  }
+
+  private void configure(PropertyService propertyService) {
+    enforcePost = propertyService.getBoolean(Props.API_SERVER_ENFORCE_POST);
+    if (propertyService.getBoolean(Props.API_ASYNC)) {
+      executors.put(RequestCategory.READ, new APIRequestExecutor("read", propertyService.getInt(Props.API_ASYNC_READ_THREADS),
+          propertyService.getInt(Props.API_ASYNC_READ_QUEUE_SIZE), propertyService.getInt(Props.API_ASYNC_READ_TIMEOUT)));
+      executors.put(RequestCategory.HEAVY_READ, new APIRequestExecutor("heavy read", propertyService.getInt(Props.API_ASYNC_HEAVY_READ_THREADS),
+          propertyService.getInt(Props.API_ASYNC_HEAVY_READ_QUEUE_SIZE), propertyService.getInt(Props.API_ASYNC_HEAVY_READ_TIMEOUT)));
+      executors.put(RequestCategory.WRITE, new APIRequestExecutor("write", propertyService.getInt(Props.API_ASYNC_WRITE_THREADS),
+          propertyService.getInt(Props.API_ASYNC_WRITE_QUEUE_SIZE), propertyService.getInt(Props.API_ASYNC_WRITE_TIMEOUT)));
+      executors.put(RequestCategory.MINING, new APIRequestExecutor("mining", propertyService.getInt(Props.API_ASYNC_MINING_THREADS),
+          propertyService.getInt(Props.API_ASYNC_MINING_QUEUE_SIZE), propertyService.getInt(Props.API_ASYNC_MINING_TIMEOUT)));
+    }
+    acceptSurplusParams = propertyService.getBoolean(Props.API_ACCEPT_SURPLUS_PARAMS);
+  }
+
   private static boolean acceptSurplusParams;
 
   abstract static class APIRequestHandler {
@@ -235,6 +263,24 @@ public final class APIServlet extends HttpServlet {
       return false;
     }
 
+    /**
+     * @return The pool the request is processed on, requests which may create or validate transactions are writes
+     */
+    RequestCategory getCategory() {
+      return requirePost() || startDbTransaction() ? RequestCategory.WRITE : RequestCategory.READ;
+    }
+
+  }
+
+  /**
+   * The kinds of requests which get their own thread pool, so one kind cannot hold up the others.
+   */
+  enum RequestCategory {
+    READ,
+    HEAVY_READ,
+    WRITE,
+    // the deadlines and mining info of miners, which must not wait behind anything else
+    MINING
   }
 
   abstract static class PrimitiveRequestHandler {
@@ -254,6 +300,9 @@ public final class APIServlet extends HttpServlet {
 
   private static boolean enforcePost;
 
+  // empty to process all requests on the server threads
+  private final Map<RequestCategory, APIRequestExecutor> executors = new EnumMap<>(RequestCategory.class);
+
   static Map<String, APIRequestHandler> apiRequestHandlers;
   static Map<String, PrimitiveRequestHandler> primitiveRequestHandlers;
 
@@ -274,6 +323,7 @@ public final class APIServlet extends HttpServlet {
     resp.setDateHeader("Expires", 0);
 
     JSONStreamAware response = JSON.emptyJSON;
+    boolean dispatched = false;
 
     try {
 
@@ -317,36 +367,64 @@ public final class APIServlet extends HttpServlet {
         return;
       }
 
-      try {
-        if (apiRequestHandler.startDbTransaction()) {
-          Burst.getStores().beginTransaction();
-        }
-        apiRequestHandler.validateRequest(req);
-        response = apiRequestHandler.processRequest(req);
-      } catch (ParameterException e) {
-        response = e.getErrorResponse();
-      } catch (BurstException | RuntimeException e) {
-        logger.debug("Error processing API request", e);
-        response = ERROR_INCORRECT_REQUEST;
-      } finally {
-        if (apiRequestHandler.startDbTransaction()) {
-          Burst.getStores().endTransaction();
-        }
+      APIRequestExecutor executor = executors.get(apiRequestHandler.getCategory());
+      if (executor != null && req.isAsyncSupported()) {
+        executor.execute(req, () -> processRequest(apiRequestHandler, req, startTime));
+        dispatched = true;
+        return;
       }
 
-      if (response instanceof JSONObject) {
-        ((JSONObject) response).put("requestProcessingTime", System.currentTimeMillis() - startTime);
+      response = processRequest(apiRequestHandler, req, startTime);
+
+    } finally {
+      if (! dispatched) {
+        writeResponse(resp, response);
       }
+    }
+
+  }
 
+  private static JSONStreamAware processRequest(APIRequestHandler apiRequestHandler, HttpServletRequest req, long startTime) {
+    JSONStreamAware response;
+    try {
+      if (apiRequestHandler.startDbTransaction()) {
+        Burst.getStores().beginTransaction();
+      }
+      // requests which only read go to the read pool, anything which may create or validate transactions does not
+      Db.setReadOnlyThread(! apiRequestHandler.requirePost() && ! apiRequestHandler.startDbTransaction());
+      apiRequestHandler.validateRequest(req);
+      response = apiRequestHandler.processRequest(req);
+    } catch (ParameterException e) {
+      response = e.getErrorResponse();
+    } catch (BurstException | RuntimeException e) {
+      logger.debug("Error processing API request", e);
+      response = ERROR_INCORRECT_REQUEST;
     } finally {
-      if(resp.getContentType() == null || resp.getContentType().isEmpty()) {
-        resp.setContentType("text/plain; charset=UTF-8");
-        try (Writer writer = resp.getWriter()) {
-          response.writeJSONString(writer);
-        }
+      Db.setReadOnlyThread(false);
+      if (apiRequestHandler.startDbTransaction()) {
+        Burst.getStores().endTransaction();
       }
     }
 
+    if (response instanceof JSONObject) {
+      ((JSONObject) response).put("requestProcessingTime", System.currentTimeMillis() - startTime);
+    }
+    return response;
+  }
+
+  static void writeResponse(HttpServletResponse resp, JSONStreamAware response) throws IOException {
+    if(resp.getContentType() == null || resp.getContentType().isEmpty()) {
+      resp.setContentType("text/plain; charset=UTF-8");
+      try (Writer writer = resp.getWriter()) {
+        response.writeJSONString(writer);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executors.values().forEach(APIRequestExecutor::shutdown);
+    super.destroy();
   }
 
 }
@@ -0,0 +1,41 @@
+package brs.http;
+
+import brs.BlockchainProcessor;
+import java.io.File;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+
+import static brs.http.common.ResultFields.DONE_RESPONSE;
+import static brs.http.common.ResultFields.ERROR_RESPONSE;
+import static brs.http.common.ResultFields.FILE_RESPONSE;
+
+public final class ExportSnapshot extends APIServlet.APIRequestHandler {
+
+  private final BlockchainProcessor blockchainProcessor;
+
+  ExportSnapshot(BlockchainProcessor blockchainProcessor) {
+    super(new APITag[]{APITag.DEBUG});
+    this.blockchainProcessor = blockchainProcessor;
+  }
+
+  @Override
+  JSONStreamAware processRequest(HttpServletRequest req) {
+    JSONObject response = new JSONObject();
+    try {
+      File file = blockchainProcessor.exportSnapshot();
+      response.put(DONE_RESPONSE, true);
+      response.put(FILE_RESPONSE, file.getPath());
+    } catch (IOException | RuntimeException e) {
+      response.put(ERROR_RESPONSE, e.toString());
+    }
+    return response;
+  }
+
+  @Override
+  final boolean requirePost() {
+    return true;
+  }
+
+}
@@ -58,4 +58,9 @@ public final class GetAccountBlocks extends APIServlet.APIRequestHandler {
     return response;
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
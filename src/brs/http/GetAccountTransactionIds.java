@@ -69,4 +69,9 @@ public final class GetAccountTransactionIds extends APIServlet.APIRequestHandler
 
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
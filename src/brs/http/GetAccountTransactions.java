@@ -74,4 +74,9 @@ public final class GetAccountTransactions extends APIServlet.APIRequestHandler {
 
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
@@ -47,4 +47,9 @@ public final class GetAccountsWithRewardRecipient extends APIServlet.APIRequestH
 		
     return response;
   }
+
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
 }
@@ -9,9 +9,9 @@ import static brs.http.common.ResultFields.ALIASES_RESPONSE;
 import brs.Alias;
 import brs.Alias.Offer;
 import brs.BurstException;
+import brs.db.BurstIterator;
 import brs.services.AliasService;
 import brs.services.ParameterService;
-import brs.util.FilteringIterator;
 import javax.servlet.http.HttpServletRequest;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -36,9 +36,7 @@ public final class GetAliases extends APIServlet.APIRequestHandler {
     int lastIndex = ParameterParser.getLastIndex(req);
 
     JSONArray aliases = new JSONArray();
-    try (FilteringIterator<Alias> aliasIterator = new FilteringIterator<>(
-      aliasService.getAliasesByOwner(accountId, 0, -1),
-      alias -> alias.getTimestamp() >= timestamp, firstIndex, lastIndex)) {
+    try (BurstIterator<Alias> aliasIterator = aliasService.getAliasesByOwner(accountId, timestamp, firstIndex, lastIndex)) {
       while (aliasIterator.hasNext()) {
         final Alias alias = aliasIterator.next();
         final Offer offer = aliasService.getOffer(alias);
@@ -0,0 +1,49 @@
+package brs.http;
+
+import static brs.http.JSONResponses.MISSING_ALIAS_PREFIX;
+import static brs.http.common.Parameters.ALIAS_PREFIX_PARAMETER;
+import static brs.http.common.Parameters.FIRST_INDEX_PARAMETER;
+import static brs.http.common.Parameters.LAST_INDEX_PARAMETER;
+import static brs.http.common.ResultFields.ALIASES_RESPONSE;
+
+import brs.Alias;
+import brs.db.BurstIterator;
+import brs.services.AliasService;
+import brs.util.Convert;
+import javax.servlet.http.HttpServletRequest;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+
+public final class GetAliasesByPrefix extends APIServlet.APIRequestHandler {
+
+  private final AliasService aliasService;
+
+  GetAliasesByPrefix(AliasService aliasService) {
+    super(new APITag[]{APITag.ALIASES}, ALIAS_PREFIX_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER);
+    this.aliasService = aliasService;
+  }
+
+  @Override
+  JSONStreamAware processRequest(HttpServletRequest req) {
+    final String prefix = Convert.emptyToNull(req.getParameter(ALIAS_PREFIX_PARAMETER));
+    if (prefix == null) {
+      return MISSING_ALIAS_PREFIX;
+    }
+    int firstIndex = ParameterParser.getFirstIndex(req);
+    int lastIndex = ParameterParser.getLastIndex(req);
+
+    JSONArray aliases = new JSONArray();
+    try (BurstIterator<Alias> aliasIterator = aliasService.getAliasesByPrefix(prefix.trim(), firstIndex, lastIndex)) {
+      while (aliasIterator.hasNext()) {
+        final Alias alias = aliasIterator.next();
+        aliases.add(JSONData.alias(alias, aliasService.getOffer(alias)));
+      }
+    }
+
+    JSONObject response = new JSONObject();
+    response.put(ALIASES_RESPONSE, aliases);
+    return response;
+  }
+
+}
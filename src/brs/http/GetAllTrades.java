@@ -49,4 +49,9 @@ public final class GetAllTrades extends APIServlet.APIRequestHandler {
     return response;
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
@@ -49,4 +49,9 @@ public final class GetAssetAccounts extends APIServlet.APIRequestHandler {
 
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
@@ -81,4 +81,9 @@ public final class GetAssetTransfers extends APIServlet.APIRequestHandler {
   boolean startDbTransaction() {
     return true;
   }
+
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
 }
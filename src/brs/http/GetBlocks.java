@@ -51,4 +51,9 @@ public final class GetBlocks extends APIServlet.APIRequestHandler {
     return response;
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
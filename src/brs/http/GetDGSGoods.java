@@ -1,5 +1,7 @@
 package brs.http;
 
+import static brs.http.JSONResponses.UNKNOWN_AFTER;
+import static brs.http.common.Parameters.AFTER_PARAMETER;
 import static brs.http.common.Parameters.FIRST_INDEX_PARAMETER;
 import static brs.http.common.Parameters.IN_STOCK_ONLY_PARAMETER;
 import static brs.http.common.Parameters.LAST_INDEX_PARAMETER;
@@ -23,7 +25,7 @@ public final class GetDGSGoods extends APIServlet.APIRequestHandler {
   private final DGSGoodsStoreService digitalGoodsStoreService;
 
   public GetDGSGoods(DGSGoodsStoreService digitalGoodsStoreService) {
-    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, IN_STOCK_ONLY_PARAMETER);
+    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, IN_STOCK_ONLY_PARAMETER, AFTER_PARAMETER);
     this.digitalGoodsStoreService = digitalGoodsStoreService;
   }
 
@@ -33,6 +35,15 @@ public final class GetDGSGoods extends APIServlet.APIRequestHandler {
     int firstIndex = ParameterParser.getFirstIndex(req);
     int lastIndex = ParameterParser.getLastIndex(req);
     boolean inStockOnly = !Parameters.isFalse(req.getParameter(IN_STOCK_ONLY_PARAMETER));
+    long afterId = ParameterParser.getAfterId(req);
+
+    DigitalGoodsStore.Goods after = null;
+    if (afterId != 0) {
+      after = digitalGoodsStoreService.getGoods(afterId);
+      if (after == null) {
+        return UNKNOWN_AFTER;
+      }
+    }
 
     JSONObject response = new JSONObject();
     JSONArray goodsJSON = new JSONArray();
@@ -40,15 +51,7 @@ public final class GetDGSGoods extends APIServlet.APIRequestHandler {
 
     BurstIterator<DigitalGoodsStore.Goods> goods = null;
     try {
-      if (sellerId == 0) {
-        if (inStockOnly) {
-          goods = digitalGoodsStoreService.getGoodsInStock(firstIndex, lastIndex);
-        } else {
-          goods = digitalGoodsStoreService.getAllGoods(firstIndex, lastIndex);
-        }
-      } else {
-        goods = digitalGoodsStoreService.getSellerGoods(sellerId, inStockOnly, firstIndex, lastIndex);
-      }
+      goods = digitalGoodsStoreService.getGoods(sellerId, inStockOnly, after, firstIndex, lastIndex);
       while (goods.hasNext()) {
         DigitalGoodsStore.Goods good = goods.next();
         goodsJSON.add(JSONData.goods(good));
@@ -60,4 +63,9 @@ public final class GetDGSGoods extends APIServlet.APIRequestHandler {
     return response;
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
@@ -11,6 +11,8 @@ import org.json.simple.JSONStreamAware;
 import javax.servlet.http.HttpServletRequest;
 
 import static brs.http.JSONResponses.MISSING_SELLER;
+import static brs.http.JSONResponses.UNKNOWN_AFTER;
+import static brs.http.common.Parameters.AFTER_PARAMETER;
 import static brs.http.common.Parameters.FIRST_INDEX_PARAMETER;
 import static brs.http.common.Parameters.LAST_INDEX_PARAMETER;
 import static brs.http.common.Parameters.SELLER_PARAMETER;
@@ -21,7 +23,7 @@ public final class GetDGSPendingPurchases extends APIServlet.APIRequestHandler {
   private final DGSGoodsStoreService dgsGoodStoreService;
 
   GetDGSPendingPurchases(DGSGoodsStoreService dgsGoodStoreService) {
-    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER);
+    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, AFTER_PARAMETER);
     this.dgsGoodStoreService = dgsGoodStoreService;
   }
 
@@ -35,11 +37,20 @@ public final class GetDGSPendingPurchases extends APIServlet.APIRequestHandler {
 
     int firstIndex = ParameterParser.getFirstIndex(req);
     int lastIndex = ParameterParser.getLastIndex(req);
+    long afterId = ParameterParser.getAfterId(req);
+
+    DigitalGoodsStore.Purchase after = null;
+    if (afterId != 0) {
+      after = dgsGoodStoreService.getPurchase(afterId);
+      if (after == null) {
+        return UNKNOWN_AFTER;
+      }
+    }
 
     JSONObject response = new JSONObject();
     JSONArray purchasesJSON = new JSONArray();
 
-    try (BurstIterator<DigitalGoodsStore.Purchase> purchases = dgsGoodStoreService.getPendingSellerPurchases(sellerId, firstIndex, lastIndex)) {
+    try (BurstIterator<DigitalGoodsStore.Purchase> purchases = dgsGoodStoreService.getPurchases(sellerId, 0, Boolean.TRUE, after, firstIndex, lastIndex)) {
       while (purchases.hasNext()) {
         purchasesJSON.add(JSONData.purchase(purchases.next()));
       }
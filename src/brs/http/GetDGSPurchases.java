@@ -5,13 +5,13 @@ import brs.BurstException;
 import brs.db.BurstIterator;
 import brs.http.common.Parameters;
 import brs.services.DGSGoodsStoreService;
-import brs.util.FilteringIterator;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONStreamAware;
 
 import javax.servlet.http.HttpServletRequest;
 
+import static brs.http.JSONResponses.UNKNOWN_AFTER;
 import static brs.http.common.Parameters.*;
 import static brs.http.common.ResultFields.PURCHASES_RESPONSE;
 
@@ -20,7 +20,7 @@ public final class GetDGSPurchases extends APIServlet.APIRequestHandler {
   private final DGSGoodsStoreService dgsGoodsStoreService;
 
   public GetDGSPurchases(DGSGoodsStoreService dgsGoodsStoreService) {
-    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, BUYER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, COMPLETED_PARAMETER);
+    super(new APITag[] {APITag.DGS}, SELLER_PARAMETER, BUYER_PARAMETER, FIRST_INDEX_PARAMETER, LAST_INDEX_PARAMETER, COMPLETED_PARAMETER, AFTER_PARAMETER);
     this.dgsGoodsStoreService = dgsGoodsStoreService;
   }
 
@@ -31,39 +31,32 @@ public final class GetDGSPurchases extends APIServlet.APIRequestHandler {
     long buyerId = ParameterParser.getBuyerId(req);
     int firstIndex = ParameterParser.getFirstIndex(req);
     int lastIndex = ParameterParser.getLastIndex(req);
-    final boolean completed = Parameters.isTrue(req.getParameter(COMPLETED_PARAMETER));
-
+    boolean completed = Parameters.isTrue(req.getParameter(COMPLETED_PARAMETER));
+    long afterId = ParameterParser.getAfterId(req);
+
+    DigitalGoodsStore.Purchase after = null;
+    if (afterId != 0) {
+      after = dgsGoodsStoreService.getPurchase(afterId);
+      if (after == null) {
+        return UNKNOWN_AFTER;
+      }
+    }
 
     JSONObject response = new JSONObject();
     JSONArray purchasesJSON = new JSONArray();
     response.put(PURCHASES_RESPONSE, purchasesJSON);
 
-    if (sellerId == 0 && buyerId == 0) {
-      try (FilteringIterator<DigitalGoodsStore.Purchase> purchaseIterator
-           = new FilteringIterator<>(dgsGoodsStoreService.getAllPurchases(0, -1),
-              purchase -> ! (completed && purchase.isPending()), firstIndex, lastIndex)) {
-        while (purchaseIterator.hasNext()) {
-          purchasesJSON.add(JSONData.purchase(purchaseIterator.next()));
-        }
-      }
-      return response;
-    }
-
-    BurstIterator<DigitalGoodsStore.Purchase> purchases;
-    if (sellerId != 0 && buyerId == 0) {
-      purchases = dgsGoodsStoreService.getSellerPurchases(sellerId, 0, -1);
-    } else if (sellerId == 0) {
-      purchases = dgsGoodsStoreService.getBuyerPurchases(buyerId, 0, -1);
-    } else {
-      purchases = dgsGoodsStoreService.getSellerBuyerPurchases(sellerId, buyerId, 0, -1);
-    }
-    try (FilteringIterator<DigitalGoodsStore.Purchase> purchaseIterator
-         = new FilteringIterator<>(purchases,
-            purchase -> ! (completed && purchase.isPending()), firstIndex, lastIndex)) {
-      while (purchaseIterator.hasNext()) {
-        purchasesJSON.add(JSONData.purchase(purchaseIterator.next()));
+    try (BurstIterator<DigitalGoodsStore.Purchase> purchases = dgsGoodsStoreService.getPurchases(sellerId, buyerId,
+        completed ? Boolean.FALSE : null, after, firstIndex, lastIndex)) {
+      while (purchases.hasNext()) {
+        purchasesJSON.add(JSONData.purchase(purchases.next()));
       }
     }
     return response;
   }
+
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
 }
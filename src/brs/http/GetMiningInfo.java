@@ -43,4 +43,9 @@ public final class GetMiningInfo extends APIServlet.APIRequestHandler {
 		
     return response;
   }
+
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.MINING;
+  }
 }
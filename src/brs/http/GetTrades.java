@@ -78,4 +78,9 @@ public final class GetTrades extends APIServlet.APIRequestHandler {
     return true;
   }
 
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.HEAVY_READ;
+  }
+
 }
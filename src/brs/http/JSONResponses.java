@@ -22,6 +22,7 @@ public final class JSONResponses {
   public static final JSONStreamAware MISSING_SECRET_PHRASE = missing(SECRET_PHRASE_PARAMETER);
   public static final JSONStreamAware INCORRECT_PUBLIC_KEY = incorrect(PUBLIC_KEY_PARAMETER);
   public static final JSONStreamAware MISSING_ALIAS_NAME = missing(ALIAS_NAME_PARAMETER);
+  public static final JSONStreamAware MISSING_ALIAS_PREFIX = missing(ALIAS_PREFIX_PARAMETER);
   public static final JSONStreamAware MISSING_ALIAS_OR_ALIAS_NAME = missing(ALIAS_PARAMETER, "aliasName");
   public static final JSONStreamAware MISSING_FEE = missing(FEE_NQT_PARAMETER);
   public static final JSONStreamAware MISSING_DEADLINE = missing(DEADLINE_PARAMETER);
@@ -94,6 +95,8 @@ public final class JSONResponses {
   public static final JSONStreamAware INCORRECT_DGS_DISCOUNT = incorrect(DISCOUNT_NQT_PARAMETER);
   public static final JSONStreamAware INCORRECT_DGS_REFUND = incorrect(REFUND_NQT_PARAMETER);
   public static final JSONStreamAware MISSING_SELLER = missing(SELLER_PARAMETER);
+  public static final JSONStreamAware INCORRECT_AFTER = incorrect(AFTER_PARAMETER);
+  public static final JSONStreamAware UNKNOWN_AFTER = unknown(AFTER_PARAMETER);
   public static final JSONStreamAware INCORRECT_ENCRYPTED_MESSAGE = incorrect(ENCRYPTED_MESSAGE_DATA_PARAMETER);
   public static final JSONStreamAware INCORRECT_DGS_ENCRYPTED_GOODS = incorrect(GOODS_DATA_PARAMETER);
   public static final JSONStreamAware MISSING_SECRET_PHRASE_OR_PUBLIC_KEY = missing(SECRET_PHRASE_PARAMETER, PUBLIC_KEY_PARAMETER);
@@ -147,6 +150,22 @@ public final class JSONResponses {
     ERROR_INCORRECT_REQUEST = JSON.prepare(response);
   }
 
+  public static final JSONStreamAware ERROR_BUSY;
+  static {
+    JSONObject response = new JSONObject();
+    response.put(ERROR_CODE_RESPONSE, 10);
+    response.put(ERROR_DESCRIPTION_RESPONSE, "Too many requests of this kind, try again later");
+    ERROR_BUSY = JSON.prepare(response);
+  }
+
+  public static final JSONStreamAware ERROR_TIMEOUT;
+  static {
+    JSONObject response = new JSONObject();
+    response.put(ERROR_CODE_RESPONSE, 10);
+    response.put(ERROR_DESCRIPTION_RESPONSE, "Request timed out");
+    ERROR_TIMEOUT = JSON.prepare(response);
+  }
+
   public static final JSONStreamAware NOT_FORGING;
   static {
     JSONObject response = new JSONObject();
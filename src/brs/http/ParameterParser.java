@@ -1,5 +1,6 @@
 package brs.http;
 
+import static brs.http.JSONResponses.INCORRECT_AFTER;
 import static brs.http.JSONResponses.INCORRECT_AMOUNT;
 import static brs.http.JSONResponses.INCORRECT_ASSET_QUANTITY;
 import static brs.http.JSONResponses.INCORRECT_CREATION_BYTES;
@@ -17,6 +18,7 @@ import static brs.http.JSONResponses.MISSING_PRICE;
 import static brs.http.JSONResponses.MISSING_QUANTITY;
 import static brs.http.JSONResponses.MISSING_RECIPIENT;
 import static brs.http.JSONResponses.MISSING_SECRET_PHRASE;
+import static brs.http.common.Parameters.AFTER_PARAMETER;
 import static brs.http.common.Parameters.AMOUNT_NQT_PARAMETER;
 import static brs.http.common.Parameters.BUYER_PARAMETER;
 import static brs.http.common.Parameters.CREATION_BYTES_PARAMETER;
@@ -194,6 +196,18 @@ final class ParameterParser {
     }
   }
 
+  /**
+   * @return The id of the entity a page of a listing continues after, 0 to start at the beginning
+   */
+  static long getAfterId(HttpServletRequest req) throws ParameterException {
+    String afterValue = Convert.emptyToNull(req.getParameter(AFTER_PARAMETER));
+    try {
+      return Convert.parseUnsignedLong(afterValue);
+    } catch (RuntimeException e) {
+      throw new ParameterException(INCORRECT_AFTER);
+    }
+  }
+
   static int getFirstIndex(HttpServletRequest req) {
     int firstIndex;
     try {
@@ -122,4 +122,9 @@ public final class SubmitNonce extends APIServlet.APIRequestHandler {
   boolean requirePost() {
     return true;
   }
+
+  @Override
+  APIServlet.RequestCategory getCategory() {
+    return APIServlet.RequestCategory.MINING;
+  }
 }
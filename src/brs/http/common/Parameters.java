@@ -5,6 +5,7 @@ public class Parameters {
   public static final String ALIAS_PARAMETER = "alias";
   public static final String AMOUNT_NQT_PARAMETER = "amountNQT";
   public static final String ALIAS_NAME_PARAMETER = "aliasName";
+  public static final String ALIAS_PREFIX_PARAMETER = "aliasPrefix";
   public static final String FEE_NQT_PARAMETER = "feeNQT";
   public static final String PRICE_NQT_PARAMETER = "priceNQT";
   public static final String QUANTITY_QNT_PARAMETER = "quantityQNT";
@@ -34,6 +35,7 @@ public class Parameters {
   public static final String BUYER_PARAMETER = "buyer";
   public static final String FIRST_INDEX_PARAMETER = "firstIndex";
   public static final String LAST_INDEX_PARAMETER = "lastIndex";
+  public static final String AFTER_PARAMETER = "after";
   public static final String NUMBER_OF_CONFIRMATIONS_PARAMETER = "numberOfConfirmations";
   public static final String HEIGHT_PARAMETER = "height";
   public static final String DECRYPTED_MESSAGE_IS_TEXT_PARAMETER = "decryptedMessageIsText";
@@ -19,6 +19,7 @@ public class ResultFields {
   public static final String ASK_ORDER_IDS_RESPONSE = "askOrderIds";
   public static final String BLOCKS_RESPONSE = "blocks";
   public static final String DONE_RESPONSE = "done";
+  public static final String FILE_RESPONSE = "file";
   public static final String SCAN_TIME_RESPONSE = "scanTime";
   public static final String BROADCASTED_RESPONSE = "broadcasted";
   public static final String NUMBER_PEERS_SENT_TO_RESPONSE = "numberPeersSentTo";
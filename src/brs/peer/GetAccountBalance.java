@@ -35,4 +35,10 @@ public class GetAccountBalance extends PeerServlet.PeerRequestHandler {
 
     return response;
   }
+
+  @Override
+  boolean readOnly() {
+    return true;
+  }
+
 }
@@ -44,4 +44,9 @@ public class GetAccountRecentTransactions extends PeerServlet.PeerRequestHandler
     return response;
   }
 
+  @Override
+  boolean readOnly() {
+    return true;
+  }
+
 }
@@ -52,4 +52,9 @@ final class GetBlocksFromHeight extends PeerServlet.PeerRequestHandler {
     return response;
   }
 
+  @Override
+  boolean readOnly() {
+    return true;
+  }
+
 }
@@ -35,4 +35,9 @@ final class GetNextBlockIds extends PeerServlet.PeerRequestHandler {
     return response;
   }
 
+  @Override
+  boolean readOnly() {
+    return true;
+  }
+
 }
@@ -48,4 +48,9 @@ final class GetNextBlocks extends PeerServlet.PeerRequestHandler {
     return response;
   }
 
+  @Override
+  boolean readOnly() {
+    return true;
+  }
+
 }
@@ -3,6 +3,7 @@ package brs.peer;
 import brs.Blockchain;
 import brs.BlockchainProcessor;
 import brs.TransactionProcessor;
+import brs.db.sql.Db;
 import brs.services.AccountService;
 import brs.services.TimeService;
 import brs.util.CountingInputStream;
@@ -33,6 +34,13 @@ public final class PeerServlet extends HttpServlet {
 
   abstract static class PeerRequestHandler {
     abstract JSONStreamAware processRequest(JSONObject request, Peer peer);
+
+    /**
+     * @return true if the request only reads from the database and may be served from the read pool
+     */
+    boolean readOnly() {
+      return false;
+    }
   }
 
   abstract static class ExtendedPeerRequestHandler extends PeerRequestHandler {
@@ -138,11 +146,16 @@ public final class PeerServlet extends HttpServlet {
         requestType = "" + request.get("requestType");
         PeerRequestHandler peerRequestHandler = peerRequestHandlers.get(request.get("requestType"));
         if (peerRequestHandler != null) {
-          if(peerRequestHandler instanceof ExtendedPeerRequestHandler) {
-            extendedProcessRequest = ((ExtendedPeerRequestHandler) peerRequestHandler).extendedProcessRequest(request, peer);
-            response = extendedProcessRequest.response;
-          } else {
-            response = peerRequestHandler.processRequest(request, peer);
+          Db.setReadOnlyThread(peerRequestHandler.readOnly());
+          try {
+            if(peerRequestHandler instanceof ExtendedPeerRequestHandler) {
+              extendedProcessRequest = ((ExtendedPeerRequestHandler) peerRequestHandler).extendedProcessRequest(request, peer);
+              response = extendedProcessRequest.response;
+            } else {
+              response = peerRequestHandler.processRequest(request, peer);
+            }
+          } finally {
+            Db.setReadOnlyThread(false);
           }
         }
         else {
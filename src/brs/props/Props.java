@@ -53,6 +53,7 @@ public class Props {
 
   // CPU options
   public static final Prop CPU_NUM_CORES = new Prop("CPU.NumCores", -1);
+  public static final Prop CPU_AT_THREADS = new Prop("CPU.ATThreads", 1);
 
 
   // DB options
@@ -62,16 +63,62 @@ public class Props {
   public static final Prop DB_CONNECTIONS  = new Prop("DB.Connections", 30);
   public static final Prop DB_LOCK_TIMEOUT = new Prop("DB.LockTimeout", 60);
 
+  public static final Prop DB_READ_CONNECTIONS = new Prop("DB.ReadConnections", 10);
+  public static final Prop DB_READ_URL         = new Prop("DB.ReadUrl", "");
+  public static final Prop DB_READ_USERNAME    = new Prop("DB.ReadUsername", "");
+  public static final Prop DB_READ_PASSWORD    = new Prop("DB.ReadPassword", "");
+  public static final Prop DB_MAX_REPLICA_LAG  = new Prop("DB.MaxReplicaLag", 2);
+
   public static final Prop DB_TRIM_DERIVED_TABLES = new Prop("DB.trimDerivedTables", true);
   public static final Prop DB_MAX_ROLLBACK        = new Prop("DB.maxRollback", 1440);
+  public static final Prop DB_TRIM_CHUNK_SIZE     = new Prop("DB.trimChunkSize", 1000);
 
   public static final Prop BRS_TEST_UNCONFIRMED_TRANSACTIONS = new Prop("brs.testUnconfirmedTransactions", false);
 
   public static final Prop DB_H2_DEFRAG_ON_SHUTDOWN = new Prop("Db.H2.DefragOnShutdown", false);
 
+  public static final Prop DB_ACCOUNT_STATE_MAP = new Prop("DB.accountStateMap", true);
+
+  public static final Prop DB_COUNT_RECONCILE_INTERVAL = new Prop("DB.countReconcileInterval", 3600);
+
+  public static final Prop DB_VERIFY_AT_SCHEDULE = new Prop("DB.verifyATSchedule", false);
+
+  public static final Prop DB_AT_STATE_CODEC = new Prop("DB.atStateCodec", "gzip");
+
+  public static final Prop DB_BLOCK_FILES            = new Prop("DB.blockFiles", false);
+  public static final Prop DB_BLOCK_FILES_DIR        = new Prop("DB.blockFiles.dir", "burst_db/blocks");
+  public static final Prop DB_BLOCK_FILES_SEGMENT_MB = new Prop("DB.blockFiles.segmentMB", 256);
+
+  // Entity caches: number of entries kept per table (0 disables, except for account) and the number of
+  // seconds an entry may stay unused before it expires (0 keeps it until it gets evicted)
+  public static final Prop DB_CACHE_ACCOUNT_SIZE = new Prop("DB.cache.account.size", 8192);
+  public static final Prop DB_CACHE_ACCOUNT_TIME_TO_IDLE = new Prop("DB.cache.account.timeToIdle", 0);
+  public static final Prop DB_CACHE_ACCOUNT_ASSET_SIZE = new Prop("DB.cache.account_asset.size", 4096);
+  public static final Prop DB_CACHE_ACCOUNT_ASSET_TIME_TO_IDLE = new Prop("DB.cache.account_asset.timeToIdle", 0);
+  public static final Prop DB_CACHE_ALIAS_SIZE = new Prop("DB.cache.alias.size", 4096);
+  public static final Prop DB_CACHE_ALIAS_TIME_TO_IDLE = new Prop("DB.cache.alias.timeToIdle", 0);
+  public static final Prop DB_CACHE_ASSET_SIZE = new Prop("DB.cache.asset.size", 1024);
+  public static final Prop DB_CACHE_ASSET_TIME_TO_IDLE = new Prop("DB.cache.asset.timeToIdle", 0);
+  public static final Prop DB_CACHE_ASK_ORDER_SIZE = new Prop("DB.cache.ask_order.size", 2048);
+  public static final Prop DB_CACHE_ASK_ORDER_TIME_TO_IDLE = new Prop("DB.cache.ask_order.timeToIdle", 0);
+  public static final Prop DB_CACHE_BID_ORDER_SIZE = new Prop("DB.cache.bid_order.size", 2048);
+  public static final Prop DB_CACHE_BID_ORDER_TIME_TO_IDLE = new Prop("DB.cache.bid_order.timeToIdle", 0);
+  public static final Prop DB_CACHE_AT_SIZE = new Prop("DB.cache.at.size", 512);
+  public static final Prop DB_CACHE_AT_TIME_TO_IDLE = new Prop("DB.cache.at.timeToIdle", 0);
+  public static final Prop DB_CACHE_AT_STATE_SIZE = new Prop("DB.cache.at_state.size", 512);
+  public static final Prop DB_CACHE_AT_STATE_TIME_TO_IDLE = new Prop("DB.cache.at_state.timeToIdle", 0);
+  public static final Prop DB_CACHE_ESCROW_SIZE = new Prop("DB.cache.escrow.size", 1024);
+  public static final Prop DB_CACHE_ESCROW_TIME_TO_IDLE = new Prop("DB.cache.escrow.timeToIdle", 0);
+  public static final Prop DB_CACHE_SUBSCRIPTION_SIZE = new Prop("DB.cache.subscription.size", 1024);
+  public static final Prop DB_CACHE_SUBSCRIPTION_TIME_TO_IDLE = new Prop("DB.cache.subscription.timeToIdle", 0);
+
 
   public static final Prop BRS_BLOCK_CACHE_MB = new Prop("brs.blockCacheMB", 40);
 
+  public static final Prop BRS_SNAPSHOT_DIR = new Prop("brs.snapshot.dir", "snapshots");
+  public static final Prop BRS_SNAPSHOT_IMPORT = new Prop("brs.snapshot.import", "");
+  public static final Prop BRS_SNAPSHOT_VERIFY_BLOCKS = new Prop("brs.snapshot.verifyBlocks", 10);
+
   // P2P options
 
   public static final Prop P2P_MY_PLATFORM = new Prop("P2P.myPlatform", "PC");
@@ -104,6 +151,8 @@ public class Props {
 
   public static final Prop P2P_MAX_UNCONFIRMED_TRANSACTIONS_RAW_SIZE_BYTES_TO_SEND = new Prop("P2P.maxUTRawSizeBytesToSend", 175000);
 
+  public static final Prop P2P_UNCONFIRMED_TRANSACTIONS_FULL_REVALIDATION_INTERVAL = new Prop("P2P.unconfirmedTransactionsFullRevalidationInterval", 20);
+
   // API options
   public static final Prop API_DEBUG   = new Prop("API.Debug", false);
   public static final Prop API_SSL     = new Prop("API.SSL", false);
@@ -122,6 +171,20 @@ public class Props {
   public static final Prop API_SERVER_IDLE_TIMEOUT = new Prop("API.ServerIdleTimeout", 30000);
   public static final Prop API_SERVER_ENFORCE_POST = new Prop("API.ServerEnforcePOST", true);
 
+  public static final Prop API_ASYNC = new Prop("API.Async", true);
+  public static final Prop API_ASYNC_READ_THREADS = new Prop("API.Async.ReadThreads", 8);
+  public static final Prop API_ASYNC_READ_QUEUE_SIZE = new Prop("API.Async.ReadQueueSize", 200);
+  public static final Prop API_ASYNC_READ_TIMEOUT = new Prop("API.Async.ReadTimeout", 10000);
+  public static final Prop API_ASYNC_HEAVY_READ_THREADS = new Prop("API.Async.HeavyReadThreads", 2);
+  public static final Prop API_ASYNC_HEAVY_READ_QUEUE_SIZE = new Prop("API.Async.HeavyReadQueueSize", 20);
+  public static final Prop API_ASYNC_HEAVY_READ_TIMEOUT = new Prop("API.Async.HeavyReadTimeout", 30000);
+  public static final Prop API_ASYNC_WRITE_THREADS = new Prop("API.Async.WriteThreads", 2);
+  public static final Prop API_ASYNC_WRITE_QUEUE_SIZE = new Prop("API.Async.WriteQueueSize", 50);
+  public static final Prop API_ASYNC_WRITE_TIMEOUT = new Prop("API.Async.WriteTimeout", 30000);
+  public static final Prop API_ASYNC_MINING_THREADS = new Prop("API.Async.MiningThreads", 4);
+  public static final Prop API_ASYNC_MINING_QUEUE_SIZE = new Prop("API.Async.MiningQueueSize", 200);
+  public static final Prop API_ASYNC_MINING_TIMEOUT = new Prop("API.Async.MiningTimeout", 10000);
+
   public static final Prop JETTY_API_GZIP_FILTER = new Prop("JETTY.API.GzipFilter", true);
   public static final Prop JETTY_API_GZIP_FILTER_METHODS = new Prop("JETTY.API.GZIPFilter.methods", "GET, POST");
   public static final Prop JETTY_API_GZIP_FILTER_BUFFER_SIZE = new Prop("JETTY.API.GZIPFilter.bufferSize", "8192");
@@ -6,10 +6,12 @@ package brs.schema;
 
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
 import brs.schema.tables.Asset;
+import brs.schema.tables.AssetStats;
 import brs.schema.tables.AssetTransfer;
 import brs.schema.tables.At;
 import brs.schema.tables.AtState;
@@ -70,6 +72,11 @@ public class Db extends SchemaImpl {
      */
     public final AccountAsset ACCOUNT_ASSET = brs.schema.tables.AccountAsset.ACCOUNT_ASSET;
 
+    /**
+     * The table <code>DB.account_transaction</code>.
+     */
+    public final AccountTransaction ACCOUNT_TRANSACTION = brs.schema.tables.AccountTransaction.ACCOUNT_TRANSACTION;
+
     /**
      * The table <code>DB.alias</code>.
      */
@@ -90,6 +97,11 @@ public class Db extends SchemaImpl {
      */
     public final Asset ASSET = brs.schema.tables.Asset.ASSET;
 
+    /**
+     * The table <code>DB.asset_stats</code>.
+     */
+    public final AssetStats ASSET_STATS = brs.schema.tables.AssetStats.ASSET_STATS;
+
     /**
      * The table <code>DB.asset_transfer</code>.
      */
@@ -207,10 +219,12 @@ public class Db extends SchemaImpl {
         return Arrays.<Table<?>>asList(
             Account.ACCOUNT,
             AccountAsset.ACCOUNT_ASSET,
+            AccountTransaction.ACCOUNT_TRANSACTION,
             Alias.ALIAS,
             AliasOffer.ALIAS_OFFER,
             AskOrder.ASK_ORDER,
             Asset.ASSET,
+            AssetStats.ASSET_STATS,
             AssetTransfer.ASSET_TRANSFER,
             At.AT,
             AtState.AT_STATE,
@@ -6,10 +6,12 @@ package brs.schema;
 
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
 import brs.schema.tables.Asset;
+import brs.schema.tables.AssetStats;
 import brs.schema.tables.AssetTransfer;
 import brs.schema.tables.At;
 import brs.schema.tables.AtState;
@@ -59,6 +61,9 @@ public class Indexes {
     public static final Index ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX = Indexes0.ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX;
     public static final Index ACCOUNT_ASSET_ACCOUNT_ASSET_QUANTITY_IDX = Indexes0.ACCOUNT_ASSET_ACCOUNT_ASSET_QUANTITY_IDX;
     public static final Index ACCOUNT_ASSET_PRIMARY = Indexes0.ACCOUNT_ASSET_PRIMARY;
+    public static final Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_ACCOUNT_ID_TIMESTAMP_IDX = Indexes0.ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_ACCOUNT_ID_TIMESTAMP_IDX;
+    public static final Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_HEIGHT_IDX = Indexes0.ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_HEIGHT_IDX;
+    public static final Index ACCOUNT_TRANSACTION_PRIMARY = Indexes0.ACCOUNT_TRANSACTION_PRIMARY;
     public static final Index ALIAS_ALIAS_ACCOUNT_ID_IDX = Indexes0.ALIAS_ALIAS_ACCOUNT_ID_IDX;
     public static final Index ALIAS_ALIAS_ID_HEIGHT_IDX = Indexes0.ALIAS_ALIAS_ID_HEIGHT_IDX;
     public static final Index ALIAS_ALIAS_NAME_LOWER_IDX = Indexes0.ALIAS_ALIAS_NAME_LOWER_IDX;
@@ -73,6 +78,8 @@ public class Indexes {
     public static final Index ASSET_ASSET_ACCOUNT_ID_IDX = Indexes0.ASSET_ASSET_ACCOUNT_ID_IDX;
     public static final Index ASSET_ASSET_ID_IDX = Indexes0.ASSET_ASSET_ID_IDX;
     public static final Index ASSET_PRIMARY = Indexes0.ASSET_PRIMARY;
+    public static final Index ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX = Indexes0.ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX;
+    public static final Index ASSET_STATS_PRIMARY = Indexes0.ASSET_STATS_PRIMARY;
     public static final Index ASSET_TRANSFER_ASSET_TRANSFER_ASSET_ID_IDX = Indexes0.ASSET_TRANSFER_ASSET_TRANSFER_ASSET_ID_IDX;
     public static final Index ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX = Indexes0.ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX;
     public static final Index ASSET_TRANSFER_ASSET_TRANSFER_RECIPIENT_ID_IDX = Indexes0.ASSET_TRANSFER_ASSET_TRANSFER_RECIPIENT_ID_IDX;
@@ -106,6 +113,9 @@ public class Indexes {
     public static final Index ESCROW_DECISION_ESCROW_DECISION_ESCROW_ID_HEIGHT_IDX = Indexes0.ESCROW_DECISION_ESCROW_DECISION_ESCROW_ID_HEIGHT_IDX;
     public static final Index ESCROW_DECISION_PRIMARY = Indexes0.ESCROW_DECISION_PRIMARY;
     public static final Index GOODS_GOODS_ID_HEIGHT_IDX = Indexes0.GOODS_GOODS_ID_HEIGHT_IDX;
+    public static final Index GOODS_GOODS_LATEST_DELISTED_TIMESTAMP_IDX = Indexes0.GOODS_GOODS_LATEST_DELISTED_TIMESTAMP_IDX;
+    public static final Index GOODS_GOODS_LATEST_TIMESTAMP_IDX = Indexes0.GOODS_GOODS_LATEST_TIMESTAMP_IDX;
+    public static final Index GOODS_GOODS_SELLER_ID_LATEST_NAME_IDX = Indexes0.GOODS_GOODS_SELLER_ID_LATEST_NAME_IDX;
     public static final Index GOODS_GOODS_SELLER_ID_NAME_IDX = Indexes0.GOODS_GOODS_SELLER_ID_NAME_IDX;
     public static final Index GOODS_GOODS_TIMESTAMP_IDX = Indexes0.GOODS_GOODS_TIMESTAMP_IDX;
     public static final Index GOODS_PRIMARY = Indexes0.GOODS_PRIMARY;
@@ -114,6 +124,10 @@ public class Indexes {
     public static final Index PURCHASE_PURCHASE_BUYER_ID_HEIGHT_IDX = Indexes0.PURCHASE_PURCHASE_BUYER_ID_HEIGHT_IDX;
     public static final Index PURCHASE_PURCHASE_DEADLINE_IDX = Indexes0.PURCHASE_PURCHASE_DEADLINE_IDX;
     public static final Index PURCHASE_PURCHASE_ID_HEIGHT_IDX = Indexes0.PURCHASE_PURCHASE_ID_HEIGHT_IDX;
+    public static final Index PURCHASE_PURCHASE_BUYER_ID_LATEST_TIMESTAMP_IDX = Indexes0.PURCHASE_PURCHASE_BUYER_ID_LATEST_TIMESTAMP_IDX;
+    public static final Index PURCHASE_PURCHASE_LATEST_TIMESTAMP_IDX = Indexes0.PURCHASE_PURCHASE_LATEST_TIMESTAMP_IDX;
+    public static final Index PURCHASE_PURCHASE_SELLER_ID_LATEST_TIMESTAMP_IDX = Indexes0.PURCHASE_PURCHASE_SELLER_ID_LATEST_TIMESTAMP_IDX;
+    public static final Index PURCHASE_PURCHASE_SELLER_ID_PENDING_LATEST_IDX = Indexes0.PURCHASE_PURCHASE_SELLER_ID_PENDING_LATEST_IDX;
     public static final Index PURCHASE_PURCHASE_SELLER_ID_HEIGHT_IDX = Indexes0.PURCHASE_PURCHASE_SELLER_ID_HEIGHT_IDX;
     public static final Index PURCHASE_PURCHASE_TIMESTAMP_IDX = Indexes0.PURCHASE_PURCHASE_TIMESTAMP_IDX;
     public static final Index PURCHASE_FEEDBACK_PRIMARY = Indexes0.PURCHASE_FEEDBACK_PRIMARY;
@@ -158,6 +172,9 @@ public class Indexes {
         public static Index ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX = createIndex("account_asset_id_height_idx", AccountAsset.ACCOUNT_ASSET, new OrderField[] { AccountAsset.ACCOUNT_ASSET.ACCOUNT_ID, AccountAsset.ACCOUNT_ASSET.ASSET_ID, AccountAsset.ACCOUNT_ASSET.HEIGHT }, true);
         public static Index ACCOUNT_ASSET_ACCOUNT_ASSET_QUANTITY_IDX = createIndex("account_asset_quantity_idx", AccountAsset.ACCOUNT_ASSET, new OrderField[] { AccountAsset.ACCOUNT_ASSET.QUANTITY }, false);
         public static Index ACCOUNT_ASSET_PRIMARY = createIndex("PRIMARY", AccountAsset.ACCOUNT_ASSET, new OrderField[] { AccountAsset.ACCOUNT_ASSET.DB_ID }, true);
+        public static Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_ACCOUNT_ID_TIMESTAMP_IDX = createIndex("account_transaction_account_id_timestamp_idx", AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.ACCOUNT_ID, AccountTransaction.ACCOUNT_TRANSACTION.BLOCK_TIMESTAMP, AccountTransaction.ACCOUNT_TRANSACTION.TRANSACTION_ID }, false);
+        public static Index ACCOUNT_TRANSACTION_ACCOUNT_TRANSACTION_HEIGHT_IDX = createIndex("account_transaction_height_idx", AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.HEIGHT }, false);
+        public static Index ACCOUNT_TRANSACTION_PRIMARY = createIndex("PRIMARY", AccountTransaction.ACCOUNT_TRANSACTION, new OrderField[] { AccountTransaction.ACCOUNT_TRANSACTION.DB_ID }, true);
         public static Index ALIAS_ALIAS_ACCOUNT_ID_IDX = createIndex("alias_account_id_idx", Alias.ALIAS, new OrderField[] { Alias.ALIAS.ACCOUNT_ID, Alias.ALIAS.HEIGHT }, false);
         public static Index ALIAS_ALIAS_ID_HEIGHT_IDX = createIndex("alias_id_height_idx", Alias.ALIAS, new OrderField[] { Alias.ALIAS.ID, Alias.ALIAS.HEIGHT }, true);
         public static Index ALIAS_ALIAS_NAME_LOWER_IDX = createIndex("alias_name_lower_idx", Alias.ALIAS, new OrderField[] { Alias.ALIAS.ALIAS_NAME_LOWER }, false);
@@ -172,6 +189,8 @@ public class Indexes {
         public static Index ASSET_ASSET_ACCOUNT_ID_IDX = createIndex("asset_account_id_idx", Asset.ASSET, new OrderField[] { Asset.ASSET.ACCOUNT_ID }, false);
         public static Index ASSET_ASSET_ID_IDX = createIndex("asset_id_idx", Asset.ASSET, new OrderField[] { Asset.ASSET.ID }, true);
         public static Index ASSET_PRIMARY = createIndex("PRIMARY", Asset.ASSET, new OrderField[] { Asset.ASSET.DB_ID }, true);
+        public static Index ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX = createIndex("asset_stats_asset_id_height_idx", AssetStats.ASSET_STATS, new OrderField[] { AssetStats.ASSET_STATS.ASSET_ID, AssetStats.ASSET_STATS.HEIGHT }, true);
+        public static Index ASSET_STATS_PRIMARY = createIndex("PRIMARY", AssetStats.ASSET_STATS, new OrderField[] { AssetStats.ASSET_STATS.DB_ID }, true);
         public static Index ASSET_TRANSFER_ASSET_TRANSFER_ASSET_ID_IDX = createIndex("asset_transfer_asset_id_idx", AssetTransfer.ASSET_TRANSFER, new OrderField[] { AssetTransfer.ASSET_TRANSFER.ASSET_ID, AssetTransfer.ASSET_TRANSFER.HEIGHT }, false);
         public static Index ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX = createIndex("asset_transfer_id_idx", AssetTransfer.ASSET_TRANSFER, new OrderField[] { AssetTransfer.ASSET_TRANSFER.ID }, true);
         public static Index ASSET_TRANSFER_ASSET_TRANSFER_RECIPIENT_ID_IDX = createIndex("asset_transfer_recipient_id_idx", AssetTransfer.ASSET_TRANSFER, new OrderField[] { AssetTransfer.ASSET_TRANSFER.RECIPIENT_ID, AssetTransfer.ASSET_TRANSFER.HEIGHT }, false);
@@ -205,6 +224,9 @@ public class Indexes {
         public static Index ESCROW_DECISION_ESCROW_DECISION_ESCROW_ID_HEIGHT_IDX = createIndex("escrow_decision_escrow_id_height_idx", EscrowDecision.ESCROW_DECISION, new OrderField[] { EscrowDecision.ESCROW_DECISION.ESCROW_ID, EscrowDecision.ESCROW_DECISION.HEIGHT }, false);
         public static Index ESCROW_DECISION_PRIMARY = createIndex("PRIMARY", EscrowDecision.ESCROW_DECISION, new OrderField[] { EscrowDecision.ESCROW_DECISION.DB_ID }, true);
         public static Index GOODS_GOODS_ID_HEIGHT_IDX = createIndex("goods_id_height_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.ID, Goods.GOODS.HEIGHT }, true);
+        public static Index GOODS_GOODS_LATEST_DELISTED_TIMESTAMP_IDX = createIndex("goods_latest_delisted_timestamp_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.LATEST, Goods.GOODS.DELISTED, Goods.GOODS.TIMESTAMP, Goods.GOODS.ID }, false);
+        public static Index GOODS_GOODS_LATEST_TIMESTAMP_IDX = createIndex("goods_latest_timestamp_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.LATEST, Goods.GOODS.TIMESTAMP, Goods.GOODS.ID }, false);
+        public static Index GOODS_GOODS_SELLER_ID_LATEST_NAME_IDX = createIndex("goods_seller_id_latest_name_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.SELLER_ID, Goods.GOODS.LATEST, Goods.GOODS.NAME, Goods.GOODS.TIMESTAMP, Goods.GOODS.ID }, false);
         public static Index GOODS_GOODS_SELLER_ID_NAME_IDX = createIndex("goods_seller_id_name_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.SELLER_ID, Goods.GOODS.NAME }, false);
         public static Index GOODS_GOODS_TIMESTAMP_IDX = createIndex("goods_timestamp_idx", Goods.GOODS, new OrderField[] { Goods.GOODS.TIMESTAMP, Goods.GOODS.HEIGHT }, false);
         public static Index GOODS_PRIMARY = createIndex("PRIMARY", Goods.GOODS, new OrderField[] { Goods.GOODS.DB_ID }, true);
@@ -213,6 +235,10 @@ public class Indexes {
         public static Index PURCHASE_PURCHASE_BUYER_ID_HEIGHT_IDX = createIndex("purchase_buyer_id_height_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.BUYER_ID, Purchase.PURCHASE.HEIGHT }, false);
         public static Index PURCHASE_PURCHASE_DEADLINE_IDX = createIndex("purchase_deadline_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.DEADLINE, Purchase.PURCHASE.HEIGHT }, false);
         public static Index PURCHASE_PURCHASE_ID_HEIGHT_IDX = createIndex("purchase_id_height_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.ID, Purchase.PURCHASE.HEIGHT }, true);
+        public static Index PURCHASE_PURCHASE_BUYER_ID_LATEST_TIMESTAMP_IDX = createIndex("purchase_buyer_id_latest_timestamp_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.BUYER_ID, Purchase.PURCHASE.LATEST, Purchase.PURCHASE.TIMESTAMP, Purchase.PURCHASE.ID }, false);
+        public static Index PURCHASE_PURCHASE_LATEST_TIMESTAMP_IDX = createIndex("purchase_latest_timestamp_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.LATEST, Purchase.PURCHASE.TIMESTAMP, Purchase.PURCHASE.ID }, false);
+        public static Index PURCHASE_PURCHASE_SELLER_ID_LATEST_TIMESTAMP_IDX = createIndex("purchase_seller_id_latest_timestamp_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.SELLER_ID, Purchase.PURCHASE.LATEST, Purchase.PURCHASE.TIMESTAMP, Purchase.PURCHASE.ID }, false);
+        public static Index PURCHASE_PURCHASE_SELLER_ID_PENDING_LATEST_IDX = createIndex("purchase_seller_id_pending_latest_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.SELLER_ID, Purchase.PURCHASE.PENDING, Purchase.PURCHASE.LATEST, Purchase.PURCHASE.TIMESTAMP, Purchase.PURCHASE.ID }, false);
         public static Index PURCHASE_PURCHASE_SELLER_ID_HEIGHT_IDX = createIndex("purchase_seller_id_height_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.SELLER_ID, Purchase.PURCHASE.HEIGHT }, false);
         public static Index PURCHASE_PURCHASE_TIMESTAMP_IDX = createIndex("purchase_timestamp_idx", Purchase.PURCHASE, new OrderField[] { Purchase.PURCHASE.TIMESTAMP, Purchase.PURCHASE.ID }, false);
         public static Index PURCHASE_FEEDBACK_PRIMARY = createIndex("PRIMARY", PurchaseFeedback.PURCHASE_FEEDBACK, new OrderField[] { PurchaseFeedback.PURCHASE_FEEDBACK.DB_ID }, true);
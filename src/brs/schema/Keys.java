@@ -6,10 +6,12 @@ package brs.schema;
 
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
 import brs.schema.tables.Asset;
+import brs.schema.tables.AssetStats;
 import brs.schema.tables.AssetTransfer;
 import brs.schema.tables.At;
 import brs.schema.tables.AtState;
@@ -29,10 +31,12 @@ import brs.schema.tables.Transaction;
 import brs.schema.tables.UnconfirmedTransaction;
 import brs.schema.tables.records.AccountAssetRecord;
 import brs.schema.tables.records.AccountRecord;
+import brs.schema.tables.records.AccountTransactionRecord;
 import brs.schema.tables.records.AliasOfferRecord;
 import brs.schema.tables.records.AliasRecord;
 import brs.schema.tables.records.AskOrderRecord;
 import brs.schema.tables.records.AssetRecord;
+import brs.schema.tables.records.AssetStatsRecord;
 import brs.schema.tables.records.AssetTransferRecord;
 import brs.schema.tables.records.AtRecord;
 import brs.schema.tables.records.AtStateRecord;
@@ -79,10 +83,12 @@ public class Keys {
 
     public static final Identity<AccountRecord, Long> IDENTITY_ACCOUNT = Identities0.IDENTITY_ACCOUNT;
     public static final Identity<AccountAssetRecord, Long> IDENTITY_ACCOUNT_ASSET = Identities0.IDENTITY_ACCOUNT_ASSET;
+    public static final Identity<AccountTransactionRecord, Long> IDENTITY_ACCOUNT_TRANSACTION = Identities0.IDENTITY_ACCOUNT_TRANSACTION;
     public static final Identity<AliasRecord, Long> IDENTITY_ALIAS = Identities0.IDENTITY_ALIAS;
     public static final Identity<AliasOfferRecord, Long> IDENTITY_ALIAS_OFFER = Identities0.IDENTITY_ALIAS_OFFER;
     public static final Identity<AskOrderRecord, Long> IDENTITY_ASK_ORDER = Identities0.IDENTITY_ASK_ORDER;
     public static final Identity<AssetRecord, Long> IDENTITY_ASSET = Identities0.IDENTITY_ASSET;
+    public static final Identity<AssetStatsRecord, Long> IDENTITY_ASSET_STATS = Identities0.IDENTITY_ASSET_STATS;
     public static final Identity<AssetTransferRecord, Long> IDENTITY_ASSET_TRANSFER = Identities0.IDENTITY_ASSET_TRANSFER;
     public static final Identity<AtRecord, Long> IDENTITY_AT = Identities0.IDENTITY_AT;
     public static final Identity<AtStateRecord, Long> IDENTITY_AT_STATE = Identities0.IDENTITY_AT_STATE;
@@ -108,6 +114,7 @@ public class Keys {
     public static final UniqueKey<AccountRecord> KEY_ACCOUNT_ACCOUNT_ID_HEIGHT_IDX = UniqueKeys0.KEY_ACCOUNT_ACCOUNT_ID_HEIGHT_IDX;
     public static final UniqueKey<AccountAssetRecord> KEY_ACCOUNT_ASSET_PRIMARY = UniqueKeys0.KEY_ACCOUNT_ASSET_PRIMARY;
     public static final UniqueKey<AccountAssetRecord> KEY_ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX = UniqueKeys0.KEY_ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX;
+    public static final UniqueKey<AccountTransactionRecord> KEY_ACCOUNT_TRANSACTION_PRIMARY = UniqueKeys0.KEY_ACCOUNT_TRANSACTION_PRIMARY;
     public static final UniqueKey<AliasRecord> KEY_ALIAS_PRIMARY = UniqueKeys0.KEY_ALIAS_PRIMARY;
     public static final UniqueKey<AliasRecord> KEY_ALIAS_ALIAS_ID_HEIGHT_IDX = UniqueKeys0.KEY_ALIAS_ALIAS_ID_HEIGHT_IDX;
     public static final UniqueKey<AliasOfferRecord> KEY_ALIAS_OFFER_PRIMARY = UniqueKeys0.KEY_ALIAS_OFFER_PRIMARY;
@@ -116,6 +123,8 @@ public class Keys {
     public static final UniqueKey<AskOrderRecord> KEY_ASK_ORDER_ASK_ORDER_ID_HEIGHT_IDX = UniqueKeys0.KEY_ASK_ORDER_ASK_ORDER_ID_HEIGHT_IDX;
     public static final UniqueKey<AssetRecord> KEY_ASSET_PRIMARY = UniqueKeys0.KEY_ASSET_PRIMARY;
     public static final UniqueKey<AssetRecord> KEY_ASSET_ASSET_ID_IDX = UniqueKeys0.KEY_ASSET_ASSET_ID_IDX;
+    public static final UniqueKey<AssetStatsRecord> KEY_ASSET_STATS_PRIMARY = UniqueKeys0.KEY_ASSET_STATS_PRIMARY;
+    public static final UniqueKey<AssetStatsRecord> KEY_ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX = UniqueKeys0.KEY_ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX;
     public static final UniqueKey<AssetTransferRecord> KEY_ASSET_TRANSFER_PRIMARY = UniqueKeys0.KEY_ASSET_TRANSFER_PRIMARY;
     public static final UniqueKey<AssetTransferRecord> KEY_ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX = UniqueKeys0.KEY_ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX;
     public static final UniqueKey<AtRecord> KEY_AT_PRIMARY = UniqueKeys0.KEY_AT_PRIMARY;
@@ -166,10 +175,12 @@ public class Keys {
     private static class Identities0 extends AbstractKeys {
         public static Identity<AccountRecord, Long> IDENTITY_ACCOUNT = createIdentity(Account.ACCOUNT, Account.ACCOUNT.DB_ID);
         public static Identity<AccountAssetRecord, Long> IDENTITY_ACCOUNT_ASSET = createIdentity(AccountAsset.ACCOUNT_ASSET, AccountAsset.ACCOUNT_ASSET.DB_ID);
+        public static Identity<AccountTransactionRecord, Long> IDENTITY_ACCOUNT_TRANSACTION = createIdentity(AccountTransaction.ACCOUNT_TRANSACTION, AccountTransaction.ACCOUNT_TRANSACTION.DB_ID);
         public static Identity<AliasRecord, Long> IDENTITY_ALIAS = createIdentity(Alias.ALIAS, Alias.ALIAS.DB_ID);
         public static Identity<AliasOfferRecord, Long> IDENTITY_ALIAS_OFFER = createIdentity(AliasOffer.ALIAS_OFFER, AliasOffer.ALIAS_OFFER.DB_ID);
         public static Identity<AskOrderRecord, Long> IDENTITY_ASK_ORDER = createIdentity(AskOrder.ASK_ORDER, AskOrder.ASK_ORDER.DB_ID);
         public static Identity<AssetRecord, Long> IDENTITY_ASSET = createIdentity(Asset.ASSET, Asset.ASSET.DB_ID);
+        public static Identity<AssetStatsRecord, Long> IDENTITY_ASSET_STATS = createIdentity(AssetStats.ASSET_STATS, AssetStats.ASSET_STATS.DB_ID);
         public static Identity<AssetTransferRecord, Long> IDENTITY_ASSET_TRANSFER = createIdentity(AssetTransfer.ASSET_TRANSFER, AssetTransfer.ASSET_TRANSFER.DB_ID);
         public static Identity<AtRecord, Long> IDENTITY_AT = createIdentity(At.AT, At.AT.DB_ID);
         public static Identity<AtStateRecord, Long> IDENTITY_AT_STATE = createIdentity(AtState.AT_STATE, AtState.AT_STATE.DB_ID);
@@ -193,6 +204,7 @@ public class Keys {
         public static final UniqueKey<AccountRecord> KEY_ACCOUNT_ACCOUNT_ID_HEIGHT_IDX = createUniqueKey(Account.ACCOUNT, "KEY_account_account_id_height_idx", Account.ACCOUNT.ID, Account.ACCOUNT.HEIGHT);
         public static final UniqueKey<AccountAssetRecord> KEY_ACCOUNT_ASSET_PRIMARY = createUniqueKey(AccountAsset.ACCOUNT_ASSET, "KEY_account_asset_PRIMARY", AccountAsset.ACCOUNT_ASSET.DB_ID);
         public static final UniqueKey<AccountAssetRecord> KEY_ACCOUNT_ASSET_ACCOUNT_ASSET_ID_HEIGHT_IDX = createUniqueKey(AccountAsset.ACCOUNT_ASSET, "KEY_account_asset_account_asset_id_height_idx", AccountAsset.ACCOUNT_ASSET.ACCOUNT_ID, AccountAsset.ACCOUNT_ASSET.ASSET_ID, AccountAsset.ACCOUNT_ASSET.HEIGHT);
+        public static final UniqueKey<AccountTransactionRecord> KEY_ACCOUNT_TRANSACTION_PRIMARY = createUniqueKey(AccountTransaction.ACCOUNT_TRANSACTION, "KEY_account_transaction_PRIMARY", AccountTransaction.ACCOUNT_TRANSACTION.DB_ID);
         public static final UniqueKey<AliasRecord> KEY_ALIAS_PRIMARY = createUniqueKey(Alias.ALIAS, "KEY_alias_PRIMARY", Alias.ALIAS.DB_ID);
         public static final UniqueKey<AliasRecord> KEY_ALIAS_ALIAS_ID_HEIGHT_IDX = createUniqueKey(Alias.ALIAS, "KEY_alias_alias_id_height_idx", Alias.ALIAS.ID, Alias.ALIAS.HEIGHT);
         public static final UniqueKey<AliasOfferRecord> KEY_ALIAS_OFFER_PRIMARY = createUniqueKey(AliasOffer.ALIAS_OFFER, "KEY_alias_offer_PRIMARY", AliasOffer.ALIAS_OFFER.DB_ID);
@@ -201,6 +213,8 @@ public class Keys {
         public static final UniqueKey<AskOrderRecord> KEY_ASK_ORDER_ASK_ORDER_ID_HEIGHT_IDX = createUniqueKey(AskOrder.ASK_ORDER, "KEY_ask_order_ask_order_id_height_idx", AskOrder.ASK_ORDER.ID, AskOrder.ASK_ORDER.HEIGHT);
         public static final UniqueKey<AssetRecord> KEY_ASSET_PRIMARY = createUniqueKey(Asset.ASSET, "KEY_asset_PRIMARY", Asset.ASSET.DB_ID);
         public static final UniqueKey<AssetRecord> KEY_ASSET_ASSET_ID_IDX = createUniqueKey(Asset.ASSET, "KEY_asset_asset_id_idx", Asset.ASSET.ID);
+        public static final UniqueKey<AssetStatsRecord> KEY_ASSET_STATS_PRIMARY = createUniqueKey(AssetStats.ASSET_STATS, "KEY_asset_stats_PRIMARY", AssetStats.ASSET_STATS.DB_ID);
+        public static final UniqueKey<AssetStatsRecord> KEY_ASSET_STATS_ASSET_STATS_ASSET_ID_HEIGHT_IDX = createUniqueKey(AssetStats.ASSET_STATS, "KEY_asset_stats_asset_stats_asset_id_height_idx", AssetStats.ASSET_STATS.ASSET_ID, AssetStats.ASSET_STATS.HEIGHT);
         public static final UniqueKey<AssetTransferRecord> KEY_ASSET_TRANSFER_PRIMARY = createUniqueKey(AssetTransfer.ASSET_TRANSFER, "KEY_asset_transfer_PRIMARY", AssetTransfer.ASSET_TRANSFER.DB_ID);
         public static final UniqueKey<AssetTransferRecord> KEY_ASSET_TRANSFER_ASSET_TRANSFER_ID_IDX = createUniqueKey(AssetTransfer.ASSET_TRANSFER, "KEY_asset_transfer_asset_transfer_id_idx", AssetTransfer.ASSET_TRANSFER.ID);
         public static final UniqueKey<AtRecord> KEY_AT_PRIMARY = createUniqueKey(At.AT, "KEY_at_PRIMARY", At.AT.DB_ID);
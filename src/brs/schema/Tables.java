@@ -6,10 +6,12 @@ package brs.schema;
 
 import brs.schema.tables.Account;
 import brs.schema.tables.AccountAsset;
+import brs.schema.tables.AccountTransaction;
 import brs.schema.tables.Alias;
 import brs.schema.tables.AliasOffer;
 import brs.schema.tables.AskOrder;
 import brs.schema.tables.Asset;
+import brs.schema.tables.AssetStats;
 import brs.schema.tables.AssetTransfer;
 import brs.schema.tables.At;
 import brs.schema.tables.AtState;
@@ -55,6 +57,11 @@ public class Tables {
      */
     public static final AccountAsset ACCOUNT_ASSET = brs.schema.tables.AccountAsset.ACCOUNT_ASSET;
 
+    /**
+     * The table <code>DB.account_transaction</code>.
+     */
+    public static final AccountTransaction ACCOUNT_TRANSACTION = brs.schema.tables.AccountTransaction.ACCOUNT_TRANSACTION;
+
     /**
      * The table <code>DB.alias</code>.
      */
@@ -75,6 +82,11 @@ public class Tables {
      */
     public static final Asset ASSET = brs.schema.tables.Asset.ASSET;
 
+    /**
+     * The table <code>DB.asset_stats</code>.
+     */
+    public static final AssetStats ASSET_STATS = brs.schema.tables.AssetStats.ASSET_STATS;
+
     /**
      * The table <code>DB.asset_transfer</code>.
      */
@@ -156,7 +156,7 @@ public class Goods extends TableImpl<GoodsRecord> {
      */
     @Override
     public List<Index> getIndexes() {
-        return Arrays.<Index>asList(Indexes.GOODS_GOODS_ID_HEIGHT_IDX, Indexes.GOODS_GOODS_SELLER_ID_NAME_IDX, Indexes.GOODS_GOODS_TIMESTAMP_IDX, Indexes.GOODS_PRIMARY);
+        return Arrays.<Index>asList(Indexes.GOODS_GOODS_ID_HEIGHT_IDX, Indexes.GOODS_GOODS_LATEST_DELISTED_TIMESTAMP_IDX, Indexes.GOODS_GOODS_LATEST_TIMESTAMP_IDX, Indexes.GOODS_GOODS_SELLER_ID_LATEST_NAME_IDX, Indexes.GOODS_GOODS_SELLER_ID_NAME_IDX, Indexes.GOODS_GOODS_TIMESTAMP_IDX, Indexes.GOODS_PRIMARY);
     }
 
     /**
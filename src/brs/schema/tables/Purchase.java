@@ -206,7 +206,7 @@ public class Purchase extends TableImpl<PurchaseRecord> {
      */
     @Override
     public List<Index> getIndexes() {
-        return Arrays.<Index>asList(Indexes.PURCHASE_PRIMARY, Indexes.PURCHASE_PURCHASE_BUYER_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_DEADLINE_IDX, Indexes.PURCHASE_PURCHASE_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_SELLER_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_TIMESTAMP_IDX);
+        return Arrays.<Index>asList(Indexes.PURCHASE_PRIMARY, Indexes.PURCHASE_PURCHASE_BUYER_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_BUYER_ID_LATEST_TIMESTAMP_IDX, Indexes.PURCHASE_PURCHASE_DEADLINE_IDX, Indexes.PURCHASE_PURCHASE_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_LATEST_TIMESTAMP_IDX, Indexes.PURCHASE_PURCHASE_SELLER_ID_HEIGHT_IDX, Indexes.PURCHASE_PURCHASE_SELLER_ID_LATEST_TIMESTAMP_IDX, Indexes.PURCHASE_PURCHASE_SELLER_ID_PENDING_LATEST_IDX, Indexes.PURCHASE_PURCHASE_TIMESTAMP_IDX);
     }
 
     /**
@@ -16,7 +16,9 @@ public interface AliasService {
 
   long getAliasCount();
 
-  BurstIterator<Alias> getAliasesByOwner(long accountId, int from, int to);
+  BurstIterator<Alias> getAliasesByOwner(long accountId, int timestamp, int from, int to);
+
+  BurstIterator<Alias> getAliasesByPrefix(String prefix, int from, int to);
 
   void addOrUpdateAlias(Transaction transaction, Attachment.MessagingAliasAssignment attachment);
 
@@ -21,21 +21,19 @@ public interface DGSGoodsStoreService {
 
   Goods getGoods(long goodsId);
 
-  BurstIterator<Goods> getAllGoods(int from, int to);
-
-  BurstIterator<Goods> getGoodsInStock(int from, int to);
-
-  BurstIterator<Goods> getSellerGoods(long sellerId, boolean inStockOnly, int from, int to);
-
-  BurstIterator<Purchase> getAllPurchases(int from, int to);
-
-  BurstIterator<Purchase> getSellerPurchases(long sellerId, int from, int to);
-
-  BurstIterator<Purchase> getBuyerPurchases(long buyerId, int from, int to);
-
-  BurstIterator<Purchase> getSellerBuyerPurchases(long sellerId, long buyerId, int from, int to);
-
-  BurstIterator<Purchase> getPendingSellerPurchases(long sellerId, int from, int to);
+  /**
+   * @param sellerId 0 for goods of all sellers
+   * @param after the goods the returned ones follow in the listing, null to start at the beginning
+   */
+  BurstIterator<Goods> getGoods(long sellerId, boolean inStockOnly, Goods after, int from, int to);
+
+  /**
+   * @param sellerId 0 for purchases from all sellers
+   * @param buyerId 0 for purchases of all buyers
+   * @param pending whether the purchases have to be pending or delivered, null for both
+   * @param after the purchase the returned ones follow in the listing, null to start at the beginning
+   */
+  BurstIterator<Purchase> getPurchases(long sellerId, long buyerId, Boolean pending, Purchase after, int from, int to);
 
   Purchase getPurchase(long purchaseId);
 
@@ -156,12 +156,13 @@ public class AccountServiceImpl implements AccountService {
     accountAsset = accountAssetTable.get(newKey);
     long assetBalance = accountAsset == null ? 0 : accountAsset.getQuantityQNT();
     assetBalance = Convert.safeAdd(assetBalance, quantityQNT);
-    if (accountAsset == null) {
+    boolean wasHeld = accountAsset != null;
+    if (! wasHeld) {
       accountAsset = new AccountAsset(newKey, account.getId(), assetId, assetBalance, 0);
     } else {
       accountAsset.setQuantityQNT(assetBalance);
     }
-    saveAccountAsset(accountAsset);
+    saveAccountAsset(accountAsset, wasHeld);
     listeners.notify(account, Event.ASSET_BALANCE);
     assetListeners.notify(accountAsset, Event.ASSET_BALANCE);
   }
@@ -176,12 +177,13 @@ public class AccountServiceImpl implements AccountService {
     accountAsset = accountAssetTable.get(newKey);
     long unconfirmedAssetBalance = accountAsset == null ? 0 : accountAsset.getUnconfirmedQuantityQNT();
     unconfirmedAssetBalance = Convert.safeAdd(unconfirmedAssetBalance, quantityQNT);
-    if (accountAsset == null) {
+    boolean wasHeld = accountAsset != null;
+    if (! wasHeld) {
       accountAsset = new AccountAsset(newKey, account.getId(), assetId, 0, unconfirmedAssetBalance);
     } else {
       accountAsset.setUnconfirmedQuantityQNT(unconfirmedAssetBalance);
     }
-    saveAccountAsset(accountAsset);
+    saveAccountAsset(accountAsset, wasHeld);
     listeners.notify(account, Event.UNCONFIRMED_ASSET_BALANCE);
     assetListeners.notify(accountAsset, Event.UNCONFIRMED_ASSET_BALANCE);
   }
@@ -198,13 +200,14 @@ public class AccountServiceImpl implements AccountService {
     assetBalance = Convert.safeAdd(assetBalance, quantityQNT);
     long unconfirmedAssetBalance = accountAsset == null ? 0 : accountAsset.getUnconfirmedQuantityQNT();
     unconfirmedAssetBalance = Convert.safeAdd(unconfirmedAssetBalance, quantityQNT);
-    if (accountAsset == null) {
+    boolean wasHeld = accountAsset != null;
+    if (! wasHeld) {
       accountAsset = new AccountAsset(newKey, account.getId(), assetId, assetBalance, unconfirmedAssetBalance);
     } else {
       accountAsset.setQuantityQNT(assetBalance);
       accountAsset.setUnconfirmedQuantityQNT(unconfirmedAssetBalance);
     }
-    saveAccountAsset(accountAsset);
+    saveAccountAsset(accountAsset, wasHeld);
     listeners.notify(account, Event.ASSET_BALANCE);
     listeners.notify(account, Event.UNCONFIRMED_ASSET_BALANCE);
     assetListeners.notify(accountAsset, Event.ASSET_BALANCE);
@@ -276,12 +279,8 @@ public class AccountServiceImpl implements AccountService {
   }
 
 
-  private void saveAccountAsset(AccountAsset accountAsset) {
+  private void saveAccountAsset(AccountAsset accountAsset, boolean wasHeld) {
     accountAsset.checkBalance();
-    if (accountAsset.getQuantityQNT() > 0 || accountAsset.getUnconfirmedQuantityQNT() > 0) {
-      accountAssetTable.insert(accountAsset);
-    } else {
-      accountAssetTable.delete(accountAsset);
-    }
+    accountStore.saveAccountAsset(accountAsset, wasHeld);
   }
 }
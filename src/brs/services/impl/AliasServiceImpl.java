@@ -45,8 +45,13 @@ public class AliasServiceImpl implements AliasService {
   }
 
   @Override
-  public BurstIterator<Alias> getAliasesByOwner(long accountId, int from, int to) {
-    return aliasStore.getAliasesByOwner(accountId, from, to);
+  public BurstIterator<Alias> getAliasesByOwner(long accountId, int timestamp, int from, int to) {
+    return aliasStore.getAliasesByOwner(accountId, timestamp, from, to);
+  }
+
+  @Override
+  public BurstIterator<Alias> getAliasesByPrefix(String prefix, int from, int to) {
+    return aliasStore.getAliasesByPrefix(prefix, from, to);
   }
 
   @Override
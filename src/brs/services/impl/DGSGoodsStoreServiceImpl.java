@@ -79,43 +79,13 @@ public class DGSGoodsStoreServiceImpl implements DGSGoodsStoreService {
   }
 
   @Override
-  public BurstIterator<Goods> getAllGoods(int from, int to) {
-    return goodsTable.getAll(from, to);
+  public BurstIterator<Goods> getGoods(long sellerId, boolean inStockOnly, Goods after, int from, int to) {
+    return digitalGoodsStoreStore.getGoods(sellerId, inStockOnly, after, from, to);
   }
 
   @Override
-  public BurstIterator<Goods> getGoodsInStock(int from, int to) {
-    return digitalGoodsStoreStore.getGoodsInStock(from, to);
-  }
-
-  @Override
-  public BurstIterator<Goods> getSellerGoods(final long sellerId, final boolean inStockOnly, int from, int to) {
-    return digitalGoodsStoreStore.getSellerGoods(sellerId, inStockOnly, from, to);
-  }
-
-  @Override
-  public BurstIterator<Purchase> getAllPurchases(int from, int to) {
-    return purchaseTable.getAll(from, to);
-  }
-
-  @Override
-  public BurstIterator<Purchase> getSellerPurchases(long sellerId, int from, int to) {
-    return digitalGoodsStoreStore.getSellerPurchases(sellerId, from, to);
-  }
-
-  @Override
-  public BurstIterator<Purchase> getBuyerPurchases(long buyerId, int from, int to) {
-    return digitalGoodsStoreStore.getBuyerPurchases(buyerId, from, to);
-  }
-
-  @Override
-  public BurstIterator<Purchase> getSellerBuyerPurchases(final long sellerId, final long buyerId, int from, int to) {
-    return digitalGoodsStoreStore.getSellerBuyerPurchases(sellerId, buyerId, from, to);
-  }
-
-  @Override
-  public BurstIterator<Purchase> getPendingSellerPurchases(final long sellerId, int from, int to) {
-    return digitalGoodsStoreStore.getPendingSellerPurchases(sellerId, from, to);
+  public BurstIterator<Purchase> getPurchases(long sellerId, long buyerId, Boolean pending, Purchase after, int from, int to) {
+    return digitalGoodsStoreStore.getPurchases(sellerId, buyerId, pending, after, from, to);
   }
 
   @Override
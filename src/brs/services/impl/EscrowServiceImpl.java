@@ -1,7 +1,5 @@
 package brs.services.impl;
 
-import static brs.schema.Tables.ESCROW;
-
 import brs.Account;
 import brs.Alias;
 import brs.Attachment;
@@ -28,7 +26,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ConcurrentSkipListSet;
-import org.jooq.Condition;
 
 public class EscrowServiceImpl implements EscrowService {
 
@@ -189,10 +186,6 @@ public class EscrowServiceImpl implements EscrowService {
     return DecisionType.UNDECIDED;
   }
 
-  private static Condition getUpdateOnBlockClause(final int timestamp) {
-    return ESCROW.DEADLINE.lt(timestamp);
-  }
-
 
   private final ConcurrentSkipListSet<Long> updatedEscrowIds = new ConcurrentSkipListSet<>();
 
@@ -200,10 +193,7 @@ public class EscrowServiceImpl implements EscrowService {
   public void updateOnBlock(Block block, int blockchainHeight) {
     resultTransactions.clear();
 
-    BurstIterator<Escrow> deadlineEscrows = escrowTable.getManyBy(getUpdateOnBlockClause(block.getTimestamp()), 0, -1);
-    while(deadlineEscrows.hasNext()) {
-      updatedEscrowIds.add(deadlineEscrows.next().getId());
-    }
+    updatedEscrowIds.addAll(escrowStore.getEscrowIdsWithDeadlineBefore(block.getTimestamp()));
 
     if (updatedEscrowIds.size() > 0) {
       for (Long escrowId : updatedEscrowIds) {
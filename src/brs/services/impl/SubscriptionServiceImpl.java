@@ -111,10 +111,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
   @Override
   public long calculateFees(int timestamp) {
     long totalFeeNQT = 0;
-    BurstIterator<Subscription> updateSubscriptions = subscriptionStore.getUpdateSubscriptions(timestamp);
     List<Subscription> appliedUnconfirmedSubscriptions = new ArrayList<>();
-    while (updateSubscriptions.hasNext()) {
-      Subscription subscription = updateSubscriptions.next();
+    for (Subscription subscription : subscriptionStore.getUpdateSubscriptions(timestamp)) {
       if (removeSubscriptions.contains(subscription.getId())) {
         continue;
       }
@@ -145,9 +143,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
   public long applyUnconfirmed(int timestamp) {
     appliedSubscriptions.clear();
     long totalFees = 0;
-    BurstIterator<Subscription> updateSubscriptions = subscriptionStore.getUpdateSubscriptions(timestamp);
-    while (updateSubscriptions.hasNext()) {
-      Subscription subscription = updateSubscriptions.next();
+    for (Subscription subscription : subscriptionStore.getUpdateSubscriptions(timestamp)) {
       if (removeSubscriptions.contains(subscription.getId())) {
         continue;
       }
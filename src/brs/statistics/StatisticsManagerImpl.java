@@ -1,8 +1,8 @@
 package brs.statistics;
 
 import brs.services.TimeService;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +16,7 @@ public class StatisticsManagerImpl {
   private int addedBlockCount;
   private int firstBlockAdded;
 
-  private Map<String, CacheStatisticsOverview> cacheStatistics = new HashMap<>();
+  private Map<String, CacheStatisticsOverview> cacheStatistics = new ConcurrentHashMap<>();
 
   public StatisticsManagerImpl(TimeService timeService) {
     this.timeService = timeService;
@@ -31,11 +31,7 @@ public class StatisticsManagerImpl {
   }
 
   private CacheStatisticsOverview getCacheStatisticsOverview(String cacheName) {
-    if(! this.cacheStatistics.containsKey(cacheName)) {
-      this.cacheStatistics.put(cacheName, new CacheStatisticsOverview(cacheName));
-    }
-
-    return cacheStatistics.get(cacheName);
+    return cacheStatistics.computeIfAbsent(cacheName, CacheStatisticsOverview::new);
   }
 
   public void blockAdded() {
@@ -67,8 +63,8 @@ public class StatisticsManagerImpl {
     }
 
     private String getCacheInfoAndReset() {
-      final Float hitRatio = (cacheHits + cacheMisses) > 0 ? (float) cacheHits / (cacheHits + cacheMisses) : null;
-      final Float totalHitRatio = (totalCacheHits + totalCacheMisses) > 0 ? (float) totalCacheHits / (totalCacheHits + totalCacheMisses) : null;
+      final float hitRatio = (cacheHits + cacheMisses) > 0 ? (float) cacheHits / (cacheHits + cacheMisses) : 0;
+      final float totalHitRatio = (totalCacheHits + totalCacheMisses) > 0 ? (float) totalCacheHits / (totalCacheHits + totalCacheMisses) : 0;
 
       cacheHits = 0;
       cacheMisses = 0;
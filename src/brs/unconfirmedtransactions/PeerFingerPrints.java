@@ -0,0 +1,77 @@
+package brs.unconfirmedtransactions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitset of the peer slots that already know about an unconfirmed transaction, lock-free except for growing and
+ * clearing.
+ */
+class PeerFingerPrints {
+
+  private volatile AtomicLongArray words = new AtomicLongArray(1);
+
+  boolean contains(int slot) {
+    final AtomicLongArray current = words;
+    final int index = slot >>> 6;
+
+    return index < current.length() && (current.get(index) & (1L << slot)) != 0;
+  }
+
+  void mark(int slot) {
+    final int index = slot >>> 6;
+    final long bit = 1L << slot;
+
+    AtomicLongArray current;
+    do {
+      current = ensureCapacity(index);
+      current.accumulateAndGet(index, bit, (word, b) -> word | b);
+      // when the array got replaced meanwhile, the copy might have missed our bit
+    } while (current != words);
+  }
+
+  /**
+   * Clears the slot of a peer that is gone, before the slot is handed to another peer. Excludes growing, so the bit
+   * cannot survive in a copy of the words.
+   */
+  void clear(int slot) {
+    final int index = slot >>> 6;
+    final long mask = ~(1L << slot);
+
+    synchronized (this) {
+      final AtomicLongArray current = words;
+      if (index < current.length()) {
+        current.accumulateAndGet(index, mask, (word, m) -> word & m);
+      }
+    }
+  }
+
+  private AtomicLongArray ensureCapacity(int index) {
+    final AtomicLongArray current = words;
+
+    if (index < current.length()) {
+      return current;
+    }
+
+    synchronized (this) {
+      final AtomicLongArray old = words;
+      if (index >= old.length()) {
+        final AtomicLongArray grown = new AtomicLongArray(index + 1);
+
+        for (int i = 0; i < old.length(); i++) {
+          grown.set(i, old.get(i));
+        }
+
+        words = grown;
+
+        // marks which reached the old words after they were copied, but checked them before they were replaced.
+        // Clears hold the lock, so whatever is set in the old words is still meant to be set.
+        for (int i = 0; i < old.length(); i++) {
+          grown.accumulateAndGet(i, old.get(i), (word, bits) -> word | bits);
+        }
+      }
+
+      return words;
+    }
+  }
+
+}
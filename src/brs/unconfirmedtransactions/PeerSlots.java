@@ -0,0 +1,53 @@
+package brs.unconfirmedtransactions;
+
+import brs.peer.Peer;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out small, dense integer slots to peers, so what a peer knows about can be kept in a bitset.
+ * Slots of removed peers get reused for new ones.
+ */
+class PeerSlots {
+
+  private final ConcurrentHashMap<Peer, Integer> slots = new ConcurrentHashMap<>();
+
+  private final BitSet usedSlots = new BitSet();
+
+  int slotOf(Peer peer) {
+    final Integer slot = slots.get(peer);
+
+    if (slot != null) {
+      return slot;
+    }
+
+    synchronized (usedSlots) {
+      return slots.computeIfAbsent(peer, p -> {
+        final int freeSlot = usedSlots.nextClearBit(0);
+        usedSlots.set(freeSlot);
+        return freeSlot;
+      });
+    }
+  }
+
+  /**
+   * @return The slot the peer occupied, or null if it never got one. The slot only becomes available again after {@link #free(int)}
+   */
+  Integer release(Peer peer) {
+    return slots.remove(peer);
+  }
+
+  void free(int slot) {
+    synchronized (usedSlots) {
+      usedSlots.clear(slot);
+    }
+  }
+
+  void clear() {
+    synchronized (usedSlots) {
+      slots.clear();
+      usedSlots.clear();
+    }
+  }
+
+}
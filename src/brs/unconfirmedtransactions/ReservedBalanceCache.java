@@ -7,6 +7,7 @@ import brs.Transaction;
 import brs.db.store.AccountStore;
 import brs.util.Convert;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import org.slf4j.Logger;
@@ -20,10 +21,13 @@ class ReservedBalanceCache {
 
   private final HashMap<Long, Long> reservedBalanceCache;
 
+  private final HashMap<Long, List<Transaction>> reservingTransactions;
+
   public ReservedBalanceCache(AccountStore accountStore) {
     this.accountStore = accountStore;
 
     this.reservedBalanceCache = new HashMap<>();
+    this.reservingTransactions = new HashMap<>();
   }
 
   void reserveBalanceAndPut(Transaction transaction) throws BurstException.ValidationException {
@@ -51,9 +55,21 @@ class ReservedBalanceCache {
     }
 
     reservedBalanceCache.put(transaction.getSenderId(), amountNQT);
+    reservingTransactions.computeIfAbsent(transaction.getSenderId(), senderId -> new ArrayList<>()).add(transaction);
   }
 
   void refundBalance(Transaction transaction) {
+    final List<Transaction> senderTransactions = reservingTransactions.get(transaction.getSenderId());
+
+    // only transactions which actually hold a reservation can give it back
+    if (senderTransactions == null || ! senderTransactions.remove(transaction)) {
+      return;
+    }
+
+    if (senderTransactions.isEmpty()) {
+      reservingTransactions.remove(transaction.getSenderId());
+    }
+
     Long amountNQT = Convert.safeSubtract(
         reservedBalanceCache.getOrDefault(transaction.getSenderId(), 0L),
         transaction.getType().calculateTotalAmountNQT(transaction)
@@ -66,6 +82,10 @@ class ReservedBalanceCache {
     }
   }
 
+  long getReservedBalanceNQT(long accountId) {
+    return reservedBalanceCache.getOrDefault(accountId, 0L);
+  }
+
   public List<Transaction> rebuild(List<Transaction> transactions) {
     clear();
 
@@ -82,8 +102,36 @@ class ReservedBalanceCache {
     return insufficientFundsTransactions;
   }
 
+  /**
+   * Recalculates the reservations of the given senders only, leaving all other senders untouched
+   * @return The transactions of those senders which can no longer be covered by their balance
+   */
+  public List<Transaction> rebuild(Collection<Long> senderIds) {
+    final List<Transaction> insufficientFundsTransactions = new ArrayList<>();
+
+    for (Long senderId : senderIds) {
+      final List<Transaction> senderTransactions = reservingTransactions.remove(senderId);
+      reservedBalanceCache.remove(senderId);
+
+      if (senderTransactions == null) {
+        continue;
+      }
+
+      for (Transaction t : senderTransactions) {
+        try {
+          this.reserveBalanceAndPut(t);
+        } catch (ValidationException e) {
+          insufficientFundsTransactions.add(t);
+        }
+      }
+    }
+
+    return insufficientFundsTransactions;
+  }
+
   public void clear() {
     reservedBalanceCache.clear();
+    reservingTransactions.clear();
   }
 
 }
@@ -0,0 +1,115 @@
+package brs.unconfirmedtransactions;
+
+import brs.Attachment;
+import brs.Transaction;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Remembers which pieces of derived state (accounts, aliases, assets, orders, goods, purchases, escrows and subscriptions)
+ * the validity of every unconfirmed transaction depends on, so only the transactions affected by a block need revalidation.
+ */
+class StateDependencyIndex {
+
+  private final HashMap<String, Set<Transaction>> dependentTransactions = new HashMap<>();
+
+  void add(Transaction transaction) {
+    for (String stateKey : stateKeysOf(transaction)) {
+      dependentTransactions.computeIfAbsent(stateKey, k -> new HashSet<>()).add(transaction);
+    }
+  }
+
+  void remove(Transaction transaction) {
+    for (String stateKey : stateKeysOf(transaction)) {
+      final Set<Transaction> dependents = dependentTransactions.get(stateKey);
+
+      if (dependents != null) {
+        dependents.remove(transaction);
+
+        if (dependents.isEmpty()) {
+          dependentTransactions.remove(stateKey);
+        }
+      }
+    }
+  }
+
+  Set<Transaction> getDependents(Collection<Transaction> confirmedTransactions, Collection<Long> accountIds) {
+    final Set<String> changedStateKeys = new HashSet<>();
+
+    for (Transaction transaction : confirmedTransactions) {
+      changedStateKeys.addAll(stateKeysOf(transaction));
+    }
+
+    for (Long accountId : accountIds) {
+      changedStateKeys.add(accountKey(accountId));
+    }
+
+    final Set<Transaction> result = new HashSet<>();
+
+    for (String stateKey : changedStateKeys) {
+      result.addAll(dependentTransactions.getOrDefault(stateKey, Collections.emptySet()));
+    }
+
+    return result;
+  }
+
+  void clear() {
+    dependentTransactions.clear();
+  }
+
+  static Set<String> stateKeysOf(Transaction transaction) {
+    final Set<String> stateKeys = new HashSet<>();
+
+    if (transaction.getSenderId() != 0) {
+      stateKeys.add(accountKey(transaction.getSenderId()));
+    }
+
+    if (transaction.getRecipientId() != 0) {
+      stateKeys.add(accountKey(transaction.getRecipientId()));
+    }
+
+    final Attachment attachment = transaction.getAttachment();
+
+    if (attachment instanceof Attachment.MessagingAliasAssignment) {
+      stateKeys.add("alias:" + ((Attachment.MessagingAliasAssignment) attachment).getAliasName().toLowerCase());
+    } else if (attachment instanceof Attachment.MessagingAliasSell) {
+      stateKeys.add("alias:" + ((Attachment.MessagingAliasSell) attachment).getAliasName().toLowerCase());
+    } else if (attachment instanceof Attachment.MessagingAliasBuy) {
+      stateKeys.add("alias:" + ((Attachment.MessagingAliasBuy) attachment).getAliasName().toLowerCase());
+    } else if (attachment instanceof Attachment.ColoredCoinsAssetTransfer) {
+      stateKeys.add("asset:" + ((Attachment.ColoredCoinsAssetTransfer) attachment).getAssetId());
+    } else if (attachment instanceof Attachment.ColoredCoinsOrderPlacement) {
+      stateKeys.add("asset:" + ((Attachment.ColoredCoinsOrderPlacement) attachment).getAssetId());
+    } else if (attachment instanceof Attachment.ColoredCoinsOrderCancellation) {
+      stateKeys.add("order:" + ((Attachment.ColoredCoinsOrderCancellation) attachment).getOrderId());
+    } else if (attachment instanceof Attachment.DigitalGoodsDelisting) {
+      stateKeys.add("goods:" + ((Attachment.DigitalGoodsDelisting) attachment).getGoodsId());
+    } else if (attachment instanceof Attachment.DigitalGoodsPriceChange) {
+      stateKeys.add("goods:" + ((Attachment.DigitalGoodsPriceChange) attachment).getGoodsId());
+    } else if (attachment instanceof Attachment.DigitalGoodsQuantityChange) {
+      stateKeys.add("goods:" + ((Attachment.DigitalGoodsQuantityChange) attachment).getGoodsId());
+    } else if (attachment instanceof Attachment.DigitalGoodsPurchase) {
+      stateKeys.add("goods:" + ((Attachment.DigitalGoodsPurchase) attachment).getGoodsId());
+    } else if (attachment instanceof Attachment.DigitalGoodsDelivery) {
+      stateKeys.add("purchase:" + ((Attachment.DigitalGoodsDelivery) attachment).getPurchaseId());
+    } else if (attachment instanceof Attachment.DigitalGoodsFeedback) {
+      stateKeys.add("purchase:" + ((Attachment.DigitalGoodsFeedback) attachment).getPurchaseId());
+    } else if (attachment instanceof Attachment.DigitalGoodsRefund) {
+      stateKeys.add("purchase:" + ((Attachment.DigitalGoodsRefund) attachment).getPurchaseId());
+    } else if (attachment instanceof Attachment.AdvancedPaymentEscrowSign) {
+      stateKeys.add("escrow:" + ((Attachment.AdvancedPaymentEscrowSign) attachment).getEscrowId());
+    } else if (attachment instanceof Attachment.AdvancedPaymentSubscriptionCancel) {
+      stateKeys.add("subscription:" + ((Attachment.AdvancedPaymentSubscriptionCancel) attachment).getSubscriptionId());
+    }
+
+    return stateKeys;
+  }
+
+  private static String accountKey(long accountId) {
+    return "account:" + accountId;
+  }
+
+}
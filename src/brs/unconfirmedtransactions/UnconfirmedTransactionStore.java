@@ -3,6 +3,7 @@ package brs.unconfirmedtransactions;
 import brs.BurstException;
 import brs.Transaction;
 import brs.peer.Peer;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -28,8 +29,31 @@ public interface UnconfirmedTransactionStore {
    */
   void resetAccountBalances();
 
+  /**
+   * Review which transactions of the given senders are still eligible to stay
+   * @param accountIds The senders whose balances might have changed
+   */
+  void resetAccountBalances(Collection<Long> accountIds);
+
+  /**
+   * @param confirmedTransactions The transactions of a block that just got pushed
+   * @param accountIds The accounts whose balances changed while applying that block
+   * @return The unconfirmed transactions whose validity depends on state touched by the block
+   */
+  List<Transaction> getAllAffectedBy(List<Transaction> confirmedTransactions, Collection<Long> accountIds);
+
+  /**
+   * @return The amount of the given account that is held back by its unconfirmed transactions
+   */
+  long getReservedBalanceNQT(long accountId);
+
   void markFingerPrintsOf(Peer peer, List<Transaction> transactions);
 
+  /**
+   * Forget everything known about the given peer, e.g. because it disconnected
+   */
+  void removePeer(Peer peer);
+
   void removeForgedTransactions(List<Transaction> transactions);
 
   int getAmount();
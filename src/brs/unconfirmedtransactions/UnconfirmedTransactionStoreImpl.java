@@ -11,13 +11,14 @@ import brs.services.TimeService;
 import brs.transactionduplicates.TransactionDuplicatesCheckerImpl;
 import brs.transactionduplicates.TransactionDuplicationResult;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -33,8 +34,10 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
   private final TimeService timeService;
   private final ReservedBalanceCache reservedBalanceCache;
   private final TransactionDuplicatesCheckerImpl transactionDuplicatesChecker = new TransactionDuplicatesCheckerImpl();
+  private final StateDependencyIndex stateDependencyIndex = new StateDependencyIndex();
 
-  private HashMap<Transaction, HashSet<Peer>> fingerPrintsOverview = new HashMap<>();
+  private final ConcurrentHashMap<Transaction, PeerFingerPrints> fingerPrintsOverview = new ConcurrentHashMap<>();
+  private final PeerSlots peerSlots = new PeerSlots();
 
   private final SortedMap<Long, List<Transaction>> internalStore;
 
@@ -83,7 +86,7 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
       if (transactionIsCurrentlyInCache(transaction)) {
         if (peer != null) {
           logger.info("Transaction {}: Added fingerprint of {}", transaction.getId(), peer.getPeerAddress());
-          fingerPrintsOverview.get(transaction).add(peer);
+          markFingerPrintOf(peer, transaction);
         }
       } else if (transactionCanBeAddedToCache(transaction)) {
         this.reservedBalanceCache.reserveBalanceAndPut(transaction);
@@ -96,7 +99,6 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
           if (duplicatedTransaction != null && duplicatedTransaction != transaction) {
             logger.info("Transaction {}: Adding more expensive duplicate transaction", transaction.getId());
             removeTransaction(duplicationInformation.getTransaction());
-            this.reservedBalanceCache.refundBalance(duplicationInformation.getTransaction());
 
             addTransaction(transaction, peer);
 
@@ -105,6 +107,7 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
             }
           } else {
             logger.info("Transaction {}: Will not add a cheaper duplicate UT", transaction.getId());
+            this.reservedBalanceCache.refundBalance(transaction);
           }
         } else {
           addTransaction(transaction, peer);
@@ -159,27 +162,27 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
 
   @Override
   public List<Transaction> getAllFor(Peer peer) {
-    synchronized (internalStore) {
-      final List<Transaction> untouchedTransactions = fingerPrintsOverview.entrySet().stream()
-          .filter(e -> !e.getValue().contains(peer))
-          .map(e -> e.getKey()).collect(Collectors.toList());
-
-      final ArrayList<Transaction> resultList = new ArrayList<>();
+    final int peerSlot = peerSlots.slotOf(peer);
 
-      long roomLeft = this.maxRawUTBytesToSend;
+    final ArrayList<Transaction> resultList = new ArrayList<>();
 
-      for (Transaction t : untouchedTransactions) {
-        roomLeft -= t.getSize();
+    long roomLeft = this.maxRawUTBytesToSend;
 
-        if (roomLeft > 0) {
-          resultList.add(t);
-        } else {
-          break;
-        }
+    for (Map.Entry<Transaction, PeerFingerPrints> e : fingerPrintsOverview.entrySet()) {
+      if (e.getValue().contains(peerSlot)) {
+        continue;
       }
 
-      return resultList;
+      roomLeft -= e.getKey().getSize();
+
+      if (roomLeft > 0) {
+        resultList.add(e.getKey());
+      } else {
+        break;
+      }
     }
+
+    return resultList;
   }
 
   @Override
@@ -198,8 +201,11 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
       logger.info("Clearing UTStore");
       totalSize = 0;
       internalStore.clear();
+      fingerPrintsOverview.clear();
+      peerSlots.clear();
       reservedBalanceCache.clear();
       transactionDuplicatesChecker.clear();
+      stateDependencyIndex.clear();
     }
   }
 
@@ -213,16 +219,49 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
   }
 
   @Override
-  public void markFingerPrintsOf(Peer peer, List<Transaction> transactions) {
+  public void resetAccountBalances(Collection<Long> accountIds) {
     synchronized (internalStore) {
-      for (Transaction transaction : transactions) {
-        if (fingerPrintsOverview.containsKey(transaction)) {
-          fingerPrintsOverview.get(transaction).add(peer);
-        }
+      for(Transaction insufficientFundsTransactions: reservedBalanceCache.rebuild(accountIds)) {
+        this.removeTransaction(insufficientFundsTransactions);
       }
     }
   }
 
+  @Override
+  public List<Transaction> getAllAffectedBy(List<Transaction> confirmedTransactions, Collection<Long> accountIds) {
+    synchronized (internalStore) {
+      return new ArrayList<>(stateDependencyIndex.getDependents(confirmedTransactions, accountIds));
+    }
+  }
+
+  @Override
+  public long getReservedBalanceNQT(long accountId) {
+    synchronized (internalStore) {
+      return reservedBalanceCache.getReservedBalanceNQT(accountId);
+    }
+  }
+
+  @Override
+  public void markFingerPrintsOf(Peer peer, List<Transaction> transactions) {
+    if (peer == null) {
+      return;
+    }
+
+    for (Transaction transaction : transactions) {
+      markFingerPrintOf(peer, transaction);
+    }
+  }
+
+  @Override
+  public void removePeer(Peer peer) {
+    final Integer peerSlot = peerSlots.release(peer);
+
+    if (peerSlot != null) {
+      fingerPrintsOverview.values().forEach(fingerPrints -> fingerPrints.clear(peerSlot));
+      peerSlots.free(peerSlot);
+    }
+  }
+
   @Override
   public void removeForgedTransactions(List<Transaction> transactions) {
     synchronized (internalStore) {
@@ -293,13 +332,16 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
     final List<Transaction> slot = getOrCreateAmountSlotForTransaction(transaction);
     slot.add(transaction);
     totalSize++;
+    stateDependencyIndex.add(transaction);
 
-    fingerPrintsOverview.put(transaction, new HashSet<>());
+    final PeerFingerPrints fingerPrints = new PeerFingerPrints();
 
     if (peer != null) {
-      fingerPrintsOverview.get(transaction).add(peer);
+      fingerPrints.mark(peerSlots.slotOf(peer));
     }
 
+    fingerPrintsOverview.put(transaction, fingerPrints);
+
     logger.debug("Adding Transaction {} from Peer {}", transaction.getId(), (peer == null ? "Ourself" : peer.getPeerAddress()));
 
     if (!StringUtils.isEmpty(transaction.getReferencedTransactionFullHash())) {
@@ -318,6 +360,14 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
   }
 
 
+  private void markFingerPrintOf(Peer peer, Transaction transaction) {
+    final PeerFingerPrints fingerPrints = fingerPrintsOverview.get(transaction);
+
+    if (fingerPrints != null) {
+      fingerPrints.mark(peerSlots.slotOf(peer));
+    }
+  }
+
   private long amountSlotForTransaction(Transaction transaction) {
     return transaction.getFeeNQT() / Constants.FEE_QUANT;
   }
@@ -328,7 +378,6 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
         .findFirst();
 
     if (cheapestFirstToExpireTransaction.isPresent()) {
-      reservedBalanceCache.refundBalance(cheapestFirstToExpireTransaction.get());
       removeTransaction(cheapestFirstToExpireTransaction.get());
     }
   }
@@ -341,6 +390,8 @@ public class UnconfirmedTransactionStoreImpl implements UnconfirmedTransactionSt
     fingerPrintsOverview.remove(transaction);
     amountSlot.remove(transaction);
     totalSize--;
+    reservedBalanceCache.refundBalance(transaction);
+    stateDependencyIndex.remove(transaction);
     transactionDuplicatesChecker.removeTransaction(transaction);
 
     if (!StringUtils.isEmpty(transaction.getReferencedTransactionFullHash())) {
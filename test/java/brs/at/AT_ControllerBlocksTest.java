@@ -0,0 +1,155 @@
+package brs.at;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import brs.Burst;
+import brs.Constants;
+import brs.Transaction;
+import it.common.AbstractDbIT;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.json.simple.parser.ParseException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ATs reading the transactions and blocks of a chain pushed from the fixtures, run one after another and in parallel.
+ */
+public class AT_ControllerBlocksTest extends AbstractDbIT {
+
+  private static final long SENT_NQT = Constants.ONE_BURST;
+
+  private int height;
+  private Set<Long> atIds;
+
+  @Before
+  public void pushReality() throws IOException, ParseException, InterruptedException {
+    pushBlocks(getReality("reality2.json"));
+    height = Burst.getBlockchain().getHeight();
+
+    // ATs at the accounts the fixture pays, which find its transactions, and one nobody pays
+    atIds = new LinkedHashSet<>();
+    for (int h = 1; h <= height; h++) {
+      for (Transaction transaction : Burst.getBlockchain().getBlockAtHeight(h).getTransactions()) {
+        if (transaction.getRecipientId() != 0) {
+          atIds.add(transaction.getRecipientId());
+        }
+      }
+    }
+    atIds.add(7_985_001L);
+  }
+
+  @After
+  public void shutdownATThreads() {
+    AT_Controller.shutdown();
+  }
+
+  @Test
+  public void runATs_parallelRunMatchesSerialRunOverTheBlocks() throws NoSuchAlgorithmException {
+    final List<AT_Machine_State> serial = createStates();
+    final List<AT_Machine_State> parallel = createStates();
+    final MessageDigest digest = MessageDigest.getInstance("MD5");
+    int found = 0;
+
+    for (int h = 1; h <= height + 1; h++) {
+      AT_Controller.init(1);
+      final List<Exception> serialFailures = AT_Controller.runATs(prepare(serial, h));
+      AT_Controller.init(4);
+      final List<Exception> parallelFailures = AT_Controller.runATs(prepare(parallel, h));
+
+      for (int i = 0; i < serial.size(); i++) {
+        final String at = "AT " + i + " at height " + h;
+        assertNull(at, serialFailures.get(i));
+        assertNull(at, parallelFailures.get(i));
+        final AT_Machine_State expected = serial.get(i);
+        final AT_Machine_State actual = parallel.get(i);
+        assertArrayEquals(at, expected.getBytes(), actual.getBytes());
+        assertArrayEquals(at, digest.digest(expected.getBytes()), digest.digest(actual.getBytes()));
+        assertEquals(at, getTransactions(expected), getTransactions(actual));
+        assertEquals(at, expected.getG_balance(), actual.getG_balance());
+        assertEquals(at, expected.getMachineState().steps, actual.getMachineState().steps);
+        found += expected.getTransactions().size();
+      }
+    }
+    // the ATs did answer the transactions of the blocks
+    assertTrue(found > 0);
+  }
+
+  private List<AT_Machine_State> createStates() {
+    final List<AT_Machine_State> states = new ArrayList<>();
+    for (long atId : atIds) {
+      states.add(new AT_Machine_State(AT_API_Helper.getByteArray(atId), new byte[8], creationBytes(), 0));
+    }
+    return states;
+  }
+
+  /**
+   * Gets the ATs ready to run at the given height, like the block generation does.
+   */
+  private static List<AT_Machine_State> prepare(List<AT_Machine_State> states, int height) {
+    for (AT_Machine_State state : states) {
+      state.setG_balance(state.getG_balance() + 1000 * Constants.ONE_BURST);
+      state.setHeight(height);
+      state.clearTransactions();
+    }
+    return states;
+  }
+
+  private static List<String> getTransactions(AT_Machine_State state) {
+    final List<String> transactions = new ArrayList<>();
+    for (AT_Transaction transaction : state.getTransactions()) {
+      transactions.add(AT_API_Helper.getLong(transaction.getRecipientId()) + " " + transaction.getAmount() + " "
+          + Arrays.toString(transaction.getMessage()));
+    }
+    return transactions;
+  }
+
+  /**
+   * Code answering every transaction received since the last one it saw with a payment and a message carrying the
+   * hash of the previous block, to the sender of the transaction.
+   */
+  private static byte[] creationBytes() {
+    final ByteBuffer code = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+    // SET @5 #SENT_NQT
+    code.put(OpCode.e_op_code_SET_VAL).putInt(5).putLong(SENT_NQT);
+    final int loop = code.position();
+    // FUN A_to_Tx_after_Timestamp $0, FUN @1 get_A1
+    code.put(OpCode.e_op_code_EXT_FUN_DAT).putShort((short) 772).putInt(0);
+    code.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 256).putInt(1);
+    // BZR $1 :done
+    final int branch = code.position();
+    code.put(OpCode.e_op_code_BZR_DAT).putInt(1).put((byte) 0);
+    // FUN @2 get_Amount_for_Tx_in_A, FUN @3 get_Timestamp_for_Tx_in_A, FUN @4 get_Type_for_Tx_in_A
+    code.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 774).putInt(2);
+    code.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 775).putInt(3);
+    code.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 773).putInt(4);
+    // FUN B_to_Address_of_Tx_in_A, FUN send_to_Address_in_B $5
+    code.put(OpCode.e_op_code_EXT_FUN).putShort((short) 778);
+    code.put(OpCode.e_op_code_EXT_FUN_DAT).putShort((short) 1026).putInt(5);
+    // FUN put_Last_Block_Hash_In_A, FUN send_A_to_Address_in_B
+    code.put(OpCode.e_op_code_EXT_FUN).putShort((short) 771);
+    code.put(OpCode.e_op_code_EXT_FUN).putShort((short) 1029);
+    // SET @0 $3, JMP :loop
+    code.put(OpCode.e_op_code_SET_DAT).putInt(0).putInt(3);
+    code.put(OpCode.e_op_code_JMP_ADR).putInt(loop);
+    final int done = code.position();
+    code.put(branch + 1 + 4, (byte) (done - branch));
+    // FUN @6 get_Block_Timestamp, FIN
+    code.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 768).putInt(6);
+    code.put(OpCode.e_op_code_FIN_IMD);
+    return AT_ControllerTest.creationBytes(code);
+  }
+
+}
@@ -0,0 +1,150 @@
+package brs.at;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import brs.Burst;
+import brs.Constants;
+import brs.fluxcapacitor.FluxCapacitor;
+import brs.fluxcapacitor.FluxInt;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Burst.class)
+public class AT_ControllerTest {
+
+  private static final int AT_COUNT = 50;
+
+  @Before
+  public void setUp() {
+    mockStatic(Burst.class);
+    final FluxCapacitor mockFluxCapacitor = mock(FluxCapacitor.class);
+    when(mockFluxCapacitor.getInt(FluxInt.MAX_PAYLOAD_LENGTH)).thenReturn(255 * 176);
+    when(Burst.getFluxCapacitor()).thenReturn(mockFluxCapacitor);
+  }
+
+  @After
+  public void tearDown() {
+    AT_Controller.shutdown();
+  }
+
+  @Test
+  public void runATs_parallelRunMatchesSerialRun() {
+    AT_Controller.init(1);
+    List<AT_Machine_State> serial = createStates();
+    List<Exception> serialFailures = AT_Controller.runATs(serial);
+
+    AT_Controller.init(4);
+    List<AT_Machine_State> parallel = createStates();
+    List<Exception> parallelFailures = AT_Controller.runATs(parallel);
+
+    assertEquals(AT_COUNT, serialFailures.size());
+    assertEquals(AT_COUNT, parallelFailures.size());
+    for (int i = 0; i < AT_COUNT; i++) {
+      assertNull(serialFailures.get(i));
+      assertNull(parallelFailures.get(i));
+      AT_Machine_State expected = serial.get(i);
+      AT_Machine_State actual = parallel.get(i);
+      assertArrayEquals(expected.getState(), actual.getState());
+      assertEquals(expected.getG_balance(), actual.getG_balance());
+      assertEquals(expected.getMachineState().steps, actual.getMachineState().steps);
+      assertEquals(expected.getMachineState().dead, actual.getMachineState().dead);
+    }
+  }
+
+  @Test
+  public void runATs_runsEveryAT() {
+    AT_Controller.init(4);
+    List<AT_Machine_State> states = createStates();
+    AT_Controller.runATs(states);
+
+    for (int i = 0; i < AT_COUNT; i++) {
+      AT_Machine_State state = states.get(i);
+      assertEquals(i % 5 == 0, state.getMachineState().dead);
+      assertTrue(state.getMachineState().steps > 0);
+    }
+  }
+
+  @Test
+  public void listCode_listsSameCodeOnce() {
+    AT_Machine_State first = new AT_Machine_State(new byte[8], new byte[8], creationBytes(1, false), 0);
+    AT_Machine_State second = new AT_Machine_State(new byte[8], new byte[8], creationBytes(2, false), 0);
+    AT_Machine_State same = new AT_Machine_State(new byte[8], new byte[8], creationBytes(1, false), 0);
+
+    assertSame(first.getProgram(), same.getProgram());
+    assertNotSame(first.getProgram(), second.getProgram());
+
+    AT_Controller.listCode(first, true, true);
+    assertEquals(first.getMachineState().jumps, first.getProgram().getJumps());
+
+    AT_Controller.listCode(same, true, true);
+    assertEquals(first.getMachineState().jumps, same.getMachineState().jumps);
+    assertEquals(0, same.getMachineState().pc);
+  }
+
+  private List<AT_Machine_State> createStates() {
+    List<AT_Machine_State> states = new ArrayList<>();
+    for (int i = 0; i < AT_COUNT; i++) {
+      byte[] id = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(i + 1).array();
+      // every fifth AT divides by zero without an error handler and dies
+      AT_Machine_State state = new AT_Machine_State(id, new byte[8], creationBytes(i, i % 5 == 0), 0);
+      state.setG_balance(Constants.ONE_BURST * (10 + 20 * i));
+      states.add(state);
+    }
+    return states;
+  }
+
+  private static byte[] creationBytes(long seed, boolean dies) {
+    ByteBuffer code = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    // SET @0 #seed
+    code.put(OpCode.e_op_code_SET_VAL).putInt(0).putLong(seed);
+    if (dies) {
+      // DIV @0 $1
+      code.put(OpCode.e_op_code_DIV_DAT).putInt(0).putInt(1);
+    }
+    int loop = code.position();
+    // INC @1, ADD @0 $1, MUL @0 $1, JMP :loop
+    code.put(OpCode.e_op_code_INC_DAT).putInt(1);
+    code.put(OpCode.e_op_code_ADD_DAT).putInt(0).putInt(1);
+    code.put(OpCode.e_op_code_MUL_DAT).putInt(0).putInt(1);
+    code.put(OpCode.e_op_code_JMP_ADR).putInt(loop);
+    return creationBytes(code);
+  }
+
+  /**
+   * @return The creation bytes of an AT of one page each, with the code up to the position of the buffer
+   */
+  static byte[] creationBytes(ByteBuffer code) {
+    int codeLength = code.position();
+
+    ByteBuffer creation = ByteBuffer.allocate(2 * 6 + 8 + 1 + codeLength + 1).order(ByteOrder.LITTLE_ENDIAN);
+    creation.putShort((short) 1); // version
+    creation.putShort((short) 0); // reserved
+    creation.putShort((short) 1); // code pages
+    creation.putShort((short) 1); // data pages
+    creation.putShort((short) 1); // call stack pages
+    creation.putShort((short) 1); // user stack pages
+    creation.putLong(0); // minimum activation amount
+    creation.put((byte) codeLength);
+    creation.put(code.array(), 0, codeLength);
+    creation.put((byte) 0); // data length
+    return creation.array();
+  }
+
+}
@@ -0,0 +1,270 @@
+package brs.at;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import brs.Burst;
+import brs.Constants;
+import brs.fluxcapacitor.FluxCapacitor;
+import brs.fluxcapacitor.FluxInt;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+/**
+ * Runs machine code with the operands and jumps of its {@link AT_Program}, and with the processor reading them from
+ * the code as before, and compares the machines after every run.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Burst.class)
+public class AT_ProgramTest {
+
+  private static final int RUNS = 4;
+
+  @Before
+  public void setUp() {
+    mockStatic(Burst.class);
+    final FluxCapacitor mockFluxCapacitor = mock(FluxCapacitor.class);
+    when(mockFluxCapacitor.getInt(FluxInt.MAX_PAYLOAD_LENGTH)).thenReturn(255 * 176);
+    when(Burst.getFluxCapacitor()).thenReturn(mockFluxCapacitor);
+  }
+
+  @Test
+  public void run_ofLoopMatchesTheProcessorReadingTheCode() {
+    final ByteBuffer code = code();
+    // SET @0 #7
+    code.put(OpCode.e_op_code_SET_VAL).putInt(0).putLong(7);
+    final int loop = code.position();
+    // INC @1, ADD @0 $1, MUL @0 $1, BNZ $1 :+6 (the next instruction), JMP :loop
+    code.put(OpCode.e_op_code_INC_DAT).putInt(1);
+    code.put(OpCode.e_op_code_ADD_DAT).putInt(0).putInt(1);
+    code.put(OpCode.e_op_code_MUL_DAT).putInt(0).putInt(1);
+    code.put(OpCode.e_op_code_BNZ_DAT).putInt(1).put((byte) 6);
+    code.put(OpCode.e_op_code_JMP_ADR).putInt(loop);
+
+    final List<AT_Machine_State> cached = runAndCompare(creationBytes(code, 1, 1));
+
+    assertFalse(cached.get(0).getMachineState().dead);
+  }
+
+  @Test
+  public void run_ofInvalidOperandsMatchesTheProcessorReadingTheCode() {
+    final ByteBuffer handled = code();
+    // ERR :handler, SET @0 #1, SET @1 $1000 (beyond the data), FIN
+    handled.put(OpCode.e_op_code_ERR_ADR).putInt(5 + 13 + 9 + 1);
+    handled.put(OpCode.e_op_code_SET_VAL).putInt(0).putLong(1);
+    handled.put(OpCode.e_op_code_SET_DAT).putInt(1).putInt(1000);
+    handled.put(OpCode.e_op_code_FIN_IMD);
+    // handler: INC @2, FUN @3 get_A1 with the address beyond the data, FIN
+    handled.put(OpCode.e_op_code_INC_DAT).putInt(2);
+    handled.put(OpCode.e_op_code_EXT_FUN_RET).putShort((short) 256).putInt(-1);
+    handled.put(OpCode.e_op_code_FIN_IMD);
+
+    final ByteBuffer unhandled = code();
+    // SET @0 #1, ADD @0 $-1
+    unhandled.put(OpCode.e_op_code_SET_VAL).putInt(0).putLong(1);
+    unhandled.put(OpCode.e_op_code_ADD_DAT).putInt(0).putInt(-1);
+
+    final ByteBuffer truncated = code();
+    // NOPs up to SET @0 with its value cut off by the end of the code page
+    while (truncated.position() < 250) {
+      truncated.put(OpCode.e_op_code_NOP);
+    }
+    truncated.put(OpCode.e_op_code_SET_VAL).putInt(0);
+
+    final List<AT_Machine_State> handledStates = runAndCompare(creationBytes(handled, 1, 1));
+    assertFalse(handledStates.get(0).getMachineState().dead);
+    assertTrue(runAndCompare(creationBytes(unhandled, 1, 1)).get(0).getMachineState().dead);
+    assertTrue(runAndCompare(creationBytes(truncated, 1, 1)).get(0).getMachineState().dead);
+  }
+
+  @Test
+  public void run_ofJumpsOutOfRangeMatchesTheProcessorReadingTheCode() {
+    final ByteBuffer beyondCode = code();
+    // SET @0 #1, JMP :300
+    beyondCode.put(OpCode.e_op_code_SET_VAL).putInt(0).putLong(1);
+    beyondCode.put(OpCode.e_op_code_JMP_ADR).putInt(300);
+
+    final ByteBuffer beforeCode = code();
+    // BZR $0 :-100
+    beforeCode.put(OpCode.e_op_code_BZR_DAT).putInt(0).put((byte) -100);
+
+    final ByteBuffer intoOperand = code();
+    // ERR :handler, JMP :1 (the operand of ERR), handler: INC @0, FIN
+    intoOperand.put(OpCode.e_op_code_ERR_ADR).putInt(10);
+    intoOperand.put(OpCode.e_op_code_JMP_ADR).putInt(1);
+    intoOperand.put(OpCode.e_op_code_INC_DAT).putInt(0);
+    intoOperand.put(OpCode.e_op_code_FIN_IMD);
+
+    assertTrue(runAndCompare(creationBytes(beyondCode, 1, 1)).get(0).getMachineState().dead);
+    assertTrue(runAndCompare(creationBytes(beforeCode, 1, 1)).get(0).getMachineState().dead);
+    assertFalse(runAndCompare(creationBytes(intoOperand, 1, 1)).get(0).getMachineState().dead);
+  }
+
+  @Test
+  public void run_ofSameCodeWithOtherSizesMatchesTheProcessorReadingTheCode() {
+    final ByteBuffer code = code();
+    // SET @40 #5 (beyond one data page), INC @40, FIN
+    code.put(OpCode.e_op_code_SET_VAL).putInt(40).putLong(5);
+    code.put(OpCode.e_op_code_INC_DAT).putInt(40);
+    code.put(OpCode.e_op_code_FIN_IMD);
+
+    final List<AT_Machine_State> onePage = runAndCompare(creationBytes(code, 1, 1));
+    final List<AT_Machine_State> twoDataPages = runAndCompare(creationBytes(code, 1, 2));
+    final List<AT_Machine_State> twoCodePages = runAndCompare(creationBytes(code, 2, 1));
+
+    assertNotSame(onePage.get(0).getProgram(), twoDataPages.get(0).getProgram());
+    assertNotSame(onePage.get(0).getProgram(), twoCodePages.get(0).getProgram());
+    assertSame(onePage.get(0).getProgram(), onePage.get(1).getProgram());
+    assertTrue(onePage.get(0).getMachineState().dead);
+    assertFalse(twoDataPages.get(0).getMachineState().dead);
+    assertTrue(twoCodePages.get(0).getMachineState().dead);
+  }
+
+  /**
+   * Runs the code several times on a machine reading the code and on two machines using the program, the second of
+   * which finds it decoded already.
+   *
+   * @return The machines run with the program
+   */
+  private static List<AT_Machine_State> runAndCompare(byte[] creationBytes) {
+    final AT_Machine_State reference = new AT_Machine_State(new byte[8], new byte[8], creationBytes, 0);
+    final List<AT_Machine_State> cached = new ArrayList<>();
+    cached.add(new AT_Machine_State(new byte[8], new byte[8], creationBytes, 0));
+    cached.add(new AT_Machine_State(new byte[8], new byte[8], creationBytes, 0));
+
+    for (int run = 0; run < RUNS; run++) {
+      reference.setG_balance(reference.getG_balance() + 1000 * Constants.ONE_BURST);
+      referenceListCode(reference);
+      final long referenceBalance = reference.getG_balance();
+      final int referenceRc = referenceRunSteps(reference);
+
+      for (AT_Machine_State state : cached) {
+        final String at = "run " + run + " of AT " + cached.indexOf(state);
+        state.setG_balance(state.getG_balance() + 1000 * Constants.ONE_BURST);
+        AT_Controller.listCode(state, true, true);
+        final long balance = state.getG_balance();
+        assertEquals(at, referenceRc, AT_Controller.runSteps(state));
+
+        assertEquals(at, reference.getMachineState().jumps, state.getMachineState().jumps);
+        assertEquals(at, reference.getMachineState().pc, state.getMachineState().pc);
+        assertEquals(at, reference.getMachineState().steps, state.getMachineState().steps);
+        assertEquals(at, reference.getMachineState().dead, state.getMachineState().dead);
+        assertEquals(at, reference.getMachineState().finished, state.getMachineState().finished);
+        assertEquals(at, reference.getMachineState().stopped, state.getMachineState().stopped);
+        assertEquals(at, referenceBalance - reference.getG_balance(), balance - state.getG_balance());
+        assertArrayEquals(at, reference.getBytes(), state.getBytes());
+      }
+    }
+    assertTrue(reference.getMachineState().steps > 0);
+    return cached;
+  }
+
+  /**
+   * {@link AT_Controller#listCode} as it was, listing the whole code every time.
+   */
+  private static void referenceListCode(AT_Machine_State state) {
+    final AT_Reference_Processor processor = new AT_Reference_Processor(state);
+    final int opc = state.getMachineState().pc;
+    final int osteps = state.getMachineState().steps;
+    state.getMachineState().pc = 0;
+    state.getMachineState().opc = opc;
+    while (true) {
+      final int rc = processor.processOp(true, true);
+      if (rc <= 0) {
+        break;
+      }
+      state.getMachineState().pc += rc;
+    }
+    state.getMachineState().steps = osteps;
+    state.getMachineState().pc = opc;
+  }
+
+  /**
+   * {@link AT_Controller#runSteps} with the processor reading the operands from the code.
+   */
+  private static int referenceRunSteps(AT_Machine_State state) {
+    state.getMachineState().running = true;
+    state.getMachineState().stopped = false;
+    state.getMachineState().finished = false;
+    state.getMachineState().dead = false;
+    state.getMachineState().steps = 0;
+    final AT_Reference_Processor processor = new AT_Reference_Processor(state);
+    state.setFreeze(false);
+    final long stepFee = AT_Constants.getInstance().STEP_FEE(state.getCreationBlockHeight());
+    int numSteps;
+    while (state.getMachineState().steps
+        + (numSteps = AT_Controller.getNumSteps(state.getAp_code().get(state.getMachineState().pc), state.getCreationBlockHeight()))
+        <= AT_Constants.getInstance().MAX_STEPS(state.getHeight())) {
+      if (state.getG_balance() < stepFee * numSteps) {
+        state.setFreeze(true);
+        return 3;
+      }
+      state.setG_balance(state.getG_balance() - stepFee * numSteps);
+      state.getMachineState().steps += numSteps;
+      final int rc = processor.processOp(false, false);
+      if (rc >= 0) {
+        if (state.getMachineState().stopped) {
+          state.getMachineState().running = false;
+          return 2;
+        } else if (state.getMachineState().finished) {
+          state.getMachineState().running = false;
+          return 1;
+        }
+      } else if (state.getMachineState().jumps.contains(state.getMachineState().err)) {
+        state.getMachineState().pc = state.getMachineState().err;
+      } else {
+        state.getMachineState().dead = true;
+        state.getMachineState().running = false;
+        return 0;
+      }
+    }
+    return 5;
+  }
+
+  private static ByteBuffer code() {
+    return ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * @return The creation bytes of an AT with one page of stacks each, with the code up to the position of the buffer
+   */
+  private static byte[] creationBytes(ByteBuffer code, int codePages, int dataPages) {
+    final int codeLength = code.position();
+    final ByteBuffer creation = ByteBuffer.allocate(2 * 6 + 8 + 2 + codeLength + 2).order(ByteOrder.LITTLE_ENDIAN);
+    creation.putShort((short) 1); // version
+    creation.putShort((short) 0); // reserved
+    creation.putShort((short) codePages);
+    creation.putShort((short) dataPages);
+    creation.putShort((short) 1); // call stack pages
+    creation.putShort((short) 1); // user stack pages
+    creation.putLong(0); // minimum activation amount
+    // the lengths take a byte up to one page, a short above
+    if (codePages > 1) {
+      creation.putShort((short) codeLength);
+    } else {
+      creation.put((byte) codeLength);
+    }
+    creation.put(code.array(), 0, codeLength);
+    if (dataPages > 1) {
+      creation.putShort((short) 0);
+    } else {
+      creation.put((byte) 0);
+    }
+    return creation.array();
+  }
+
+}
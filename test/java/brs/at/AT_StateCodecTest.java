@@ -0,0 +1,91 @@
+package brs.at;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Test;
+
+public class AT_StateCodecTest {
+
+  @After
+  public void tearDown() {
+    AT_StateCodec.init("gzip");
+  }
+
+  @Test
+  public void compress_roundTripsWithEveryCodec() {
+    for (String codec : new String[] { "gzip", "lz" }) {
+      AT_StateCodec.init(codec);
+      for (byte[] state : states()) {
+        assertArrayEquals(codec, state, AT_StateCodec.decompress(AT_StateCodec.compress(state)));
+      }
+    }
+  }
+
+  @Test
+  public void decompress_readsStatesOfEveryCodec() {
+    byte[] state = states()[3];
+
+    AT_StateCodec.init("gzip");
+    byte[] gzipped = AT_StateCodec.compress(state);
+    AT_StateCodec.init("lz");
+    byte[] lzCompressed = AT_StateCodec.compress(state);
+
+    assertEquals(0x1f, gzipped[0]);
+    assertEquals(AT_StateCodec.LZ.getId(), lzCompressed[0]);
+    assertArrayEquals(state, AT_StateCodec.decompress(gzipped));
+    assertArrayEquals(state, AT_StateCodec.decompress(lzCompressed));
+  }
+
+  @Test
+  public void compress_shrinksEmptyData() {
+    byte[] state = new byte[80 + 256 * 8];
+    state[0] = 1;
+    state[100] = 42;
+
+    assertTrue(AT_StateCodec.compress(state).length < 40);
+  }
+
+  @Test
+  public void compress_keepsNoState() {
+    assertNull(AT_StateCodec.compress(null));
+    assertNull(AT_StateCodec.compress(new byte[0]));
+    assertNull(AT_StateCodec.decompress(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void decompress_rejectsCorruptState() {
+    byte[] compressed = AT_StateCodec.LZ.encode(states()[3]);
+    AT_StateCodec.decompress(Arrays.copyOf(compressed, compressed.length - 3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void init_rejectsUnknownCodec() {
+    AT_StateCodec.init("unknown");
+  }
+
+  private static byte[][] states() {
+    Random random = new Random(1);
+    byte[] small = { 5 };
+    byte[] fourBytes = { 1, 2, 3, 4 };
+    byte[] randomBytes = new byte[1000];
+    random.nextBytes(randomBytes);
+    // a machine state followed by data pages which are mostly zero, with some values and repetitions
+    byte[] typical = new byte[80 + 2 * 256 * 8];
+    for (int i = 0; i < 80; i++) {
+      typical[i] = (byte) random.nextInt();
+    }
+    for (int i = 80; i < typical.length; i += 37) {
+      typical[i] = (byte) (i % 7);
+    }
+    byte[] longRun = new byte[70000];
+    Arrays.fill(longRun, (byte) 7);
+    return new byte[][] { small, fourBytes, randomBytes, typical, longRun };
+  }
+
+}
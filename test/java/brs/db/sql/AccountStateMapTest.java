@@ -0,0 +1,225 @@
+package brs.db.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import brs.Account;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Db.class)
+public class AccountStateMapTest {
+
+  private static final int MASK = AccountStateMap.INITIAL_CAPACITY - 1;
+
+  // the latest rows of the database
+  private Map<Long, Account> rows;
+
+  private AccountStateMap t;
+
+  @Before
+  public void setUp() {
+    mockStatic(Db.class);
+
+    rows = new HashMap<>();
+    t = new AccountStateMap(ids -> ids.stream().filter(rows::containsKey).map(rows::get).collect(Collectors.toList()));
+    t.setComplete();
+  }
+
+  @After
+  public void tearDown() {
+    t.clear();
+  }
+
+  @Test
+  public void get_followsTheProbeChainOfCollidingIds() {
+    final List<Long> colliding = collidingIds(3, 17);
+    final long next = collidingIds(1, 18).get(0);
+    // the chain of 17 runs into the home slot of 18
+    colliding.forEach(id -> t.put(account(id, id * 10)));
+    t.put(account(next, next * 10));
+
+    for (long id : colliding) {
+      assertEquals(id * 10, get(id).getBalanceNQT());
+    }
+    assertEquals(next * 10, get(next).getBalanceNQT());
+    assertNull(get(collidingIds(4, 17).get(3)));
+    assertFalse(t.mightExist(collidingIds(4, 17).get(3)));
+    assertEquals(4, t.size());
+  }
+
+  @Test
+  public void remove_keepsTheRestOfTheProbeChain() {
+    final List<Long> colliding = collidingIds(3, 42);
+    colliding.forEach(id -> t.put(account(id, id)));
+
+    t.remove(colliding.get(0));
+    t.remove(colliding.get(1));
+
+    assertNull(get(colliding.get(0)));
+    assertFalse(t.mightExist(colliding.get(0)));
+    assertFalse(t.mightExist(colliding.get(1)));
+    assertEquals((long) colliding.get(2), get(colliding.get(2)).getBalanceNQT());
+    assertTrue(t.mightExist(colliding.get(2)));
+  }
+
+  @Test
+  public void put_getRemove_ofTheSameId() {
+    t.put(account(5L, 100));
+    assertEquals(100, get(5L).getBalanceNQT());
+
+    t.put(account(5L, 200));
+    assertEquals(200, get(5L).getBalanceNQT());
+    assertEquals(1, t.size());
+
+    t.remove(5L);
+    assertNull(get(5L));
+    assertFalse(t.mightExist(5L));
+
+    t.put(account(5L, 300));
+    assertEquals(300, get(5L).getBalanceNQT());
+    assertTrue(t.mightExist(5L));
+    assertEquals(1, t.size());
+  }
+
+  @Test
+  public void put_ofAccountNotFittingASlotLeavesItToTheDatabase() {
+    final Account named = account(6L, 100);
+    named.setName("name");
+
+    t.put(named);
+
+    assertNull(get(6L));
+    assertTrue(t.mightExist(6L));
+
+    t.put(account(6L, 200));
+    assertEquals(200, get(6L).getBalanceNQT());
+  }
+
+  @Test
+  public void put_growsBeyondTheInitialCapacity() {
+    final File initialFile = t.getFile();
+    final int count = AccountStateMap.INITIAL_CAPACITY;
+    for (long id = 1; id <= count; id++) {
+      t.put(account(id, id * 3));
+    }
+
+    assertEquals(count, t.size());
+    for (long id = 1; id <= count; id++) {
+      assertEquals(id * 3, get(id).getBalanceNQT());
+    }
+    assertFalse(t.mightExist(count + 1));
+    assertFalse(initialFile.exists());
+    assertTrue(t.getFile().exists());
+  }
+
+  @Test
+  public void clear_mapsAFreshFile() {
+    t.put(account(7L, 100));
+    final File oldFile = t.getFile();
+
+    t.clear();
+
+    assertFalse(oldFile.exists());
+    assertTrue(t.getFile().exists());
+    assertEquals(0, t.size());
+    assertNull(get(7L));
+    // until filled again, the map can not tell
+    assertTrue(t.mightExist(7L));
+
+    t.put(account(7L, 200));
+    t.setComplete();
+    assertEquals(200, get(7L).getBalanceNQT());
+    assertFalse(t.mightExist(8L));
+  }
+
+  @Test
+  public void transactionEnded_reloadsRolledBackAccountsFromTheirRows() {
+    t.put(account(1L, 100));
+    rows.put(1L, account(1L, 100));
+
+    when(Db.isInTransaction()).thenReturn(true);
+    t.put(account(1L, 150));
+    // created in the transaction
+    t.put(account(2L, 50));
+    when(Db.isInTransaction()).thenReturn(false);
+    t.transactionEnded();
+
+    assertEquals(100, get(1L).getBalanceNQT());
+    assertNull(get(2L));
+    assertFalse(t.mightExist(2L));
+  }
+
+  @Test
+  public void transactionCommitted_keepsTheAccountsOfTheTransaction() {
+    when(Db.isInTransaction()).thenReturn(true);
+    t.put(account(1L, 150));
+    when(Db.isInTransaction()).thenReturn(false);
+    t.transactionCommitted();
+    t.transactionEnded();
+
+    assertEquals(150, get(1L).getBalanceNQT());
+  }
+
+  @Test
+  public void refresh_removesAccountsWithoutLatestRow() {
+    t.put(account(1L, 100));
+    t.put(account(2L, 100));
+    rows.put(1L, account(1L, 80));
+
+    t.refresh(Arrays.asList(1L, 2L));
+
+    assertEquals(80, get(1L).getBalanceNQT());
+    assertFalse(t.mightExist(2L));
+  }
+
+  private Account get(long id) {
+    return t.get(id, (accountId, creationHeight, publicKey, keyHeight, balanceNQT, unconfirmedBalanceNQT, forgedBalanceNQT) -> {
+      assertEquals(id, accountId);
+      assertEquals(32, publicKey.length);
+      assertEquals((byte) id, publicKey[0]);
+      return account(accountId, balanceNQT);
+    });
+  }
+
+  private static Account account(long id, long balanceNQT) {
+    final byte[] publicKey = new byte[32];
+    publicKey[0] = (byte) id;
+    final Account account = new Account(id, null, 0) {
+    };
+    account.setPublicKey(publicKey);
+    account.setKeyHeight(1);
+    account.setBalanceNQT(balanceNQT);
+    return account;
+  }
+
+  /**
+   * @return Ids whose home slot in a map of the initial capacity is the given one
+   */
+  private static List<Long> collidingIds(int count, int slot) {
+    final List<Long> ids = new ArrayList<>();
+    for (long id = 1; ids.size() < count; id++) {
+      if ((AccountStateMap.hash(id) & MASK) == slot) {
+        ids.add(id);
+      }
+    }
+    return ids;
+  }
+
+}
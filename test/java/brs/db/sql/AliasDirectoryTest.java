@@ -0,0 +1,175 @@
+package brs.db.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Db.class)
+public class AliasDirectoryTest {
+
+  private final ThreadLocal<Boolean> inTransaction = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  private Map<String, Long> rows;
+  private int loads;
+
+  private AliasDirectory t;
+
+  @Before
+  public void setUp() {
+    mockStatic(Db.class);
+    when(Db.isInTransaction()).thenAnswer(invocation -> inTransaction.get());
+
+    rows = new HashMap<>();
+    rows.put("a1", 1L);
+    rows.put("a3", 3L);
+    rows.put("a5", 5L);
+    rows.put("b1", 11L);
+    t = new AliasDirectory(() -> {
+      loads++;
+      return new HashMap<>(rows);
+    });
+  }
+
+  @Test
+  public void get_findsCommittedAliases() {
+    assertEquals(Long.valueOf(3L), t.get("a3"));
+    assertNull(t.get("a2"));
+    assertNull(t.get("a"));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void get_findsAliasesAddedInTheTransaction() {
+    t.get("a1");
+
+    inTransaction(true, () -> {
+      t.put("a2", 2L);
+      assertEquals(Long.valueOf(2L), t.get("a2"));
+      assertEquals(Long.valueOf(3L), t.get("a3"));
+    });
+
+    assertEquals(Long.valueOf(2L), t.get("a2"));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void rollback_dropsTheAliasesOfTheTransaction() {
+    t.get("a1");
+
+    inTransaction(false, () -> t.put("a2", 2L));
+
+    assertNull(t.get("a2"));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void clear_withinTheTransactionKeepsAliasesAddedAgain() {
+    t.get("a1");
+
+    inTransaction(true, () -> {
+      t.put("a2", 2L);
+      t.put("a4", 4L);
+      // the alias table rolled back, it does not have these anymore
+      t.clear();
+      assertNull(t.get("a2"));
+      assertNull(t.get("a4"));
+      assertEquals(Arrays.asList(1L, 3L, 5L), t.getByPrefix("a", 0, -1));
+
+      t.put("a2", 2L);
+      rows.put("a2", 2L);
+      assertEquals(Long.valueOf(2L), t.get("a2"));
+      assertEquals(Arrays.asList(1L, 2L, 3L, 5L), t.getByPrefix("a", 0, -1));
+    });
+
+    assertEquals(Long.valueOf(2L), t.get("a2"));
+    assertNull(t.get("a4"));
+    assertEquals(Arrays.asList(1L, 2L, 3L, 5L), t.getByPrefix("a", 0, -1));
+  }
+
+  @Test
+  public void otherThreads_seeOnlyCommittedAliases() {
+    t.get("a1");
+
+    inTransaction(true, () -> {
+      t.put("a2", 2L);
+      assertEquals(Long.valueOf(2L), t.get("a2"));
+      assertNull(inOtherThread(() -> t.get("a2")));
+      assertEquals(Arrays.asList(1L, 3L, 5L), inOtherThread(() -> t.getByPrefix("a", 0, -1)));
+    });
+
+    assertEquals(Long.valueOf(2L), inOtherThread(() -> t.get("a2")));
+    assertEquals(Arrays.asList(1L, 2L, 3L, 5L), inOtherThread(() -> t.getByPrefix("a", 0, -1)));
+  }
+
+  @Test
+  public void otherThreads_loadTheCommittedDirectoryDuringTheTransaction() {
+    inTransaction(true, () -> {
+      t.put("a2", 2L);
+      assertEquals(Long.valueOf(2L), t.get("a2"));
+      assertNull(inOtherThread(() -> t.get("a2")));
+      rows.put("a2", 2L);
+    });
+
+    assertEquals(Long.valueOf(2L), inOtherThread(() -> t.get("a2")));
+  }
+
+  @Test
+  public void getByPrefix_pagesThroughCommittedAliases() {
+    assertEquals(Arrays.asList(1L, 3L, 5L), t.getByPrefix("a", 0, -1));
+    assertEquals(Arrays.asList(3L, 5L), t.getByPrefix("a", 1, -1));
+    assertEquals(Arrays.asList(1L, 3L), t.getByPrefix("a", 0, 1));
+    assertEquals(Arrays.asList(3L), t.getByPrefix("a", 1, 1));
+    assertEquals(Collections.emptyList(), t.getByPrefix("a", 3, 5));
+    assertEquals(Arrays.asList(11L), t.getByPrefix("b", 0, -1));
+    assertEquals(Collections.emptyList(), t.getByPrefix("c", 0, -1));
+  }
+
+  @Test
+  public void getByPrefix_pagesThroughCommittedAndTransactionAliasesInterleaved() {
+    t.get("a1");
+
+    inTransaction(true, () -> {
+      t.put("a4", 4L);
+      t.put("a2", 2L);
+      t.put("a0", 10L);
+
+      assertEquals(Arrays.asList(10L, 1L, 2L, 3L, 4L, 5L), t.getByPrefix("a", 0, -1));
+      assertEquals(Arrays.asList(2L, 3L, 4L), t.getByPrefix("a", 2, 4));
+      assertEquals(Arrays.asList(10L, 1L), t.getByPrefix("a", 0, 1));
+      assertEquals(Arrays.asList(4L, 5L), t.getByPrefix("a", 4, -1));
+      assertEquals(Arrays.asList(5L), t.getByPrefix("a", 5, 9));
+      assertEquals(Arrays.asList(11L), t.getByPrefix("b", 0, -1));
+    });
+
+    assertEquals(Arrays.asList(2L, 3L, 4L), t.getByPrefix("a", 2, 4));
+  }
+
+  private static <T> T inOtherThread(Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(supplier).join();
+  }
+
+  private void inTransaction(boolean commit, Runnable changes) {
+    inTransaction.set(Boolean.TRUE);
+    changes.run();
+    inTransaction.set(Boolean.FALSE);
+    if (commit) {
+      t.transactionCommitted();
+    }
+    t.transactionEnded();
+  }
+
+}
@@ -0,0 +1,213 @@
+package brs.db.sql;
+
+import static brs.schema.Tables.BLOCK;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import brs.Block;
+import brs.Burst;
+import brs.BurstException;
+import brs.Transaction;
+import brs.db.BlockDb;
+import brs.props.Props;
+import it.common.AbstractDbIT;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The block files of a node which pushed blocks with transactions, compared to the block and transaction tables.
+ */
+public class BlockFileStoreTest extends AbstractDbIT {
+
+  private File directory;
+  private List<JSONObject> reality;
+  private int height;
+
+  @Override
+  protected Properties testProperties() {
+    final Properties props = super.testProperties();
+    try {
+      directory = Files.createTempDirectory("blocks").toFile();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    props.setProperty(Props.DB_BLOCK_FILES.getName(), "true");
+    props.setProperty(Props.DB_BLOCK_FILES_DIR.getName(), directory.getPath());
+    return props;
+  }
+
+  @Before
+  public void pushReality() throws IOException, ParseException, InterruptedException {
+    reality = getReality("reality2.json");
+    pushBlocks(reality);
+    height = Burst.getBlockchain().getHeight();
+  }
+
+  @After
+  public void deleteDirectory() {
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.deleteOnExit();
+      }
+    }
+    directory.deleteOnExit();
+  }
+
+  @Test
+  public void get_decodesTheBlocksOfTheDatabase() {
+    assertEquals(height, store().getHeight());
+
+    int transactions = 0;
+    for (int h = 0; h <= height; h++) {
+      final Block loaded = loadFromDatabase(h);
+      assertEquals(loaded.getId(), store().getId(h));
+      assertBlocksEqual(loaded, store().get(h, loaded.getId()));
+      transactions += loaded.getTransactions().size();
+    }
+    // the fixture has payments, asset issuance and orders, with attachments of their own
+    assertTrue(transactions > 0);
+  }
+
+  @Test
+  public void get_ofAnotherIdIsNull() {
+    final Block loaded = loadFromDatabase(height - 1);
+
+    assertNull(store().get(height - 1, loaded.getId() + 1));
+    assertNull(store().get(height + 1, 0));
+  }
+
+  @Test
+  public void popOff_truncatesTheFilesAndPushingAppendsAgain() throws InterruptedException {
+    final List<Long> ids = getIds();
+
+    Burst.getBlockchainProcessor().popOffTo(height - 3);
+
+    assertEquals(height - 3, store().getHeight());
+    assertEquals(0, store().getId(height - 2));
+    assertNull(store().get(height - 2, ids.get(height - 2)));
+
+    pushBlocks(reality.subList(reality.size() - 3, reality.size()));
+
+    assertEquals(height, Burst.getBlockchain().getHeight());
+    assertEquals(height, store().getHeight());
+    assertEquals(ids, getIds());
+    for (int h = height - 3; h <= height; h++) {
+      assertBlocksEqual(loadFromDatabase(h), store().get(h, ids.get(h)));
+    }
+  }
+
+  @Test
+  public void catchUp_fillsInTheBlocksMissingInTheFiles() {
+    synchronized (Burst.getTransactionProcessor().getUnconfirmedTransactionsSyncObj()) {
+      store().truncateFrom(4);
+      assertEquals(3, store().getHeight());
+
+      assertEquals(2, store().catchUp(blockDb(), height, 2));
+      assertEquals(5, store().getHeight());
+
+      assertEquals(height - 5, store().catchUp(blockDb(), height, 100));
+      assertEquals(height, store().getHeight());
+      assertEquals(0, store().catchUp(blockDb(), height, 100));
+    }
+
+    for (int h = 0; h <= height; h++) {
+      final Block loaded = loadFromDatabase(h);
+      assertBlocksEqual(loaded, store().get(h, loaded.getId()));
+    }
+  }
+
+  @Test
+  public void getBlocksAfter_readsTheFilesOrFallsBackToTheDatabase() throws BurstException.ValidationException {
+    final long after = loadFromDatabase(height - 4).getId();
+    final List<Block> expected = new ArrayList<>();
+    for (int h = height - 3; h <= height; h++) {
+      expected.add(loadFromDatabase(h));
+    }
+    assertBlocksEqual(expected, Burst.getStores().getBlockchainStore().getBlocksAfter(after, 4));
+
+    // a block of another fork in the files, which the block table does not know
+    final Block replaced = loadFromDatabase(height - 2);
+    synchronized (Burst.getTransactionProcessor().getUnconfirmedTransactionsSyncObj()) {
+      store().truncateFrom(height - 2);
+      assertTrue(store().append(new Block(replaced.getVersion(), replaced.getTimestamp(), replaced.getPreviousBlockId(),
+          replaced.getTotalAmountNQT(), replaced.getTotalFeeNQT(), replaced.getPayloadLength(), replaced.getPayloadHash(),
+          replaced.getGeneratorPublicKey(), replaced.getGenerationSignature(), replaced.getBlockSignature(),
+          replaced.getPreviousBlockHash(), replaced.getCumulativeDifficulty(), replaced.getBaseTarget(),
+          replaced.getNextBlockId(), replaced.getHeight(), replaced.getId() + 1, replaced.getNonce(), replaced.getBlockATs())));
+      assertTrue(store().append(loadFromDatabase(height - 1)));
+      assertTrue(store().append(loadFromDatabase(height)));
+      assertEquals(height, store().getHeight());
+    }
+
+    assertNull(store().get(height - 2, replaced.getId()));
+    assertBlocksEqual(expected, Burst.getStores().getBlockchainStore().getBlocksAfter(after, 4));
+    // the blocks after the other one still match
+    assertBlocksEqual(expected.subList(2, 4), Burst.getStores().getBlockchainStore().getBlocksAfter(expected.get(1).getId(), 4));
+  }
+
+  private static BlockFileStore store() {
+    return Db.getBlockFileStore();
+  }
+
+  private static BlockDb blockDb() {
+    return Burst.getDbs().getBlockDb();
+  }
+
+  private static Block loadFromDatabase(int h) {
+    try {
+      return blockDb().loadBlock(Db.getDSLContext().selectFrom(BLOCK).where(BLOCK.HEIGHT.eq(h)).fetchOne());
+    } catch (BurstException.ValidationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static List<Long> getIds() {
+    final List<Long> ids = new ArrayList<>();
+    for (int h = 0; h <= Burst.getBlockchain().getHeight(); h++) {
+      ids.add(loadFromDatabase(h).getId());
+    }
+    return ids;
+  }
+
+  private static void assertBlocksEqual(List<Block> expected, List<Block> actual) {
+    assertEquals(expected.stream().map(Block::getId).collect(Collectors.toList()),
+        actual.stream().map(Block::getId).collect(Collectors.toList()));
+    for (int i = 0; i < expected.size(); i++) {
+      assertBlocksEqual(expected.get(i), actual.get(i));
+    }
+  }
+
+  private static void assertBlocksEqual(Block expected, Block actual) {
+    assertNotNull("Block at height " + expected.getHeight() + " not in the files", actual);
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getNextBlockId(), actual.getNextBlockId());
+    assertEquals(expected.getCumulativeDifficulty(), actual.getCumulativeDifficulty());
+    assertEquals(expected.getBaseTarget(), actual.getBaseTarget());
+    assertArrayEquals(expected.getBytes(), actual.getBytes());
+    assertEquals(expected.getJSONObject(), actual.getJSONObject());
+    assertEquals(expected.getTransactions().size(), actual.getTransactions().size());
+    for (int i = 0; i < expected.getTransactions().size(); i++) {
+      final Transaction expectedTransaction = expected.getTransactions().get(i);
+      final Transaction actualTransaction = actual.getTransactions().get(i);
+      assertArrayEquals(expectedTransaction.getBytes(), actualTransaction.getBytes());
+      assertEquals(expectedTransaction.getJSONObject(), actualTransaction.getJSONObject());
+      assertEquals(expectedTransaction.getAttachment().getJSONObject(), actualTransaction.getAttachment().getJSONObject());
+    }
+  }
+
+}
@@ -0,0 +1,194 @@
+package brs.db.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Db.class)
+public class DeadlineQueueTest {
+
+  private Map<Long, Integer> rows;
+  private int loads;
+
+  private DeadlineQueue t;
+
+  @Before
+  public void setUp() {
+    mockStatic(Db.class);
+
+    rows = new HashMap<>();
+    rows.put(1L, 10);
+    rows.put(2L, 11);
+    t = new DeadlineQueue(() -> {
+      loads++;
+      return new HashMap<>(rows);
+    });
+  }
+
+  @Test
+  public void getDueBefore_listsOnlyDeadlinesBeforeTheTime() {
+    assertEquals(Collections.emptyList(), t.getDueBefore(10));
+    // due at a timestamp means due before timestamp + 1
+    assertEquals(Arrays.asList(1L), t.getDueBefore(10 + 1));
+    assertEquals(Arrays.asList(1L, 2L), t.getDueBefore(11 + 1));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void getDueBefore_ordersByDeadlineThenId() {
+    rows.put(5L, 8);
+    rows.put(4L, 10);
+    rows.put(3L, 10);
+
+    assertEquals(Arrays.asList(5L, 1L, 3L, 4L, 2L), t.getDueBefore(12));
+  }
+
+  @Test
+  public void getDueBefore_mergesChangesOfTheTransactionInOrder() {
+    inTransaction(true, () -> {
+      t.put(7L, 10);
+      t.put(0L, 10);
+      t.put(6L, 9);
+      assertEquals(Arrays.asList(6L, 0L, 1L, 7L), t.getDueBefore(11));
+    });
+  }
+
+  @Test
+  public void remove_hidesTheEntityWithinTheTransaction() {
+    t.getDueBefore(12);
+
+    inTransaction(true, () -> {
+      t.remove(1L);
+      assertEquals(Arrays.asList(2L), t.getDueBefore(12));
+      assertEquals(Arrays.asList(1L, 2L), getCommittedDueBefore(12));
+    });
+  }
+
+  @Test
+  public void put_movesTheDeadlineWithinTheTransaction() {
+    t.getDueBefore(12);
+
+    inTransaction(true, () -> {
+      t.put(1L, 20);
+      t.put(2L, 5);
+      assertEquals(Arrays.asList(2L), t.getDueBefore(12));
+      assertEquals(Arrays.asList(2L, 1L), t.getDueBefore(21));
+      // a later change of the same entity replaces the earlier one
+      t.put(1L, 6);
+      assertEquals(Arrays.asList(2L, 1L), t.getDueBefore(12));
+      assertEquals(Arrays.asList(1L, 2L), getCommittedDueBefore(12));
+    });
+  }
+
+  @Test
+  public void commit_appliesTheChangesOfTheTransaction() {
+    t.getDueBefore(12);
+
+    inTransaction(true, () -> {
+      t.remove(1L);
+      t.put(2L, 5);
+      t.put(3L, 7);
+    });
+
+    assertEquals(Arrays.asList(2L, 3L), t.getDueBefore(12));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void rollback_dropsTheChangesOfTheTransaction() {
+    t.getDueBefore(12);
+
+    inTransaction(false, () -> {
+      t.remove(1L);
+      t.put(3L, 7);
+    });
+
+    assertEquals(Arrays.asList(1L, 2L), t.getDueBefore(12));
+    assertEquals(1, loads);
+  }
+
+  @Test
+  public void load_withinATransactionKeepsItsChangesOutOfTheQueue() {
+    inTransaction(false, () -> {
+      t.put(3L, 7);
+      assertEquals(Arrays.asList(3L, 1L, 2L), t.getDueBefore(12));
+    });
+
+    assertEquals(Arrays.asList(1L, 2L), t.getDueBefore(12));
+  }
+
+  @Test
+  public void clear_reloadsTheQueue() {
+    t.getDueBefore(12);
+    rows.remove(1L);
+    rows.put(3L, 9);
+    assertEquals(Arrays.asList(1L, 2L), t.getDueBefore(12));
+
+    t.clear();
+
+    assertEquals(Arrays.asList(3L, 2L), t.getDueBefore(12));
+    assertEquals(2, loads);
+  }
+
+  @Test
+  public void put_outsideOfATransactionReloadsTheQueue() {
+    t.getDueBefore(12);
+    rows.put(3L, 9);
+
+    t.put(3L, 9);
+
+    assertEquals(Arrays.asList(3L, 1L, 2L), t.getDueBefore(12));
+    assertEquals(2, loads);
+  }
+
+  @Test
+  public void clear_withinTheTransactionReloadsOnCommit() {
+    t.getDueBefore(12);
+
+    inTransaction(true, () -> {
+      t.put(3L, 9);
+      rows.put(4L, 8);
+      t.clear();
+      // the table as loaded now, without the changes dropped by the clear
+      assertEquals(Arrays.asList(4L, 1L, 2L), t.getDueBefore(12));
+      t.put(5L, 7);
+      assertEquals(Arrays.asList(5L, 4L, 1L, 2L), t.getDueBefore(12));
+      rows.put(5L, 7);
+    });
+
+    assertEquals(Arrays.asList(5L, 4L, 1L, 2L), t.getDueBefore(12));
+    assertEquals(3, loads);
+  }
+
+  private List<Long> getCommittedDueBefore(int time) {
+    when(Db.isInTransaction()).thenReturn(false);
+    try {
+      return t.getDueBefore(time);
+    } finally {
+      when(Db.isInTransaction()).thenReturn(true);
+    }
+  }
+
+  private void inTransaction(boolean commit, Runnable changes) {
+    when(Db.isInTransaction()).thenReturn(true);
+    changes.run();
+    when(Db.isInTransaction()).thenReturn(false);
+    if (commit) {
+      t.transactionCommitted();
+    }
+    t.transactionEnded();
+  }
+
+}
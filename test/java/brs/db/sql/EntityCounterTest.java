@@ -0,0 +1,130 @@
+package brs.db.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Db.class)
+public class EntityCounterTest {
+
+  private int rows;
+  private int queries;
+
+  private EntityCounter t;
+
+  @Before
+  public void setUp() {
+    mockStatic(Db.class);
+    when(Db.getCountReconcileInterval()).thenReturn(3_600_000L);
+
+    rows = 5;
+    t = new EntityCounter("test", () -> {
+      queries++;
+      return rows;
+    });
+  }
+
+  @Test
+  public void get_countsOnceWithinTheReconcileInterval() {
+    assertEquals(5, t.get());
+    assertEquals(5, t.get());
+    assertEquals(1, queries);
+  }
+
+  @Test
+  public void add_appliesNewRowsOnCommit() {
+    t.get();
+
+    inTransaction(true, () -> t.add(2));
+    rows = 7;
+
+    assertEquals(7, t.get());
+    assertEquals(1, queries);
+  }
+
+  @Test
+  public void add_appliesDeletedRowsOnCommit() {
+    t.get();
+
+    inTransaction(true, () -> t.add(-1));
+    rows = 4;
+
+    assertEquals(4, t.get());
+    assertEquals(1, queries);
+  }
+
+  @Test
+  public void add_ofReplacedRowsKeepsTheCount() {
+    t.get();
+
+    inTransaction(true, () -> t.add(0));
+
+    assertEquals(5, t.get());
+    assertEquals(1, queries);
+  }
+
+  @Test
+  public void add_isDroppedOnRollback() {
+    t.get();
+
+    inTransaction(false, () -> t.add(2));
+
+    assertEquals(5, t.get());
+    assertEquals(1, queries);
+  }
+
+  @Test
+  public void reset_countsAgainAfterCommit() {
+    t.get();
+
+    inTransaction(true, () -> {
+      t.add(1);
+      t.reset();
+    });
+    rows = 9;
+
+    assertEquals(9, t.get());
+    assertEquals(2, queries);
+  }
+
+  @Test
+  public void get_withinTransactionAlwaysCounts() {
+    inTransaction(true, () -> {
+      rows = 6;
+      assertEquals(6, t.get());
+      assertEquals(6, t.get());
+    });
+
+    assertEquals(2, queries);
+  }
+
+  @Test
+  public void get_reconcilesChangesMadeBehindTheTable() {
+    t.get();
+    rows = 8;
+    assertEquals(5, t.get());
+
+    when(Db.getCountReconcileInterval()).thenReturn(0L);
+
+    assertEquals(8, t.get());
+    assertEquals(2, queries);
+  }
+
+  private void inTransaction(boolean commit, Runnable changes) {
+    when(Db.isInTransaction()).thenReturn(true);
+    changes.run();
+    when(Db.isInTransaction()).thenReturn(false);
+    if (commit) {
+      t.transactionCommitted();
+    }
+    t.transactionEnded();
+  }
+
+}
@@ -0,0 +1,147 @@
+package brs.http;
+
+import static brs.http.JSONResponses.ERROR_BUSY;
+import static brs.http.JSONResponses.ERROR_INCORRECT_REQUEST;
+import static brs.http.JSONResponses.ERROR_TIMEOUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import brs.util.JSON;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+import org.junit.After;
+import org.junit.Test;
+
+public class APIRequestExecutorTest {
+
+  private APIRequestExecutor t;
+
+  @After
+  public void tearDown() {
+    t.shutdown();
+  }
+
+  @Test
+  public void execute_writesResponseOfHandler() throws IOException {
+    t = new APIRequestExecutor("test", 1, 1, 0);
+    final MockRequest request = new MockRequest();
+
+    final JSONObject response = new JSONObject();
+    response.put("result", "ok");
+    t.execute(request.req, () -> response);
+
+    verify(request.asyncContext, timeout(5000)).complete();
+    assertEquals(json(response), request.body.toString());
+  }
+
+  @Test
+  public void execute_refusesRequestsBeyondQueue() throws Exception {
+    t = new APIRequestExecutor("test", 1, 1, 0);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    t.execute(new MockRequest().req, () -> {
+      started.countDown();
+      await(release);
+      return JSON.emptyJSON;
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    t.execute(new MockRequest().req, () -> JSON.emptyJSON);
+
+    final MockRequest refused = new MockRequest();
+    t.execute(refused.req, () -> JSON.emptyJSON);
+    release.countDown();
+
+    verify(refused.asyncContext).complete();
+    assertEquals(json(ERROR_BUSY), refused.body.toString());
+  }
+
+  @Test
+  public void execute_answersTimedOutRequestOnce() throws Exception {
+    t = new APIRequestExecutor("test", 1, 1, 100);
+    final MockRequest request = new MockRequest();
+    final CountDownLatch release = new CountDownLatch(1);
+
+    t.execute(request.req, () -> {
+      await(release);
+      return JSON.emptyJSON;
+    });
+    request.listener.onTimeout(new AsyncEvent(request.asyncContext));
+    release.countDown();
+
+    verify(request.asyncContext).setTimeout(100);
+    verify(request.asyncContext, timeout(5000)).complete();
+    assertEquals(json(ERROR_TIMEOUT), request.body.toString());
+  }
+
+  @Test
+  public void execute_answersRequestWhoseHandlerFails() throws IOException {
+    t = new APIRequestExecutor("test", 1, 1, 0);
+    final MockRequest failing = new MockRequest();
+    final MockRequest next = new MockRequest();
+
+    t.execute(failing.req, () -> {
+      throw new AssertionError("failed");
+    });
+    t.execute(next.req, () -> JSON.emptyJSON);
+
+    verify(failing.asyncContext, timeout(5000)).complete();
+    assertEquals(json(ERROR_INCORRECT_REQUEST), failing.body.toString());
+    // the pool goes on with the next request
+    verify(next.asyncContext, timeout(5000)).complete();
+    assertEquals(json(JSON.emptyJSON), next.body.toString());
+  }
+
+  private static String json(JSONStreamAware response) throws IOException {
+    StringWriter writer = new StringWriter();
+    response.writeJSONString(writer);
+    return writer.toString();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class MockRequest {
+    private final HttpServletRequest req = mock(HttpServletRequest.class);
+    private final HttpServletResponse resp = mock(HttpServletResponse.class);
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final StringWriter body = new StringWriter();
+    private AsyncListener listener;
+
+    private MockRequest() {
+      try {
+        when(req.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getResponse()).thenReturn(resp);
+        when(resp.getWriter()).thenReturn(new PrintWriter(body));
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      doAnswer(invocation -> {
+        listener = invocation.getArgument(0);
+        return null;
+      }).when(asyncContext).addListener(any(AsyncListener.class));
+    }
+  }
+
+}
@@ -0,0 +1,198 @@
+package brs.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.doAnswer;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import brs.db.sql.Db;
+import brs.props.PropertyService;
+import brs.props.Props;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Db.class)
+public class APIServletTest {
+
+  private final List<String> readOnlyThreads = new CopyOnWriteArrayList<>();
+
+  private final RecordingHandler readHandler = new RecordingHandler(false, APIServlet.RequestCategory.READ);
+  private final RecordingHandler writeHandler = new RecordingHandler(true, APIServlet.RequestCategory.WRITE);
+  private final RecordingHandler miningHandler = new RecordingHandler(true, APIServlet.RequestCategory.MINING);
+  private final RecordingPrimitiveHandler primitiveHandler = new RecordingPrimitiveHandler();
+
+  private APIServlet t;
+
+  @Before
+  public void setUp() {
+    mockStatic(Db.class);
+    doAnswer(invocation -> {
+      readOnlyThreads.add(Thread.currentThread().getName() + "=" + invocation.getArgument(0));
+      return null;
+    }).when(Db.class);
+    Db.setReadOnlyThread(anyBoolean());
+
+    final PropertyService propertyService = mock(PropertyService.class);
+    when(propertyService.getBoolean(Props.API_ASYNC)).thenReturn(true);
+    when(propertyService.getInt(any())).thenReturn(2);
+
+    final Map<String, APIServlet.APIRequestHandler> handlers = new HashMap<>();
+    handlers.put("read", readHandler);
+    handlers.put("write", writeHandler);
+    handlers.put("mining", miningHandler);
+    t = new APIServlet(propertyService, handlers, Collections.singletonMap("primitive", primitiveHandler));
+  }
+
+  @After
+  public void tearDown() {
+    t.destroy();
+  }
+
+  @Test
+  public void process_runsReadsOnTheReadPoolAsReadOnly() throws IOException {
+    final MockRequest request = new MockRequest("read", true);
+
+    t.doGet(request.req, request.resp);
+
+    verify(request.asyncContext, timeout(5000)).complete();
+    assertEquals("API read", readHandler.thread);
+    assertTrue(request.body.toString().contains("\"handled\":\"read\""));
+    assertEquals(Arrays.asList("API read=true", "API read=false"), readOnlyThreads);
+  }
+
+  @Test
+  public void process_runsWritesOnTheWritePool() throws IOException {
+    final MockRequest request = new MockRequest("write", true);
+
+    t.doPost(request.req, request.resp);
+
+    verify(request.asyncContext, timeout(5000)).complete();
+    assertEquals("API write", writeHandler.thread);
+    assertEquals(Arrays.asList("API write=false", "API write=false"), readOnlyThreads);
+  }
+
+  @Test
+  public void process_runsMiningRequestsOnTheMiningPool() throws IOException {
+    final MockRequest request = new MockRequest("mining", true);
+
+    t.doPost(request.req, request.resp);
+
+    verify(request.asyncContext, timeout(5000)).complete();
+    assertEquals("API mining", miningHandler.thread);
+  }
+
+  @Test
+  public void process_runsOnTheServerThreadWithoutAsyncSupport() throws IOException {
+    final MockRequest request = new MockRequest("read", false);
+
+    t.doGet(request.req, request.resp);
+
+    verify(request.req, never()).startAsync();
+    assertEquals(Thread.currentThread().getName(), readHandler.thread);
+    assertTrue(request.body.toString().contains("\"handled\":\"read\""));
+    final String thread = Thread.currentThread().getName();
+    assertEquals(Arrays.asList(thread + "=true", thread + "=false"), readOnlyThreads);
+  }
+
+  @Test
+  public void process_runsPrimitiveHandlersOnTheServerThread() throws IOException {
+    final MockRequest request = new MockRequest("primitive", true);
+
+    t.doGet(request.req, request.resp);
+
+    verify(request.req, never()).startAsync();
+    assertEquals(Thread.currentThread().getName(), primitiveHandler.thread);
+  }
+
+  @Test
+  public void miningHandlers_getTheMiningCategory() {
+    assertEquals(APIServlet.RequestCategory.MINING, new GetMiningInfo(null).getCategory());
+    assertEquals(APIServlet.RequestCategory.MINING, new SubmitNonce(null, null, null).getCategory());
+  }
+
+  private static final class RecordingHandler extends APIServlet.APIRequestHandler {
+    private final boolean requirePost;
+    private final APIServlet.RequestCategory category;
+    private volatile String thread;
+
+    private RecordingHandler(boolean requirePost, APIServlet.RequestCategory category) {
+      super(new APITag[0]);
+      this.requirePost = requirePost;
+      this.category = category;
+    }
+
+    @Override
+    JSONStreamAware processRequest(HttpServletRequest request) {
+      thread = Thread.currentThread().getName();
+      final JSONObject response = new JSONObject();
+      response.put("handled", request.getParameter("requestType"));
+      return response;
+    }
+
+    @Override
+    boolean requirePost() {
+      return requirePost;
+    }
+
+    @Override
+    APIServlet.RequestCategory getCategory() {
+      return category;
+    }
+  }
+
+  private static final class RecordingPrimitiveHandler extends APIServlet.PrimitiveRequestHandler {
+    private volatile String thread;
+
+    @Override
+    public void processRequest(HttpServletRequest req, HttpServletResponse resp) {
+      thread = Thread.currentThread().getName();
+    }
+  }
+
+  private static final class MockRequest {
+    private final HttpServletRequest req = mock(HttpServletRequest.class);
+    private final HttpServletResponse resp = mock(HttpServletResponse.class);
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final StringWriter body = new StringWriter();
+
+    private MockRequest(String requestType, boolean asyncSupported) {
+      when(req.getParameter("requestType")).thenReturn(requestType);
+      when(req.getMethod()).thenReturn("POST");
+      when(req.isAsyncSupported()).thenReturn(asyncSupported);
+      when(req.startAsync()).thenReturn(asyncContext);
+      when(asyncContext.getResponse()).thenReturn(resp);
+      try {
+        when(resp.getWriter()).thenReturn(new PrintWriter(body));
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+package brs.http;
+
+import static brs.http.common.ResultFields.DONE_RESPONSE;
+import static brs.http.common.ResultFields.ERROR_RESPONSE;
+import static brs.http.common.ResultFields.FILE_RESPONSE;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import brs.BlockchainProcessor;
+import brs.common.QuickMocker;
+import java.io.File;
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExportSnapshotTest {
+
+  private ExportSnapshot t;
+
+  private BlockchainProcessor blockchainProcessor;
+
+  @Before
+  public void init() {
+    blockchainProcessor = mock(BlockchainProcessor.class);
+
+    this.t = new ExportSnapshot(blockchainProcessor);
+  }
+
+  @Test
+  public void processRequest() throws IOException {
+    final HttpServletRequest req = QuickMocker.httpServletRequest();
+
+    when(blockchainProcessor.exportSnapshot()).thenReturn(new File("snapshots", "snapshot-5.brs.gz"));
+
+    final JSONObject result = ((JSONObject) t.processRequest(req));
+
+    assertEquals(true, result.get(DONE_RESPONSE));
+    assertEquals(new File("snapshots", "snapshot-5.brs.gz").getPath(), result.get(FILE_RESPONSE));
+  }
+
+  @Test
+  public void processRequest_ioExceptionOccurs() throws IOException {
+    final HttpServletRequest req = QuickMocker.httpServletRequest();
+
+    when(blockchainProcessor.exportSnapshot()).thenThrow(new IOException("errorMessage"));
+
+    final JSONObject result = ((JSONObject) t.processRequest(req));
+
+    assertEquals("java.io.IOException: errorMessage", result.get(ERROR_RESPONSE));
+  }
+
+  @Test
+  public void requirePost() {
+    assertTrue(t.requirePost());
+  }
+}
@@ -0,0 +1,79 @@
+package brs.http;
+
+import static brs.http.JSONResponses.MISSING_ALIAS_PREFIX;
+import static brs.http.common.Parameters.ALIAS_PREFIX_PARAMETER;
+import static brs.http.common.Parameters.FIRST_INDEX_PARAMETER;
+import static brs.http.common.Parameters.LAST_INDEX_PARAMETER;
+import static brs.http.common.ResultFields.ALIASES_RESPONSE;
+import static brs.http.common.ResultFields.ALIAS_RESPONSE;
+import static brs.http.common.ResultFields.PRICE_NQT_RESPONSE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import brs.Alias;
+import brs.Alias.Offer;
+import brs.common.AbstractUnitTest;
+import brs.common.QuickMocker;
+import brs.common.QuickMocker.MockParam;
+import brs.db.BurstIterator;
+import brs.services.AliasService;
+import javax.servlet.http.HttpServletRequest;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GetAliasesByPrefixTest extends AbstractUnitTest {
+
+  private GetAliasesByPrefix t;
+
+  private AliasService mockAliasService;
+
+  @Before
+  public void setUp() {
+    mockAliasService = mock(AliasService.class);
+
+    t = new GetAliasesByPrefix(mockAliasService);
+  }
+
+  @Test
+  public void processRequest() {
+    final HttpServletRequest req = QuickMocker.httpServletRequest(
+        new MockParam(ALIAS_PREFIX_PARAMETER, "pre"),
+        new MockParam(FIRST_INDEX_PARAMETER, 0),
+        new MockParam(LAST_INDEX_PARAMETER, 9)
+    );
+
+    final Alias mockAlias = mock(Alias.class);
+    when(mockAlias.getId()).thenReturn(567L);
+
+    final Offer mockOffer = mock(Offer.class);
+    when(mockOffer.getPriceNQT()).thenReturn(234L);
+
+    final BurstIterator<Alias> mockAliasIterator = mockBurstIterator(mockAlias);
+
+    when(mockAliasService.getAliasesByPrefix(eq("pre"), eq(0), eq(9))).thenReturn(mockAliasIterator);
+    when(mockAliasService.getOffer(eq(mockAlias))).thenReturn(mockOffer);
+
+    final JSONObject resultOverview = (JSONObject) t.processRequest(req);
+    assertNotNull(resultOverview);
+
+    final JSONArray resultList = (JSONArray) resultOverview.get(ALIASES_RESPONSE);
+    assertNotNull(resultList);
+    assertEquals(1, resultList.size());
+
+    final JSONObject result = (JSONObject) resultList.get(0);
+    assertNotNull(result);
+    assertEquals("" + mockAlias.getId(), result.get(ALIAS_RESPONSE));
+    assertEquals("" + mockOffer.getPriceNQT(), result.get(PRICE_NQT_RESPONSE));
+  }
+
+  @Test
+  public void processRequest_missingPrefix() {
+    assertEquals(MISSING_ALIAS_PREFIX, t.processRequest(QuickMocker.httpServletRequest()));
+  }
+
+}
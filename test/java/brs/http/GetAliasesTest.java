@@ -58,7 +58,7 @@ public class GetAliasesTest extends AbstractUnitTest {
 
     when(mockParameterService.getAccount(eq(req))).thenReturn(mockAccount);
 
-    when(mockAliasService.getAliasesByOwner(eq(accountId), eq(0), eq(-1))).thenReturn(mockAliasIterator);
+    when(mockAliasService.getAliasesByOwner(eq(accountId), eq(0), eq(0), eq(Integer.MAX_VALUE))).thenReturn(mockAliasIterator);
     when(mockAliasService.getOffer(eq(mockAlias))).thenReturn(mockOffer);
 
     final JSONObject resultOverview = (JSONObject) t.processRequest(req);
@@ -14,6 +14,7 @@ import static brs.http.common.ResultFields.TAGS_RESPONSE;
 import static brs.http.common.ResultFields.TIMESTAMP_RESPONSE;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -68,7 +69,7 @@ public class GetDGSGoodsTest extends AbstractUnitTest {
     final Goods mockGood = mockGood();
     final BurstIterator<Goods> mockGoodIterator = mockBurstIterator(mockGood);
 
-    when(mockDGSGoodsStoreService.getSellerGoods(eq(sellerId), eq(true), eq(firstIndex), eq(lastIndex)))
+    when(mockDGSGoodsStoreService.getGoods(eq(sellerId), eq(true), isNull(), eq(firstIndex), eq(lastIndex)))
         .thenReturn(mockGoodIterator);
 
     final JSONObject fullResult = (JSONObject) t.processRequest(req);
@@ -108,7 +109,7 @@ public class GetDGSGoodsTest extends AbstractUnitTest {
     final Goods mockGood = mockGood();
     final BurstIterator<Goods> mockGoodIterator = mockBurstIterator(mockGood);
 
-    when(mockDGSGoodsStoreService.getAllGoods(eq(firstIndex), eq(lastIndex)))
+    when(mockDGSGoodsStoreService.getGoods(eq(0L), eq(false), isNull(), eq(firstIndex), eq(lastIndex)))
         .thenReturn(mockGoodIterator);
 
     final JSONObject fullResult = (JSONObject) t.processRequest(req);
@@ -148,7 +149,7 @@ public class GetDGSGoodsTest extends AbstractUnitTest {
     final Goods mockGood = mockGood();
     final BurstIterator<Goods> mockGoodIterator = mockBurstIterator(mockGood);
 
-    when(mockDGSGoodsStoreService.getGoodsInStock(eq(firstIndex), eq(lastIndex)))
+    when(mockDGSGoodsStoreService.getGoods(eq(0L), eq(true), isNull(), eq(firstIndex), eq(lastIndex)))
         .thenReturn(mockGoodIterator);
 
     final JSONObject fullResult = (JSONObject) t.processRequest(req);
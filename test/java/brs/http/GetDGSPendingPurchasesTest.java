@@ -7,6 +7,7 @@ import static brs.http.common.Parameters.SELLER_PARAMETER;
 import static brs.http.common.ResultFields.PURCHASES_RESPONSE;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -51,7 +52,7 @@ public class GetDGSPendingPurchasesTest extends AbstractUnitTest {
     final Purchase mockPurchase = mock(Purchase.class);
 
     final BurstIterator<Purchase> mockPurchaseIterator = mockBurstIterator(mockPurchase);
-    when(mockDGSGoodStoreService.getPendingSellerPurchases(eq(sellerId), eq(firstIndex), eq(lastIndex))).thenReturn(mockPurchaseIterator);
+    when(mockDGSGoodStoreService.getPurchases(eq(sellerId), eq(0L), eq(true), isNull(), eq(firstIndex), eq(lastIndex))).thenReturn(mockPurchaseIterator);
 
     final JSONObject result = (JSONObject) t.processRequest(req);
     assertNotNull(result);
@@ -1,5 +1,7 @@
 package brs.http;
 
+import static brs.http.JSONResponses.UNKNOWN_AFTER;
+import static brs.http.common.Parameters.AFTER_PARAMETER;
 import static brs.http.common.Parameters.BUYER_PARAMETER;
 import static brs.http.common.Parameters.COMPLETED_PARAMETER;
 import static brs.http.common.Parameters.FIRST_INDEX_PARAMETER;
@@ -9,6 +11,7 @@ import static brs.http.common.Parameters.SELLER_PARAMETER;
 import static brs.http.common.ResultFields.PURCHASES_RESPONSE;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -54,7 +57,7 @@ public class GetDGSPurchasesTest extends AbstractUnitTest {
 
     BurstIterator<Purchase> mockGoodsIterator = mockBurstIterator(mockPurchase);
 
-    when(mockDGSGoodsStoreService.getAllPurchases(eq(0), eq(-1))).thenReturn(mockGoodsIterator);
+    when(mockDGSGoodsStoreService.getPurchases(eq(0L), eq(0L), isNull(), isNull(), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
 
     final JSONObject result = (JSONObject) t.processRequest(req);
     assertNotNull(result);
@@ -79,7 +82,7 @@ public class GetDGSPurchasesTest extends AbstractUnitTest {
 
     BurstIterator<Purchase> mockGoodsIterator = mockBurstIterator(mockPurchase);
 
-    when(mockDGSGoodsStoreService.getSellerPurchases(eq(1L), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
+    when(mockDGSGoodsStoreService.getPurchases(eq(1L), eq(0L), isNull(), isNull(), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
 
     final JSONObject result = (JSONObject) t.processRequest(req);
     assertNotNull(result);
@@ -104,7 +107,7 @@ public class GetDGSPurchasesTest extends AbstractUnitTest {
 
     BurstIterator<Purchase> mockGoodsIterator = mockBurstIterator(mockPurchase);
 
-    when(mockDGSGoodsStoreService.getBuyerPurchases(eq(1L), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
+    when(mockDGSGoodsStoreService.getPurchases(eq(0L), eq(1L), isNull(), isNull(), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
 
     final JSONObject result = (JSONObject) t.processRequest(req);
     assertNotNull(result);
@@ -129,7 +132,7 @@ public class GetDGSPurchasesTest extends AbstractUnitTest {
 
     BurstIterator<Purchase> mockGoodsIterator = mockBurstIterator(mockPurchase);
 
-    when(mockDGSGoodsStoreService.getSellerBuyerPurchases(eq(1L), eq(2L), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
+    when(mockDGSGoodsStoreService.getPurchases(eq(1L), eq(2L), isNull(), isNull(), eq(0), eq(-1))).thenReturn(mockGoodsIterator);
 
     final JSONObject result = (JSONObject) t.processRequest(req);
     assertNotNull(result);
@@ -139,4 +142,41 @@ public class GetDGSPurchasesTest extends AbstractUnitTest {
     assertEquals(1, purchasesResult.size());
   }
 
+  @Test
+  public void processRequest_completedPurchasesAfter() throws BurstException {
+    final HttpServletRequest req = QuickMocker.httpServletRequest(
+        new MockParam(SELLER_PARAMETER, 1),
+        new MockParam(BUYER_PARAMETER, 0),
+        new MockParam(FIRST_INDEX_PARAMETER, 0),
+        new MockParam(LAST_INDEX_PARAMETER, 9),
+        new MockParam(COMPLETED_PARAMETER, true),
+        new MockParam(AFTER_PARAMETER, 3)
+    );
+
+    final Purchase mockAfter = mock(Purchase.class);
+    when(mockDGSGoodsStoreService.getPurchase(eq(3L))).thenReturn(mockAfter);
+
+    final Purchase mockPurchase = mock(Purchase.class);
+    BurstIterator<Purchase> mockGoodsIterator = mockBurstIterator(mockPurchase);
+
+    when(mockDGSGoodsStoreService.getPurchases(eq(1L), eq(0L), eq(false), eq(mockAfter), eq(0), eq(9))).thenReturn(mockGoodsIterator);
+
+    final JSONObject result = (JSONObject) t.processRequest(req);
+    assertNotNull(result);
+
+    final JSONArray purchasesResult = (JSONArray) result.get(PURCHASES_RESPONSE);
+    assertNotNull(purchasesResult);
+    assertEquals(1, purchasesResult.size());
+  }
+
+  @Test
+  public void processRequest_unknownAfter() throws BurstException {
+    final HttpServletRequest req = QuickMocker.httpServletRequest(
+        new MockParam(SELLER_PARAMETER, 1),
+        new MockParam(AFTER_PARAMETER, 3)
+    );
+
+    assertEquals(UNKNOWN_AFTER, t.processRequest(req));
+  }
+
 }
@@ -93,14 +93,28 @@ public class AliasServiceImplTest extends AbstractUnitTest {
   @Test
   public void getAliasesByOwner() {
     final long accountId = 123L;
+    final int timestamp = 4;
     final int from = 0;
     final int to = 1;
 
     final BurstIterator<Alias> mockAliasIterator = mockBurstIterator();
 
-    when(aliasStoreMock.getAliasesByOwner(eq(accountId), eq(from), eq(to))).thenReturn(mockAliasIterator);
+    when(aliasStoreMock.getAliasesByOwner(eq(accountId), eq(timestamp), eq(from), eq(to))).thenReturn(mockAliasIterator);
 
-    assertEquals(mockAliasIterator, t.getAliasesByOwner(accountId, from, to));
+    assertEquals(mockAliasIterator, t.getAliasesByOwner(accountId, timestamp, from, to));
+  }
+
+  @Test
+  public void getAliasesByPrefix() {
+    final String prefix = "pre";
+    final int from = 0;
+    final int to = 1;
+
+    final BurstIterator<Alias> mockAliasIterator = mockBurstIterator();
+
+    when(aliasStoreMock.getAliasesByPrefix(eq(prefix), eq(from), eq(to))).thenReturn(mockAliasIterator);
+
+    assertEquals(mockAliasIterator, t.getAliasesByPrefix(prefix, from, to));
   }
 
   @Test
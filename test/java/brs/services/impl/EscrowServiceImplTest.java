@@ -3,8 +3,10 @@ package brs.services.impl;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import brs.Block;
 import brs.Blockchain;
 import brs.Escrow;
 import brs.db.BurstIterator;
@@ -14,6 +16,7 @@ import brs.db.VersionedEntityTable;
 import brs.db.store.EscrowStore;
 import brs.services.AccountService;
 import brs.services.AliasService;
+import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -66,4 +69,15 @@ public class EscrowServiceImplTest {
 
     assertEquals(mockEscrow, t.getEscrowTransaction(escrowId));
   }
+
+  @Test
+  public void updateOnBlock_nothingDueLeavesEscrowsAlone() {
+    final Block mockBlock = mock(Block.class);
+    when(mockBlock.getTimestamp()).thenReturn(1000);
+    when(mockEscrowStore.getEscrowIdsWithDeadlineBefore(eq(1000))).thenReturn(Collections.emptyList());
+
+    t.updateOnBlock(mockBlock, 10);
+
+    verifyZeroInteractions(mockEscrowTable);
+  }
 }
@@ -0,0 +1,75 @@
+package brs.unconfirmedtransactions;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class PeerFingerPrintsTest {
+
+  @Test
+  public void mark_keepsEarlierMarksWhenGrowing() {
+    final PeerFingerPrints t = new PeerFingerPrints();
+
+    t.mark(3);
+    t.mark(63);
+    t.mark(64 * 5 + 1);
+
+    assertTrue(t.contains(3));
+    assertTrue(t.contains(63));
+    assertTrue(t.contains(64 * 5 + 1));
+    assertFalse(t.contains(64 * 5));
+    assertFalse(t.contains(64 * 100));
+  }
+
+  @Test
+  public void clear_ofSlotBeyondTheWordsDoesNothing() {
+    final PeerFingerPrints t = new PeerFingerPrints();
+    t.mark(1);
+
+    t.clear(64 * 3);
+
+    assertTrue(t.contains(1));
+    assertFalse(t.contains(64 * 3));
+  }
+
+  @Test
+  public void clear_racingGrowthIsNotLost() throws InterruptedException {
+    for (int round = 0; round < 2000; round++) {
+      final PeerFingerPrints t = new PeerFingerPrints();
+      t.mark(5);
+      t.mark(7);
+
+      final CountDownLatch start = new CountDownLatch(1);
+      final Thread clearing = new Thread(() -> {
+        await(start);
+        t.clear(5);
+      });
+      final Thread growing = new Thread(() -> {
+        await(start);
+        for (int slot = 64; slot < 64 * 8; slot += 64) {
+          t.mark(slot);
+        }
+      });
+      clearing.start();
+      growing.start();
+      start.countDown();
+      clearing.join();
+      growing.join();
+
+      assertFalse("round " + round, t.contains(5));
+      assertTrue("round " + round, t.contains(7));
+      assertTrue("round " + round, t.contains(64 * 7));
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
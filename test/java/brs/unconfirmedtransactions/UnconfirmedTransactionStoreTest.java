@@ -34,6 +34,7 @@ import brs.props.PropertyService;
 import brs.props.Props;
 import brs.services.TimeService;
 import brs.services.impl.TimeServiceImpl;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -51,6 +52,7 @@ public class UnconfirmedTransactionStoreTest {
   private AccountStore accountStoreMock;
   private VersionedBatchEntityTable<Account> accountTableMock;
   private LongKeyFactory<Account> accountBurstKeyFactoryMock;
+  private Account mockAccount;
 
   private TimeService timeService = new TimeServiceImpl();
   private UnconfirmedTransactionStore t;
@@ -74,7 +76,7 @@ public class UnconfirmedTransactionStoreTest {
     when(accountStoreMock.getAccountTable()).thenReturn(accountTableMock);
     when(accountStoreMock.getAccountKeyFactory()).thenReturn(accountBurstKeyFactoryMock);
 
-    final Account mockAccount = mock(Account.class);
+    mockAccount = mock(Account.class);
     final BurstKey mockAccountKey = mock(BurstKey.class);
     when(accountBurstKeyFactoryMock.newKey(eq(123L))).thenReturn(mockAccountKey);
     when(accountTableMock.get(eq(mockAccountKey))).thenReturn(mockAccount);
@@ -343,4 +345,96 @@ public class UnconfirmedTransactionStoreTest {
     assertNotNull(t.get(expensive.getId()));
   }
 
+
+  @DisplayName("Removing an unconfirmed transaction releases the balance it reserved")
+  @Test
+  public void removingTransactionReleasesReservedBalance() throws ValidationException {
+    when(mockBlockChain.getHeight()).thenReturn(20);
+
+    Transaction transaction = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1000, FEE_QUANT, timeService.getEpochTime() + 50000, (short) 500, ORDINARY_PAYMENT)
+        .id(1).senderId(123L).build();
+    transaction.sign(TestConstants.TEST_SECRET_PHRASE);
+    t.put(transaction, null);
+
+    assertEquals(1000 + FEE_QUANT, t.getReservedBalanceNQT(123L));
+
+    t.remove(transaction);
+
+    assertEquals(0, t.getReservedBalanceNQT(123L));
+  }
+
+  @DisplayName("When the balance of a touched sender drops, only its uncovered transactions get removed")
+  @Test
+  public void resettingBalancesOfTouchedSendersRemovesUncoveredTransactions() throws ValidationException {
+    when(mockBlockChain.getHeight()).thenReturn(20);
+
+    for (int i = 1; i <= 3; i++) {
+      Transaction transaction = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1000, FEE_QUANT, timeService.getEpochTime() + 50000, (short) 500, ORDINARY_PAYMENT)
+          .id(i).senderId(123L).build();
+      transaction.sign(TestConstants.TEST_SECRET_PHRASE);
+      t.put(transaction, null);
+    }
+
+    when(mockAccount.getUnconfirmedBalanceNQT()).thenReturn(2 * (1000 + FEE_QUANT));
+
+    t.resetAccountBalances(Collections.singletonList(456L));
+
+    assertEquals(3, t.getAll().size());
+
+    t.resetAccountBalances(Collections.singletonList(123L));
+
+    assertEquals(2, t.getAll().size());
+    assertEquals(2 * (1000 + FEE_QUANT), t.getReservedBalanceNQT(123L));
+  }
+
+  @DisplayName("Only unconfirmed transactions depending on state touched by a block are considered affected by it")
+  @Test
+  public void onlyTransactionsDependingOnTouchedStateAreAffected() throws ValidationException {
+    when(mockBlockChain.getHeight()).thenReturn(20);
+
+    Transaction aliasSell = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1, FEE_QUANT, timeService.getEpochTime() + 50000, (short) 500,
+        new MessagingAliasSell("aliasName", 123, 5))
+        .id(1).senderId(123L).build();
+    t.put(aliasSell, null);
+
+    Transaction otherAliasSell = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1, FEE_QUANT, timeService.getEpochTime() + 50000, (short) 500,
+        new MessagingAliasSell("otherAliasName", 123, 5))
+        .id(2).senderId(123L).build();
+    t.put(otherAliasSell, null);
+
+    Transaction confirmedAliasSell = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, 1, FEE_QUANT, timeService.getEpochTime() + 50000, (short) 500,
+        new MessagingAliasSell("ALIASNAME", 123, 5))
+        .id(3).senderId(456L).build();
+
+    List<Transaction> affected = t.getAllAffectedBy(Collections.singletonList(confirmedAliasSell), Collections.emptyList());
+
+    assertEquals(1, affected.size());
+    assertEquals(aliasSell, affected.get(0));
+
+    assertEquals(2, t.getAllAffectedBy(Collections.emptyList(), Collections.singletonList(123L)).size());
+    assertTrue(t.getAllAffectedBy(Collections.emptyList(), Collections.singletonList(789L)).isEmpty());
+  }
+
+  @DisplayName("When a peer gets removed its fingerprints are forgotten and its slot does not leak to the next peer")
+  @Test
+  public void removedPeerFingerPrintsAreForgotten() throws ValidationException {
+    Peer mockPeer = mock(Peer.class);
+    Peer otherMockPeer = mock(Peer.class);
+
+    when(mockBlockChain.getHeight()).thenReturn(20);
+
+    for (int i = 1; i <= 10; i++) {
+      Transaction transaction = new Transaction.Builder((byte) 1, TestConstants.TEST_PUBLIC_KEY_BYTES, i, FEE_QUANT * 100, timeService.getEpochTime() + 50000, (short) 500, ORDINARY_PAYMENT)
+          .id(i).senderId(123L).build();
+      transaction.sign(TestConstants.TEST_SECRET_PHRASE);
+      t.put(transaction, mockPeer);
+    }
+
+    assertEquals(0, t.getAllFor(mockPeer).size());
+
+    t.removePeer(mockPeer);
+
+    assertEquals(10, t.getAllFor(otherMockPeer).size());
+    assertEquals(10, t.getAllFor(mockPeer).size());
+  }
 }
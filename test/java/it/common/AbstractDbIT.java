@@ -0,0 +1,46 @@
+package it.common;
+
+import brs.db.sql.Db;
+import java.util.function.Supplier;
+
+/**
+ * Tests of the database layer, run against the in-memory database of a node started with its genesis block.
+ * The database is shared by all integration tests, tests use ids and heights of their own.
+ */
+public abstract class AbstractDbIT extends AbstractIT {
+
+  protected static void inTransaction(Runnable runnable) {
+    inTransaction(() -> {
+      runnable.run();
+      return null;
+    });
+  }
+
+  protected static <T> T inTransaction(Supplier<T> supplier) {
+    Db.beginTransaction();
+    try {
+      T result = supplier.get();
+      Db.commitTransaction();
+      return result;
+    } catch (RuntimeException e) {
+      Db.rollbackTransaction();
+      throw e;
+    } finally {
+      Db.endTransaction();
+    }
+  }
+
+  /**
+   * Runs the supplier in a transaction which is rolled back afterwards.
+   */
+  protected static <T> T inRolledBackTransaction(Supplier<T> supplier) {
+    Db.beginTransaction();
+    try {
+      return supplier.get();
+    } finally {
+      Db.rollbackTransaction();
+      Db.endTransaction();
+    }
+  }
+
+}
@@ -8,8 +8,17 @@ import brs.props.Props;
 import brs.common.TestInfrastructure;
 import brs.peer.Peers;
 import brs.peer.ProcessBlock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.runner.RunWith;
@@ -22,6 +31,8 @@ import org.powermock.modules.junit4.PowerMockRunner;
 @PowerMockIgnore("javax.net.ssl.*")
 public abstract class AbstractIT {
 
+  private static final long PUSH_TIMEOUT_MS = 10000;
+
   private ProcessBlock processBlock;
 
   protected APISender apiSender = new APISender();
@@ -39,7 +50,7 @@ public abstract class AbstractIT {
     Burst.shutdown(true);
   }
 
-  private Properties testProperties() {
+  protected Properties testProperties() {
     final Properties props = new Properties();
 
     props.setProperty(Props.DEV_OFFLINE.getName(), "true");
@@ -59,4 +70,36 @@ public abstract class AbstractIT {
   public void processBlock(JSONObject jsonFirstBlock) {
     processBlock.processRequest(jsonFirstBlock, null);
   }
+
+  /**
+   * Processes the blocks one after the other, each once the previous one has been pushed onto the chain.
+   */
+  protected void pushBlocks(List<JSONObject> blocks) throws InterruptedException {
+    for (JSONObject block : blocks) {
+      final int height = Burst.getBlockchain().getHeight();
+      processBlock(block);
+      final long deadline = System.currentTimeMillis() + PUSH_TIMEOUT_MS;
+      while (Burst.getBlockchain().getHeight() == height && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+      assertEquals("Block was not pushed", height + 1, Burst.getBlockchain().getHeight());
+    }
+  }
+
+  protected static List<JSONObject> getReality(String realityName) throws ParseException, IOException {
+    JSONParser parser = new JSONParser();
+
+    Path path = Paths.get("test/resources/alternatereality/" + realityName);
+
+    String inputFileContent = new String(Files.readAllBytes(path));
+    JSONArray array = (JSONArray) parser.parse(inputFileContent);
+
+    List<JSONObject> result = new ArrayList<>();
+
+    for(Object obj:array) {
+      result.add((JSONObject) obj);
+    }
+
+    return result;
+  }
 }
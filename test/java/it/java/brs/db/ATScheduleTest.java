@@ -0,0 +1,169 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT;
+import static brs.schema.Tables.AT;
+import static brs.schema.Tables.AT_STATE;
+import static org.junit.Assert.assertEquals;
+
+import brs.Account;
+import brs.Burst;
+import brs.at.AT_Constants;
+import brs.db.sql.Db;
+import brs.db.store.ATStore;
+import brs.services.AccountService;
+import brs.services.impl.AccountServiceImpl;
+import it.common.AbstractDbIT;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ATScheduleTest extends AbstractDbIT {
+
+  private static final long CREATOR = 7_970_000L;
+
+  private AccountService accountService;
+  private int height;
+  private long minimumBalance;
+
+  @Before
+  public void setUpService() {
+    accountService = new AccountServiceImpl(Burst.getStores().getAccountStore(), Burst.getStores().getAssetTransferStore());
+    height = Burst.getBlockchain().getHeight();
+    minimumBalance = AT_Constants.getInstance().STEP_FEE(height) * AT_Constants.getInstance().API_STEP_MULTIPLIER(height);
+  }
+
+  @Test
+  public void orderedATs_breakTiesOfPreviousHeightByNextHeightAndId() {
+    inTransaction(() -> {
+      addAT(7_970_105L, height - 2, height + 1, false);
+      addAT(7_970_104L, height - 3, height + 1, false);
+      addAT(7_970_103L, height - 2, height, false);
+      addAT(7_970_102L, height - 2, height + 1, false);
+      addAT(7_970_101L, height - 3, height + 1, false);
+      accountService.flushAccountTable();
+    });
+
+    List<Long> expected = Arrays.asList(7_970_101L, 7_970_104L, 7_970_103L, 7_970_102L, 7_970_105L);
+    assertEquals(expected, only(queryOrderedATs(), 7_970_100L));
+    assertOrderedATs(expected, 7_970_100L);
+  }
+
+  @Test
+  public void orderedATs_leaveOutFrozenPoorAndSleepingATs() {
+    inTransaction(() -> {
+      // too poor to run at all
+      addAT(7_970_201L, 0, 0, height, 0, false, 0);
+      addAT(7_970_202L, minimumBalance - 1, 0, height, 0, false, 0);
+      // frozen until its balance grows by the activation amount
+      addAT(7_970_203L, minimumBalance + 5, 0, height, minimumBalance, true, 10);
+      addAT(7_970_204L, minimumBalance + 10, 0, height, minimumBalance, true, 10);
+      // not due yet
+      addAT(7_970_205L, minimumBalance, 0, height + 2, 0, false, 0);
+      addAT(7_970_206L, minimumBalance, 0, height + 1, 0, false, 0);
+      accountService.flushAccountTable();
+    });
+
+    List<Long> expected = Arrays.asList(7_970_204L, 7_970_206L);
+    assertEquals(expected, only(queryOrderedATs(), 7_970_200L));
+    assertOrderedATs(expected, 7_970_200L);
+  }
+
+  @Test
+  public void rollback_restoresTheCommittedSchedule() {
+    inTransaction(() -> {
+      addAT(7_970_302L, height - 1, height, false);
+      addAT(7_970_301L, height - 1, height, false);
+      accountService.flushAccountTable();
+    });
+
+    List<Long> inTransaction = inRolledBackTransaction(() -> {
+      brs.AT.ATState state = atStore().getAtStateTable().get(atStore().getAtStateDbKeyFactory().newKey(7_970_301L));
+      state.setPrevHeight(height);
+      state.setNextHeight(height + 5);
+      atStore().getAtStateTable().insert(state);
+      addAT(7_970_303L, height - 2, height, false);
+      accountService.flushAccountTable();
+
+      List<Long> ordered = only(atStore().getOrderedATs(), 7_970_300L);
+      assertEquals(only(queryOrderedATs(), 7_970_300L), ordered);
+      return ordered;
+    });
+
+    assertEquals(Arrays.asList(7_970_303L, 7_970_302L), inTransaction);
+    assertOrderedATs(Arrays.asList(7_970_301L, 7_970_302L), 7_970_300L);
+  }
+
+  @Test
+  public void flushCache_reloadsTheScheduleFromTheTables() {
+    inTransaction(() -> {
+      addAT(7_970_401L, height - 1, height, false);
+      addAT(7_970_402L, height - 1, height, false);
+      accountService.flushAccountTable();
+    });
+    assertOrderedATs(Arrays.asList(7_970_401L, 7_970_402L), 7_970_400L);
+
+    // written to the table directly, the schedule does not know about this yet
+    Db.getDSLContext().update(AT_STATE).set(AT_STATE.PREV_HEIGHT, height).set(AT_STATE.NEXT_HEIGHT, height + 5)
+        .where(AT_STATE.AT_ID.eq(7_970_401L)).and(AT_STATE.LATEST.isTrue()).execute();
+    atStore().flushCache();
+
+    assertOrderedATs(Arrays.asList(7_970_402L), 7_970_400L);
+  }
+
+  private static ATStore atStore() {
+    return Burst.getStores().getAtStore();
+  }
+
+  private void addAT(long id, int prevHeight, int nextHeight, boolean freezeWhenSameBalance) {
+    addAT(id, minimumBalance, prevHeight, nextHeight, minimumBalance, freezeWhenSameBalance, 0);
+  }
+
+  private void addAT(long id, long balance, int prevHeight, int nextHeight, long prevBalance, boolean freezeWhenSameBalance,
+                     long minActivationAmount) {
+    Db.getDSLContext().insertInto(AT, AT.ID, AT.CREATOR_ID, AT.VERSION, AT.CSIZE, AT.DSIZE, AT.C_USER_STACK_BYTES,
+        AT.C_CALL_STACK_BYTES, AT.CREATION_HEIGHT, AT.AP_CODE, AT.HEIGHT, AT.LATEST)
+        .values(id, CREATOR, (short) 1, 0, 0, 0, 0, height, new byte[1], height, true).execute();
+
+    Account account = accountService.getOrAddAccount(id);
+    accountService.addToBalanceNQT(account, balance);
+
+    brs.AT.ATState state = new brs.AT.ATState(id, new byte[1], nextHeight, 0, prevBalance, freezeWhenSameBalance,
+        minActivationAmount) {
+    };
+    state.setPrevHeight(prevHeight);
+    atStore().getAtStateTable().insert(state);
+  }
+
+  private void assertOrderedATs(List<Long> expected, long idPrefix) {
+    List<Long> ordered = atStore().getOrderedATs();
+    assertEquals(queryOrderedATs(), ordered);
+    assertEquals(expected, only(ordered, idPrefix));
+  }
+
+  /**
+   * The query the schedule replaced.
+   */
+  private List<Long> queryOrderedATs() {
+    Db.flushWrites("at");
+    Db.flushWrites("at_state");
+    return Db.getDSLContext().select(AT.ID).from(
+        AT.join(AT_STATE).on(AT.ID.eq(AT_STATE.AT_ID)).join(ACCOUNT).on(AT.ID.eq(ACCOUNT.ID))
+    ).where(AT.LATEST.isTrue()).and(AT_STATE.LATEST.isTrue()).and(ACCOUNT.LATEST.isTrue())
+        .and(AT_STATE.NEXT_HEIGHT.lessOrEqual(height + 1))
+        .and(ACCOUNT.BALANCE.greaterOrEqual(minimumBalance))
+        .and(AT_STATE.FREEZE_WHEN_SAME_BALANCE.isFalse().or(
+            ACCOUNT.BALANCE.minus(AT_STATE.PREV_BALANCE).greaterOrEqual(AT_STATE.MIN_ACTIVATE_AMOUNT)))
+        .orderBy(AT_STATE.PREV_HEIGHT.asc(), AT_STATE.NEXT_HEIGHT.asc(), AT.ID.asc())
+        .fetch(AT.ID);
+  }
+
+  /**
+   * @return The ATs of a single test, whose ids share everything but the last two digits
+   */
+  private static List<Long> only(List<Long> atIds, long idPrefix) {
+    return atIds.stream().filter(id -> id / 100 == idPrefix / 100).collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,129 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT_TRANSACTION;
+import static brs.schema.Tables.TRANSACTION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import brs.Account;
+import brs.Attachment;
+import brs.Block;
+import brs.Burst;
+import brs.BurstException;
+import brs.Constants;
+import brs.Transaction;
+import brs.db.BurstIterator;
+import brs.db.sql.Db;
+import brs.db.sql.DbUtils;
+import it.common.AbstractDbIT;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.SelectQuery;
+import org.junit.Test;
+
+public class AccountTransactionTest extends AbstractDbIT {
+
+  // far above the chain of the test node, whose blocks must not be affected
+  private static final int HEIGHT = 2_000_000;
+
+  private static final long SENDER = 8_800_001L;
+  private static final long RECIPIENT = 8_800_002L;
+  private static final long OTHER = 8_800_003L;
+
+  private static final byte TYPE_PAYMENT = 0;
+
+  @Test
+  public void getTransactions_matchesTransactionTableAfterPushAndPop() throws BurstException.ValidationException {
+    Block first = block(1, 1000,
+        transaction(8_810_001L, SENDER, RECIPIENT, 1, 1000),
+        transaction(8_810_002L, RECIPIENT, SENDER, 1, 1000),
+        transaction(8_810_003L, SENDER, SENDER, 1, 1000),
+        transaction(8_810_004L, OTHER, RECIPIENT, 1, 1000),
+        transaction(8_810_005L, SENDER, OTHER, 1, 1000));
+    Block second = block(2, 2000,
+        transaction(8_820_001L, SENDER, RECIPIENT, 2, 2000),
+        transaction(8_820_002L, RECIPIENT, SENDER, 2, 2000),
+        transaction(8_820_003L, SENDER, 0, 2, 2000));
+
+    inTransaction(() -> {
+      Burst.getDbs().getBlockDb().saveBlock(Db.getDSLContext(), first);
+      Burst.getDbs().getBlockDb().saveBlock(Db.getDSLContext(), second);
+    });
+    assertListingsMatch();
+    assertEquals(Arrays.asList(8_820_003L, 8_820_002L, 8_820_001L, 8_810_005L, 8_810_003L, 8_810_002L, 8_810_001L),
+        getTransactionIds(SENDER, -1, 0, 0, -1));
+
+    inTransaction(() -> Burst.getDbs().getBlockDb().deleteBlocksFrom(second.getId()));
+    assertListingsMatch();
+    assertEquals(Arrays.asList(8_810_005L, 8_810_003L, 8_810_002L, 8_810_001L), getTransactionIds(SENDER, -1, 0, 0, -1));
+    assertEquals(0, Db.getDSLContext().fetchCount(ACCOUNT_TRANSACTION, ACCOUNT_TRANSACTION.HEIGHT.ge(HEIGHT + 2)));
+
+    inTransaction(() -> Burst.getDbs().getBlockDb().deleteBlocksFrom(first.getId()));
+    assertTrue(getTransactionIds(SENDER, -1, 0, 0, -1).isEmpty());
+    assertEquals(0, Db.getDSLContext().fetchCount(ACCOUNT_TRANSACTION, ACCOUNT_TRANSACTION.HEIGHT.ge(HEIGHT)));
+  }
+
+  private static void assertListingsMatch() {
+    for (long account : new long[] { SENDER, RECIPIENT, OTHER }) {
+      assertEquals(getTransactionTableIds(account, -1, 0, 0, -1), getTransactionIds(account, -1, 0, 0, -1));
+      assertEquals(getTransactionTableIds(account, TYPE_PAYMENT, 0, 0, -1), getTransactionIds(account, TYPE_PAYMENT, 0, 0, -1));
+      assertEquals(getTransactionTableIds(account, -1, 2000, 0, -1), getTransactionIds(account, -1, 2000, 0, -1));
+      assertEquals(getTransactionTableIds(account, -1, 0, 1, 2), getTransactionIds(account, -1, 0, 1, 2));
+    }
+  }
+
+  private static List<Long> getTransactionIds(long accountId, int type, int blockTimestamp, int from, int to) {
+    List<Long> ids = new ArrayList<>();
+    try (BurstIterator<Transaction> transactions = Burst.getStores().getBlockchainStore()
+        .getTransactions(new Account(accountId), 0, (byte) type, (byte) -1, blockTimestamp, from, to)) {
+      transactions.forEachRemaining(transaction -> ids.add(transaction.getId()));
+    }
+    return ids;
+  }
+
+  /**
+   * The listing as queried from the transaction table before it was indexed by account.
+   */
+  private static List<Long> getTransactionTableIds(long accountId, int type, int blockTimestamp, int from, int to) {
+    DSLContext ctx = Db.getDSLContext();
+    List<Condition> conditions = new ArrayList<>();
+    if (blockTimestamp > 0) {
+      conditions.add(TRANSACTION.BLOCK_TIMESTAMP.ge(blockTimestamp));
+    }
+    if (type >= 0) {
+      conditions.add(TRANSACTION.TYPE.eq((byte) type));
+    }
+    SelectQuery query = ctx.selectFrom(TRANSACTION).where(conditions).and(
+        TRANSACTION.RECIPIENT_ID.eq(accountId).and(TRANSACTION.SENDER_ID.ne(accountId))
+      ).unionAll(
+        ctx.selectFrom(TRANSACTION).where(conditions).and(TRANSACTION.SENDER_ID.eq(accountId))
+      )
+      .orderBy(TRANSACTION.BLOCK_TIMESTAMP.desc(), TRANSACTION.ID.desc()).getQuery();
+    DbUtils.applyLimits(query, from, to);
+    return query.fetch().getValues(TRANSACTION.ID);
+  }
+
+  private static Block block(int height, int timestamp, Transaction... transactions) throws BurstException.ValidationException {
+    return new Block(3, timestamp, 0, 0, 0, 0, new byte[32], new byte[32], new byte[32], new byte[64], new byte[32],
+        BigInteger.ZERO, 0, 0, HEIGHT + height, blockId(height), 0, null, Arrays.asList(transactions));
+  }
+
+  private static long blockId(int height) {
+    return 8_800_000L + height;
+  }
+
+  private static Transaction transaction(long id, long senderId, long recipientId, int height, int blockTimestamp) throws BurstException.NotValidException {
+    byte[] fullHash = ByteBuffer.allocate(32).putLong(id).array();
+    return new Transaction.Builder((byte) 1, new byte[32], Constants.ONE_BURST, Constants.ONE_BURST, blockTimestamp - 1, (short) 1440,
+        Attachment.ORDINARY_PAYMENT)
+        .id(id).senderId(senderId).recipientId(recipientId).signature(new byte[64]).fullHash(fullHash)
+        .blockId(blockId(height)).height(HEIGHT + height).blockTimestamp(blockTimestamp)
+        .build();
+  }
+
+}
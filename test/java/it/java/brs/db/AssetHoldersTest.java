@@ -0,0 +1,127 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static org.junit.Assert.assertEquals;
+
+import brs.Account;
+import brs.Burst;
+import brs.db.sql.Db;
+import brs.db.store.AccountStore;
+import brs.services.AccountService;
+import brs.services.impl.AccountServiceImpl;
+import it.common.AbstractDbIT;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetHoldersTest extends AbstractDbIT {
+
+  private static final long ACCOUNT_A = 7_960_001L;
+  private static final long ACCOUNT_B = 7_960_002L;
+  private static final long ACCOUNT_C = 7_960_003L;
+
+  private AccountService accountService;
+
+  @Before
+  public void setUpService() {
+    accountService = new AccountServiceImpl(accountStore(), Burst.getStores().getAssetTransferStore());
+  }
+
+  @Test
+  public void acquire_countsEachAccountOnce() {
+    long assetId = 7_960_101L;
+    inTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, 10);
+      addToBalance(ACCOUNT_A, assetId, 5);
+      addToBalance(ACCOUNT_B, assetId, 5);
+    });
+
+    assertHolders(2, assetId);
+  }
+
+  @Test
+  public void transferToZero_removesTheHolder() {
+    long assetId = 7_960_102L;
+    inTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, 10);
+      addToBalance(ACCOUNT_B, assetId, 5);
+    });
+
+    inTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, -10);
+      addToBalance(ACCOUNT_B, assetId, 10);
+    });
+
+    assertHolders(1, assetId);
+  }
+
+  @Test
+  public void unconfirmedQuantity_keepsTheHolder() {
+    long assetId = 7_960_103L;
+    inTransaction(() -> addToBalance(ACCOUNT_A, assetId, 10));
+
+    inTransaction(() -> accountService.addToAssetBalanceQNT(account(ACCOUNT_A), assetId, -10));
+    assertHolders(1, assetId);
+
+    inTransaction(() -> accountService.addToUnconfirmedAssetBalanceQNT(account(ACCOUNT_A), assetId, -10));
+    assertHolders(0, assetId);
+  }
+
+  @Test
+  public void reacquire_countsTheHolderAgain() {
+    long assetId = 7_960_104L;
+    inTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, 10);
+      addToBalance(ACCOUNT_A, assetId, -10);
+      addToBalance(ACCOUNT_A, assetId, 3);
+    });
+    assertHolders(1, assetId);
+
+    inTransaction(() -> addToBalance(ACCOUNT_A, assetId, -3));
+    assertHolders(0, assetId);
+
+    inTransaction(() -> addToBalance(ACCOUNT_A, assetId, 7));
+    assertHolders(1, assetId);
+  }
+
+  @Test
+  public void rollback_restoresTheCommittedHolders() {
+    long assetId = 7_960_105L;
+    inTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, 10);
+      addToBalance(ACCOUNT_B, assetId, 5);
+    });
+
+    int holdersInTransaction = inRolledBackTransaction(() -> {
+      addToBalance(ACCOUNT_A, assetId, -10);
+      addToBalance(ACCOUNT_B, assetId, -5);
+      addToBalance(ACCOUNT_C, assetId, 15);
+      addToBalance(ACCOUNT_B, assetId, 1);
+      return accountStore().getAssetAccountsCount(assetId);
+    });
+
+    assertEquals(2, holdersInTransaction);
+    assertHolders(2, assetId);
+
+    inTransaction(() -> addToBalance(ACCOUNT_C, assetId, 1));
+    assertHolders(3, assetId);
+  }
+
+  private static AccountStore accountStore() {
+    return Burst.getStores().getAccountStore();
+  }
+
+  private Account account(long accountId) {
+    return accountService.getOrAddAccount(accountId);
+  }
+
+  private void addToBalance(long accountId, long assetId, long quantityQNT) {
+    accountService.addToAssetAndUnconfirmedAssetBalanceQNT(account(accountId), assetId, quantityQNT);
+  }
+
+  private static void assertHolders(int expected, long assetId) {
+    assertEquals(expected, accountStore().getAssetAccountsCount(assetId));
+    assertEquals(expected, Db.getDSLContext().fetchCount(ACCOUNT_ASSET,
+        ACCOUNT_ASSET.ASSET_ID.eq(assetId).and(ACCOUNT_ASSET.LATEST.isTrue())));
+  }
+
+}
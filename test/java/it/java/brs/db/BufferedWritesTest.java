@@ -0,0 +1,79 @@
+package it.java.brs.db;
+
+import static org.junit.Assert.assertEquals;
+
+import brs.Account;
+import brs.Burst;
+import brs.db.BurstIterator;
+import brs.db.store.AccountStore;
+import it.common.AbstractDbIT;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class BufferedWritesTest extends AbstractDbIT {
+
+  @Test
+  public void query_seesWritesBufferedInTheTransaction() {
+    List<Long> assigned = inRolledBackTransaction(() -> {
+      insertAssignment(7_800_101L, 7_800_001L);
+      return getAssignedTo(7_800_001L);
+    });
+
+    assertEquals(Collections.singletonList(7_800_101L), assigned);
+  }
+
+  @Test
+  public void insert_writesTheStateOfTheEntityAtInsert() {
+    inTransaction(() -> {
+      Account.RewardRecipientAssignment assignment = insertAssignment(7_800_102L, 7_800_002L);
+      assignment.setRecipient(7_800_003L, 0);
+    });
+
+    assertEquals(Collections.singletonList(7_800_102L), getAssignedTo(7_800_002L));
+    assertEquals(Collections.emptyList(), getAssignedTo(7_800_003L));
+  }
+
+  @Test
+  public void insert_writesTheLastInsertedStateOfTheEntity() {
+    inTransaction(() -> {
+      Account.RewardRecipientAssignment assignment = insertAssignment(7_800_103L, 7_800_004L);
+      assignment.setRecipient(7_800_005L, 0);
+      accountStore().getRewardRecipientAssignmentTable().insert(assignment);
+    });
+
+    assertEquals(Collections.emptyList(), getAssignedTo(7_800_004L));
+    assertEquals(Collections.singletonList(7_800_103L), getAssignedTo(7_800_005L));
+  }
+
+  @Test
+  public void rollback_discardsBufferedWrites() {
+    inRolledBackTransaction(() -> insertAssignment(7_800_104L, 7_800_006L));
+    // nothing of the rolled back transaction is flushed with the next one
+    inTransaction(() -> {
+    });
+
+    assertEquals(Collections.emptyList(), getAssignedTo(7_800_006L));
+  }
+
+  private static AccountStore accountStore() {
+    return Burst.getStores().getAccountStore();
+  }
+
+  private static Account.RewardRecipientAssignment insertAssignment(long accountId, long recipientId) {
+    Account.RewardRecipientAssignment assignment = new Account.RewardRecipientAssignment(accountId, accountId, recipientId, 0,
+        accountStore().getRewardRecipientAssignmentKeyFactory().newKey(accountId));
+    accountStore().getRewardRecipientAssignmentTable().insert(assignment);
+    return assignment;
+  }
+
+  private static List<Long> getAssignedTo(long recipientId) {
+    List<Long> accountIds = new ArrayList<>();
+    try (BurstIterator<Account.RewardRecipientAssignment> assignments = accountStore().getAccountsWithRewardRecipient(recipientId)) {
+      assignments.forEachRemaining(assignment -> accountIds.add(assignment.getAccountId()));
+    }
+    return accountIds;
+  }
+
+}
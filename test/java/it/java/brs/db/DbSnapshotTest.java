@@ -0,0 +1,246 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT;
+import static brs.schema.Tables.AT;
+import static brs.schema.Tables.AT_STATE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import brs.Block;
+import brs.Burst;
+import brs.at.AT_StateCodec;
+import brs.db.sql.Db;
+import brs.db.sql.DbSnapshot;
+import it.common.AbstractDbIT;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.impl.TableImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DbSnapshotTest extends AbstractDbIT {
+
+  // parents before children, like the snapshot writes them
+  private static final List<TableImpl<?>> TABLES = Collections.unmodifiableList(Arrays.asList(
+      brs.schema.Tables.BLOCK, brs.schema.Tables.TRANSACTION, brs.schema.Tables.ACCOUNT_TRANSACTION,
+      brs.schema.Tables.ACCOUNT, brs.schema.Tables.ACCOUNT_ASSET, brs.schema.Tables.ALIAS, brs.schema.Tables.ALIAS_OFFER,
+      brs.schema.Tables.ASK_ORDER, brs.schema.Tables.ASSET, brs.schema.Tables.ASSET_TRANSFER,
+      brs.schema.Tables.AT, brs.schema.Tables.AT_STATE, brs.schema.Tables.BID_ORDER,
+      brs.schema.Tables.ESCROW, brs.schema.Tables.ESCROW_DECISION,
+      brs.schema.Tables.GOODS, brs.schema.Tables.PURCHASE,
+      brs.schema.Tables.PURCHASE_FEEDBACK, brs.schema.Tables.PURCHASE_PUBLIC_FEEDBACK,
+      brs.schema.Tables.REWARD_RECIP_ASSIGN, brs.schema.Tables.SUBSCRIPTION, brs.schema.Tables.TRADE,
+      brs.schema.Tables.ASSET_STATS));
+
+  // the state digest in the header, after the magic, version, height and last block id
+  private static final int VERSION_OFFSET = 2 + "BRS-SNAPSHOT".length();
+  private static final int STATE_DIGEST_OFFSET = VERSION_OFFSET + 4 + 4 + 8;
+
+  private File file;
+
+  @Before
+  public void setUpRows() throws IOException {
+    file = File.createTempFile("snapshot", ".brs.gz");
+
+    addAccount(7_990_001L, 1, 100L, "name", false);
+    addAccount(7_990_001L, 2, 150L, "name", true);
+    addAccount(7_990_002L, 2, 200L, null, true);
+    Db.getDSLContext().insertInto(AT, AT.ID, AT.CREATOR_ID, AT.VERSION, AT.CSIZE, AT.DSIZE, AT.C_USER_STACK_BYTES,
+        AT.C_CALL_STACK_BYTES, AT.CREATION_HEIGHT, AT.AP_CODE, AT.HEIGHT, AT.LATEST)
+        .values(7_990_010L, 7_990_001L, (short) 1, 4, 8, 0, 0, 1, AT_StateCodec.compress(new byte[] { 1, 2, 3, 4 }), 1, true)
+        .execute();
+    Db.getDSLContext().insertInto(AT_STATE, AT_STATE.AT_ID, AT_STATE.STATE, AT_STATE.PREV_HEIGHT, AT_STATE.NEXT_HEIGHT,
+        AT_STATE.SLEEP_BETWEEN, AT_STATE.PREV_BALANCE, AT_STATE.FREEZE_WHEN_SAME_BALANCE, AT_STATE.MIN_ACTIVATE_AMOUNT,
+        AT_STATE.HEIGHT, AT_STATE.LATEST)
+        .values(7_990_010L, AT_StateCodec.compress(new byte[64]), 1, 2, 0, 0L, false, 0L, 1, true).execute();
+  }
+
+  @After
+  public void deleteFile() {
+    if (! file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  @Test
+  public void importInto_restoresTheExportedRows() throws IOException {
+    final Block lastBlock = Burst.getBlockchain().getLastBlock();
+    final Map<TableImpl<?>, List<String>> exported = getAllRows();
+    final byte[] stateDigest = DbSnapshot.stateDigest();
+
+    DbSnapshot.export(file, lastBlock.getHeight(), lastBlock.getId());
+
+    final DbSnapshot.Header header = DbSnapshot.verify(file);
+    assertEquals(DbSnapshot.VERSION, header.getVersion());
+    assertEquals(lastBlock.getHeight(), header.getHeight());
+    assertEquals(lastBlock.getId(), header.getLastBlockId());
+    assertArrayEquals(stateDigest, header.getStateDigest());
+
+    inRolledBackTransaction(() -> {
+      deleteAllRows();
+      assertEquals(0, getAllRows().values().stream().mapToInt(List::size).sum());
+
+      try {
+        DbSnapshot.importInto(file);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+
+      assertEquals(exported, getAllRows());
+      assertArrayEquals(stateDigest, DbSnapshot.stateDigest());
+      return null;
+    });
+  }
+
+  @Test
+  public void verify_failsOnAFlippedByte() throws IOException {
+    exportLastBlock();
+    final byte[] content = readContent(file);
+    content[STATE_DIGEST_OFFSET + 3] ^= 0x01;
+    writeContent(file, content);
+
+    try {
+      DbSnapshot.verify(file);
+      fail("Corrupted snapshot was verified");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Checksum mismatch"));
+    }
+  }
+
+  @Test
+  public void verifyAndImport_rejectOtherVersions() throws IOException {
+    exportLastBlock();
+    final byte[] content = readContent(file);
+    ByteBuffer.wrap(content).putInt(VERSION_OFFSET, DbSnapshot.VERSION + 1);
+    writeContent(file, content);
+
+    try {
+      DbSnapshot.verify(file);
+      fail("Snapshot of another version was verified");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Unsupported snapshot version " + (DbSnapshot.VERSION + 1)));
+    }
+
+    final Map<TableImpl<?>, List<String>> rows = getAllRows();
+    inRolledBackTransaction(() -> {
+      deleteAllRows();
+      try {
+        DbSnapshot.importInto(file);
+        fail("Snapshot of another version was imported");
+      } catch (IOException e) {
+        assertTrue(e.getMessage(), e.getMessage().startsWith("Unsupported snapshot version"));
+      }
+      return null;
+    });
+    assertEquals(rows, getAllRows());
+  }
+
+  @Test
+  public void stateDigest_isIndependentOfRowOrderAndDbId() {
+    final byte[] stateDigest = DbSnapshot.stateDigest();
+
+    inRolledBackTransaction(() -> {
+      reinsertReversed(ACCOUNT);
+      reinsertReversed(AT_STATE);
+      assertArrayEquals(stateDigest, DbSnapshot.stateDigest());
+
+      // versions which are not the latest do not count
+      Db.getDSLContext().deleteFrom(ACCOUNT).where(ACCOUNT.ID.eq(7_990_001L)).and(ACCOUNT.LATEST.isFalse()).execute();
+      assertArrayEquals(stateDigest, DbSnapshot.stateDigest());
+
+      Db.getDSLContext().update(ACCOUNT).set(ACCOUNT.BALANCE, 151L)
+          .where(ACCOUNT.ID.eq(7_990_001L)).and(ACCOUNT.LATEST.isTrue()).execute();
+      assertFalse(Arrays.equals(stateDigest, DbSnapshot.stateDigest()));
+      return null;
+    });
+  }
+
+  private void exportLastBlock() throws IOException {
+    final Block lastBlock = Burst.getBlockchain().getLastBlock();
+    DbSnapshot.export(file, lastBlock.getHeight(), lastBlock.getId());
+  }
+
+  private static void addAccount(long id, int height, long balance, String name, boolean latest) {
+    final byte[] publicKey = new byte[32];
+    publicKey[0] = (byte) id;
+    Db.getDSLContext().insertInto(ACCOUNT, ACCOUNT.ID, ACCOUNT.HEIGHT, ACCOUNT.CREATION_HEIGHT, ACCOUNT.PUBLIC_KEY,
+        ACCOUNT.KEY_HEIGHT, ACCOUNT.BALANCE, ACCOUNT.UNCONFIRMED_BALANCE, ACCOUNT.FORGED_BALANCE, ACCOUNT.NAME,
+        ACCOUNT.DESCRIPTION, ACCOUNT.LATEST)
+        .values(id, height, 1, publicKey, 1, balance, balance, 0L, name, null, latest).execute();
+  }
+
+  /**
+   * @return The rows of every table, as strings in no particular order
+   */
+  private static Map<TableImpl<?>, List<String>> getAllRows() {
+    final Map<TableImpl<?>, List<String>> rows = new HashMap<>();
+    for (TableImpl<?> table : TABLES) {
+      rows.put(table, Db.getDSLContext().selectFrom(table).fetch().stream()
+          .map(record -> Arrays.deepToString(record.intoArray())).sorted().collect(Collectors.toList()));
+    }
+    return rows;
+  }
+
+  private static void deleteAllRows() {
+    final List<TableImpl<?>> childrenFirst = new ArrayList<>(TABLES);
+    Collections.reverse(childrenFirst);
+    for (TableImpl<?> table : childrenFirst) {
+      Db.getDSLContext().deleteFrom(table).execute();
+    }
+  }
+
+  /**
+   * Inserts the rows of the table again, in reverse order and with other db ids.
+   */
+  private static void reinsertReversed(TableImpl<?> table) {
+    final Field<?>[] fields = table.fields();
+    final int dbIdIndex = Arrays.asList(fields).indexOf(table.field("db_id"));
+    final List<Record> records = new ArrayList<>(Db.getDSLContext().selectFrom(table).fetch());
+    Collections.reverse(records);
+    Db.getDSLContext().deleteFrom(table).execute();
+    for (Record record : records) {
+      final Object[] values = record.intoArray();
+      values[dbIdIndex] = (Long) values[dbIdIndex] + 1_000_000L;
+      Db.getDSLContext().insertInto(table, fields).values(values).execute();
+    }
+  }
+
+  private static byte[] readContent(File file) throws IOException {
+    try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+      final ByteArrayOutputStream content = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        content.write(buffer, 0, read);
+      }
+      return content.toByteArray();
+    }
+  }
+
+  private static void writeContent(File file, byte[] content) throws IOException {
+    try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+      out.write(content);
+    }
+  }
+
+}
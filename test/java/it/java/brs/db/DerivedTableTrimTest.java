@@ -0,0 +1,108 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static brs.schema.Tables.REWARD_RECIP_ASSIGN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import brs.Burst;
+import brs.db.DerivedTable;
+import brs.db.sql.Db;
+import it.common.AbstractDbIT;
+import java.util.List;
+import org.junit.Test;
+
+public class DerivedTableTrimTest extends AbstractDbIT {
+
+  // far above the chain of the test node, whose rows must not be affected
+  private static final int HEIGHT = 2_000_000;
+
+  @Test
+  public void chunkedTrim_leavesTheSameRowsAsASingleTrim() {
+    for (long account = 7_980_001L; account <= 7_980_005L; account++) {
+      for (long asset = 100; asset <= 300; asset += 100) {
+        // some keys with one row below the trim height only, some with rows above it
+        for (int height = 1; height <= account % 7_980_000L + asset / 100; height += 3) {
+          addAccountAsset(account, asset, height);
+        }
+      }
+    }
+    final DerivedTable table = Burst.getStores().getAccountStore().getAccountAssetTable();
+
+    final List<String> trimmed = inRolledBackTransaction(() -> {
+      table.trim(HEIGHT + 6);
+      return getAccountAssets();
+    });
+    assertNotEquals(getAccountAssets(), trimmed);
+
+    for (int chunkSize : new int[] { 1, 2, 4 }) {
+      assertEquals("chunk size " + chunkSize, trimmed, inRolledBackTransaction(() -> {
+        trimInChunks(table, HEIGHT + 6, chunkSize);
+        return getAccountAssets();
+      }));
+    }
+  }
+
+  @Test
+  public void chunkedTrim_ofSingleColumnKeysLeavesTheSameRowsAsASingleTrim() {
+    for (long account = 7_980_101L; account <= 7_980_107L; account++) {
+      for (int height = 1; height <= account % 7_980_100L * 2; height += 2) {
+        addRewardRecipient(account, height);
+      }
+    }
+    final DerivedTable table = Burst.getStores().getAccountStore().getRewardRecipientAssignmentTable();
+
+    final List<String> trimmed = inRolledBackTransaction(() -> {
+      table.trim(HEIGHT + 8);
+      return getRewardRecipients();
+    });
+    assertNotEquals(getRewardRecipients(), trimmed);
+
+    for (int chunkSize : new int[] { 1, 3, 100 }) {
+      assertEquals("chunk size " + chunkSize, trimmed, inRolledBackTransaction(() -> {
+        trimInChunks(table, HEIGHT + 8, chunkSize);
+        return getRewardRecipients();
+      }));
+    }
+  }
+
+  /**
+   * Trims like the trimmer does, continuing after the last key of the previous chunk.
+   */
+  private static void trimInChunks(DerivedTable table, int height, int chunkSize) {
+    long[] after = null;
+    DerivedTable.TrimChunk chunk;
+    do {
+      chunk = table.selectTrimChunk(height, after, chunkSize);
+      table.trim(chunk);
+      after = chunk.getLastKey();
+    } while (! chunk.isLast());
+  }
+
+  private static void addAccountAsset(long accountId, long assetId, int height) {
+    Db.getDSLContext().insertInto(ACCOUNT_ASSET, ACCOUNT_ASSET.ACCOUNT_ID, ACCOUNT_ASSET.ASSET_ID, ACCOUNT_ASSET.QUANTITY,
+        ACCOUNT_ASSET.UNCONFIRMED_QUANTITY, ACCOUNT_ASSET.HEIGHT, ACCOUNT_ASSET.LATEST)
+        .values(accountId, assetId, (long) height, (long) height, HEIGHT + height, false).execute();
+  }
+
+  private static List<String> getAccountAssets() {
+    return Db.getDSLContext().select(ACCOUNT_ASSET.ACCOUNT_ID, ACCOUNT_ASSET.ASSET_ID, ACCOUNT_ASSET.HEIGHT)
+        .from(ACCOUNT_ASSET).where(ACCOUNT_ASSET.HEIGHT.gt(HEIGHT))
+        .orderBy(ACCOUNT_ASSET.ACCOUNT_ID, ACCOUNT_ASSET.ASSET_ID, ACCOUNT_ASSET.HEIGHT)
+        .fetch(record -> record.value1() + "/" + record.value2() + "@" + (record.value3() - HEIGHT));
+  }
+
+  private static void addRewardRecipient(long accountId, int height) {
+    Db.getDSLContext().insertInto(REWARD_RECIP_ASSIGN, REWARD_RECIP_ASSIGN.ACCOUNT_ID, REWARD_RECIP_ASSIGN.PREV_RECIP_ID,
+        REWARD_RECIP_ASSIGN.RECIP_ID, REWARD_RECIP_ASSIGN.FROM_HEIGHT, REWARD_RECIP_ASSIGN.HEIGHT, REWARD_RECIP_ASSIGN.LATEST)
+        .values(accountId, accountId, accountId, HEIGHT + height, HEIGHT + height, false).execute();
+  }
+
+  private static List<String> getRewardRecipients() {
+    return Db.getDSLContext().select(REWARD_RECIP_ASSIGN.ACCOUNT_ID, REWARD_RECIP_ASSIGN.HEIGHT)
+        .from(REWARD_RECIP_ASSIGN).where(REWARD_RECIP_ASSIGN.HEIGHT.gt(HEIGHT))
+        .orderBy(REWARD_RECIP_ASSIGN.ACCOUNT_ID, REWARD_RECIP_ASSIGN.HEIGHT)
+        .fetch(record -> record.value1() + "@" + (record.value2() - HEIGHT));
+  }
+
+}
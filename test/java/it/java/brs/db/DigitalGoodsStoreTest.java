@@ -0,0 +1,213 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.GOODS;
+import static brs.schema.Tables.PURCHASE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import brs.Burst;
+import brs.DigitalGoodsStore;
+import brs.db.BurstIterator;
+import brs.db.sql.Db;
+import brs.db.store.DigitalGoodsStoreStore;
+import it.common.AbstractDbIT;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jooq.Condition;
+import org.jooq.SortField;
+import org.jooq.impl.DSL;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The paged listings and the expired purchases of the store, compared to one plain query over the same rows.
+ */
+public class DigitalGoodsStoreTest extends AbstractDbIT {
+
+  private static final long SELLER = 7_995_001L;
+  private static final long OTHER_SELLER = 7_995_002L;
+  private static final long BUYER = 7_995_011L;
+
+  private static final int[] DEADLINES = { 0, 100, 110, 125, 140, 150, 1_000 };
+
+  @Before
+  public void setUpRows() {
+    // names and timestamps repeat, so pages end within runs of equal ones
+    for (int i = 0; i < 24; i++) {
+      long id = 7_995_100L + i;
+      long sellerId = i % 2 == 0 ? SELLER : OTHER_SELLER;
+      if (i % 5 == 1) {
+        // an older version under another name, which the listings must not see
+        insertGoods(id, sellerId, "goods z", 5, 1, false, 0, false);
+      }
+      insertGoods(id, sellerId, "goods " + (i * 7 % 3), i % 4 / 2 * 10, i % 6, i % 7 == 0, 1, true);
+    }
+    for (int i = 0; i < 24; i++) {
+      long id = 7_995_200L + i;
+      boolean pending = i % 3 != 0;
+      if (i % 4 == 1) {
+        // an older version with another deadline and state, which the expired purchases must not see
+        insertPurchase(id, i % 2 == 0 ? SELLER : OTHER_SELLER, BUYER + i % 3, i % 4 * 10, 50, ! pending, 0, false);
+      }
+      insertPurchase(id, i % 2 == 0 ? SELLER : OTHER_SELLER, BUYER + i % 3, i % 4 * 10, 100 + i % 5 * 10, pending, 1, true);
+    }
+    // the pending deadlines are loaded from the rows inserted above
+    store().flushCache();
+  }
+
+  @Test
+  public void getGoods_pagedAfterTheLastOneMatchesTheUnpagedQuery() {
+    for (long sellerId : new long[] { SELLER, OTHER_SELLER, 0 }) {
+      for (boolean inStockOnly : new boolean[] { false, true }) {
+        List<Long> expected = queryGoodsIds(sellerId, inStockOnly);
+        assertTrue(expected.size() > 3);
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+          assertEquals("Seller " + sellerId + ", in stock only " + inStockOnly + ", pages of " + pageSize,
+              expected, getGoodsIds(sellerId, inStockOnly, pageSize));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void getPurchases_pagedAfterTheLastOneMatchesTheUnpagedQuery() {
+    for (long sellerId : new long[] { SELLER, 0 }) {
+      for (long buyerId : new long[] { BUYER, 0 }) {
+        for (Boolean pending : Arrays.asList(null, true, false)) {
+          List<Long> expected = queryPurchaseIds(sellerId, buyerId, pending);
+          assertTrue(! expected.isEmpty());
+          for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertEquals("Seller " + sellerId + ", buyer " + buyerId + ", pending " + pending + ", pages of " + pageSize,
+                expected, getPurchaseIds(sellerId, buyerId, pending, pageSize));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void getExpiredPendingPurchases_matchesTheDeadlineQuery() {
+    assertExpiredPurchasesMatchQuery();
+
+    // delivered through the table, which takes them off the pending deadlines
+    inTransaction(() -> {
+      for (long id : new long[] { 7_995_202L, 7_995_204L, 7_995_211L }) {
+        DigitalGoodsStore.Purchase purchase = store().getPurchaseTable().get(store().getPurchaseDbKeyFactory().newKey(id));
+        purchase.setPending(false);
+        store().getPurchaseTable().insert(purchase);
+      }
+    });
+    assertExpiredPurchasesMatchQuery();
+
+    // loaded again from the rows
+    store().flushCache();
+    assertExpiredPurchasesMatchQuery();
+  }
+
+  private static void assertExpiredPurchasesMatchQuery() {
+    for (int deadline : DEADLINES) {
+      List<Long> actual = new ArrayList<>();
+      try (BurstIterator<DigitalGoodsStore.Purchase> purchases = store().getExpiredPendingPurchases(deadline)) {
+        purchases.forEachRemaining(purchase -> actual.add(purchase.getId()));
+      }
+      assertEquals("Deadline " + deadline, queryExpiredPurchaseIds(deadline), actual);
+    }
+  }
+
+  private static List<Long> getGoodsIds(long sellerId, boolean inStockOnly, int pageSize) {
+    List<Long> ids = new ArrayList<>();
+    DigitalGoodsStore.Goods after = null;
+    while (true) {
+      List<DigitalGoodsStore.Goods> page = new ArrayList<>();
+      try (BurstIterator<DigitalGoodsStore.Goods> goods = store().getGoods(sellerId, inStockOnly, after, 0, pageSize - 1)) {
+        goods.forEachRemaining(page::add);
+      }
+      page.forEach(goods -> ids.add(goods.getId()));
+      if (page.size() < pageSize) {
+        return ids;
+      }
+      after = page.get(page.size() - 1);
+    }
+  }
+
+  private static List<Long> getPurchaseIds(long sellerId, long buyerId, Boolean pending, int pageSize) {
+    List<Long> ids = new ArrayList<>();
+    DigitalGoodsStore.Purchase after = null;
+    while (true) {
+      List<DigitalGoodsStore.Purchase> page = new ArrayList<>();
+      try (BurstIterator<DigitalGoodsStore.Purchase> purchases = store().getPurchases(sellerId, buyerId, pending, after, 0, pageSize - 1)) {
+        purchases.forEachRemaining(page::add);
+      }
+      page.forEach(purchase -> ids.add(purchase.getId()));
+      if (page.size() < pageSize) {
+        return ids;
+      }
+      after = page.get(page.size() - 1);
+    }
+  }
+
+  private static List<Long> queryGoodsIds(long sellerId, boolean inStockOnly) {
+    List<Condition> conditions = new ArrayList<>();
+    conditions.add(GOODS.LATEST.isTrue());
+    List<SortField<?>> sort = new ArrayList<>();
+    if (sellerId != 0) {
+      conditions.add(GOODS.SELLER_ID.eq(sellerId));
+      sort.add(GOODS.NAME.asc());
+    }
+    if (inStockOnly) {
+      conditions.add(GOODS.DELISTED.isFalse());
+      conditions.add(GOODS.QUANTITY.gt(0));
+    }
+    sort.add(GOODS.TIMESTAMP.desc());
+    sort.add(GOODS.ID.asc());
+    return Db.getDSLContext().select(GOODS.ID).from(GOODS).where(DSL.and(conditions)).orderBy(sort).fetch(GOODS.ID);
+  }
+
+  private static List<Long> queryPurchaseIds(long sellerId, long buyerId, Boolean pending) {
+    List<Condition> conditions = new ArrayList<>();
+    conditions.add(PURCHASE.LATEST.isTrue());
+    if (sellerId != 0) {
+      conditions.add(PURCHASE.SELLER_ID.eq(sellerId));
+    }
+    if (buyerId != 0) {
+      conditions.add(PURCHASE.BUYER_ID.eq(buyerId));
+    }
+    if (pending != null) {
+      conditions.add(PURCHASE.PENDING.eq(pending));
+    }
+    return Db.getDSLContext().select(PURCHASE.ID).from(PURCHASE).where(DSL.and(conditions))
+        .orderBy(PURCHASE.TIMESTAMP.desc(), PURCHASE.ID.asc()).fetch(PURCHASE.ID);
+  }
+
+  /**
+   * The query the expired purchases were read with before the pending deadlines were kept in memory.
+   */
+  private static List<Long> queryExpiredPurchaseIds(int deadline) {
+    return Db.getDSLContext().select(PURCHASE.ID).from(PURCHASE)
+        .where(PURCHASE.DEADLINE.lt(deadline).and(PURCHASE.PENDING.isTrue()).and(PURCHASE.LATEST.isTrue()))
+        .orderBy(PURCHASE.TIMESTAMP.desc(), PURCHASE.ID.asc()).fetch(PURCHASE.ID);
+  }
+
+  private static void insertGoods(long id, long sellerId, String name, int timestamp, int quantity, boolean delisted,
+                                  int height, boolean latest) {
+    Db.getDSLContext().insertInto(GOODS, GOODS.ID, GOODS.SELLER_ID, GOODS.NAME, GOODS.DESCRIPTION, GOODS.TAGS,
+        GOODS.TIMESTAMP, GOODS.QUANTITY, GOODS.PRICE, GOODS.DELISTED, GOODS.HEIGHT, GOODS.LATEST)
+        .values(id, sellerId, name, "description", "tags", timestamp, quantity, 100L, delisted, height, latest).execute();
+  }
+
+  private static void insertPurchase(long id, long sellerId, long buyerId, int timestamp, int deadline, boolean pending,
+                                     int height, boolean latest) {
+    Db.getDSLContext().insertInto(PURCHASE, PURCHASE.ID, PURCHASE.BUYER_ID, PURCHASE.GOODS_ID, PURCHASE.SELLER_ID,
+        PURCHASE.QUANTITY, PURCHASE.PRICE, PURCHASE.DEADLINE, PURCHASE.TIMESTAMP, PURCHASE.PENDING,
+        PURCHASE.HAS_FEEDBACK_NOTES, PURCHASE.HAS_PUBLIC_FEEDBACKS, PURCHASE.DISCOUNT, PURCHASE.REFUND,
+        PURCHASE.HEIGHT, PURCHASE.LATEST)
+        .values(id, buyerId, 7_995_100L, sellerId, 1, 100L, deadline, timestamp, pending, false, false, 0L, 0L, height, latest)
+        .execute();
+  }
+
+  private static DigitalGoodsStoreStore store() {
+    return Burst.getStores().getDigitalGoodsStoreStore();
+  }
+
+}
@@ -0,0 +1,152 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ASSET;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import brs.Account;
+import brs.Burst;
+import brs.db.BurstKey;
+import brs.db.VersionedEntityTable;
+import brs.db.sql.DbKey;
+import brs.db.sql.EntitySqlTable;
+import brs.db.store.AccountStore;
+import brs.db.store.DerivedTableManager;
+import it.common.AbstractDbIT;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.jooq.DSLContext;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EntityCountTest extends AbstractDbIT {
+
+  private static final class Row {
+    private final long id;
+    private final long quantity;
+
+    private Row(long id, long quantity) {
+      this.id = id;
+      this.quantity = quantity;
+    }
+  }
+
+  private static final DbKey.LongKeyFactory<Row> rowKeyFactory = new DbKey.LongKeyFactory<Row>("id") {
+    @Override
+    public BurstKey newKey(Row row) {
+      return newKey(row.id);
+    }
+  };
+
+  // a table without versions, whose saves replace the row of an existing key
+  private EntitySqlTable<Row> mergingTable;
+
+  @Before
+  public void setUpTable() {
+    mergingTable = new EntitySqlTable<Row>("asset", ASSET, rowKeyFactory, mock(DerivedTableManager.class)) {
+      @Override
+      protected Row load(DSLContext ctx, ResultSet rs) throws SQLException {
+        return new Row(rs.getLong("id"), rs.getLong("quantity"));
+      }
+
+      @Override
+      protected void save(DSLContext ctx, Row row) {
+        ctx.mergeInto(ASSET, ASSET.ID, ASSET.ACCOUNT_ID, ASSET.NAME, ASSET.QUANTITY, ASSET.DECIMALS, ASSET.HEIGHT)
+            .key(ASSET.ID).values(row.id, 0L, "count", row.quantity, (byte) 0, 0).execute();
+      }
+    };
+  }
+
+  @Test
+  public void insert_countsNewKeysOnly() {
+    int count = mergingTable.getCount();
+
+    inTransaction(() -> {
+      mergingTable.insert(new Row(7_950_001L, 1));
+      mergingTable.insert(new Row(7_950_002L, 1));
+    });
+    assertEquals(count + 2, mergingTable.getCount());
+
+    inTransaction(() -> {
+      mergingTable.insert(new Row(7_950_001L, 5));
+      mergingTable.insert(new Row(7_950_003L, 1));
+    });
+    assertEquals(count + 3, mergingTable.getCount());
+    assertEquals(mergingTable.getRowCount(), mergingTable.getCount());
+  }
+
+  @Test
+  public void insert_ofRolledBackTransactionIsNotCounted() {
+    int count = mergingTable.getCount();
+
+    inRolledBackTransaction(() -> {
+      mergingTable.insert(new Row(7_950_011L, 1));
+      return null;
+    });
+
+    assertEquals(count, mergingTable.getCount());
+    assertEquals(mergingTable.getRowCount(), mergingTable.getCount());
+  }
+
+  @Test
+  public void insert_ofTableNotReusingKeysCountsEveryWrite() {
+    final EntitySqlTable<Row> appendingTable = new EntitySqlTable<Row>("asset", ASSET, rowKeyFactory, mock(DerivedTableManager.class)) {
+      @Override
+      protected Row load(DSLContext ctx, ResultSet rs) throws SQLException {
+        return new Row(rs.getLong("id"), rs.getLong("quantity"));
+      }
+
+      @Override
+      protected void save(DSLContext ctx, Row row) {
+        ctx.insertInto(ASSET, ASSET.ID, ASSET.ACCOUNT_ID, ASSET.NAME, ASSET.QUANTITY, ASSET.DECIMALS, ASSET.HEIGHT)
+            .values(row.id, 0L, "count", row.quantity, (byte) 0, 0).execute();
+      }
+
+      @Override
+      protected boolean reusesKeys() {
+        return false;
+      }
+    };
+    int count = appendingTable.getCount();
+
+    inTransaction(() -> {
+      appendingTable.insert(new Row(7_950_041L, 1));
+      appendingTable.insert(new Row(7_950_042L, 1));
+    });
+    inTransaction(() -> appendingTable.insert(new Row(7_950_043L, 1)));
+
+    assertEquals(count + 3, appendingTable.getCount());
+    assertEquals(appendingTable.getRowCount(), appendingTable.getCount());
+  }
+
+  @Test
+  public void versionedTable_countsNewKeysAndDeletes() {
+    VersionedEntityTable<Account.RewardRecipientAssignment> table = accountStore().getRewardRecipientAssignmentTable();
+    int count = table.getCount();
+
+    inTransaction(() -> table.insert(assignment(7_950_021L, 7_950_031L)));
+    assertEquals(count + 1, table.getCount());
+
+    inTransaction(() -> table.insert(assignment(7_950_021L, 7_950_032L)));
+    assertEquals(count + 1, table.getCount());
+
+    inRolledBackTransaction(() -> {
+      table.insert(assignment(7_950_022L, 7_950_031L));
+      return null;
+    });
+    assertEquals(count + 1, table.getCount());
+
+    inTransaction(() -> table.delete(table.get(accountStore().getRewardRecipientAssignmentKeyFactory().newKey(7_950_021L))));
+    assertEquals(count, table.getCount());
+  }
+
+  private static AccountStore accountStore() {
+    return Burst.getStores().getAccountStore();
+  }
+
+  private static Account.RewardRecipientAssignment assignment(long accountId, long recipientId) {
+    return new Account.RewardRecipientAssignment(accountId, accountId, recipientId, 0,
+        accountStore().getRewardRecipientAssignmentKeyFactory().newKey(accountId));
+  }
+
+}
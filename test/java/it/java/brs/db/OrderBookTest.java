@@ -0,0 +1,209 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ASK_ORDER;
+import static brs.schema.Tables.BID_ORDER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import brs.Burst;
+import brs.Order;
+import brs.db.BurstIterator;
+import brs.db.BurstKey;
+import brs.db.sql.Db;
+import brs.db.store.OrderStore;
+import it.common.AbstractDbIT;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class OrderBookTest extends AbstractDbIT {
+
+  private static final long ACCOUNT = 7_900_000L;
+
+  @Test
+  public void sortedAsks_followPriceHeightAndIdLikeTheTable() {
+    long assetId = 7_900_001L;
+    inTransaction(() -> {
+      insertAsk(7_900_105L, assetId, 20, 5);
+      insertAsk(7_900_104L, assetId, 10, 7);
+      insertAsk(7_900_103L, assetId, 10, 5);
+      insertAsk(7_900_102L, assetId, 10, 5);
+      insertAsk(7_900_101L, assetId, 30, 1);
+    });
+
+    List<Long> expected = Arrays.asList(7_900_102L, 7_900_103L, 7_900_104L, 7_900_105L, 7_900_101L);
+    assertEquals(expected, queryAskIds(assetId));
+    assertEquals(expected, getAskIds(assetId, 0, -1));
+    assertEquals(expected.subList(1, 3), getAskIds(assetId, 1, 2));
+    assertEquals(7_900_102L, orderStore().getNextOrder(assetId).getId());
+  }
+
+  @Test
+  public void sortedBids_followPriceDescendingHeightAndIdLikeTheTable() {
+    long assetId = 7_900_002L;
+    inTransaction(() -> {
+      insertBid(7_900_205L, assetId, 20, 5);
+      insertBid(7_900_204L, assetId, 30, 7);
+      insertBid(7_900_203L, assetId, 30, 5);
+      insertBid(7_900_202L, assetId, 30, 5);
+      insertBid(7_900_201L, assetId, 10, 1);
+    });
+
+    List<Long> expected = Arrays.asList(7_900_202L, 7_900_203L, 7_900_204L, 7_900_205L, 7_900_201L);
+    assertEquals(expected, queryBidIds(assetId));
+    assertEquals(expected, getBidIds(assetId, 0, -1));
+    assertEquals(expected.subList(3, 5), getBidIds(assetId, 3, 10));
+    assertEquals(7_900_202L, orderStore().getNextBid(assetId).getId());
+  }
+
+  @Test
+  public void partialFill_keepsThePositionAndUpdatesTheQuantity() {
+    long assetId = 7_900_003L;
+    inTransaction(() -> {
+      insertAsk(7_900_302L, assetId, 10, 5);
+      insertAsk(7_900_301L, assetId, 20, 5);
+    });
+
+    inTransaction(() -> {
+      Order.Ask ask = orderStore().getNextOrder(assetId);
+      ask.setQuantityQNT(400);
+      orderStore().getAskOrderTable().insert(ask);
+    });
+
+    assertEquals(Arrays.asList(7_900_302L, 7_900_301L), getAskIds(assetId, 0, -1));
+    assertEquals(queryAskIds(assetId), getAskIds(assetId, 0, -1));
+    assertEquals(400, orderStore().getNextOrder(assetId).getQuantityQNT());
+  }
+
+  @Test
+  public void cancellation_removesTheOrder() {
+    long assetId = 7_900_004L;
+    inTransaction(() -> {
+      insertBid(7_900_402L, assetId, 20, 5);
+      insertBid(7_900_401L, assetId, 10, 5);
+    });
+
+    inTransaction(() -> {
+      orderStore().getBidOrderTable().delete(orderStore().getNextBid(assetId));
+    });
+
+    assertEquals(Arrays.asList(7_900_401L), getBidIds(assetId, 0, -1));
+    assertEquals(queryBidIds(assetId), getBidIds(assetId, 0, -1));
+  }
+
+  @Test
+  public void rollback_restoresTheCommittedBook() {
+    long assetId = 7_900_005L;
+    inTransaction(() -> {
+      insertAsk(7_900_502L, assetId, 10, 5);
+      insertAsk(7_900_501L, assetId, 20, 5);
+    });
+
+    long nextInTransaction = inRolledBackTransaction(() -> {
+      insertAsk(7_900_503L, assetId, 5, 6);
+      orderStore().getAskOrderTable().delete(orderStore().getAskOrderTable().get(askKey(7_900_501L)));
+      assertEquals(Arrays.asList(7_900_503L, 7_900_502L), getAskIds(assetId, 0, -1));
+      return orderStore().getNextOrder(assetId).getId();
+    });
+
+    assertEquals(7_900_503L, nextInTransaction);
+    assertEquals(Arrays.asList(7_900_502L, 7_900_501L), getAskIds(assetId, 0, -1));
+    assertEquals(queryAskIds(assetId), getAskIds(assetId, 0, -1));
+  }
+
+  @Test
+  public void flushCache_reloadsTheBooksInTheOrderOfTheTable() {
+    long assetId = 7_900_006L;
+    inTransaction(() -> {
+      insertAsk(7_900_602L, assetId, 10, 5);
+      insertBid(7_900_612L, assetId, 5, 5);
+    });
+    assertEquals(Arrays.asList(7_900_602L), getAskIds(assetId, 0, -1));
+    assertEquals(Arrays.asList(7_900_612L), getBidIds(assetId, 0, -1));
+
+    // written to the tables directly, the books do not know about these yet
+    addAskRow(7_900_603L, assetId, 10, 4);
+    addAskRow(7_900_601L, assetId, 10, 5);
+    addBidRow(7_900_611L, assetId, 5, 5);
+    addBidRow(7_900_613L, assetId, 6, 9);
+    orderStore().flushCache();
+
+    assertEquals(Arrays.asList(7_900_603L, 7_900_601L, 7_900_602L), getAskIds(assetId, 0, -1));
+    assertEquals(queryAskIds(assetId), getAskIds(assetId, 0, -1));
+    assertEquals(Arrays.asList(7_900_613L, 7_900_611L, 7_900_612L), getBidIds(assetId, 0, -1));
+    assertEquals(queryBidIds(assetId), getBidIds(assetId, 0, -1));
+  }
+
+  @Test
+  public void emptyBook_hasNoNextOrder() {
+    assertNull(orderStore().getNextOrder(7_900_007L));
+    assertNull(orderStore().getNextBid(7_900_007L));
+  }
+
+  private static OrderStore orderStore() {
+    return Burst.getStores().getOrderStore();
+  }
+
+  private static BurstKey askKey(long id) {
+    return orderStore().getAskOrderDbKeyFactory().newKey(id);
+  }
+
+  private static void insertAsk(long id, long assetId, long price, int height) {
+    orderStore().getAskOrderTable().insert(new Order.Ask(id, ACCOUNT, assetId, price, height, 100, askKey(id)));
+  }
+
+  private static void insertBid(long id, long assetId, long price, int height) {
+    orderStore().getBidOrderTable().insert(new Order.Bid(id, ACCOUNT, assetId, price, height, 100,
+        orderStore().getBidOrderDbKeyFactory().newKey(id)));
+  }
+
+  private static void addAskRow(long id, long assetId, long price, int height) {
+    Db.getDSLContext().insertInto(ASK_ORDER, ASK_ORDER.ID, ASK_ORDER.ACCOUNT_ID, ASK_ORDER.ASSET_ID, ASK_ORDER.PRICE,
+        ASK_ORDER.QUANTITY, ASK_ORDER.CREATION_HEIGHT, ASK_ORDER.HEIGHT, ASK_ORDER.LATEST)
+        .values(id, ACCOUNT, assetId, price, 100L, height, height, true).execute();
+  }
+
+  private static void addBidRow(long id, long assetId, long price, int height) {
+    Db.getDSLContext().insertInto(BID_ORDER, BID_ORDER.ID, BID_ORDER.ACCOUNT_ID, BID_ORDER.ASSET_ID, BID_ORDER.PRICE,
+        BID_ORDER.QUANTITY, BID_ORDER.CREATION_HEIGHT, BID_ORDER.HEIGHT, BID_ORDER.LATEST)
+        .values(id, ACCOUNT, assetId, price, 100L, height, height, true).execute();
+  }
+
+  /**
+   * The order of the query the ask book replaced.
+   */
+  private static List<Long> queryAskIds(long assetId) {
+    return Db.getDSLContext().select(ASK_ORDER.ID).from(ASK_ORDER)
+        .where(ASK_ORDER.ASSET_ID.eq(assetId)).and(ASK_ORDER.LATEST.isTrue())
+        .orderBy(ASK_ORDER.PRICE.asc(), ASK_ORDER.CREATION_HEIGHT.asc(), ASK_ORDER.ID.asc())
+        .fetch(ASK_ORDER.ID);
+  }
+
+  /**
+   * The order of the query the bid book replaced.
+   */
+  private static List<Long> queryBidIds(long assetId) {
+    return Db.getDSLContext().select(BID_ORDER.ID).from(BID_ORDER)
+        .where(BID_ORDER.ASSET_ID.eq(assetId)).and(BID_ORDER.LATEST.isTrue())
+        .orderBy(BID_ORDER.PRICE.desc(), BID_ORDER.CREATION_HEIGHT.asc(), BID_ORDER.ID.asc())
+        .fetch(BID_ORDER.ID);
+  }
+
+  private static List<Long> getAskIds(long assetId, int from, int to) {
+    return ids(orderStore().getSortedAsks(assetId, from, to));
+  }
+
+  private static List<Long> getBidIds(long assetId, int from, int to) {
+    return ids(orderStore().getSortedBids(assetId, from, to));
+  }
+
+  private static List<Long> ids(BurstIterator<? extends Order> orders) {
+    List<Long> ids = new ArrayList<>();
+    try (BurstIterator<? extends Order> iterator = orders) {
+      iterator.forEachRemaining(order -> ids.add(order.getId()));
+    }
+    return ids;
+  }
+
+}
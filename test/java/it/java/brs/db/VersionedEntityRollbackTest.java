@@ -0,0 +1,87 @@
+package it.java.brs.db;
+
+import static brs.schema.Tables.ACCOUNT_ASSET;
+import static brs.schema.Tables.REWARD_RECIP_ASSIGN;
+import static org.junit.Assert.assertEquals;
+
+import brs.Burst;
+import brs.db.sql.Db;
+import it.common.AbstractDbIT;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class VersionedEntityRollbackTest extends AbstractDbIT {
+
+  // far above the chain of the test node, whose rows must not be affected
+  private static final int HEIGHT = 1_000_000;
+
+  private static final long ACCOUNT_1 = 7_700_001L;
+  private static final long ACCOUNT_2 = 7_700_002L;
+
+  @Test
+  public void rollback_restoresLatestOfKeysWithNewerRowsOnly() {
+    // newer rows above the rollback height, the newest older row becomes the latest
+    addAccountAsset(ACCOUNT_1, 100, 5, false);
+    addAccountAsset(ACCOUNT_1, 100, 8, false);
+    addAccountAsset(ACCOUNT_1, 100, 12, true);
+    // same first key column, no newer rows
+    addAccountAsset(ACCOUNT_1, 300, 4, false);
+    addAccountAsset(ACCOUNT_1, 300, 6, true);
+    // no newer rows at all
+    addAccountAsset(ACCOUNT_2, 100, 3, false);
+    addAccountAsset(ACCOUNT_2, 100, 7, true);
+    // created above the rollback height
+    addAccountAsset(ACCOUNT_2, 200, 15, true);
+
+    inTransaction(() -> Burst.getStores().getAccountStore().getAccountAssetTable().rollback(HEIGHT + 10));
+
+    assertEquals(Arrays.asList(5, 8), getAccountAssetHeights(ACCOUNT_1, 100, false));
+    assertEquals(Collections.singletonList(8), getAccountAssetHeights(ACCOUNT_1, 100, true));
+    assertEquals(Collections.singletonList(6), getAccountAssetHeights(ACCOUNT_1, 300, true));
+    assertEquals(Arrays.asList(3, 7), getAccountAssetHeights(ACCOUNT_2, 100, false));
+    assertEquals(Collections.singletonList(7), getAccountAssetHeights(ACCOUNT_2, 100, true));
+    assertEquals(Collections.emptyList(), getAccountAssetHeights(ACCOUNT_2, 200, false));
+  }
+
+  @Test
+  public void rollback_restoresLatestOfSingleColumnKeys() {
+    addRewardRecipient(ACCOUNT_1, 5, false);
+    addRewardRecipient(ACCOUNT_1, 11, true);
+    addRewardRecipient(ACCOUNT_2, 4, true);
+
+    inTransaction(() -> Burst.getStores().getAccountStore().getRewardRecipientAssignmentTable().rollback(HEIGHT + 10));
+
+    assertEquals(Collections.singletonList(5), getRewardRecipientHeights(ACCOUNT_1, false));
+    assertEquals(Collections.singletonList(5), getRewardRecipientHeights(ACCOUNT_1, true));
+    assertEquals(Collections.singletonList(4), getRewardRecipientHeights(ACCOUNT_2, true));
+  }
+
+  private static void addAccountAsset(long accountId, long assetId, int height, boolean latest) {
+    Db.getDSLContext().insertInto(ACCOUNT_ASSET, ACCOUNT_ASSET.ACCOUNT_ID, ACCOUNT_ASSET.ASSET_ID, ACCOUNT_ASSET.QUANTITY,
+        ACCOUNT_ASSET.UNCONFIRMED_QUANTITY, ACCOUNT_ASSET.HEIGHT, ACCOUNT_ASSET.LATEST)
+        .values(accountId, assetId, 1L, 1L, HEIGHT + height, latest).execute();
+  }
+
+  private static List<Integer> getAccountAssetHeights(long accountId, long assetId, boolean latestOnly) {
+    return Db.getDSLContext().select(ACCOUNT_ASSET.HEIGHT).from(ACCOUNT_ASSET)
+        .where(ACCOUNT_ASSET.ACCOUNT_ID.eq(accountId)).and(ACCOUNT_ASSET.ASSET_ID.eq(assetId))
+        .and(latestOnly ? ACCOUNT_ASSET.LATEST.isTrue() : ACCOUNT_ASSET.LATEST.isNotNull())
+        .orderBy(ACCOUNT_ASSET.HEIGHT).fetch(record -> record.value1() - HEIGHT);
+  }
+
+  private static void addRewardRecipient(long accountId, int height, boolean latest) {
+    Db.getDSLContext().insertInto(REWARD_RECIP_ASSIGN, REWARD_RECIP_ASSIGN.ACCOUNT_ID, REWARD_RECIP_ASSIGN.PREV_RECIP_ID,
+        REWARD_RECIP_ASSIGN.RECIP_ID, REWARD_RECIP_ASSIGN.FROM_HEIGHT, REWARD_RECIP_ASSIGN.HEIGHT, REWARD_RECIP_ASSIGN.LATEST)
+        .values(accountId, accountId, accountId, HEIGHT + height, HEIGHT + height, latest).execute();
+  }
+
+  private static List<Integer> getRewardRecipientHeights(long accountId, boolean latestOnly) {
+    return Db.getDSLContext().select(REWARD_RECIP_ASSIGN.HEIGHT).from(REWARD_RECIP_ASSIGN)
+        .where(REWARD_RECIP_ASSIGN.ACCOUNT_ID.eq(accountId))
+        .and(latestOnly ? REWARD_RECIP_ASSIGN.LATEST.isTrue() : REWARD_RECIP_ASSIGN.LATEST.isNotNull())
+        .orderBy(REWARD_RECIP_ASSIGN.HEIGHT).fetch(record -> record.value1() - HEIGHT);
+  }
+
+}